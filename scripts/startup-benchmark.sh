@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+#
+# Measures the time from JVM start until the application is ready for traffic, as reported by
+# StartupTimeReporter, for the default and the fast-start mode.
+#
+# Build first with:  ./mvnw -Pfast-start -DskipTests package
+# Usage:             scripts/startup-benchmark.sh [runs]
+
+set -euo pipefail
+
+runs="${1:-5}"
+cd "$(dirname "$0")/.."
+
+jar="$(ls target/InkifyAI-*.jar | grep -v '\.original$' | head -n 1)"
+fast_start_dir="target/fast-start"
+fast_start_jar="${fast_start_dir}/$(basename "${jar}")"
+
+if [[ ! -f "${fast_start_jar}" || ! -f "${fast_start_dir}/application.jsa" ]]; then
+  echo "Fast-start build not found, run ./mvnw -Pfast-start -DskipTests package first" >&2
+  exit 1
+fi
+
+# Starts the application with the given JVM arguments and prints its time to ready in ms.
+time_to_ready() {
+  local log
+  log="$(mktemp)"
+  java "$@" --server.port=0 --llm.ollama.warmup.enabled=false >"${log}" 2>&1 &
+  local pid=$!
+  local ready=""
+  for _ in $(seq 1 600); do
+    ready="$(sed -n 's/.*Ready for traffic \([0-9]*\) ms after JVM start.*/\1/p' "${log}")"
+    if [[ -n "${ready}" ]] || ! kill -0 "${pid}" 2>/dev/null; then
+      break
+    fi
+    sleep 0.1
+  done
+  kill "${pid}" 2>/dev/null || true
+  wait "${pid}" 2>/dev/null || true
+  if [[ -z "${ready}" ]]; then
+    echo "Application did not become ready, see ${log}" >&2
+    exit 1
+  fi
+  rm -f "${log}"
+  echo "${ready}"
+}
+
+# Runs the given mode several times and prints the individual and the average times.
+benchmark() {
+  local mode="$1"
+  shift
+  local total=0
+  local times=()
+  for _ in $(seq 1 "${runs}"); do
+    local ms
+    ms="$(time_to_ready "$@")"
+    times+=("${ms}")
+    total=$((total + ms))
+  done
+  printf '%-12s avg %6d ms  (%s)\n' "${mode}" $((total / runs)) "${times[*]}"
+}
+
+benchmark "default" -jar "${jar}"
+benchmark "fast-start" \
+  -XX:SharedArchiveFile="${fast_start_dir}/application.jsa" \
+  -Dspring.aot.enabled=true \
+  -Dspring.profiles.active=fast-start \
+  -jar "${fast_start_jar}"
@@ -0,0 +1,13 @@
+package io.github.jenderenco.inkifyai.cache;
+
+/**
+ * The exclusive right to compute a missing cache value. Holding the lease tells other threads and
+ * nodes to wait for the value instead of computing it themselves.
+ */
+@FunctionalInterface
+public interface CacheLease extends AutoCloseable {
+
+  /** Releases the lease. Releasing it twice has no effect. */
+  @Override
+  void close();
+}
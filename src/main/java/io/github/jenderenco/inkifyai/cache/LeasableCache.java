@@ -0,0 +1,32 @@
+package io.github.jenderenco.inkifyai.cache;
+
+import java.util.Optional;
+import org.springframework.cache.Cache;
+
+/**
+ * A cache that coordinates the computation of missing values, so that a value missing on several
+ * nodes at once is computed only once. Callers that cannot use {@link Cache#get(Object,
+ * java.util.concurrent.Callable)}, for example because the value is produced by a stream, take a
+ * lease before computing the value, or wait for the value if someone else holds the lease.
+ */
+public interface LeasableCache extends Cache {
+
+  /**
+   * Tries to take the lease for computing the value of the given key.
+   *
+   * @param key the key
+   * @return the lease, or empty if another thread or node holds it
+   */
+  Optional<CacheLease> tryLease(Object key);
+
+  /**
+   * Waits until the holder of the lease has stored the value, it gave up the lease, or the lease
+   * duration has passed. This method blocks.
+   *
+   * @param key the key
+   * @param type the type of the value
+   * @param <T> the type of the value
+   * @return the value, or null if it did not become available
+   */
+  <T> T await(Object key, Class<T> type);
+}
@@ -0,0 +1,52 @@
+package io.github.jenderenco.inkifyai.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** A bounded, least-recently-used in-memory tier whose entries expire after a fixed time. */
+final class LocalCacheTier {
+
+  private final long ttlNanos;
+  private final Map<Object, Entry> entries;
+
+  LocalCacheTier(int maxEntries, long ttlNanos) {
+    this.ttlNanos = ttlNanos;
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+            return size() > maxEntries;
+          }
+        };
+  }
+
+  synchronized Object get(Object key) {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (System.nanoTime() - entry.storedAt() > ttlNanos) {
+      entries.remove(key);
+      return null;
+    }
+    return entry.value();
+  }
+
+  synchronized void put(Object key, Object value) {
+    entries.put(key, new Entry(value, System.nanoTime()));
+  }
+
+  synchronized void evict(Object key) {
+    entries.remove(key);
+  }
+
+  synchronized void clear() {
+    entries.clear();
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  private record Entry(Object value, long storedAt) {}
+}
@@ -0,0 +1,230 @@
+package io.github.jenderenco.inkifyai.cache;
+
+import io.github.jenderenco.inkifyai.cache.shared.SharedCacheStore;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * A cache with a bounded local tier per node and an optional tier shared by all nodes. Reads try
+ * the local tier first and populate it from the shared tier; writes go to both tiers.
+ *
+ * <p>Missing values are computed under a lease: a local one, so that concurrent requests on this
+ * node compute a value once, and a shared one, so that the nodes of a cluster do. Whoever does not
+ * get the lease waits for the value, and computes it itself only if the holder gives up or the
+ * lease expires. Whoever gets the lease looks for the value once more before computing it, since
+ * another node may have stored it and released its lease in the meantime.
+ *
+ * <p>Only strings are stored in the shared tier, as UTF-8 text; other values stay in the local
+ * tier. Values are never deserialized as objects, since anyone able to write to the shared tier
+ * could otherwise run code on every node.
+ */
+public class TieredCache extends AbstractValueAdaptingCache implements LeasableCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TieredCache.class);
+
+  private static final byte STRING_VALUE = 'S';
+
+  private final String name;
+  private final LocalCacheTier local;
+  private final SharedCacheStore shared;
+  private final Duration ttl;
+  private final Duration leaseDuration;
+  private final Duration pollInterval;
+  private final Map<Object, Object> localLeases = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs a new TieredCache.
+   *
+   * @param name the name of the cache
+   * @param maxEntries the maximum number of entries in the local tier
+   * @param ttl how long entries stay valid
+   * @param shared the shared tier, or null for a local-only cache
+   * @param leaseDuration how long a lease for computing a value is valid
+   * @param pollInterval how often waiters check for the value
+   */
+  public TieredCache(
+      String name,
+      int maxEntries,
+      Duration ttl,
+      SharedCacheStore shared,
+      Duration leaseDuration,
+      Duration pollInterval) {
+    super(false);
+    this.name = name;
+    this.local = new LocalCacheTier(maxEntries, ttl.toNanos());
+    this.shared = shared;
+    this.ttl = ttl;
+    this.leaseDuration = leaseDuration;
+    this.pollInterval = pollInterval;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return local;
+  }
+
+  @Override
+  protected Object lookup(Object key) {
+    Object value = local.get(key);
+    if (value != null || shared == null) {
+      return value;
+    }
+
+    value = shared.get(name, key.toString()).map(this::deserialize).orElse(null);
+    if (value != null) {
+      local.put(key, value);
+    }
+    return value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    ValueWrapper cached = get(key);
+    if (cached != null) {
+      return (T) cached.get();
+    }
+
+    Optional<CacheLease> lease = tryLease(key);
+    if (lease.isEmpty()) {
+      T value = (T) awaitValue(key);
+      if (value != null) {
+        return value;
+      }
+      LOG.debug("No value for {} in cache {} after waiting, computing it", key, name);
+    }
+
+    try {
+      if (lease.isPresent()) {
+        Object stored = lookup(key);
+        if (stored != null) {
+          return (T) fromStoreValue(stored);
+        }
+      }
+      T value = valueLoader.call();
+      put(key, value);
+      return value;
+    } catch (Exception e) {
+      throw new ValueRetrievalException(key, valueLoader, e);
+    } finally {
+      lease.ifPresent(CacheLease::close);
+    }
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    Object stored = toStoreValue(value);
+    local.put(key, stored);
+    if (shared != null) {
+      byte[] serialized = serialize(stored);
+      if (serialized != null) {
+        shared.put(name, key.toString(), serialized, ttl);
+      }
+    }
+  }
+
+  @Override
+  public void evict(Object key) {
+    local.evict(key);
+    if (shared != null) {
+      shared.evict(name, key.toString());
+    }
+  }
+
+  @Override
+  public void clear() {
+    local.clear();
+    if (shared != null) {
+      shared.clear(name);
+    }
+  }
+
+  @Override
+  public Optional<CacheLease> tryLease(Object key) {
+    Object token = new Object();
+    if (localLeases.putIfAbsent(key, token) != null) {
+      return Optional.empty();
+    }
+    CacheLease localLease = () -> localLeases.remove(key, token);
+    if (shared == null) {
+      return Optional.of(localLease);
+    }
+
+    Optional<CacheLease> sharedLease = shared.tryLease(name, key.toString(), leaseDuration);
+    if (sharedLease.isEmpty()) {
+      localLease.close();
+      return Optional.empty();
+    }
+    return Optional.of(
+        () -> {
+          sharedLease.get().close();
+          localLease.close();
+        });
+  }
+
+  @Override
+  public <T> T await(Object key, Class<T> type) {
+    Object value = awaitValue(key);
+    return type.isInstance(value) ? type.cast(value) : null;
+  }
+
+  private Object awaitValue(Object key) {
+    long deadline = System.nanoTime() + leaseDuration.toNanos();
+    while (System.nanoTime() < deadline) {
+      Object value = lookup(key);
+      if (value != null) {
+        return fromStoreValue(value);
+      }
+      if (!isLeased(key)) {
+        // The holder gave up; one last look in case it stored the value just before
+        value = lookup(key);
+        return value != null ? fromStoreValue(value) : null;
+      }
+      LockSupport.parkNanos(pollInterval.toNanos());
+      if (Thread.currentThread().isInterrupted()) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  private boolean isLeased(Object key) {
+    if (localLeases.containsKey(key)) {
+      return true;
+    }
+    return shared != null && shared.isLeased(name, key.toString());
+  }
+
+  private byte[] serialize(Object value) {
+    if (value instanceof String text) {
+      byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+      byte[] serialized = new byte[bytes.length + 1];
+      serialized[0] = STRING_VALUE;
+      System.arraycopy(bytes, 0, serialized, 1, bytes.length);
+      return serialized;
+    }
+    LOG.debug("Keeping non-string value of cache {} local", name);
+    return null;
+  }
+
+  private Object deserialize(byte[] serialized) {
+    if (serialized.length == 0 || serialized[0] != STRING_VALUE) {
+      LOG.warn("Ignoring shared entry of cache {} that is not a string", name);
+      return null;
+    }
+    return new String(serialized, 1, serialized.length - 1, StandardCharsets.UTF_8);
+  }
+}
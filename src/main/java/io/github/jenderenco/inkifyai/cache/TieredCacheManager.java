@@ -0,0 +1,59 @@
+package io.github.jenderenco.inkifyai.cache;
+
+import io.github.jenderenco.inkifyai.cache.config.CacheProperties;
+import io.github.jenderenco.inkifyai.cache.shared.SharedCacheStore;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Creates {@link TieredCache}s on demand, sized from the cache properties, all sharing the same
+ * shared tier.
+ */
+public class TieredCacheManager implements CacheManager {
+
+  private final CacheProperties properties;
+  private final Map<String, CacheProperties.Spec> specs;
+  private final SharedCacheStore shared;
+  private final Map<String, TieredCache> caches = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs a new TieredCacheManager.
+   *
+   * @param properties the cache properties
+   * @param specs the size and lifetime per cache name, overriding the defaults
+   * @param shared the shared tier, or null for local-only caches
+   */
+  public TieredCacheManager(
+      CacheProperties properties,
+      Map<String, CacheProperties.Spec> specs,
+      SharedCacheStore shared) {
+    this.properties = properties;
+    this.specs = Map.copyOf(specs);
+    this.shared = shared;
+  }
+
+  @Override
+  public Cache getCache(String name) {
+    return caches.computeIfAbsent(name, this::createCache);
+  }
+
+  @Override
+  public Collection<String> getCacheNames() {
+    return Set.copyOf(caches.keySet());
+  }
+
+  private TieredCache createCache(String name) {
+    CacheProperties.Spec spec = specs.getOrDefault(name, properties.defaults());
+    return new TieredCache(
+        name,
+        spec.maxEntries(),
+        spec.ttl(),
+        shared,
+        properties.shared().leaseDuration(),
+        properties.shared().pollInterval());
+  }
+}
@@ -0,0 +1,45 @@
+package io.github.jenderenco.inkifyai.cache.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the two-tier cache.
+ *
+ * @param shared settings for the tier shared between application nodes
+ * @param caches size and lifetime per cache name; caches not listed use {@code defaults}
+ * @param defaults the size and lifetime of caches not listed in {@code caches}
+ */
+@ConfigurationProperties(prefix = "cache")
+public record CacheProperties(Shared shared, Map<String, Spec> caches, Spec defaults) {
+
+  /** The kind of shared tier. */
+  public enum SharedType {
+    /** No shared tier; every node only uses its local tier. */
+    NONE,
+    /** A directory on a filesystem mounted by all nodes. */
+    FILESYSTEM
+  }
+
+  /**
+   * Settings for the shared tier.
+   *
+   * @param type the kind of shared tier
+   * @param directory the shared directory, for the filesystem tier
+   * @param leaseDuration how long a node may hold the lease for computing a missing value; other
+   *     nodes wait at most this long for the value
+   * @param pollInterval how often waiting nodes check for the value
+   */
+  public record Shared(
+      SharedType type, Path directory, Duration leaseDuration, Duration pollInterval) {}
+
+  /**
+   * The size and lifetime of a cache.
+   *
+   * @param maxEntries the maximum number of entries in the local tier of each node
+   * @param ttl how long entries stay valid in both tiers
+   */
+  public record Spec(int maxEntries, Duration ttl) {}
+}
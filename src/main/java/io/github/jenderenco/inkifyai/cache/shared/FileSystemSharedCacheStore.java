@@ -0,0 +1,311 @@
+package io.github.jenderenco.inkifyai.cache.shared;
+
+import io.github.jenderenco.inkifyai.cache.CacheLease;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A shared cache tier in a directory on a filesystem mounted by all nodes, such as NFS or a shared
+ * volume. Each entry is a file named after the SHA-256 hash of its key, holding the expiry time and
+ * the value. Entries are written to a temporary file and moved into place atomically, so readers
+ * never see partial values. Leases are lock files holding a random token and an expiry time. They
+ * are written to a temporary file first and then hard-linked into place, which fails if the lease
+ * exists, so a lease is never visible before its content is. Expired leases of crashed nodes are
+ * broken by the next node asking for them; a lease that cannot be read counts as held until it is
+ * older than the lease duration. Leases are broken and released by renaming them to a unique name
+ * first, which only one node can do, and checking that the renamed lease is the expired or own one,
+ * so a node never deletes a lease another node has just taken.
+ *
+ * <p>I/O errors are logged and treated as cache misses, so an unavailable share slows nodes down
+ * but does not fail requests.
+ */
+public class FileSystemSharedCacheStore implements SharedCacheStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FileSystemSharedCacheStore.class);
+
+  private static final String ENTRY_SUFFIX = ".entry";
+  private static final String LEASE_SUFFIX = ".lease";
+
+  private final Path directory;
+
+  public FileSystemSharedCacheStore(Path directory) {
+    this.directory = directory;
+  }
+
+  @Override
+  public Optional<byte[]> get(String cacheName, String key) {
+    Path entry = entryPath(cacheName, key);
+    try {
+      ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(entry));
+      long expiresAt = content.getLong();
+      if (System.currentTimeMillis() > expiresAt) {
+        Files.deleteIfExists(entry);
+        return Optional.empty();
+      }
+      byte[] value = new byte[content.remaining()];
+      content.get(value);
+      return Optional.of(value);
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException e) {
+      LOG.warn("Failed to read shared cache entry {}: {}", entry, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public void put(String cacheName, String key, byte[] value, Duration ttl) {
+    Path entry = entryPath(cacheName, key);
+    ByteBuffer content = ByteBuffer.allocate(Long.BYTES + value.length);
+    content.putLong(System.currentTimeMillis() + ttl.toMillis()).put(value);
+    try {
+      writeAtomically(entry, content.array());
+    } catch (IOException e) {
+      LOG.warn("Failed to write shared cache entry {}: {}", entry, e.getMessage());
+    }
+  }
+
+  @Override
+  public void evict(String cacheName, String key) {
+    Path entry = entryPath(cacheName, key);
+    try {
+      Files.deleteIfExists(entry);
+    } catch (IOException e) {
+      LOG.warn("Failed to evict shared cache entry {}: {}", entry, e.getMessage());
+    }
+  }
+
+  @Override
+  public void clear(String cacheName) {
+    Path cacheDirectory = directory.resolve(cacheName);
+    if (!Files.isDirectory(cacheDirectory)) {
+      return;
+    }
+    try (DirectoryStream<Path> entries =
+        Files.newDirectoryStream(cacheDirectory, "*" + ENTRY_SUFFIX)) {
+      for (Path entry : entries) {
+        Files.deleteIfExists(entry);
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to clear shared cache {}: {}", cacheDirectory, e.getMessage());
+    }
+  }
+
+  @Override
+  public Optional<CacheLease> tryLease(String cacheName, String key, Duration duration) {
+    Path lease = leasePath(cacheName, key);
+    String token = UUID.randomUUID().toString();
+    byte[] content =
+        (token + " " + (System.currentTimeMillis() + duration.toMillis()))
+            .getBytes(StandardCharsets.UTF_8);
+    try {
+      Files.createDirectories(lease.getParent());
+      Path temp = Files.createTempFile(lease.getParent(), lease.getFileName().toString(), ".tmp");
+      try {
+        Files.write(temp, content);
+        for (int attempt = 0; attempt < 2; attempt++) {
+          try {
+            createExclusively(lease, temp, content);
+            return Optional.of(release(lease, token));
+          } catch (FileAlreadyExistsException e) {
+            if (!breakIfExpired(lease, duration)) {
+              return Optional.empty();
+            }
+          }
+        }
+        return Optional.empty();
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    } catch (IOException e) {
+      // Without a working share, compute locally rather than waiting on a lease nobody holds
+      LOG.warn("Failed to take shared cache lease {}: {}", lease, e.getMessage());
+      return Optional.of(() -> {});
+    }
+  }
+
+  @Override
+  public boolean isLeased(String cacheName, String key) {
+    Path lease = leasePath(cacheName, key);
+    Optional<LeaseFile> current = readLease(lease);
+    if (current.isPresent()) {
+      return System.currentTimeMillis() <= current.get().expiresAt();
+    }
+    // A lease that cannot be read is held until tryLease breaks it for its age
+    return Files.exists(lease);
+  }
+
+  private CacheLease release(Path lease, String token) {
+    AtomicBoolean released = new AtomicBoolean();
+    return () -> {
+      if (!released.compareAndSet(false, true)) {
+        return;
+      }
+      // Only delete the lease if it is still ours, and not a newer one after ours expired
+      if (isOwnedBy(lease, token)) {
+        try {
+          removeIfMatches(lease, claimed -> isOwnedBy(claimed, token));
+        } catch (IOException e) {
+          LOG.warn("Failed to release shared cache lease {}: {}", lease, e.getMessage());
+        }
+      }
+    };
+  }
+
+  private boolean breakIfExpired(Path lease, Duration duration) throws IOException {
+    Optional<LeaseFile> current = readLease(lease);
+    boolean expired =
+        current.isPresent()
+            ? System.currentTimeMillis() > current.get().expiresAt()
+            : isOlderThan(lease, duration);
+    if (!expired) {
+      return false;
+    }
+    return removeIfMatches(
+        lease,
+        claimed -> {
+          boolean matches =
+              current.isPresent()
+                  ? current.equals(readLease(claimed))
+                  : readLease(claimed).isEmpty() && isOlderThan(claimed, duration);
+          if (matches) {
+            LOG.info("Broke expired shared cache lease {}", lease);
+          }
+          return matches;
+        });
+  }
+
+  /**
+   * Removes a lease if it is the expected one. The lease is renamed to a unique name, which only
+   * one node succeeds in, and checked under that name. A lease renamed although it is not the
+   * expected one, because another node replaced it in the meantime, is put back.
+   *
+   * @param lease the lease file
+   * @param expected whether the renamed lease is the one to remove
+   * @return whether the lease is gone, false if it is held by another node
+   */
+  private static boolean removeIfMatches(Path lease, LeaseCheck expected) throws IOException {
+    Path claimed = lease.resolveSibling(lease.getFileName() + "." + UUID.randomUUID() + ".claimed");
+    try {
+      try {
+        Files.move(lease, claimed, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(lease, claimed);
+      }
+    } catch (NoSuchFileException e) {
+      // Released or broken by another node in the meantime
+      return true;
+    }
+
+    try {
+      if (expected.matches(claimed)) {
+        return true;
+      }
+      try {
+        createExclusively(lease, claimed, Files.readAllBytes(claimed));
+      } catch (FileAlreadyExistsException e) {
+        LOG.warn("Shared cache lease {} was replaced while it was checked", lease);
+      }
+      return false;
+    } finally {
+      Files.deleteIfExists(claimed);
+    }
+  }
+
+  private static boolean isOwnedBy(Path lease, String token) {
+    return readLease(lease).map(LeaseFile::token).filter(token::equals).isPresent();
+  }
+
+  private static boolean isOlderThan(Path lease, Duration duration) throws IOException {
+    try {
+      FileTime modified = Files.getLastModifiedTime(lease);
+      return System.currentTimeMillis() - modified.toMillis() > duration.toMillis();
+    } catch (NoSuchFileException e) {
+      // Released in the meantime
+      return true;
+    }
+  }
+
+  private static Optional<LeaseFile> readLease(Path lease) {
+    try {
+      String[] parts = Files.readString(lease, StandardCharsets.UTF_8).trim().split(" ");
+      return parts.length == 2
+          ? Optional.of(new LeaseFile(parts[0], Long.parseLong(parts[1])))
+          : Optional.empty();
+    } catch (IOException | NumberFormatException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static void createExclusively(Path lease, Path temp, byte[] content)
+      throws IOException {
+    try {
+      // Unlike an atomic move, which replaces the target on POSIX systems, linking fails if the
+      // lease exists
+      Files.createLink(lease, temp);
+    } catch (UnsupportedOperationException e) {
+      Files.write(lease, content, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+  }
+
+  private static void writeAtomically(Path target, byte[] content) throws IOException {
+    Files.createDirectories(target.getParent());
+    Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+    try {
+      Files.write(temp, content);
+      try {
+        Files.move(
+            temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private Path entryPath(String cacheName, String key) {
+    return directory.resolve(cacheName).resolve(hash(key) + ENTRY_SUFFIX);
+  }
+
+  private Path leasePath(String cacheName, String key) {
+    return directory.resolve(cacheName).resolve(hash(key) + LEASE_SUFFIX);
+  }
+
+  private static String hash(String key) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private record LeaseFile(String token, long expiresAt) {}
+
+  /** A check of a lease renamed for removal. */
+  @FunctionalInterface
+  private interface LeaseCheck {
+
+    boolean matches(Path claimed) throws IOException;
+  }
+}
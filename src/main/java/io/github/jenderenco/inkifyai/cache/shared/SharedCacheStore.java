@@ -0,0 +1,67 @@
+package io.github.jenderenco.inkifyai.cache.shared;
+
+import io.github.jenderenco.inkifyai.cache.CacheLease;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * A cache tier shared by all application nodes. Implementations store opaque bytes and must make
+ * writes atomic, so readers never see a partially written value, and must make leases exclusive
+ * across nodes.
+ */
+public interface SharedCacheStore {
+
+  /**
+   * Reads a value.
+   *
+   * @param cacheName the name of the cache
+   * @param key the key, already converted to a string
+   * @return the value, or empty if absent or expired
+   */
+  Optional<byte[]> get(String cacheName, String key);
+
+  /**
+   * Writes a value.
+   *
+   * @param cacheName the name of the cache
+   * @param key the key, already converted to a string
+   * @param value the serialized value
+   * @param ttl how long the value stays valid
+   */
+  void put(String cacheName, String key, byte[] value, Duration ttl);
+
+  /**
+   * Removes a value.
+   *
+   * @param cacheName the name of the cache
+   * @param key the key, already converted to a string
+   */
+  void evict(String cacheName, String key);
+
+  /**
+   * Removes all values of a cache.
+   *
+   * @param cacheName the name of the cache
+   */
+  void clear(String cacheName);
+
+  /**
+   * Tries to take the lease for computing a value. Leases expire after the given duration, so a
+   * crashed node cannot block others forever.
+   *
+   * @param cacheName the name of the cache
+   * @param key the key, already converted to a string
+   * @param duration how long the lease is valid
+   * @return the lease, or empty if another node holds a valid lease
+   */
+  Optional<CacheLease> tryLease(String cacheName, String key, Duration duration);
+
+  /**
+   * Returns whether any node holds a valid lease for the key.
+   *
+   * @param cacheName the name of the cache
+   * @param key the key, already converted to a string
+   * @return true if the key is leased
+   */
+  boolean isLeased(String cacheName, String key);
+}
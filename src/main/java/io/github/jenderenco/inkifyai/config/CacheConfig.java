@@ -0,0 +1,68 @@
+package io.github.jenderenco.inkifyai.config;
+
+import io.github.jenderenco.inkifyai.cache.TieredCacheManager;
+import io.github.jenderenco.inkifyai.cache.config.CacheProperties;
+import io.github.jenderenco.inkifyai.cache.shared.FileSystemSharedCacheStore;
+import io.github.jenderenco.inkifyai.cache.shared.SharedCacheStore;
+import io.github.jenderenco.inkifyai.openapi.config.OpenApiProperties;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables Spring's annotation-driven caching, used for fetched OpenAPI specifications and the
+ * external documents they reference, and sets up the two-tier cache: a bounded local tier on each
+ * node, and optionally a tier shared by all nodes.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CacheConfig.class);
+
+  private static final String OPENAPI_SPECS_CACHE = "openApiSpecs";
+
+  /**
+   * Creates the shared cache tier on a filesystem mounted by all nodes.
+   *
+   * @param properties the cache properties
+   * @return the shared cache tier
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "cache.shared", name = "type", havingValue = "filesystem")
+  public SharedCacheStore fileSystemSharedCacheStore(CacheProperties properties) {
+    LOG.info("Sharing caches in {}", properties.shared().directory());
+    return new FileSystemSharedCacheStore(properties.shared().directory());
+  }
+
+  /**
+   * Creates the cache manager. The OpenAPI specification cache is sized by the {@code
+   * openapi.fetcher} cache settings, all other caches by the {@code cache} properties.
+   *
+   * @param properties the cache properties
+   * @param openApiProperties the OpenAPI fetcher properties
+   * @param sharedStore the shared cache tier, if configured
+   * @return the cache manager
+   */
+  @Bean
+  public CacheManager cacheManager(
+      CacheProperties properties,
+      OpenApiProperties openApiProperties,
+      ObjectProvider<SharedCacheStore> sharedStore) {
+    Map<String, CacheProperties.Spec> specs = new HashMap<>(properties.caches());
+    specs.put(
+        OPENAPI_SPECS_CACHE,
+        new CacheProperties.Spec(
+            Math.max(1, openApiProperties.cacheSize()),
+            Duration.ofMillis(openApiProperties.cacheTtl())));
+    return new TieredCacheManager(properties, specs, sharedStore.getIfAvailable());
+  }
+}
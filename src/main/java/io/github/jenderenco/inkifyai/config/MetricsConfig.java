@@ -0,0 +1,25 @@
+package io.github.jenderenco.inkifyai.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides the meter registry the application records its metrics to. The registry is also added
+ * to Micrometer's global registry, so metrics published by libraries (such as the Reactor Netty
+ * connection pools) end up in the same place.
+ */
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  @ConditionalOnMissingBean
+  public MeterRegistry meterRegistry() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    Metrics.addRegistry(registry);
+    return registry;
+  }
+}
@@ -0,0 +1,9 @@
+package io.github.jenderenco.inkifyai.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Enables Spring's scheduled task execution, used for periodic background work. */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
@@ -0,0 +1,96 @@
+package io.github.jenderenco.inkifyai.diagnostics.jfr;
+
+import io.github.jenderenco.inkifyai.diagnostics.jfr.config.JfrProperties;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.ParseException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts a continuous flight recording with the bundled {@code jfr/inkify.jfc} settings, if enabled
+ * in configuration. The recording keeps the configured amount of data and is written to its
+ * destination when the application stops, so the last generation requests can be analyzed
+ * together with garbage collection and CPU load.
+ */
+@Component
+public class ContinuousRecording {
+
+  /** The bundled settings, enabling the generation events and the JVM events relevant to them. */
+  public static final String SETTINGS = "jfr/inkify.jfc";
+
+  private static final Logger LOG = LoggerFactory.getLogger(ContinuousRecording.class);
+
+  private final Recording recording;
+
+  public ContinuousRecording(JfrProperties properties) {
+    JfrProperties.Recording settings = properties.recording();
+    this.recording = settings.enabled() ? start(settings) : null;
+  }
+
+  /** Stops the recording, writing it to its destination. */
+  @PreDestroy
+  public void stop() {
+    if (recording == null) {
+      return;
+    }
+    try {
+      recording.stop();
+      LOG.info("Wrote flight recording to {}", recording.getDestination());
+    } catch (IllegalStateException e) {
+      LOG.warn("Could not stop flight recording", e);
+    } finally {
+      recording.close();
+    }
+  }
+
+  /**
+   * Loads the bundled settings.
+   *
+   * @return the settings
+   */
+  public static Configuration settings() {
+    try (Reader reader =
+        new InputStreamReader(
+            new ClassPathResource(SETTINGS).getInputStream(), StandardCharsets.UTF_8)) {
+      return Configuration.create(reader);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read " + SETTINGS, e);
+    } catch (ParseException e) {
+      throw new IllegalStateException("Invalid flight recorder settings " + SETTINGS, e);
+    }
+  }
+
+  private static Recording start(JfrProperties.Recording settings) {
+    Recording recording = new Recording(settings());
+    recording.setName("inkify");
+    recording.setToDisk(true);
+    recording.setDumpOnExit(true);
+    if (settings.maxAge() != null) {
+      recording.setMaxAge(settings.maxAge());
+    }
+    if (settings.maxSize() != null) {
+      recording.setMaxSize(settings.maxSize().toBytes());
+    }
+    try {
+      if (settings.destination() != null) {
+        Files.createDirectories(settings.destination().toAbsolutePath().getParent());
+        recording.setDestination(settings.destination());
+      }
+    } catch (IOException e) {
+      LOG.warn("Could not use {} as flight recording destination", settings.destination(), e);
+    }
+    recording.start();
+    LOG.info("Started flight recording with {}", SETTINGS);
+    return recording;
+  }
+}
@@ -0,0 +1,207 @@
+package io.github.jenderenco.inkifyai.diagnostics.jfr;
+
+import io.github.jenderenco.inkifyai.diagnostics.jfr.config.JfrProperties;
+import io.github.jenderenco.inkifyai.llm.prompt.LlmPrompt;
+import io.github.jenderenco.inkifyai.openapi.StructuralFingerprint;
+import io.github.jenderenco.inkifyai.openapi.model.ParsedOpenApiSpec;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Records JDK Flight Recorder events for the stages of a generation request: fetching, reference
+ * resolution, parsing, prompt building and the LLM stream. All events of a request carry its id, so
+ * they can be correlated with each other and with JVM events such as garbage collections.
+ *
+ * <p>If events are disabled in configuration, each stage is run as is. Otherwise an event is
+ * created, and only timed and described if a recording has enabled it.
+ */
+@Component
+public class GenerationEvents {
+
+  private final boolean enabled;
+
+  public GenerationEvents(JfrProperties properties) {
+    this.enabled = properties.enabled();
+  }
+
+  /**
+   * Returns whether events are created at all.
+   *
+   * @return {@code true} if events are enabled in configuration
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Runs the fetch stage.
+   *
+   * @param requestId the id of the generation request
+   * @param url the URL of the specification
+   * @param fetch fetches the specification
+   * @return the specification
+   */
+  public String fetch(String requestId, String url, Supplier<String> fetch) {
+    if (!enabled) {
+      return fetch.get();
+    }
+    return record(
+        new SpecFetchEvent(),
+        requestId,
+        fetch,
+        (event, spec) -> {
+          event.url = url;
+          event.specSize = spec.length();
+        });
+  }
+
+  /**
+   * Runs the reference resolution stage.
+   *
+   * @param requestId the id of the generation request
+   * @param rawSpec the specification as fetched
+   * @param resolve resolves the external references of the specification
+   * @return the resolved specification
+   */
+  public String resolve(String requestId, String rawSpec, Supplier<String> resolve) {
+    if (!enabled) {
+      return resolve.get();
+    }
+    return record(
+        new RefResolveEvent(),
+        requestId,
+        resolve,
+        (event, resolved) -> {
+          event.specSize = rawSpec.length();
+          event.resolvedSize = resolved.length();
+        });
+  }
+
+  /**
+   * Runs the parse stage. The event carries the content hash of the specification as fetched as
+   * its version, which is only computed if the event is recorded.
+   *
+   * @param requestId the id of the generation request
+   * @param rawSpec the specification as fetched
+   * @param resolvedSpec the specification being parsed
+   * @param parse parses the specification
+   * @return the parsed specification
+   */
+  public ParsedOpenApiSpec parse(
+      String requestId, String rawSpec, String resolvedSpec, Supplier<ParsedOpenApiSpec> parse) {
+    if (!enabled) {
+      return parse.get();
+    }
+    return record(
+        new SpecParseEvent(),
+        requestId,
+        parse,
+        (event, parsed) -> {
+          event.specSize = resolvedSpec.length();
+          event.specVersion = StructuralFingerprint.hash(rawSpec);
+          event.operations = parsed.operations().size();
+          event.schemas = parsed.schemas().size();
+        });
+  }
+
+  /**
+   * Runs the prompt building stage.
+   *
+   * @param requestId the id of the generation request
+   * @param build builds the prompt
+   * @return the prompt
+   */
+  public LlmPrompt buildPrompt(String requestId, Supplier<LlmPrompt> build) {
+    if (!enabled) {
+      return build.get();
+    }
+    return record(
+        new PromptBuildEvent(),
+        requestId,
+        build,
+        (event, prompt) -> event.promptLength = prompt.length());
+  }
+
+  /**
+   * Instruments the stream of generated documentation. The event spans each subscription, from
+   * subscribing to termination or cancellation, and counts the chunks and characters received.
+   *
+   * @param requestId the id of the generation request
+   * @param provider the AI provider generating the documentation
+   * @param promptLength the length of the prompt, 0 if there is no single prompt
+   * @param stream the stream of generated documentation
+   * @param length the number of characters in a chunk
+   * @param <T> the type of the chunks
+   * @return the instrumented stream
+   */
+  public <T> Flux<T> stream(
+      String requestId,
+      String provider,
+      int promptLength,
+      Flux<T> stream,
+      ToIntFunction<T> length) {
+    if (!enabled) {
+      return stream;
+    }
+    return Flux.defer(
+        () -> {
+          LlmStreamEvent event = new LlmStreamEvent();
+          if (!event.isEnabled()) {
+            return stream;
+          }
+          event.requestId = requestId;
+          event.provider = provider;
+          event.promptLength = promptLength;
+          long start = System.nanoTime();
+          event.begin();
+          // Signals are serialized, so the event is only ever updated by one thread at a time
+          return stream
+              .doOnNext(
+                  chunk -> {
+                    if (event.chunks++ == 0) {
+                      event.timeToFirstChunk = System.nanoTime() - start;
+                    }
+                    event.characters += length.applyAsInt(chunk);
+                  })
+              .doFinally(
+                  signal -> {
+                    event.end();
+                    event.termination = signal.toString();
+                    event.succeeded = signal == SignalType.ON_COMPLETE;
+                    commit(event);
+                  });
+        });
+  }
+
+  private static <E extends GenerationStageEvent, T> T record(
+      E event, String requestId, Supplier<T> stage, BiConsumer<E, T> describe) {
+    if (!event.isEnabled()) {
+      return stage.get();
+    }
+    event.requestId = requestId;
+    event.begin();
+    T result;
+    try {
+      result = stage.get();
+    } catch (RuntimeException e) {
+      event.end();
+      commit(event);
+      throw e;
+    }
+    event.end();
+    event.succeeded = true;
+    describe.accept(event, result);
+    commit(event);
+    return result;
+  }
+
+  private static void commit(GenerationStageEvent event) {
+    if (event.shouldCommit()) {
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package io.github.jenderenco.inkifyai.diagnostics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/** Base of the events recorded for the stages of a generation request. */
+@Category({"InkifyAI", "Generation"})
+@StackTrace(false)
+abstract class GenerationStageEvent extends jdk.jfr.Event {
+
+  @Label("Request Id")
+  @Description("Identifies the generation request the stage belongs to")
+  String requestId;
+
+  @Label("Succeeded")
+  boolean succeeded;
+}
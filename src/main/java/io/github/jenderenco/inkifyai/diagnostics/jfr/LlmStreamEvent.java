@@ -0,0 +1,33 @@
+package io.github.jenderenco.inkifyai.diagnostics.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("inkify.LlmStream")
+@Label("LLM Stream")
+@Description("Streaming generated documentation from the LLM, from subscription to termination")
+class LlmStreamEvent extends GenerationStageEvent {
+
+  @Label("Provider")
+  String provider;
+
+  @Label("Prompt Length")
+  @Description("Length of the prompt in characters, 0 for section-level generation")
+  int promptLength;
+
+  @Label("Chunks")
+  long chunks;
+
+  @Label("Characters")
+  long characters;
+
+  @Label("Time to First Chunk")
+  @Timespan(Timespan.NANOSECONDS)
+  long timeToFirstChunk;
+
+  @Label("Termination")
+  @Description("How the stream terminated: onComplete, onError or cancel")
+  String termination;
+}
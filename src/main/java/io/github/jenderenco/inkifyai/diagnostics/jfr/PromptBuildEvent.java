@@ -0,0 +1,15 @@
+package io.github.jenderenco.inkifyai.diagnostics.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("inkify.PromptBuild")
+@Label("Prompt Build")
+@Description("Building the LLM prompt for a parsed specification")
+class PromptBuildEvent extends GenerationStageEvent {
+
+  @Label("Prompt Length")
+  @Description("Length of the prompt in characters")
+  int promptLength;
+}
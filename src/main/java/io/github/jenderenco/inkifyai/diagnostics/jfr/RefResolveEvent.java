@@ -0,0 +1,19 @@
+package io.github.jenderenco.inkifyai.diagnostics.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("inkify.RefResolve")
+@Label("Reference Resolution")
+@Description("Inlining the external references of an OpenAPI specification")
+class RefResolveEvent extends GenerationStageEvent {
+
+  @Label("Specification Size")
+  @Description("In characters")
+  long specSize;
+
+  @Label("Resolved Size")
+  @Description("In characters")
+  long resolvedSize;
+}
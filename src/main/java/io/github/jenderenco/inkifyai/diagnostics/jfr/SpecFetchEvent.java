@@ -0,0 +1,18 @@
+package io.github.jenderenco.inkifyai.diagnostics.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("inkify.SpecFetch")
+@Label("Specification Fetch")
+@Description("Loading an OpenAPI specification, from the cache or over the network")
+class SpecFetchEvent extends GenerationStageEvent {
+
+  @Label("URL")
+  String url;
+
+  @Label("Specification Size")
+  @Description("In characters")
+  long specSize;
+}
@@ -0,0 +1,25 @@
+package io.github.jenderenco.inkifyai.diagnostics.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("inkify.SpecParse")
+@Label("Specification Parse")
+@Description("Parsing an OpenAPI specification")
+class SpecParseEvent extends GenerationStageEvent {
+
+  @Label("Specification Size")
+  @Description("In characters")
+  long specSize;
+
+  @Label("Specification Version")
+  @Description("Content hash of the specification as fetched")
+  String specVersion;
+
+  @Label("Operations")
+  int operations;
+
+  @Label("Schemas")
+  int schemas;
+}
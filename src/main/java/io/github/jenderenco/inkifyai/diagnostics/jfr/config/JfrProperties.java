@@ -0,0 +1,31 @@
+package io.github.jenderenco.inkifyai.diagnostics.jfr.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for the JDK Flight Recorder events of the generation pipeline.
+ *
+ * @param enabled whether events are created for the stages of generation requests; if not, the
+ *     pipeline is not instrumented at all
+ * @param recording settings for a continuous recording started with the application
+ */
+@ConfigurationProperties(prefix = "diagnostics.jfr")
+public record JfrProperties(boolean enabled, Recording recording) {
+
+  public JfrProperties {
+    recording = recording == null ? new Recording(false, null, null, null) : recording;
+  }
+
+  /**
+   * Settings for a continuous recording with the bundled {@code jfr/inkify.jfc} settings.
+   *
+   * @param enabled whether a recording is started with the application
+   * @param maxAge how long recorded data is kept
+   * @param maxSize how much recorded data is kept
+   * @param destination the file the recording is written to when the application stops
+   */
+  public record Recording(boolean enabled, Duration maxAge, DataSize maxSize, Path destination) {}
+}
@@ -1,5 +1,6 @@
 package io.github.jenderenco.inkifyai.llm.client;
 
+import io.github.jenderenco.inkifyai.llm.prompt.LlmPrompt;
 import reactor.core.publisher.Flux;
 
 /**
@@ -9,12 +10,14 @@ import reactor.core.publisher.Flux;
 public interface LlmClient {
 
   /**
-   * Sends a prompt to the LLM and returns a stream of response chunks.
+   * Sends a prompt to the LLM and returns a stream of response chunks. The system part of the
+   * prompt is the same for all prompts of a kind, so implementations should send it in a way that
+   * lets the provider reuse its work for that prefix across calls.
    *
    * @param prompt the prompt to send to the LLM
    * @return a Flux of response chunks from the LLM
    */
-  Flux<String> complete(String prompt);
+  Flux<String> complete(LlmPrompt prompt);
 
   /**
    * Returns the name of the LLM provider.
@@ -23,6 +26,27 @@ public interface LlmClient {
    */
   String providerName();
 
+  /**
+   * Returns the name of the model used by this client. Generated output depends on the model, so
+   * it is part of the key of any cached output.
+   *
+   * @return the model name
+   */
+  default String modelName() {
+    return providerName();
+  }
+
+  /**
+   * Returns a client of the same provider that uses the given model and options. Clients that do
+   * not support overriding their options return themselves.
+   *
+   * @param options the options overriding this client's defaults
+   * @return a client using the given options
+   */
+  default LlmClient withOptions(ModelOptions options) {
+    return this;
+  }
+
   /**
    * Checks if this client supports the given provider name.
    *
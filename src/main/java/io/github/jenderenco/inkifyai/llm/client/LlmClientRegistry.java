@@ -1,19 +1,38 @@
 package io.github.jenderenco.inkifyai.llm.client;
 
+import io.github.jenderenco.inkifyai.llm.client.routing.SpecStatistics;
+import io.github.jenderenco.inkifyai.llm.client.routing.config.ModelRoutingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 /**
  * Registry for LLM clients. This class manages all available LlmClients and provides methods to get
  * the appropriate client for a given provider name.
+ *
+ * <p>With routing enabled, the client for a specification is configured by the first model profile
+ * that matches the provider and the size of the specification, so that small specifications can go
+ * to a fast small model and large ones to a larger model.
  */
 @Component
 public class LlmClientRegistry {
 
+  private static final Logger LOG = LoggerFactory.getLogger(LlmClientRegistry.class);
+
+  private static final String DEFAULT_PROFILE = "default";
+
   private final List<LlmClient> clients;
+  private final ModelRoutingProperties routing;
+  private final MeterRegistry meterRegistry;
 
-  public LlmClientRegistry(List<LlmClient> clients) {
+  public LlmClientRegistry(
+      List<LlmClient> clients, ModelRoutingProperties routing, MeterRegistry meterRegistry) {
     this.clients = clients;
+    this.routing = routing;
+    this.meterRegistry = meterRegistry;
   }
 
   /**
@@ -31,6 +50,32 @@ public class LlmClientRegistry {
             () -> new IllegalArgumentException("Unsupported AI provider: " + providerName));
   }
 
+  /**
+   * Get the LLM client for the specified provider name, configured by the model profile matching
+   * the given specification. Without routing or a matching profile, this is the provider's default
+   * client.
+   *
+   * @param providerName the provider name
+   * @param statistics the statistics of the specification to document
+   * @return the LLM client for the specified provider and specification
+   * @throws IllegalArgumentException if no provider supports the given name
+   */
+  public LlmClient getClient(String providerName, SpecStatistics statistics) {
+    LlmClient client = getClient(providerName);
+    if (!routing.enabled() || routing.profiles() == null) {
+      return client;
+    }
+    for (ModelRoutingProperties.Profile profile : routing.profiles()) {
+      if (profile.matches(providerName, statistics)) {
+        LOG.debug("Routing {} to profile {}", statistics, profile.name());
+        count(providerName, profile.name());
+        return profile.options() == null ? client : client.withOptions(profile.options());
+      }
+    }
+    count(providerName, DEFAULT_PROFILE);
+    return client;
+  }
+
   /**
    * Get the list of supported client names.
    *
@@ -39,4 +84,13 @@ public class LlmClientRegistry {
   public List<String> getSupportedClients() {
     return clients.stream().map(LlmClient::providerName).toList();
   }
+
+  private void count(String providerName, String profile) {
+    Counter.builder("inkify.llm.routing.requests")
+        .description("Specifications routed to each model profile")
+        .tag("provider", providerName.toLowerCase())
+        .tag("profile", profile)
+        .register(meterRegistry)
+        .increment();
+  }
 }
@@ -0,0 +1,12 @@
+package io.github.jenderenco.inkifyai.llm.client;
+
+/**
+ * Overrides of the model and generation options of an LLM client. Options left null keep the
+ * client's defaults.
+ *
+ * @param model the model to use
+ * @param temperature the sampling temperature
+ * @param numPredict the maximum number of tokens to generate
+ * @param numCtx the size of the context window, in tokens
+ */
+public record ModelOptions(String model, Double temperature, Integer numPredict, Integer numCtx) {}
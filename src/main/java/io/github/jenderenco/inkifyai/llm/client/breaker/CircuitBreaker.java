@@ -0,0 +1,182 @@
+package io.github.jenderenco.inkifyai.llm.client.breaker;
+
+import io.github.jenderenco.inkifyai.llm.client.breaker.config.CircuitBreakerProperties;
+import java.time.Duration;
+
+/**
+ * The circuit breaker of a single backend. While closed, the outcomes of the most recent calls are
+ * kept in a ring buffer, and the circuit opens once the rate of failed or slow calls reaches its
+ * threshold. An open circuit rejects all calls until the open duration has passed, then lets a few
+ * probe calls through: if all of them succeed the circuit closes, otherwise it opens again.
+ *
+ * <p>Calls to LLM backends take seconds, so the state is simply guarded by {@code this}.
+ */
+final class CircuitBreaker {
+
+  /** The state of a circuit, ordered by how many calls it lets through. */
+  enum State {
+    CLOSED,
+    HALF_OPEN,
+    OPEN
+  }
+
+  /** Notified of state changes, while the breaker is locked. */
+  interface Listener {
+    void onTransition(State from, State to);
+  }
+
+  private final CircuitBreakerProperties properties;
+  private final Listener listener;
+  private final boolean[] failed;
+  private final boolean[] slow;
+  private int next;
+  private int calls;
+  private int failures;
+  private int slowCalls;
+  private State state = State.CLOSED;
+  private long openedAt;
+  private int probes;
+  private int probeSuccesses;
+
+  CircuitBreaker(CircuitBreakerProperties properties, Listener listener) {
+    this.properties = properties;
+    this.listener = listener;
+    this.failed = new boolean[properties.windowSize()];
+    this.slow = new boolean[properties.windowSize()];
+  }
+
+  /**
+   * Returns whether a call would currently be permitted, without taking a permit.
+   *
+   * @param now the current time in nanoseconds
+   * @return true if the circuit is closed, or may let a probe call through
+   */
+  synchronized boolean isAvailable(long now) {
+    return switch (state) {
+      case CLOSED -> true;
+      case HALF_OPEN -> probes < properties.halfOpenCalls();
+      case OPEN -> openElapsed(now);
+    };
+  }
+
+  /**
+   * Takes a permit for a call. Once the open duration has passed, an open circuit becomes half-open
+   * and hands out as many permits as probe calls are needed.
+   *
+   * @param now the current time in nanoseconds
+   * @return true if the call may be made, false if it must be rejected
+   */
+  synchronized boolean tryAcquire(long now) {
+    if (state == State.OPEN) {
+      if (!openElapsed(now)) {
+        return false;
+      }
+      probes = 0;
+      probeSuccesses = 0;
+      transition(State.HALF_OPEN);
+    }
+    if (state == State.HALF_OPEN) {
+      if (probes >= properties.halfOpenCalls()) {
+        return false;
+      }
+      probes++;
+    }
+    return true;
+  }
+
+  /**
+   * Records the outcome of a permitted call.
+   *
+   * @param failure whether the call failed
+   * @param slowCall whether the call was slow
+   * @param now the current time in nanoseconds
+   */
+  synchronized void onResult(boolean failure, boolean slowCall, long now) {
+    switch (state) {
+      case CLOSED -> {
+        record(failure, slowCall);
+        if (calls >= properties.minCalls()
+            && (exceeds(failures, properties.failureRateThreshold())
+                || exceeds(slowCalls, properties.slowCallRateThreshold()))) {
+          open(now);
+        }
+      }
+      case HALF_OPEN -> {
+        if (failure || slowCall) {
+          open(now);
+        } else if (++probeSuccesses >= properties.halfOpenCalls()) {
+          clearWindow();
+          transition(State.CLOSED);
+        }
+      }
+      case OPEN -> {
+        // The outcome of a call started before the circuit opened
+      }
+    }
+  }
+
+  /** Returns the permit of a call that was cancelled before its outcome was known. */
+  synchronized void release() {
+    if (state == State.HALF_OPEN && probes > probeSuccesses) {
+      probes--;
+    }
+  }
+
+  /**
+   * Returns the time until an open circuit lets probe calls through.
+   *
+   * @param now the current time in nanoseconds
+   * @return the remaining open duration, zero if the circuit is not open
+   */
+  synchronized Duration retryAfter(long now) {
+    if (state != State.OPEN) {
+      return Duration.ZERO;
+    }
+    return Duration.ofNanos(Math.max(0, properties.openDuration().toNanos() - (now - openedAt)));
+  }
+
+  synchronized State state() {
+    return state;
+  }
+
+  private void record(boolean failure, boolean slowCall) {
+    if (calls == failed.length) {
+      failures -= failed[next] ? 1 : 0;
+      slowCalls -= slow[next] ? 1 : 0;
+    } else {
+      calls++;
+    }
+    failed[next] = failure;
+    slow[next] = slowCall;
+    failures += failure ? 1 : 0;
+    slowCalls += slowCall ? 1 : 0;
+    next = (next + 1) % failed.length;
+  }
+
+  private boolean exceeds(int count, double threshold) {
+    return threshold > 0 && count >= threshold * calls;
+  }
+
+  private boolean openElapsed(long now) {
+    return now - openedAt >= properties.openDuration().toNanos();
+  }
+
+  private void open(long now) {
+    openedAt = now;
+    clearWindow();
+    transition(State.OPEN);
+  }
+
+  private void clearWindow() {
+    next = 0;
+    calls = 0;
+    failures = 0;
+    slowCalls = 0;
+  }
+
+  private void transition(State to) {
+    State from = state;
+    state = to;
+    listener.onTransition(from, to);
+  }
+}
@@ -0,0 +1,136 @@
+package io.github.jenderenco.inkifyai.llm.client.breaker;
+
+import io.github.jenderenco.inkifyai.llm.client.breaker.config.CircuitBreakerProperties;
+import io.github.jenderenco.inkifyai.llm.exception.LlmUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+/**
+ * Keeps one circuit breaker per LLM backend, so that a backend which is down or overloaded is no
+ * longer called until it recovers. Calls to a backend with an open circuit fail immediately with an
+ * {@link LlmUnavailableException} instead of waiting for timeouts.
+ *
+ * <p>A call fails if its stream errors, and is slow if its first chunk takes longer than the slow
+ * call threshold. A call cancelled before its first chunk is only counted if it was already slow,
+ * so that the cancelled loser of a hedged request does not count against its backend.
+ */
+@Component
+public class LlmCircuitBreakers {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LlmCircuitBreakers.class);
+
+  private final CircuitBreakerProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+  private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+  public LlmCircuitBreakers(CircuitBreakerProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Returns whether calls to a backend are currently permitted.
+   *
+   * @param backend the name of the backend
+   * @return true if circuit breakers are disabled, or the circuit of the backend lets calls through
+   */
+  public boolean isAvailable(String backend) {
+    return !properties.enabled() || breaker(backend).isAvailable(System.nanoTime());
+  }
+
+  /**
+   * Guards a call to a backend by its circuit breaker. The call must be lazy: it is only subscribed
+   * to if the circuit permits it.
+   *
+   * @param backend the name of the backend
+   * @param call the stream of the call
+   * @param <T> the type of chunks
+   * @return the stream of the call, or an {@link LlmUnavailableException} if the circuit is open
+   */
+  public <T> Flux<T> protect(String backend, Flux<T> call) {
+    if (!properties.enabled()) {
+      return call;
+    }
+
+    return Flux.defer(
+        () -> {
+          CircuitBreaker breaker = breaker(backend);
+          long start = System.nanoTime();
+          if (!breaker.tryAcquire(start)) {
+            counter(backend, "rejected").increment();
+            return Flux.error(new LlmUnavailableException(backend, breaker.retryAfter(start)));
+          }
+
+          AtomicLong firstChunkAt = new AtomicLong();
+          return call.doOnNext(chunk -> firstChunkAt.compareAndSet(0, System.nanoTime()))
+              .doOnComplete(() -> record(backend, breaker, start, firstChunkAt.get(), false))
+              .doOnError(e -> record(backend, breaker, start, firstChunkAt.get(), true))
+              .doOnCancel(
+                  () -> {
+                    if (firstChunkAt.get() != 0 || isSlow(start, System.nanoTime())) {
+                      record(backend, breaker, start, firstChunkAt.get(), false);
+                    } else {
+                      breaker.release();
+                    }
+                  });
+        });
+  }
+
+  private void record(
+      String backend, CircuitBreaker breaker, long start, long firstChunkAt, boolean failure) {
+    long now = System.nanoTime();
+    boolean slow = isSlow(start, firstChunkAt != 0 ? firstChunkAt : now);
+    breaker.onResult(failure, slow, now);
+    counter(backend, failure ? "failure" : slow ? "slow" : "success").increment();
+  }
+
+  private boolean isSlow(long start, long end) {
+    long threshold = properties.slowCallThreshold().toNanos();
+    return threshold > 0 && end - start > threshold;
+  }
+
+  private CircuitBreaker breaker(String backend) {
+    return breakers.computeIfAbsent(
+        backend,
+        name -> {
+          CircuitBreaker breaker =
+              new CircuitBreaker(properties, (from, to) -> onTransition(name, from, to));
+          Gauge.builder("inkify.llm.circuit.state", breaker, b -> b.state().ordinal())
+              .description("State of the circuit breaker: 0 closed, 1 half-open, 2 open")
+              .tag("backend", name)
+              .register(meterRegistry);
+          return breaker;
+        });
+  }
+
+  private void onTransition(String backend, CircuitBreaker.State from, CircuitBreaker.State to) {
+    if (to == CircuitBreaker.State.OPEN) {
+      LOG.warn(
+          "Opened circuit of LLM backend {}, rejecting calls for {} s",
+          backend,
+          properties.openDuration().toSeconds());
+    } else {
+      LOG.info("Circuit of LLM backend {} changed from {} to {}", backend, from, to);
+    }
+  }
+
+  private Counter counter(String backend, String outcome) {
+    return counters.computeIfAbsent(
+        backend + '|' + outcome,
+        key ->
+            Counter.builder("inkify.llm.circuit.calls")
+                .description("Calls to LLM backends guarded by circuit breakers")
+                .tag("backend", backend)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+  }
+}
@@ -0,0 +1,36 @@
+package io.github.jenderenco.inkifyai.llm.client.breaker.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the circuit breakers around LLM backends. Thresholds of 0 disable the check.
+ *
+ * @param enabled whether calls to LLM backends are guarded by circuit breakers
+ * @param failureRateThreshold the fraction of failed calls in the window that opens the circuit,
+ *     for example 0.5 for 50%
+ * @param slowCallThreshold the time to the first chunk after which a call counts as slow
+ * @param slowCallRateThreshold the fraction of slow calls in the window that opens the circuit
+ * @param windowSize the number of recent calls the rates are computed from
+ * @param minCalls the number of calls needed in the window before the circuit may open
+ * @param openDuration how long an open circuit rejects calls before probing the backend again
+ * @param halfOpenCalls the number of probe calls that must succeed to close the circuit again
+ */
+@ConfigurationProperties(prefix = "llm.circuit-breaker")
+public record CircuitBreakerProperties(
+    boolean enabled,
+    double failureRateThreshold,
+    Duration slowCallThreshold,
+    double slowCallRateThreshold,
+    int windowSize,
+    int minCalls,
+    Duration openDuration,
+    int halfOpenCalls) {
+
+  public CircuitBreakerProperties {
+    slowCallThreshold = slowCallThreshold == null ? Duration.ZERO : slowCallThreshold;
+    openDuration = openDuration == null ? Duration.ofSeconds(30) : openDuration;
+    windowSize = Math.max(1, windowSize);
+    halfOpenCalls = Math.max(1, halfOpenCalls);
+  }
+}
@@ -0,0 +1,44 @@
+package io.github.jenderenco.inkifyai.llm.client.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits hedges to a fraction of all requests. Every request deposits {@code ratio} tokens, every
+ * hedge costs one token, and at most {@code burst} tokens are kept. Tokens are stored in fixed
+ * point so the budget can be updated lock-free.
+ */
+final class HedgeBudget {
+
+  private static final long SCALE = 1_000;
+
+  private final long deposit;
+  private final long capacity;
+  private final AtomicLong tokens;
+
+  HedgeBudget(double ratio, int burst) {
+    this.deposit = Math.round(ratio * SCALE);
+    this.capacity = (long) burst * SCALE;
+    this.tokens = new AtomicLong(capacity);
+  }
+
+  /** Records a request, which earns a fraction of a hedge. */
+  void recordRequest() {
+    tokens.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+  }
+
+  /**
+   * Takes one hedge from the budget, if available.
+   *
+   * @return true if a hedge may be sent
+   */
+  boolean tryAcquire() {
+    long current;
+    do {
+      current = tokens.get();
+      if (current < SCALE) {
+        return false;
+      }
+    } while (!tokens.compareAndSet(current, current - SCALE));
+    return true;
+  }
+}
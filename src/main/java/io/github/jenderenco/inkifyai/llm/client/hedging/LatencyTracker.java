@@ -0,0 +1,46 @@
+package io.github.jenderenco.inkifyai.llm.client.hedging;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** Keeps the most recent latencies in a ring buffer and computes percentiles over them. */
+final class LatencyTracker {
+
+  private final AtomicLongArray samples;
+  private final AtomicLong count = new AtomicLong();
+  private final int minSamples;
+
+  LatencyTracker(int sampleSize, int minSamples) {
+    this.samples = new AtomicLongArray(sampleSize);
+    this.minSamples = minSamples;
+  }
+
+  void record(Duration latency) {
+    long index = count.getAndIncrement();
+    samples.set((int) (index % samples.length()), latency.toNanos());
+  }
+
+  /**
+   * Computes a percentile of the recorded latencies.
+   *
+   * @param percentile the percentile, between 0 and 1
+   * @return the latency at the percentile, or empty if too few latencies were recorded
+   */
+  Optional<Duration> percentile(double percentile) {
+    int size = (int) Math.min(count.get(), samples.length());
+    if (size < Math.max(1, minSamples)) {
+      return Optional.empty();
+    }
+
+    long[] sorted = new long[size];
+    for (int i = 0; i < size; i++) {
+      sorted[i] = samples.get(i);
+    }
+    Arrays.sort(sorted);
+    int index = Math.clamp((long) Math.ceil(percentile * size) - 1, 0, size - 1);
+    return Optional.of(Duration.ofNanos(sorted[index]));
+  }
+}
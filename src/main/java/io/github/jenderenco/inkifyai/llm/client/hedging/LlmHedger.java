@@ -0,0 +1,113 @@
+package io.github.jenderenco.inkifyai.llm.client.hedging;
+
+import io.github.jenderenco.inkifyai.llm.client.hedging.config.HedgingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Hedges LLM requests across backends. If the primary stream has not produced its first chunk
+ * within a delay derived from recent first-chunk latencies, the same request is sent to a second
+ * backend. Whichever stream signals first wins and the other one is cancelled. Hedges are limited
+ * by a budget, so they only add a small fraction of extra load.
+ */
+@Component
+public class LlmHedger {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LlmHedger.class);
+
+  private final HedgingProperties properties;
+  private final LatencyTracker latencies;
+  private final HedgeBudget budget;
+  private final Counter hedgesSent;
+  private final Counter hedgesDenied;
+  private final Counter primaryWins;
+  private final Counter hedgeWins;
+
+  public LlmHedger(HedgingProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.latencies = new LatencyTracker(properties.sampleSize(), properties.minSamples());
+    this.budget = new HedgeBudget(properties.budgetRatio(), properties.budgetBurst());
+    this.hedgesSent = hedgeCounter(meterRegistry, "inkify.llm.hedge.requests", "outcome", "sent");
+    this.hedgesDenied =
+        hedgeCounter(meterRegistry, "inkify.llm.hedge.requests", "outcome", "denied");
+    this.primaryWins = hedgeCounter(meterRegistry, "inkify.llm.hedge.wins", "winner", "primary");
+    this.hedgeWins = hedgeCounter(meterRegistry, "inkify.llm.hedge.wins", "winner", "hedge");
+  }
+
+  /**
+   * Returns whether hedging is enabled.
+   *
+   * @return true if requests are hedged
+   */
+  public boolean isEnabled() {
+    return properties.enabled();
+  }
+
+  /**
+   * Runs the primary stream, hedged by the secondary one. Both streams must be lazy: the secondary
+   * one is only subscribed to once the hedge delay has passed and the budget allows it.
+   *
+   * @param primary the stream from the primary backend
+   * @param secondary the same request against another backend
+   * @param <T> the type of chunks
+   * @return the stream that produced the first signal
+   */
+  public <T> Flux<T> hedge(Flux<T> primary, Flux<T> secondary) {
+    if (!properties.enabled()) {
+      return primary;
+    }
+
+    return Flux.defer(
+        () -> {
+          budget.recordRequest();
+          Duration delay = hedgeDelay();
+          AtomicBoolean firstChunk = new AtomicBoolean(true);
+          long start = System.nanoTime();
+
+          Flux<T> timedPrimary =
+              primary.doOnNext(chunk -> recordFirstChunk(firstChunk, start, primaryWins));
+          Flux<T> delayedSecondary =
+              Mono.delay(delay)
+                  .flatMapMany(
+                      tick -> {
+                        if (!budget.tryAcquire()) {
+                          hedgesDenied.increment();
+                          return Flux.never();
+                        }
+                        hedgesSent.increment();
+                        LOG.debug("No first chunk after {} ms, sending hedge", delay.toMillis());
+                        return secondary.doOnNext(
+                            chunk -> recordFirstChunk(firstChunk, start, hedgeWins));
+                      });
+
+          return Flux.firstWithSignal(timedPrimary, delayedSecondary);
+        });
+  }
+
+  private void recordFirstChunk(AtomicBoolean firstChunk, long start, Counter winner) {
+    if (firstChunk.compareAndSet(true, false)) {
+      latencies.record(Duration.ofNanos(System.nanoTime() - start));
+      winner.increment();
+    }
+  }
+
+  private Duration hedgeDelay() {
+    Duration delay = latencies.percentile(properties.percentile()).orElse(properties.maxDelay());
+    if (delay.compareTo(properties.minDelay()) < 0) {
+      return properties.minDelay();
+    }
+    return delay.compareTo(properties.maxDelay()) > 0 ? properties.maxDelay() : delay;
+  }
+
+  private static Counter hedgeCounter(
+      MeterRegistry meterRegistry, String name, String tag, String value) {
+    return Counter.builder(name).tag(tag, value).register(meterRegistry);
+  }
+}
@@ -0,0 +1,27 @@
+package io.github.jenderenco.inkifyai.llm.client.hedging.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for hedged LLM requests.
+ *
+ * @param enabled whether requests are hedged at all
+ * @param percentile the percentile of recent first-chunk latencies after which a hedge is sent
+ * @param minDelay the lower bound of the hedge delay
+ * @param maxDelay the upper bound of the hedge delay, also used until enough samples exist
+ * @param budgetRatio the fraction of requests that may be hedged, for example 0.05 for 5%
+ * @param budgetBurst the number of hedges that may be sent in a burst
+ * @param sampleSize the number of recent latencies the percentile is computed from
+ * @param minSamples the number of latencies needed before the percentile is used
+ */
+@ConfigurationProperties(prefix = "llm.hedging")
+public record HedgingProperties(
+    boolean enabled,
+    double percentile,
+    Duration minDelay,
+    Duration maxDelay,
+    double budgetRatio,
+    int budgetBurst,
+    int sampleSize,
+    int minSamples) {}
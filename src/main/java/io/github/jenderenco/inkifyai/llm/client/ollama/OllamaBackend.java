@@ -0,0 +1,13 @@
+package io.github.jenderenco.inkifyai.llm.client.ollama;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.ollama.api.OllamaApi;
+
+/**
+ * A single Ollama server serving the configured model.
+ *
+ * @param name the name of the backend used in logs, usually its base URL
+ * @param api the low-level API of the server
+ * @param chatClient the chat client talking to the server
+ */
+record OllamaBackend(String name, OllamaApi api, ChatClient chatClient) {}
@@ -1,32 +1,141 @@
 package io.github.jenderenco.inkifyai.llm.client.ollama;
 
 import io.github.jenderenco.inkifyai.llm.client.LlmClient;
+import io.github.jenderenco.inkifyai.llm.client.ModelOptions;
+import io.github.jenderenco.inkifyai.llm.client.breaker.LlmCircuitBreakers;
+import io.github.jenderenco.inkifyai.llm.client.hedging.LlmHedger;
+import io.github.jenderenco.inkifyai.llm.client.ollama.config.OllamaClientProperties;
+import io.github.jenderenco.inkifyai.llm.client.recording.LlmRecorder;
+import io.github.jenderenco.inkifyai.llm.client.stream.LlmStreamShaper;
+import io.github.jenderenco.inkifyai.llm.client.usage.LlmUsage;
+import io.github.jenderenco.inkifyai.llm.client.usage.LlmUsageRecorder;
 import io.github.jenderenco.inkifyai.llm.exception.InternalLlmException;
+import io.github.jenderenco.inkifyai.llm.prompt.LlmPrompt;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 
 /**
  * Implementation of the LlmClient interface for the Ollama LLM provider. Uses Spring AI's
  * OllamaChatModel to interact with Ollama.
+ *
+ * <p>If replicas are configured, requests are spread over all servers round-robin, and a request
+ * whose first chunk is slow is hedged to the next server. Each server has its own circuit breaker;
+ * servers with an open circuit are skipped, and if all circuits are open the request fails
+ * immediately.
+ *
+ * <p>The system part of a prompt is sent as system message ahead of the user message, so prompts of
+ * the same kind share a byte-identical prefix. Ollama reuses the evaluated context of a matching
+ * prefix, and {@code num_keep} is set to cover the system message, so it is also kept when a long
+ * response shifts the context window.
+ *
+ * <p>The token counts and load, prefill and decode timings of the final response chunk are passed
+ * to the {@link LlmUsageRecorder}. With recording enabled, the responses are recorded by the {@link
+ * LlmRecorder} as received, before they are shaped, together with that usage.
  */
 @Service("ollamaClient")
 public class OllamaLlmClient implements LlmClient {
 
   private static final Logger LOG = LoggerFactory.getLogger(OllamaLlmClient.class);
 
-  private final ChatClient chatClient;
+  // Deliberately low, so that num_keep rather covers a few tokens too many than too few
+  private static final int CHARS_PER_TOKEN = 3;
+
+  // Keys of the timings OllamaChatModel adds to the response metadata
+  private static final String METADATA_LOAD_DURATION = "load-duration";
+  private static final String METADATA_PROMPT_EVAL_DURATION = "prompt-eval-duration";
+  private static final String METADATA_EVAL_DURATION = "eval-duration";
+  private static final String METADATA_TOTAL_DURATION = "total-duration";
+
+  private final List<OllamaBackend> backends;
+  private final AtomicInteger nextBackend;
+  private final LlmHedger hedger;
+  private final LlmCircuitBreakers circuitBreakers;
+  private final LlmStreamShaper streamShaper;
+  private final LlmUsageRecorder usageRecorder;
+  private final LlmRecorder recorder;
+  private final String modelName;
+  private final String keepAlive;
+  private final ModelOptions options;
+  private final OllamaModelState modelState;
+  private final Timer coldFirstTokenTimer;
+  private final Timer warmFirstTokenTimer;
 
   /**
    * Constructs a new OllamaLlmClient with the given chat model.
    *
    * @param chatModel the Ollama chat model to use
+   * @param ollamaApi the API of the primary Ollama server
+   * @param modelState the tracker of whether the model is loaded
+   * @param properties the Ollama client properties
+   * @param hedger the hedger for requests across replicas
+   * @param circuitBreakers the circuit breakers of the servers
+   * @param streamShaper the shaper merging response chunks and recording stream statistics
+   * @param usageRecorder the recorder of the usage reported by Ollama
+   * @param recorder the recorder of response streams
+   * @param meterRegistry the registry for latency metrics
    */
-  public OllamaLlmClient(OllamaChatModel chatModel) {
-    this.chatClient = ChatClient.builder(chatModel).build();
+  @Autowired
+  public OllamaLlmClient(
+      OllamaChatModel chatModel,
+      OllamaApi ollamaApi,
+      OllamaModelState modelState,
+      OllamaClientProperties properties,
+      LlmHedger hedger,
+      LlmCircuitBreakers circuitBreakers,
+      LlmStreamShaper streamShaper,
+      LlmUsageRecorder usageRecorder,
+      LlmRecorder recorder,
+      MeterRegistry meterRegistry) {
+    this.backends = backends(chatModel, ollamaApi, properties.replicas());
+    this.nextBackend = new AtomicInteger();
+    this.hedger = hedger;
+    this.circuitBreakers = circuitBreakers;
+    this.streamShaper = streamShaper;
+    this.usageRecorder = usageRecorder;
+    this.recorder = recorder;
+    this.modelName = chatModel.getDefaultOptions().getModel();
+    this.keepAlive = properties.keepAlive().ollamaDuration();
+    this.options = null;
+    this.modelState = modelState;
+    this.coldFirstTokenTimer = firstTokenTimer(meterRegistry, "cold");
+    this.warmFirstTokenTimer = firstTokenTimer(meterRegistry, "warm");
+  }
+
+  private OllamaLlmClient(OllamaLlmClient defaults, ModelOptions options) {
+    this.backends = defaults.backends;
+    this.nextBackend = defaults.nextBackend;
+    this.hedger = defaults.hedger;
+    this.circuitBreakers = defaults.circuitBreakers;
+    this.streamShaper = defaults.streamShaper;
+    this.usageRecorder = defaults.usageRecorder;
+    this.recorder = defaults.recorder;
+    this.modelName = options.model() != null ? options.model() : defaults.modelName;
+    this.keepAlive = defaults.keepAlive;
+    this.options = options;
+    this.modelState = defaults.modelState;
+    this.coldFirstTokenTimer = defaults.coldFirstTokenTimer;
+    this.warmFirstTokenTimer = defaults.warmFirstTokenTimer;
   }
 
   /**
@@ -37,16 +146,47 @@ public class OllamaLlmClient implements LlmClient {
    * @throws InternalLlmException if there's an error initiating the LLM stream
    */
   @Override
-  public Flux<String> complete(String prompt) {
-    try {
-      return chatClient.prompt().user(prompt).stream()
-          .content()
-          .doOnNext(chunk -> LOG.debug("Ollama LLM response chunk: {}", chunk))
-          .doOnError(e -> LOG.error("Error streaming Ollama LLM response", e));
-    } catch (Exception ex) {
-      LOG.error("Error initiating Ollama LLM stream", ex);
-      return Flux.error(new InternalLlmException("Ollama LLM stream failed", ex));
-    }
+  public Flux<String> complete(LlmPrompt prompt) {
+    return Flux.deferContextual(
+        context -> {
+          Timer firstTokenTimer =
+              modelState.isWarm(modelName) ? warmFirstTokenTimer : coldFirstTokenTimer;
+          AtomicBoolean firstChunk = new AtomicBoolean(true);
+          AtomicReference<ChatResponse> lastResponse = new AtomicReference<>();
+          long start = System.nanoTime();
+          modelState.recordRequest(modelName);
+
+          Flux<String> chunks =
+              recorder
+                  .record(
+                      prompt,
+                      providerName(),
+                      modelName,
+                      stream(prompt),
+                      OllamaLlmClient::text,
+                      OllamaLlmClient::usage)
+                  .doOnNext(lastResponse::set)
+                  .map(OllamaLlmClient::text)
+                  .filter(text -> !text.isEmpty())
+                  .doOnNext(
+                      chunk -> {
+                        if (firstChunk.compareAndSet(true, false)) {
+                          firstTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                          modelState.markLoaded(modelName);
+                        }
+                      })
+                  .doOnComplete(
+                      () ->
+                          Optional.ofNullable(lastResponse.get())
+                              .map(OllamaLlmClient::usage)
+                              .ifPresent(
+                                  usage ->
+                                      usageRecorder.record(
+                                          providerName(), modelName, usage, context)))
+                  .doOnError(e -> LOG.error("Error streaming Ollama LLM response", e))
+                  .doFinally(signal -> modelState.recordRequest(modelName));
+          return streamShaper.shape(providerName(), chunks);
+        });
   }
 
   /**
@@ -58,4 +198,149 @@ public class OllamaLlmClient implements LlmClient {
   public String providerName() {
     return "ollama";
   }
+
+  /**
+   * Returns the name of the configured Ollama model.
+   *
+   * @return the model name, for example "llama3.2"
+   */
+  @Override
+  public String modelName() {
+    return modelName;
+  }
+
+  /**
+   * Returns a client sending requests to the same servers with the given model and options.
+   *
+   * @param options the options overriding the configured chat options
+   * @return a client using the given options
+   */
+  @Override
+  public LlmClient withOptions(ModelOptions options) {
+    return new OllamaLlmClient(this, options);
+  }
+
+  /**
+   * Returns the Ollama servers requests are sent to, the primary server first.
+   *
+   * @return the backends
+   */
+  List<OllamaBackend> backends() {
+    return backends;
+  }
+
+  private Flux<ChatResponse> stream(LlmPrompt prompt) {
+    if (backends.size() == 1) {
+      return stream(backends.getFirst(), prompt);
+    }
+    int first = Math.floorMod(nextBackend.getAndIncrement(), backends.size());
+    List<OllamaBackend> available = new ArrayList<>(2);
+    for (int i = 0; i < backends.size() && available.size() < 2; i++) {
+      OllamaBackend backend = backends.get((first + i) % backends.size());
+      if (circuitBreakers.isAvailable(circuitName(backend))) {
+        available.add(backend);
+      }
+    }
+    return switch (available.size()) {
+      // Rejected by the open circuit of the next server
+      case 0 -> stream(backends.get(first), prompt);
+      case 1 -> stream(available.getFirst(), prompt);
+      default -> hedger.hedge(stream(available.get(0), prompt), stream(available.get(1), prompt));
+    };
+  }
+
+  private Flux<ChatResponse> stream(OllamaBackend backend, LlmPrompt prompt) {
+    Flux<ChatResponse> call =
+        Flux.defer(
+            () -> {
+              try {
+                return backend
+                    .chatClient()
+                    .prompt()
+                    .options(requestOptions(prompt))
+                    .system(prompt.system())
+                    .user(prompt.user())
+                    .stream()
+                    .chatResponse();
+              } catch (Exception ex) {
+                LOG.error("Error initiating Ollama LLM stream on {}", backend.name(), ex);
+                return Flux.error(new InternalLlmException("Ollama LLM stream failed", ex));
+              }
+            });
+    return circuitBreakers.protect(circuitName(backend), call);
+  }
+
+  private String circuitName(OllamaBackend backend) {
+    return providerName() + "/" + backend.name();
+  }
+
+  private static String text(ChatResponse response) {
+    Generation generation = response.getResult();
+    if (generation == null || generation.getOutput() == null) {
+      return "";
+    }
+    String text = generation.getOutput().getText();
+    return text == null ? "" : text;
+  }
+
+  /**
+   * Extracts the usage from the final response of a stream, which carries the token counts and
+   * timings of the whole call.
+   */
+  private static LlmUsage usage(ChatResponse response) {
+    ChatResponseMetadata metadata = response.getMetadata();
+    Usage usage = metadata.getUsage();
+    return new LlmUsage(
+        usage.getPromptTokens() == null ? 0 : usage.getPromptTokens(),
+        usage.getCompletionTokens() == null ? 0 : usage.getCompletionTokens(),
+        duration(metadata, METADATA_LOAD_DURATION),
+        duration(metadata, METADATA_PROMPT_EVAL_DURATION),
+        duration(metadata, METADATA_EVAL_DURATION),
+        duration(metadata, METADATA_TOTAL_DURATION));
+  }
+
+  private static Duration duration(ChatResponseMetadata metadata, String key) {
+    return metadata.get(key) instanceof Duration duration ? duration : Duration.ZERO;
+  }
+
+  private OllamaOptions requestOptions(LlmPrompt prompt) {
+    OllamaOptions.Builder builder =
+        OllamaOptions.builder()
+            .keepAlive(keepAlive)
+            .numKeep(prompt.system().length() / CHARS_PER_TOKEN);
+    if (options != null) {
+      builder
+          .model(options.model())
+          .temperature(options.temperature())
+          .numPredict(options.numPredict())
+          .numCtx(options.numCtx());
+    }
+    return builder.build();
+  }
+
+  private static List<OllamaBackend> backends(
+      OllamaChatModel chatModel, OllamaApi ollamaApi, List<String> replicas) {
+    List<OllamaBackend> backends = new ArrayList<>();
+    backends.add(new OllamaBackend("primary", ollamaApi, ChatClient.builder(chatModel).build()));
+    for (String baseUrl : replicas == null ? List.<String>of() : replicas) {
+      OllamaApi replicaApi = OllamaApi.builder().baseUrl(baseUrl).build();
+      OllamaChatModel replicaModel =
+          OllamaChatModel.builder()
+              .ollamaApi(replicaApi)
+              .defaultOptions((OllamaOptions) chatModel.getDefaultOptions())
+              .build();
+      backends.add(
+          new OllamaBackend(baseUrl, replicaApi, ChatClient.builder(replicaModel).build()));
+    }
+    return List.copyOf(backends);
+  }
+
+  private static Timer firstTokenTimer(MeterRegistry meterRegistry, String state) {
+    return Timer.builder("inkify.llm.first.token")
+        .description("Time from sending a prompt to receiving the first response chunk")
+        .tag("provider", "ollama")
+        .tag("state", state)
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(meterRegistry);
+  }
 }
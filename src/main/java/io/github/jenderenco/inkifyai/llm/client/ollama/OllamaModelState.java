@@ -0,0 +1,101 @@
+package io.github.jenderenco.inkifyai.llm.client.ollama;
+
+import io.github.jenderenco.inkifyai.llm.client.ollama.config.OllamaClientProperties;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks whether the Ollama models are loaded. Ollama unloads a model once it has not been used for
+ * the keep-alive duration, so a model is considered warm only if it was loaded and used within that
+ * duration. With model routing, several models are in use, and each is tracked on its own.
+ */
+@Component
+public class OllamaModelState {
+
+  private final Duration keepAlive;
+  private final Set<String> loadedModels = ConcurrentHashMap.newKeySet();
+  private final Map<String, Long> lastUse = new ConcurrentHashMap<>();
+  private final Map<String, Long> lastRequest = new ConcurrentHashMap<>();
+  private volatile boolean awaitingWarmup;
+
+  public OllamaModelState(OllamaClientProperties properties) {
+    this.keepAlive = properties.keepAlive().duration();
+    this.awaitingWarmup = properties.warmup().enabled();
+  }
+
+  /**
+   * Records that a model was loaded, for example by a warm-up or keep-alive ping.
+   *
+   * @param model the name of the model
+   */
+  public void markLoaded(String model) {
+    lastUse.put(model, System.nanoTime());
+    loadedModels.add(model);
+  }
+
+  /**
+   * Records that the warm-up gave up, so the models are only loaded by the first requests that use
+   * them.
+   */
+  public void stopAwaitingWarmup() {
+    awaitingWarmup = false;
+  }
+
+  /**
+   * Records that a generation request used a model.
+   *
+   * @param model the name of the model
+   */
+  public void recordRequest(String model) {
+    long now = System.nanoTime();
+    lastUse.put(model, now);
+    lastRequest.put(model, now);
+  }
+
+  /**
+   * Returns whether any model has been loaded at least once since startup.
+   *
+   * @return true if a model was loaded
+   */
+  public boolean isLoaded() {
+    return !loadedModels.isEmpty();
+  }
+
+  /**
+   * Returns whether a model is still expected to be loaded by the warm-up. This is false if
+   * warm-up is disabled or has given up.
+   *
+   * @return true if the warm-up is enabled and may still load a model
+   */
+  public boolean isAwaitingWarmup() {
+    return awaitingWarmup && !isLoaded();
+  }
+
+  /**
+   * Returns whether a model is expected to still be loaded in Ollama.
+   *
+   * @param model the name of the model
+   * @return true if the model was loaded and used within the keep-alive duration
+   */
+  public boolean isWarm(String model) {
+    Long last = lastUse.get(model);
+    return loadedModels.contains(model)
+        && last != null
+        && System.nanoTime() - last < keepAlive.toNanos();
+  }
+
+  /**
+   * Returns whether a generation request used a model within the given window.
+   *
+   * @param model the name of the model
+   * @param window the window to check
+   * @return true if there was traffic for the model within the window
+   */
+  public boolean hasRecentTraffic(String model, Duration window) {
+    Long last = lastRequest.get(model);
+    return last != null && System.nanoTime() - last < window.toNanos();
+  }
+}
@@ -0,0 +1,224 @@
+package io.github.jenderenco.inkifyai.llm.client.ollama;
+
+import io.github.jenderenco.inkifyai.llm.client.ModelOptions;
+import io.github.jenderenco.inkifyai.llm.client.ollama.config.OllamaClientProperties;
+import io.github.jenderenco.inkifyai.llm.client.routing.config.ModelRoutingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+/**
+ * Keeps the Ollama models loaded. The models are preloaded once the application is ready, and each
+ * is pinged periodically while it has recent traffic so that Ollama does not unload it between
+ * requests. Once traffic stops, pings stop too and Ollama is free to unload the model.
+ *
+ * <p>Besides the configured model, the models of the Ollama routing profiles are kept loaded, with
+ * the context size of their profile. Ollama reloads a model whose context size changes, so loading
+ * it with different options than the requests use would cost a reload on the next request. If a
+ * profile uses the configured model, it is only loaded with the options of that profile.
+ *
+ * <p>Loading and pinging use a chat request without messages, which makes Ollama load the model
+ * without generating anything. With replicas configured, every server is loaded, and a model
+ * counts as loaded once any of them has it. A server that fails to load a model does not keep
+ * the others from loading it; the load only fails if no model was loaded anywhere.
+ */
+@Component
+public class OllamaModelWarmer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(OllamaModelWarmer.class);
+
+  private final List<OllamaBackend> backends;
+  private final List<WarmModel> models;
+  private final OllamaModelState modelState;
+  private final OllamaClientProperties properties;
+  private final Counter pings;
+  private final AtomicBoolean loading = new AtomicBoolean();
+
+  /**
+   * Constructs a new OllamaModelWarmer.
+   *
+   * @param ollamaClient the Ollama client whose model is kept loaded
+   * @param modelState the model state
+   * @param properties the Ollama client properties
+   * @param routing the model routing properties, for the models of the routing profiles
+   * @param meterRegistry the registry for warm-up metrics
+   */
+  public OllamaModelWarmer(
+      OllamaLlmClient ollamaClient,
+      OllamaModelState modelState,
+      OllamaClientProperties properties,
+      ModelRoutingProperties routing,
+      MeterRegistry meterRegistry) {
+    this.backends = ollamaClient.backends();
+    this.models = models(ollamaClient.modelName(), ollamaClient.providerName(), routing);
+    this.modelState = modelState;
+    this.properties = properties;
+    this.pings =
+        Counter.builder("inkify.llm.keepalive.pings")
+            .tag("provider", "ollama")
+            .register(meterRegistry);
+    for (WarmModel model : models) {
+      Gauge.builder(
+              "inkify.llm.model.loaded", modelState, state -> state.isWarm(model.name()) ? 1 : 0)
+          .tag("provider", "ollama")
+          .tag("model", model.name())
+          .register(meterRegistry);
+    }
+  }
+
+  /** Preloads the models in the background once the application is ready. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    if (!properties.warmup().enabled()) {
+      return;
+    }
+    load(models)
+        .retryWhen(
+            Retry.backoff(properties.warmup().maxAttempts() - 1L, Duration.ofSeconds(1))
+                .maxBackoff(Duration.ofSeconds(30))
+                .doBeforeRetry(
+                    signal ->
+                        LOG.warn(
+                            "Loading Ollama models {} failed, retrying: {}",
+                            names(models),
+                            signal.failure().getMessage())))
+        .subscribe(
+            ignored -> LOG.info("Ollama models {} loaded", names(models)),
+            e -> {
+              LOG.warn("Giving up preloading Ollama models {}: {}", names(models), e.getMessage());
+              modelState.stopAwaitingWarmup();
+            });
+  }
+
+  /** Pings the models with recent traffic, so that Ollama keeps them loaded. */
+  @Scheduled(
+      initialDelayString = "${llm.ollama.keep-alive.ping-interval}",
+      fixedDelayString = "${llm.ollama.keep-alive.ping-interval}")
+  public void keepAlive() {
+    List<WarmModel> active =
+        models.stream()
+            .filter(
+                model ->
+                    modelState.hasRecentTraffic(
+                        model.name(), properties.keepAlive().activeWindow()))
+            .toList();
+    if (active.isEmpty()) {
+      return;
+    }
+    pings.increment();
+    load(active)
+        .subscribe(
+            ignored -> LOG.debug("Pinged Ollama models {}", names(active)),
+            e ->
+                LOG.warn(
+                    "Keep-alive ping for Ollama models {} failed: {}",
+                    names(active),
+                    e.getMessage()));
+  }
+
+  private Mono<OllamaApi.ChatResponse> load(List<WarmModel> targets) {
+    return Mono.defer(
+        () -> {
+          if (!loading.compareAndSet(false, true)) {
+            // A load is already in flight
+            return Mono.empty();
+          }
+          return Flux.fromIterable(targets)
+              .flatMap(
+                  model ->
+                      Flux.fromIterable(backends)
+                          .flatMap(backend -> load(backend, model), backends.size(), 1),
+                  targets.size(),
+                  1)
+              .collectList()
+              .flatMap(
+                  responses ->
+                      responses.isEmpty()
+                          ? Mono.error(
+                              new IllegalStateException("No Ollama server loaded a model"))
+                          : Mono.just(responses.getFirst()))
+              .doFinally(signal -> loading.set(false));
+        });
+  }
+
+  private Mono<OllamaApi.ChatResponse> load(OllamaBackend backend, WarmModel model) {
+    OllamaApi.ChatRequest.Builder request =
+        OllamaApi.ChatRequest.builder(model.name())
+            .messages(List.of())
+            .stream(false)
+            .keepAlive(properties.keepAlive().ollamaDuration());
+    if (model.numCtx() != null) {
+      request.options(OllamaOptions.builder().numCtx(model.numCtx()).build());
+    }
+    return Mono.fromCallable(() -> backend.api().chat(request.build()))
+        .subscribeOn(Schedulers.boundedElastic())
+        .timeout(properties.warmup().timeout())
+        .doOnNext(response -> modelState.markLoaded(model.name()))
+        .onErrorResume(
+            e -> {
+              LOG.warn(
+                  "Loading Ollama model {} on {} failed: {}",
+                  model.name(),
+                  backend.name(),
+                  e.getMessage());
+              return Mono.empty();
+            });
+  }
+
+  /**
+   * Returns the configured model and the models of the Ollama routing profiles, each with the
+   * context size of the first profile using it.
+   */
+  private static List<WarmModel> models(
+      String defaultModel, String provider, ModelRoutingProperties routing) {
+    Map<String, Integer> numCtxByModel = new LinkedHashMap<>();
+    numCtxByModel.put(defaultModel, null);
+    if (routing != null && routing.enabled() && routing.profiles() != null) {
+      List<String> profileModels = new ArrayList<>();
+      for (ModelRoutingProperties.Profile profile : routing.profiles()) {
+        ModelOptions options = profile.options();
+        if (!provider.equalsIgnoreCase(profile.provider()) || options == null) {
+          continue;
+        }
+        String model = options.model() != null ? options.model() : defaultModel;
+        if (!profileModels.contains(model)) {
+          profileModels.add(model);
+          numCtxByModel.put(model, options.numCtx());
+        }
+      }
+    }
+    List<WarmModel> models = new ArrayList<>();
+    numCtxByModel.forEach((model, numCtx) -> models.add(new WarmModel(model, numCtx)));
+    return List.copyOf(models);
+  }
+
+  private static List<String> names(List<WarmModel> models) {
+    return models.stream().map(WarmModel::name).toList();
+  }
+
+  /**
+   * A model kept loaded.
+   *
+   * @param name the name of the model
+   * @param numCtx the context size the model is used with, or null for the default
+   */
+  private record WarmModel(String name, Integer numCtx) {}
+}
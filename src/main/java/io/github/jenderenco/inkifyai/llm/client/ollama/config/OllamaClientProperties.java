@@ -0,0 +1,44 @@
+package io.github.jenderenco.inkifyai.llm.client.ollama.config;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the Ollama client.
+ *
+ * @param warmup settings for loading the model at startup
+ * @param keepAlive settings for keeping the model loaded
+ * @param replicas base URLs of further Ollama servers serving the same model
+ */
+@ConfigurationProperties(prefix = "llm.ollama")
+public record OllamaClientProperties(Warmup warmup, KeepAlive keepAlive, List<String> replicas) {
+
+  /**
+   * Settings for loading the model at startup.
+   *
+   * @param enabled whether the model is preloaded at startup
+   * @param timeout the time allowed for a single load attempt
+   * @param maxAttempts the number of load attempts before giving up until the next request
+   */
+  public record Warmup(boolean enabled, Duration timeout, int maxAttempts) {}
+
+  /**
+   * Settings for keeping the model loaded while it is in use.
+   *
+   * @param duration how long Ollama keeps the model loaded after a request or ping
+   * @param pingInterval how often the model is pinged while there is recent traffic
+   * @param activeWindow how recent the last request must be for pings to be sent
+   */
+  public record KeepAlive(Duration duration, Duration pingInterval, Duration activeWindow) {
+
+    /**
+     * Returns the keep-alive duration in the format expected by Ollama.
+     *
+     * @return the keep-alive duration, for example "600s"
+     */
+    public String ollamaDuration() {
+      return duration.toSeconds() + "s";
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package io.github.jenderenco.inkifyai.llm.client.recording;
+
+import io.github.jenderenco.inkifyai.llm.client.recording.config.LlmRecordingProperties;
+import io.github.jenderenco.inkifyai.llm.client.usage.LlmUsage;
+import io.github.jenderenco.inkifyai.llm.prompt.LlmPrompt;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Records LLM response streams, if recording is enabled, so that production generations can be
+ * reproduced and benchmarked by the {@link ReplayLlmClient} without an LLM.
+ *
+ * <p>Clients record the responses as received from the backend, before they are shaped, with the
+ * time between them and the usage reported with the final response. Replaying a recording then
+ * goes through the same shaping and usage accounting as the original stream. Failed and cancelled
+ * streams are not recorded. Recordings are saved off the thread emitting the stream.
+ */
+@Component
+public class LlmRecorder {
+
+  private final LlmRecordingProperties properties;
+  private final LlmRecordingStore store;
+
+  public LlmRecorder(LlmRecordingProperties properties, LlmRecordingStore store) {
+    this.properties = properties;
+    this.store = store;
+  }
+
+  /**
+   * Records a response stream once it completes. Responses without text are not recorded; their
+   * time counts towards the delay of the next recorded chunk.
+   *
+   * @param prompt the prompt the responses are generated for
+   * @param provider the name of the provider generating the responses
+   * @param model the name of the model generating the responses
+   * @param responses the responses as received from the backend
+   * @param text extracts the text of a response
+   * @param usage extracts the usage reported with the final response
+   * @param <T> the type of the responses
+   * @return the responses, recorded as they pass if recording is enabled
+   */
+  public <T> Flux<T> record(
+      LlmPrompt prompt,
+      String provider,
+      String model,
+      Flux<T> responses,
+      Function<T, String> text,
+      Function<T, LlmUsage> usage) {
+    if (!properties.record()) {
+      return responses;
+    }
+    return Flux.defer(
+        () -> {
+          List<LlmRecording.Chunk> chunks = new ArrayList<>();
+          List<T> last = new ArrayList<>(1);
+          long[] previous = {System.nanoTime()};
+          return responses
+              .doOnNext(
+                  response -> {
+                    last.clear();
+                    last.add(response);
+                    String chunk = text.apply(response);
+                    if (chunk.isEmpty()) {
+                      return;
+                    }
+                    long now = System.nanoTime();
+                    chunks.add(
+                        new LlmRecording.Chunk(
+                            TimeUnit.NANOSECONDS.toMicros(now - previous[0]), chunk));
+                    previous[0] = now;
+                  })
+              .doOnComplete(
+                  () -> {
+                    LlmRecording recording =
+                        new LlmRecording(
+                            LlmRecordingStore.promptHash(prompt),
+                            provider,
+                            model,
+                            Instant.now(),
+                            chunks,
+                            last.isEmpty() ? LlmUsage.NONE : usage.apply(last.getFirst()));
+                    Schedulers.boundedElastic().schedule(() -> store.save(recording));
+                  });
+        });
+  }
+}
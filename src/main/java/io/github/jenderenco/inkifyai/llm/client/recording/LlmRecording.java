@@ -0,0 +1,39 @@
+package io.github.jenderenco.inkifyai.llm.client.recording;
+
+import io.github.jenderenco.inkifyai.llm.client.usage.LlmUsage;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A recorded LLM response stream.
+ *
+ * @param promptHash the hash of the prompt the response was generated for
+ * @param provider the provider that generated the response
+ * @param model the model that generated the response
+ * @param recordedAt when the response was recorded
+ * @param chunks the chunks of the response, in order, as received before shaping
+ * @param usage the usage reported with the final response; {@link LlmUsage#NONE} for recordings
+ *     made without it
+ */
+public record LlmRecording(
+    String promptHash,
+    String provider,
+    String model,
+    Instant recordedAt,
+    List<Chunk> chunks,
+    LlmUsage usage) {
+
+  public LlmRecording {
+    chunks = List.copyOf(chunks);
+    usage = usage == null ? LlmUsage.NONE : usage;
+  }
+
+  /**
+   * A chunk of a recorded response.
+   *
+   * @param delayMicros the time since the previous chunk or, for the first chunk, since the prompt
+   *     was sent, in microseconds
+   * @param text the text of the chunk
+   */
+  public record Chunk(long delayMicros, String text) {}
+}
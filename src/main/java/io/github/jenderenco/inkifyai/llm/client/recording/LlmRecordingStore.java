@@ -0,0 +1,112 @@
+package io.github.jenderenco.inkifyai.llm.client.recording;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.jenderenco.inkifyai.llm.client.recording.config.LlmRecordingProperties;
+import io.github.jenderenco.inkifyai.llm.prompt.LlmPrompt;
+import io.github.jenderenco.inkifyai.openapi.StructuralFingerprint;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps recorded LLM responses on local disk, one gzipped JSON file per prompt hash. A later
+ * recording of the same prompt replaces the earlier one. Files are written to a temporary file and
+ * moved into place atomically; I/O errors while saving are logged and the recording is dropped.
+ */
+@Component
+public class LlmRecordingStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LlmRecordingStore.class);
+
+  private static final String EXTENSION = ".json.gz";
+  private static final ObjectMapper JSON =
+      JsonMapper.builder()
+          .addModule(new JavaTimeModule())
+          .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+          .build();
+
+  private final LlmRecordingProperties properties;
+
+  public LlmRecordingStore(LlmRecordingProperties properties) {
+    this.properties = properties;
+  }
+
+  /**
+   * Computes the hash recordings are keyed by.
+   *
+   * @param prompt the prompt
+   * @return the SHA-256 hash of both messages of the prompt
+   */
+  public static String promptHash(LlmPrompt prompt) {
+    return StructuralFingerprint.hash(prompt.system(), prompt.user());
+  }
+
+  /**
+   * Saves a recording, replacing any earlier recording of the same prompt.
+   *
+   * @param recording the recording
+   */
+  public void save(LlmRecording recording) {
+    Path target = path(recording.promptHash());
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+        JSON.writeValue(gzip, recording);
+      }
+      writeAtomically(target, bytes.toByteArray());
+      LOG.debug(
+          "Recorded {} chunks of {} to {}", recording.chunks().size(), recording.model(), target);
+    } catch (IOException e) {
+      LOG.warn("Failed to save LLM recording {}: {}", target, e.getMessage());
+    }
+  }
+
+  /**
+   * Loads the recording of a prompt.
+   *
+   * @param promptHash the hash of the prompt
+   * @return the recording, or empty if the prompt was not recorded
+   * @throws IOException if the recording cannot be read
+   */
+  public Optional<LlmRecording> load(String promptHash) throws IOException {
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(path(promptHash)))) {
+      return Optional.of(JSON.readValue(in, LlmRecording.class));
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    }
+  }
+
+  private Path path(String promptHash) {
+    return properties.directory().resolve(promptHash + EXTENSION);
+  }
+
+  private static void writeAtomically(Path target, byte[] content) throws IOException {
+    Files.createDirectories(target.getParent());
+    Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+    try {
+      Files.write(temp, content);
+      try {
+        Files.move(
+            temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+}
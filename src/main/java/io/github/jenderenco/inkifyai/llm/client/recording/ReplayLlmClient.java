@@ -0,0 +1,108 @@
+package io.github.jenderenco.inkifyai.llm.client.recording;
+
+import io.github.jenderenco.inkifyai.llm.client.LlmClient;
+import io.github.jenderenco.inkifyai.llm.client.recording.config.LlmRecordingProperties;
+import io.github.jenderenco.inkifyai.llm.client.stream.LlmStreamShaper;
+import io.github.jenderenco.inkifyai.llm.client.usage.LlmUsageRecorder;
+import io.github.jenderenco.inkifyai.llm.exception.InternalLlmException;
+import io.github.jenderenco.inkifyai.llm.prompt.LlmPrompt;
+import java.time.Duration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+
+/**
+ * The {@code replay} provider, which plays back recorded responses instead of calling an LLM. The
+ * recording is looked up by the hash of the prompt, regardless of the provider it was recorded
+ * with, and its chunks are emitted with the recorded delays, scaled by the configured speed.
+ *
+ * <p>Recordings hold the chunks as received from the backend, so they are shaped by the {@link
+ * LlmStreamShaper} like a live stream, and the recorded usage is passed to the {@link
+ * LlmUsageRecorder} once the recording has been played back.
+ */
+@Component
+@ConditionalOnProperty(prefix = "llm.recording", name = "replay", havingValue = "true")
+public class ReplayLlmClient implements LlmClient {
+
+  private final LlmRecordingStore store;
+  private final double speed;
+  private final LlmStreamShaper streamShaper;
+  private final LlmUsageRecorder usageRecorder;
+
+  public ReplayLlmClient(
+      LlmRecordingStore store,
+      LlmRecordingProperties properties,
+      LlmStreamShaper streamShaper,
+      LlmUsageRecorder usageRecorder) {
+    this.store = store;
+    this.speed = properties.speed();
+    this.streamShaper = streamShaper;
+    this.usageRecorder = usageRecorder;
+  }
+
+  /**
+   * Plays back the recorded response to a prompt.
+   *
+   * @param prompt the prompt
+   * @return the recorded chunks, shaped like a live stream
+   * @throws InternalLlmException if the prompt was not recorded or its recording cannot be read
+   */
+  @Override
+  public Flux<String> complete(LlmPrompt prompt) {
+    String promptHash = LlmRecordingStore.promptHash(prompt);
+    Flux<String> chunks =
+        Flux.deferContextual(
+            context ->
+                Mono.fromCallable(() -> store.load(promptHash))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .onErrorMap(
+                        e ->
+                            new InternalLlmException(
+                                "Failed to read LLM recording " + promptHash, e))
+                    .flatMapMany(
+                        recording ->
+                            recording
+                                .map(found -> play(found, context))
+                                .orElseGet(
+                                    () ->
+                                        Flux.error(
+                                            new InternalLlmException(
+                                                "No LLM recording of prompt " + promptHash)))));
+    return streamShaper.shape(providerName(), chunks);
+  }
+
+  /**
+   * Returns the name of the provider.
+   *
+   * @return the provider name "replay"
+   */
+  @Override
+  public String providerName() {
+    return "replay";
+  }
+
+  private Flux<String> play(LlmRecording recording, ContextView context) {
+    return Flux.fromIterable(recording.chunks())
+        .concatMap(
+            chunk -> {
+              Duration delay = delay(chunk.delayMicros());
+              return delay.isZero()
+                  ? Mono.just(chunk.text())
+                  : Mono.delay(delay).thenReturn(chunk.text());
+            })
+        .doOnComplete(
+            () ->
+                usageRecorder.record(
+                    providerName(), recording.model(), recording.usage(), context));
+  }
+
+  private Duration delay(long delayMicros) {
+    if (speed <= 0) {
+      return Duration.ZERO;
+    }
+    return Duration.ofNanos((long) (delayMicros * 1000 / speed));
+  }
+}
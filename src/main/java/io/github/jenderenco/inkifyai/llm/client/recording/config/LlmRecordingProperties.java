@@ -0,0 +1,17 @@
+package io.github.jenderenco.inkifyai.llm.client.recording.config;
+
+import java.nio.file.Path;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for recording LLM response streams and replaying them without an LLM.
+ *
+ * @param record whether the responses of all LLM clients are recorded
+ * @param replay whether the {@code replay} provider, playing back recorded responses, is available
+ * @param directory the local directory holding the recordings
+ * @param speed how fast recordings are played back: 1 at the original speed, 2 twice as fast, and
+ *     0 without any delay between chunks
+ */
+@ConfigurationProperties(prefix = "llm.recording")
+public record LlmRecordingProperties(
+    boolean record, boolean replay, Path directory, double speed) {}
@@ -0,0 +1,24 @@
+package io.github.jenderenco.inkifyai.llm.client.routing;
+
+import io.github.jenderenco.inkifyai.openapi.model.ParsedOpenApiSpec;
+
+/**
+ * The size of a specification, used to route it to a model profile.
+ *
+ * @param operations the number of operations
+ * @param schemas the number of schemas
+ * @param promptTokens the estimated number of prompt tokens, or 0 if not known up front
+ */
+public record SpecStatistics(int operations, int schemas, long promptTokens) {
+
+  /**
+   * Collects the statistics of a specification.
+   *
+   * @param api the parsed OpenAPI specification
+   * @param promptTokens the estimated number of prompt tokens, or 0 if not known up front
+   * @return the statistics
+   */
+  public static SpecStatistics of(ParsedOpenApiSpec api, long promptTokens) {
+    return new SpecStatistics(api.operations().size(), api.schemas().size(), promptTokens);
+  }
+}
@@ -0,0 +1,54 @@
+package io.github.jenderenco.inkifyai.llm.client.routing.config;
+
+import io.github.jenderenco.inkifyai.llm.client.ModelOptions;
+import io.github.jenderenco.inkifyai.llm.client.routing.SpecStatistics;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for routing specifications to model profiles by their size.
+ *
+ * @param enabled whether specifications are routed at all
+ * @param profiles the profiles, checked in order; the first matching profile is used
+ */
+@ConfigurationProperties(prefix = "llm.routing")
+public record ModelRoutingProperties(boolean enabled, List<Profile> profiles) {
+
+  /**
+   * A model profile and the specifications it is used for. A limit of 0 means no limit, so a
+   * profile without limits matches every specification of its provider.
+   *
+   * @param name the name of the profile, used in logs and metric tags
+   * @param provider the provider the profile applies to
+   * @param maxOperations the maximum number of operations of a matching specification
+   * @param maxSchemas the maximum number of schemas of a matching specification
+   * @param maxPromptTokens the maximum estimated prompt tokens of a matching specification
+   * @param options the model and options used for matching specifications
+   */
+  public record Profile(
+      String name,
+      String provider,
+      int maxOperations,
+      int maxSchemas,
+      long maxPromptTokens,
+      ModelOptions options) {
+
+    /**
+     * Checks whether this profile applies to the given provider and specification.
+     *
+     * @param providerName the requested provider
+     * @param statistics the statistics of the specification
+     * @return true if the profile applies
+     */
+    public boolean matches(String providerName, SpecStatistics statistics) {
+      return provider.equalsIgnoreCase(providerName)
+          && within(statistics.operations(), maxOperations)
+          && within(statistics.schemas(), maxSchemas)
+          && within(statistics.promptTokens(), maxPromptTokens);
+    }
+
+    private static boolean within(long value, long limit) {
+      return limit <= 0 || value <= limit;
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package io.github.jenderenco.inkifyai.llm.client.stream;
+
+import io.github.jenderenco.inkifyai.llm.client.stream.config.LlmStreamProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+/**
+ * Shapes LLM response streams before they are emitted downstream. Statistics are aggregated per
+ * stream instead of logging every chunk, and small chunks are merged by count or time, so
+ * downstream stages and writes to the client handle fewer, larger chunks.
+ */
+@Component
+public class LlmStreamShaper {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LlmStreamShaper.class);
+
+  private final LlmStreamProperties properties;
+  private final MeterRegistry meterRegistry;
+
+  public LlmStreamShaper(LlmStreamProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Records statistics of the stream and merges its chunks.
+   *
+   * @param provider the name of the LLM provider, used in logs and metric tags
+   * @param chunks the chunks as received from the LLM
+   * @return the merged chunks
+   */
+  public Flux<String> shape(String provider, Flux<String> chunks) {
+    Flux<String> observed = observe(provider, chunks);
+    LlmStreamProperties.Coalesce coalesce = properties.coalesce();
+    if (!coalesce.enabled() || coalesce.maxChunks() <= 1) {
+      return observed;
+    }
+    return observed
+        .bufferTimeout(coalesce.maxChunks(), coalesce.maxDelay(), true)
+        .map(LlmStreamShaper::join);
+  }
+
+  private Flux<String> observe(String provider, Flux<String> chunks) {
+    int sampleEvery = properties.stats().sampleEvery();
+    DistributionSummary chunkCounts =
+        DistributionSummary.builder("inkify.llm.stream.chunks")
+            .description("Number of chunks per LLM response stream")
+            .tag("provider", provider)
+            .register(meterRegistry);
+    DistributionSummary charCounts =
+        DistributionSummary.builder("inkify.llm.stream.chars")
+            .description("Number of characters per LLM response stream")
+            .tag("provider", provider)
+            .register(meterRegistry);
+    Timer durations =
+        Timer.builder("inkify.llm.stream.duration")
+            .description("Duration of LLM response streams")
+            .tag("provider", provider)
+            .register(meterRegistry);
+
+    return Flux.defer(
+        () -> {
+          StreamStats stats = new StreamStats(System.nanoTime());
+          return chunks
+              .doOnNext(
+                  chunk -> {
+                    stats.record(chunk);
+                    if (sampleEvery > 0 && stats.chunks % sampleEvery == 0) {
+                      LOG.debug("{} stream in progress: {}", provider, stats);
+                    }
+                  })
+              .doFinally(
+                  signal -> {
+                    long elapsed = stats.elapsedNanos();
+                    chunkCounts.record(stats.chunks);
+                    charCounts.record(stats.chars);
+                    durations.record(elapsed, TimeUnit.NANOSECONDS);
+                    LOG.debug("{} stream finished with {}: {}", provider, signal, stats);
+                  });
+        });
+  }
+
+  private static String join(List<String> chunks) {
+    if (chunks.size() == 1) {
+      return chunks.getFirst();
+    }
+    int length = 0;
+    for (String chunk : chunks) {
+      length += chunk.length();
+    }
+    StringBuilder joined = new StringBuilder(length);
+    for (String chunk : chunks) {
+      joined.append(chunk);
+    }
+    return joined.toString();
+  }
+
+  /** Running statistics of one stream; only updated from the stream's serialized signals. */
+  private static final class StreamStats {
+
+    private final long start;
+    private long chunks;
+    private long chars;
+
+    private StreamStats(long start) {
+      this.start = start;
+    }
+
+    private void record(String chunk) {
+      chunks++;
+      chars += chunk.length();
+    }
+
+    private long elapsedNanos() {
+      return System.nanoTime() - start;
+    }
+
+    @Override
+    public String toString() {
+      double seconds = Math.max(elapsedNanos(), 1) / 1e9;
+      return String.format(
+          "%d chunks, %d chars in %.1f s (%.1f chunks/s, %.0f chars/s)",
+          chunks, chars, seconds, chunks / seconds, chars / seconds);
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package io.github.jenderenco.inkifyai.llm.client.stream.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for shaping LLM response streams.
+ *
+ * @param coalesce settings for merging small chunks
+ * @param stats settings for stream statistics
+ */
+@ConfigurationProperties(prefix = "llm.stream")
+public record LlmStreamProperties(Coalesce coalesce, Stats stats) {
+
+  /**
+   * Settings for merging the small chunks of an LLM stream before they are emitted downstream. A
+   * merged chunk is emitted once it holds {@code maxChunks} chunks or {@code maxDelay} has passed
+   * since its first chunk, whichever comes first.
+   *
+   * @param enabled whether chunks are merged
+   * @param maxChunks the maximum number of chunks merged into one
+   * @param maxDelay the maximum time a chunk is held back
+   */
+  public record Coalesce(boolean enabled, int maxChunks, Duration maxDelay) {}
+
+  /**
+   * Settings for stream statistics, which replace logging every chunk.
+   *
+   * @param sampleEvery log the running statistics every this many chunks, or never if 0
+   */
+  public record Stats(int sampleEvery) {}
+}
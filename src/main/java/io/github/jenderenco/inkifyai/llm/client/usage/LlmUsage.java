@@ -0,0 +1,42 @@
+package io.github.jenderenco.inkifyai.llm.client.usage;
+
+import java.time.Duration;
+
+/**
+ * Token counts and timings reported by an LLM backend for one or more calls.
+ *
+ * @param promptTokens the number of prompt tokens evaluated
+ * @param completionTokens the number of tokens generated
+ * @param load the time spent loading the model
+ * @param prefill the time spent evaluating the prompt
+ * @param decode the time spent generating tokens
+ * @param total the total time reported by the backend
+ */
+public record LlmUsage(
+    long promptTokens,
+    long completionTokens,
+    Duration load,
+    Duration prefill,
+    Duration decode,
+    Duration total) {
+
+  /** No usage at all. */
+  public static final LlmUsage NONE =
+      new LlmUsage(0, 0, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+
+  /**
+   * Adds the given usage to this one.
+   *
+   * @param other the usage to add
+   * @return the combined usage
+   */
+  public LlmUsage plus(LlmUsage other) {
+    return new LlmUsage(
+        promptTokens + other.promptTokens,
+        completionTokens + other.completionTokens,
+        load.plus(other.load),
+        prefill.plus(other.prefill),
+        decode.plus(other.decode),
+        total.plus(other.total));
+  }
+}
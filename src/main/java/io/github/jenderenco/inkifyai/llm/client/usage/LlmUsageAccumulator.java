@@ -0,0 +1,35 @@
+package io.github.jenderenco.inkifyai.llm.client.usage;
+
+/**
+ * Sums the usage of all LLM calls made for a single request. Callers interested in it put an
+ * instance into the Reactor context of the generation stream, keyed by this class, and read it once
+ * the stream has terminated. Sections may be generated concurrently, so it is thread-safe.
+ */
+public class LlmUsageAccumulator {
+
+  private LlmUsage total = LlmUsage.NONE;
+  private int calls;
+
+  /**
+   * Returns the combined usage of all calls so far.
+   *
+   * @return the combined usage
+   */
+  public synchronized LlmUsage total() {
+    return total;
+  }
+
+  /**
+   * Returns the number of calls that reported usage.
+   *
+   * @return the number of calls
+   */
+  public synchronized int calls() {
+    return calls;
+  }
+
+  synchronized void add(LlmUsage usage) {
+    total = total.plus(usage);
+    calls++;
+  }
+}
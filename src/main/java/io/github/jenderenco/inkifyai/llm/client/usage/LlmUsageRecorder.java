@@ -0,0 +1,73 @@
+package io.github.jenderenco.inkifyai.llm.client.usage;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.util.context.ContextView;
+
+/**
+ * Records the usage reported by LLM backends: as token and phase duration metrics, in the debug
+ * log, and in the {@link LlmUsageAccumulator} of the subscriber context, if present. The phases
+ * show whether a slow call was spent loading the model, evaluating the prompt or generating.
+ */
+@Component
+public class LlmUsageRecorder {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LlmUsageRecorder.class);
+
+  private final MeterRegistry meterRegistry;
+
+  public LlmUsageRecorder(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Records the usage of a single LLM call.
+   *
+   * @param provider the name of the LLM provider
+   * @param model the name of the model
+   * @param usage the usage reported for the call
+   * @param context the subscriber context of the call
+   */
+  public void record(String provider, String model, LlmUsage usage, ContextView context) {
+    tokens(provider, model, "prompt").record(usage.promptTokens());
+    tokens(provider, model, "completion").record(usage.completionTokens());
+    phase(provider, model, "load").record(usage.load());
+    phase(provider, model, "prefill").record(usage.prefill());
+    phase(provider, model, "decode").record(usage.decode());
+    context
+        .<LlmUsageAccumulator>getOrEmpty(LlmUsageAccumulator.class)
+        .ifPresent(accumulator -> accumulator.add(usage));
+    LOG.debug(
+        "{} {} call: {} prompt and {} completion tokens, load {} ms, prefill {} ms, decode {} ms",
+        provider,
+        model,
+        usage.promptTokens(),
+        usage.completionTokens(),
+        usage.load().toMillis(),
+        usage.prefill().toMillis(),
+        usage.decode().toMillis());
+  }
+
+  private DistributionSummary tokens(String provider, String model, String type) {
+    return DistributionSummary.builder("inkify.llm.tokens")
+        .description("Tokens per LLM call")
+        .baseUnit("tokens")
+        .tag("provider", provider)
+        .tag("model", model)
+        .tag("type", type)
+        .register(meterRegistry);
+  }
+
+  private Timer phase(String provider, String model, String phase) {
+    return Timer.builder("inkify.llm.phase")
+        .description("Time per LLM call spent loading the model, evaluating the prompt or decoding")
+        .tag("provider", provider)
+        .tag("model", model)
+        .tag("phase", phase)
+        .register(meterRegistry);
+  }
+}
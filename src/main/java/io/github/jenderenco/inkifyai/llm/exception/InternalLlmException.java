@@ -6,6 +6,15 @@ package io.github.jenderenco.inkifyai.llm.exception;
  */
 public class InternalLlmException extends RuntimeException {
 
+  /**
+   * Constructs a new InternalLlmException with the specified detail message.
+   *
+   * @param message the detail message
+   */
+  public InternalLlmException(String message) {
+    super(message);
+  }
+
   /**
    * Constructs a new InternalLlmException with the specified detail message and cause.
    *
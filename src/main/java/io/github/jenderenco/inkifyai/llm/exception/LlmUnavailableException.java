@@ -0,0 +1,35 @@
+package io.github.jenderenco.inkifyai.llm.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown without calling an LLM backend whose circuit breaker is open, because recent
+ * calls to it failed or were slow.
+ */
+public class LlmUnavailableException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  /**
+   * Constructs a new LlmUnavailableException for the given backend.
+   *
+   * @param backend the name of the unavailable backend
+   * @param retryAfter the time until the backend is probed again
+   */
+  public LlmUnavailableException(String backend, Duration retryAfter) {
+    super(
+        String.format(
+            "The LLM backend %s is unavailable, it will be tried again in %d seconds",
+            backend, Math.max(1, retryAfter.plusMillis(999).toSeconds())));
+    this.retryAfter = retryAfter;
+  }
+
+  /**
+   * Returns the time until the backend is probed again.
+   *
+   * @return the remaining time the circuit stays open
+   */
+  public Duration retryAfter() {
+    return retryAfter;
+  }
+}
@@ -0,0 +1,11 @@
+package io.github.jenderenco.inkifyai.llm.prompt;
+
+import java.util.List;
+
+/**
+ * The schemas of a specification after compaction.
+ *
+ * @param groups the structurally distinct schemas, in declaration order
+ * @param sharedNotes the boilerplate sentences removed from the individual descriptions
+ */
+public record CompactedSchemas(List<SchemaGroup> groups, List<String> sharedNotes) {}
@@ -0,0 +1,68 @@
+package io.github.jenderenco.inkifyai.llm.prompt;
+
+/**
+ * Adds up the sizes of the parts of one prompt before and after compaction, as they are compacted,
+ * so that the bytes saved can be recorded without building the uncompacted prompt.
+ *
+ * <p>Not thread-safe; an instance tallies a single prompt.
+ */
+final class CompactionTally {
+
+  private long originalBytes;
+  private long compactedBytes;
+
+  /**
+   * Adds a part of the prompt.
+   *
+   * @param original the part before compaction
+   * @param compacted the part after compaction
+   */
+  void add(CharSequence original, CharSequence compacted) {
+    add(utf8Length(original), utf8Length(compacted));
+  }
+
+  /**
+   * Adds the sizes of a part of the prompt.
+   *
+   * @param original the size of the part before compaction, in UTF-8 bytes
+   * @param compacted the size of the part after compaction, in UTF-8 bytes
+   */
+  void add(long original, long compacted) {
+    originalBytes += original;
+    compactedBytes += compacted;
+  }
+
+  /**
+   * Returns the effect of compacting the parts added so far.
+   *
+   * @return the sizes before and after compaction
+   */
+  PromptCompaction toCompaction() {
+    return new PromptCompaction(originalBytes, compactedBytes);
+  }
+
+  /**
+   * Returns the size of the text encoded as UTF-8, without encoding it.
+   *
+   * @param text the text
+   * @return the number of UTF-8 bytes
+   */
+  static long utf8Length(CharSequence text) {
+    long length = 0;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c < 0x80) {
+        length++;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c)) {
+        // A surrogate pair encodes a single four byte code point
+        length += 4;
+        i++;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+}
@@ -0,0 +1,21 @@
+package io.github.jenderenco.inkifyai.llm.prompt;
+
+/**
+ * A prompt split into the instructions, sent as system message, and the content they apply to,
+ * sent as user message. The instructions of a prompt kind are byte-identical across calls, so LLM
+ * backends can reuse the work done for them and only process the user message.
+ *
+ * @param system the instructions, identical for all prompts of the same kind
+ * @param user the content that varies between calls
+ */
+public record LlmPrompt(String system, String user) {
+
+  /**
+   * Returns the combined length of both messages.
+   *
+   * @return the length in characters
+   */
+  public int length() {
+    return system.length() + user.length();
+  }
+}
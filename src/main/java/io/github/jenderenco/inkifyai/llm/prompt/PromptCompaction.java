@@ -0,0 +1,30 @@
+package io.github.jenderenco.inkifyai.llm.prompt;
+
+/**
+ * The effect of compacting one prompt.
+ *
+ * @param originalBytes the size of the compacted parts before compaction, in UTF-8 bytes
+ * @param compactedBytes the size of the compacted parts after compaction, in UTF-8 bytes
+ */
+public record PromptCompaction(long originalBytes, long compactedBytes) {
+
+  private static final int BYTES_PER_TOKEN = 4;
+
+  /**
+   * Returns the number of bytes removed from the prompt.
+   *
+   * @return the bytes saved
+   */
+  public long savedBytes() {
+    return Math.max(0, originalBytes - compactedBytes);
+  }
+
+  /**
+   * Returns an estimate of the number of prompt tokens removed, at about four bytes per token.
+   *
+   * @return the estimated tokens saved
+   */
+  public long savedTokens() {
+    return savedBytes() / BYTES_PER_TOKEN;
+  }
+}
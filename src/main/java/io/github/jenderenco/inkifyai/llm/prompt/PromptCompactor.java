@@ -0,0 +1,253 @@
+package io.github.jenderenco.inkifyai.llm.prompt;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.jenderenco.inkifyai.llm.prompt.config.PromptCompactionProperties;
+import io.github.jenderenco.inkifyai.openapi.StructuralFingerprint;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.swagger.models.Model;
+import io.swagger.v3.oas.models.media.Schema;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compacts the parts of a specification that are embedded in prompts. Descriptions lose their
+ * markup and redundant whitespace and are truncated, sentences repeated across many schema
+ * descriptions are listed once, and structurally identical schemas are summarized together. Prompt
+ * tokens drive the prefill time of the LLM, so every byte removed here shortens every request.
+ */
+@Component
+public class PromptCompactor {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PromptCompactor.class);
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  // Only lowercase names of HTML elements, so that generics such as List<String> are kept
+  private static final Pattern TAG =
+      Pattern.compile(
+          "</?(?:a|abbr|b|blockquote|br|code|dd|del|div|dl|dt|em|h[1-6]|hr|i|img|ins|kbd|li|ol"
+              + "|p|pre|s|small|span|strong|sub|sup|table|tbody|td|tfoot|th|thead|tr|tt|u|ul)"
+              + "(?:\\s[^<>]*)?/?>");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Pattern SENTENCE_END = Pattern.compile("(?<=[.!?])\\s+");
+  private static final Set<String> DOCUMENTATION_FIELDS = Set.of("description", "title");
+  // "&amp;" goes last, so that "&amp;lt;" decodes to "&lt;" rather than "<"
+  private static final String[][] ENTITIES = {
+    {"&nbsp;", " "},
+    {"&lt;", "<"},
+    {"&gt;", ">"},
+    {"&quot;", "\""},
+    {"&#39;", "'"},
+    {"&apos;", "'"},
+    {"&amp;", "&"}
+  };
+
+  private final PromptCompactionProperties properties;
+  private final DistributionSummary savedBytes;
+  private final DistributionSummary savedTokens;
+
+  public PromptCompactor(PromptCompactionProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.savedBytes =
+        DistributionSummary.builder("inkify.prompt.compaction.saved.bytes")
+            .description("Bytes removed from prompts by compaction")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    this.savedTokens =
+        DistributionSummary.builder("inkify.prompt.compaction.saved.tokens")
+            .description("Estimated prompt tokens removed by compaction")
+            .baseUnit("tokens")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Returns whether prompts are compacted.
+   *
+   * @return true if compaction is enabled
+   */
+  public boolean enabled() {
+    return properties.enabled();
+  }
+
+  /**
+   * Compacts a free-text description: strips HTML markup, collapses whitespace and truncates it to
+   * the configured maximum length.
+   *
+   * @param text the description, possibly null
+   * @return the compacted description, or null if the description was null
+   */
+  public String compactText(String text) {
+    return text == null ? null : truncate(clean(text), properties.maxDescriptionLength());
+  }
+
+  /**
+   * Compacts a free-text description and adds its size before and after compaction to the tally.
+   *
+   * @param text the description, possibly null
+   * @param tally the tally of the prompt the description is part of
+   * @return the compacted description, or null if the description was null
+   */
+  String compactText(String text, CompactionTally tally) {
+    String compacted = compactText(text);
+    if (text != null) {
+      tally.add(text, compacted);
+    }
+    return compacted;
+  }
+
+  /**
+   * Groups structurally identical schemas and compacts their descriptions. Two schemas are
+   * structurally identical if they only differ in their titles and descriptions.
+   *
+   * @param schemas the schemas of the specification, by name
+   * @return the compacted schemas
+   */
+  public CompactedSchemas compactSchemas(Map<String, ?> schemas) {
+    Map<String, List<String>> namesByStructure = new LinkedHashMap<>();
+    Map<String, String> descriptionByStructure = new HashMap<>();
+    schemas.forEach(
+        (name, schema) -> {
+          String structure = structure(schema);
+          namesByStructure.computeIfAbsent(structure, s -> new ArrayList<>()).add(name);
+          String description = description(schema);
+          if (description != null && !description.isBlank()) {
+            descriptionByStructure.putIfAbsent(structure, clean(description));
+          }
+        });
+
+    Set<String> boilerplate = boilerplate(descriptionByStructure.values());
+    List<SchemaGroup> groups = new ArrayList<>(namesByStructure.size());
+    namesByStructure.forEach(
+        (structure, names) -> {
+          String description = descriptionByStructure.getOrDefault(structure, "");
+          groups.add(
+              new SchemaGroup(List.copyOf(names), withoutBoilerplate(description, boilerplate)));
+        });
+    List<String> sharedNotes =
+        boilerplate.stream()
+            .map(sentence -> truncate(sentence, properties.maxDescriptionLength()))
+            .toList();
+    return new CompactedSchemas(groups, sharedNotes);
+  }
+
+  /**
+   * Records the effect of compacting a prompt.
+   *
+   * @param compaction the sizes of the compacted parts before and after compaction
+   */
+  public void record(PromptCompaction compaction) {
+    savedBytes.record(compaction.savedBytes());
+    savedTokens.record(compaction.savedTokens());
+    LOG.debug(
+        "Compacted prompt from {} to {} bytes, saving about {} tokens",
+        compaction.originalBytes(),
+        compaction.compactedBytes(),
+        compaction.savedTokens());
+  }
+
+  /**
+   * Returns the description of a schema.
+   *
+   * @param schema the schema (either Swagger v2 Model or OpenAPI v3 Schema)
+   * @return the description, or null if the schema has none or is of an unknown type
+   */
+  static String description(Object schema) {
+    return switch (schema) {
+      case Model model -> model.getDescription();
+      case Schema<?> v3Schema -> v3Schema.getDescription();
+      default -> {
+        LOG.warn("Unknown schema object type: {}", schema.getClass().getName());
+        yield null;
+      }
+    };
+  }
+
+  private Set<String> boilerplate(Iterable<String> descriptions) {
+    int minOccurrences = properties.boilerplateMinOccurrences();
+    if (minOccurrences < 2) {
+      return Set.of();
+    }
+    Map<String, Integer> occurrences = new LinkedHashMap<>();
+    for (String description : descriptions) {
+      for (String sentence : new LinkedHashSet<>(sentences(description))) {
+        occurrences.merge(sentence, 1, Integer::sum);
+      }
+    }
+    Set<String> boilerplate = new LinkedHashSet<>();
+    occurrences.forEach(
+        (sentence, count) -> {
+          if (count >= minOccurrences) {
+            boilerplate.add(sentence);
+          }
+        });
+    return boilerplate;
+  }
+
+  private String withoutBoilerplate(String description, Set<String> boilerplate) {
+    if (!boilerplate.isEmpty()) {
+      List<String> kept = new ArrayList<>(sentences(description));
+      kept.removeAll(boilerplate);
+      description = String.join(" ", kept);
+    }
+    return truncate(description, properties.maxDescriptionLength());
+  }
+
+  private static List<String> sentences(String description) {
+    return description.isEmpty() ? List.of() : List.of(SENTENCE_END.split(description));
+  }
+
+  /** Returns the canonical JSON of the schema without its titles and descriptions. */
+  private static String structure(Object schema) {
+    String json = StructuralFingerprint.canonicalJson(schema);
+    try {
+      JsonNode tree = MAPPER.readTree(json);
+      stripDocumentation(tree);
+      return tree.toString();
+    } catch (JsonProcessingException ex) {
+      return json;
+    }
+  }
+
+  /**
+   * Removes textual titles and descriptions from the tree. Properties that happen to be named
+   * "description" or "title" are objects, not text, so they are kept.
+   */
+  private static void stripDocumentation(JsonNode node) {
+    if (node instanceof ObjectNode object) {
+      object.properties().removeIf(
+          field ->
+              DOCUMENTATION_FIELDS.contains(field.getKey()) && field.getValue().isTextual());
+    }
+    node.forEach(PromptCompactor::stripDocumentation);
+  }
+
+  private static String clean(String text) {
+    String cleaned = TAG.matcher(text).replaceAll(" ");
+    if (cleaned.indexOf('&') >= 0) {
+      for (String[] entity : ENTITIES) {
+        cleaned = cleaned.replace(entity[0], entity[1]);
+      }
+    }
+    return WHITESPACE.matcher(cleaned).replaceAll(" ").strip();
+  }
+
+  private static String truncate(String text, int maxLength) {
+    if (maxLength <= 0 || text.length() <= maxLength) {
+      return text;
+    }
+    int end = text.lastIndexOf(' ', maxLength - 1);
+    return text.substring(0, end > 0 ? end : maxLength - 1).stripTrailing() + "…";
+  }
+}
@@ -1,12 +1,12 @@
 package io.github.jenderenco.inkifyai.llm.prompt;
 
+import io.github.jenderenco.inkifyai.openapi.StructuralFingerprint;
 import io.github.jenderenco.inkifyai.openapi.model.ParsedOpenApiSpec;
-import io.swagger.models.Model;
 import io.swagger.models.Path;
 import io.swagger.v3.oas.models.PathItem;
-import io.swagger.v3.oas.models.media.Schema;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.StringJoiner;
@@ -19,23 +19,54 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StreamUtils;
 
 /**
- * Service for building prompts for LLMs based on OpenAPI specifications. This service loads a
- * prompt template from the classpath and fills it with data from a ParsedOpenApiSpec to create a
- * complete prompt for the LLM.
+ * Service for building prompts for LLMs based on OpenAPI specifications. This service loads prompt
+ * templates from the classpath and fills them with data from a ParsedOpenApiSpec to create a
+ * complete prompt for the LLM. The instructions of each prompt kind are kept in a separate system
+ * message that never changes, so backends can reuse their work for it across calls. When compaction
+ * is enabled, the specification is summarized through the {@link PromptCompactor} and the bytes
+ * saved are recorded per prompt. They are tallied while the parts are compacted, so the
+ * uncompacted summaries are never built.
  */
 @Service
 public class PromptService {
 
   private static final Logger LOG = LoggerFactory.getLogger(PromptService.class);
 
+  private static final String DOCUMENTATION_SYSTEM = "prompts/gitbook-documentation-system.txt";
+  private static final String DOCUMENTATION_TEMPLATE = "prompts/gitbook-documentation-template.txt";
+  private static final String CONTINUATION_TEMPLATE =
+      "prompts/gitbook-documentation-continuation.txt";
+  private static final String SECTION_SYSTEM = "prompts/gitbook-section-system.txt";
+  private static final String SECTION_TEMPLATE = "prompts/gitbook-section-template.txt";
+  private static final String NO_DESCRIPTION = "This API has no description.";
+  private static final String NO_SCHEMA_DESCRIPTION = "No description available.";
+  private static final String SCHEMA_PREFIX = "- `";
+  private static final String SCHEMA_SEPARATOR = "`: ";
+
+  private final String documentationSystem;
   private final PromptTemplate promptTemplate;
+  private final PromptTemplate continuationTemplate;
+  private final String sectionSystem;
+  private final PromptTemplate sectionTemplate;
+  private final String sectionTemplateVersion;
+  private final PromptCompactor compactor;
 
   /**
-   * Constructs a new PromptService. Loads the prompt template from the classpath during
+   * Constructs a new PromptService. Loads the prompt templates from the classpath during
    * initialization.
+   *
+   * @param compactor the compactor for the specification summaries
    */
-  public PromptService() {
-    this.promptTemplate = new PromptTemplate(loadPromptTemplate());
+  public PromptService(PromptCompactor compactor) {
+    this.compactor = compactor;
+    this.documentationSystem = loadPromptTemplate(DOCUMENTATION_SYSTEM);
+    this.promptTemplate = new PromptTemplate(loadPromptTemplate(DOCUMENTATION_TEMPLATE));
+    this.continuationTemplate = new PromptTemplate(loadPromptTemplate(CONTINUATION_TEMPLATE));
+    this.sectionSystem = loadPromptTemplate(SECTION_SYSTEM);
+    String sectionTemplateText = loadPromptTemplate(SECTION_TEMPLATE);
+    this.sectionTemplate = new PromptTemplate(sectionTemplateText);
+    this.sectionTemplateVersion =
+        StructuralFingerprint.hash(sectionSystem, sectionTemplateText).substring(0, 12);
   }
 
   /**
@@ -44,27 +75,97 @@ public class PromptService {
    * @param api the parsed OpenAPI specification
    * @return the complete prompt for the LLM
    */
-  public String buildPrompt(ParsedOpenApiSpec api) {
+  public LlmPrompt buildPrompt(ParsedOpenApiSpec api) {
+    CompactionTally tally = compactor.enabled() ? new CompactionTally() : null;
+    String description = summarizeDescription(api, tally);
+    String endpoints = summarizeEndpoints(api.paths(), tally);
+    String schemas =
+        tally != null
+            ? summarizeCompactedSchemas(api.schemas(), tally)
+            : summarizeSchemas(api.schemas());
+    if (tally != null) {
+      compactor.record(tally.toCompaction());
+    }
+
     Map<String, Object> templateVars =
         Map.of(
             "title", api.title(),
-            "description", api.description().orElse("This API has no description."),
-            "endpoints", summarizeEndpoints(api.paths()),
-            "schemas", summarizeSchemas(api.schemas()));
+            "description", description,
+            "endpoints", endpoints,
+            "schemas", schemas);
+
+    return new LlmPrompt(documentationSystem, promptTemplate.render(templateVars));
+  }
+
+  /**
+   * Builds the prompt to continue a document whose generation was interrupted. The system message
+   * and the specification are those of the original prompt, so backends can reuse their work for
+   * it; the headings of the sections already written are appended.
+   *
+   * @param prompt the prompt the document was generated from
+   * @param writtenHeadings the headings of the sections already written, in document order
+   * @return the prompt for the remaining sections
+   */
+  public LlmPrompt buildContinuationPrompt(LlmPrompt prompt, List<String> writtenHeadings) {
+    String written =
+        writtenHeadings.stream().map(heading -> "- " + heading).collect(Collectors.joining("\n"));
+    String continuation =
+        continuationTemplate.render(
+            Map.of("written", written, "last", writtenHeadings.getLast()));
+    return new LlmPrompt(prompt.system(), prompt.user() + continuation);
+  }
+
+  /**
+   * Builds the prompt for the overview section of the documentation, covering the API as a whole.
+   *
+   * @param api the parsed OpenAPI specification
+   * @return the prompt for the overview section
+   */
+  public LlmPrompt buildOverviewSectionPrompt(ParsedOpenApiSpec api) {
+    CompactionTally tally = compactor.enabled() ? new CompactionTally() : null;
+    String description = summarizeDescription(api, tally);
+    String endpoints = summarizeEndpoints(api.paths(), tally);
+    if (tally != null) {
+      compactor.record(tally.toCompaction());
+    }
 
-    return promptTemplate.render(templateVars);
+    String definition = description + "\n\nEndpoints:\n" + endpoints;
+    return buildSectionPrompt("API overview", api.title(), definition);
+  }
+
+  /**
+   * Builds the prompt for a single section of the documentation, covering one element of the API.
+   *
+   * @param kind the kind of element, for example "Endpoint" or "Schema"
+   * @param name the name of the element
+   * @param definition the definition of the element, typically its canonical JSON
+   * @return the prompt for the section
+   */
+  public LlmPrompt buildSectionPrompt(String kind, String name, String definition) {
+    return new LlmPrompt(
+        sectionSystem,
+        sectionTemplate.render(Map.of("kind", kind, "name", name, "definition", definition)));
+  }
+
+  /**
+   * Returns the version of the section templates, which changes whenever one of them does.
+   *
+   * @return the section template version
+   */
+  public String sectionTemplateVersion() {
+    return sectionTemplateVersion;
   }
 
   /**
-   * Loads the prompt template from the classpath.
+   * Loads a prompt template from the classpath.
    *
+   * @param path the classpath location of the template
    * @return the prompt template as a string
    * @throws IllegalStateException if the template cannot be loaded
    */
-  private String loadPromptTemplate() {
+  private String loadPromptTemplate(String path) {
     try {
-      ClassPathResource resource =
-          new ClassPathResource("prompts/gitbook-documentation-template.txt");
+      ClassPathResource resource = new ClassPathResource(path);
       return StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
     } catch (IOException ex) {
       LOG.error("Failed to load prompt template from classpath", ex);
@@ -72,15 +173,29 @@ public class PromptService {
     }
   }
 
+  /**
+   * Summarizes the description of the OpenAPI specification.
+   *
+   * @param api the parsed OpenAPI specification
+   * @param tally the tally of the compacted prompt, or null to not compact the description
+   * @return the description, or a placeholder if the specification has none
+   */
+  private String summarizeDescription(ParsedOpenApiSpec api, CompactionTally tally) {
+    return api.description()
+        .map(description -> tally != null ? compactor.compactText(description, tally) : description)
+        .orElse(NO_DESCRIPTION);
+  }
+
   /**
    * Summarizes the endpoints from the OpenAPI specification.
    *
    * @param pathsRaw the map of paths from the OpenAPI specification
+   * @param tally the tally of the compacted prompt, or null to not compact the operation summaries
    * @return a string representation of the endpoints
    */
-  private String summarizeEndpoints(Map<String, ?> pathsRaw) {
+  private String summarizeEndpoints(Map<String, ?> pathsRaw, CompactionTally tally) {
     return pathsRaw.entrySet().stream()
-        .map(entry -> formatPath(entry.getKey(), entry.getValue()))
+        .map(entry -> formatPath(entry.getKey(), entry.getValue(), tally))
         .collect(Collectors.joining("\n"));
   }
 
@@ -89,9 +204,10 @@ public class PromptService {
    *
    * @param path the path string
    * @param pathObj the path object (either Swagger v2 Path or OpenAPI v3 PathItem)
+   * @param tally the tally of the compacted prompt, or null to not compact the operation summaries
    * @return a formatted string representation of the path and its operations
    */
-  private String formatPath(String path, Object pathObj) {
+  private String formatPath(String path, Object pathObj, CompactionTally tally) {
     StringJoiner joiner = new StringJoiner("\n", "- `" + path + "`\n", "");
 
     if (pathObj instanceof Path v2Path) {
@@ -101,15 +217,17 @@ public class PromptService {
               (method, operation) ->
                   joiner.add(
                       formatOperation(
-                          method.name(), operation.getOperationId(), operation.getSummary())));
+                          method.name(),
+                          operation.getOperationId(),
+                          summary(operation.getSummary(), tally))));
     } else if (pathObj instanceof PathItem v3Path) {
-      handleV3Operation(joiner, "GET", v3Path.getGet());
-      handleV3Operation(joiner, "POST", v3Path.getPost());
-      handleV3Operation(joiner, "PUT", v3Path.getPut());
-      handleV3Operation(joiner, "DELETE", v3Path.getDelete());
-      handleV3Operation(joiner, "PATCH", v3Path.getPatch());
-      handleV3Operation(joiner, "HEAD", v3Path.getHead());
-      handleV3Operation(joiner, "OPTIONS", v3Path.getOptions());
+      handleV3Operation(joiner, "GET", v3Path.getGet(), tally);
+      handleV3Operation(joiner, "POST", v3Path.getPost(), tally);
+      handleV3Operation(joiner, "PUT", v3Path.getPut(), tally);
+      handleV3Operation(joiner, "DELETE", v3Path.getDelete(), tally);
+      handleV3Operation(joiner, "PATCH", v3Path.getPatch(), tally);
+      handleV3Operation(joiner, "HEAD", v3Path.getHead(), tally);
+      handleV3Operation(joiner, "OPTIONS", v3Path.getOptions(), tally);
     } else {
       LOG.warn("Unknown path object type: {}", pathObj.getClass().getName());
       joiner.add("  - Unable to process this endpoint type");
@@ -124,14 +242,22 @@ public class PromptService {
    * @param joiner the string joiner to add the formatted operation to
    * @param method the HTTP method
    * @param op the operation object
+   * @param tally the tally of the compacted prompt, or null to not compact the operation summary
    */
   private void handleV3Operation(
-      StringJoiner joiner, String method, io.swagger.v3.oas.models.Operation op) {
+      StringJoiner joiner,
+      String method,
+      io.swagger.v3.oas.models.Operation op,
+      CompactionTally tally) {
     Optional.ofNullable(op)
-        .map(o -> formatOperation(method, o.getOperationId(), o.getSummary()))
+        .map(o -> formatOperation(method, o.getOperationId(), summary(o.getSummary(), tally)))
         .ifPresent(joiner::add);
   }
 
+  private String summary(String summary, CompactionTally tally) {
+    return tally != null ? compactor.compactText(summary, tally) : summary;
+  }
+
   /**
    * Formats an operation.
    *
@@ -166,18 +292,59 @@ public class PromptService {
    * @return a formatted string representation of the schema
    */
   private String formatSchema(String name, Object schemaObj) {
-    String description =
-        Optional.ofNullable(
-                switch (schemaObj) {
-                  case Model model -> model.getDescription();
-                  case Schema<?> schema -> schema.getDescription();
-                  default -> {
-                    LOG.warn("Unknown schema object type: {}", schemaObj.getClass().getName());
-                    yield null;
-                  }
-                })
-            .orElse("No description available.");
-
-    return "- `" + name + "`: " + description;
+    return SCHEMA_PREFIX + name + SCHEMA_SEPARATOR + schemaDescription(schemaObj);
+  }
+
+  private static String schemaDescription(Object schemaObj) {
+    return Optional.ofNullable(PromptCompactor.description(schemaObj))
+        .orElse(NO_SCHEMA_DESCRIPTION);
+  }
+
+  /**
+   * Returns the size of the schema summary built by {@link #summarizeSchemas}, without building
+   * it.
+   *
+   * @param schemasRaw the map of schemas from the OpenAPI specification
+   * @return the size of the summary in UTF-8 bytes
+   */
+  private static long uncompactedSchemasLength(Map<String, ?> schemasRaw) {
+    long length = Math.max(0, schemasRaw.size() - 1);
+    for (Map.Entry<String, ?> entry : schemasRaw.entrySet()) {
+      length +=
+          SCHEMA_PREFIX.length()
+              + CompactionTally.utf8Length(entry.getKey())
+              + SCHEMA_SEPARATOR.length()
+              + CompactionTally.utf8Length(schemaDescription(entry.getValue()));
+    }
+    return length;
+  }
+
+  /**
+   * Summarizes the schemas from the OpenAPI specification after compaction. Structurally identical
+   * schemas share one line, and boilerplate repeated across descriptions is listed once at the end.
+   *
+   * @param schemasRaw the map of schemas from the OpenAPI specification
+   * @param tally the tally of the compacted prompt
+   * @return a string representation of the compacted schemas
+   */
+  private String summarizeCompactedSchemas(Map<String, ?> schemasRaw, CompactionTally tally) {
+    CompactedSchemas compacted = compactor.compactSchemas(schemasRaw);
+    StringJoiner joiner = new StringJoiner("\n");
+    for (SchemaGroup group : compacted.groups()) {
+      String names =
+          group.names().stream().map(name -> "`" + name + "`").collect(Collectors.joining(", "));
+      String line = "- " + names;
+      if (group.names().size() > 1) {
+        line += " (same structure)";
+      }
+      joiner.add(group.description().isEmpty() ? line : line + ": " + group.description());
+    }
+    if (!compacted.sharedNotes().isEmpty()) {
+      joiner.add("Notes that apply to many schemas:");
+      compacted.sharedNotes().forEach(note -> joiner.add("- " + note));
+    }
+    String summary = joiner.toString();
+    tally.add(uncompactedSchemasLength(schemasRaw), CompactionTally.utf8Length(summary));
+    return summary;
   }
 }
@@ -0,0 +1,11 @@
+package io.github.jenderenco.inkifyai.llm.prompt;
+
+import java.util.List;
+
+/**
+ * Schemas of a specification that share the same structure, summarized once in prompts.
+ *
+ * @param names the names of the schemas, in declaration order
+ * @param description the compacted description shared by the group, or empty if none
+ */
+public record SchemaGroup(List<String> names, String description) {}
@@ -0,0 +1,15 @@
+package io.github.jenderenco.inkifyai.llm.prompt.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for compacting the specification summaries embedded in prompts.
+ *
+ * @param enabled whether summaries are compacted
+ * @param maxDescriptionLength the maximum length of a single description, in characters
+ * @param boilerplateMinOccurrences the number of schema descriptions a sentence must appear in to
+ *     be treated as boilerplate and listed only once
+ */
+@ConfigurationProperties(prefix = "llm.prompt.compaction")
+public record PromptCompactionProperties(
+    boolean enabled, int maxDescriptionLength, int boilerplateMinOccurrences) {}
@@ -0,0 +1,458 @@
+package io.github.jenderenco.inkifyai.openapi;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.jenderenco.inkifyai.openapi.config.OpenApiProperties;
+import io.github.jenderenco.inkifyai.openapi.config.RefResolverProperties;
+import io.github.jenderenco.inkifyai.openapi.exception.OpenApiFetchException;
+import io.swagger.v3.parser.util.DeserializationUtils;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Resolves external {@code $ref} documents of multi-file OpenAPI specifications. All referenced
+ * documents are fetched concurrently through the {@link OpenApiFetcher} cache and bundled into the
+ * root document: references to schema components are hoisted into the root's schema section (once
+ * per name, so shared fragments such as common error schemas appear a single time), all other
+ * references are inlined.
+ */
+@Component
+public class ExternalRefResolver {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ExternalRefResolver.class);
+
+  private static final String REF = "$ref";
+  private static final Pattern SCHEMA_POINTER =
+      Pattern.compile("^/(?:components/schemas|definitions)/([^/]+)$");
+  private static final Set<String> SCHEMA_KEYWORDS =
+      Set.of("type", "properties", "allOf", "oneOf", "anyOf", "items", "enum");
+  private static final ObjectMapper JSON = new ObjectMapper();
+
+  private final OpenApiFetcher fetcher;
+  private final OpenApiProperties fetcherProperties;
+  private final RefResolverProperties properties;
+
+  /**
+   * Constructs a new ExternalRefResolver.
+   *
+   * @param fetcher the fetcher used for referenced documents
+   * @param fetcherProperties the fetcher properties
+   * @param properties the resolution limits
+   */
+  public ExternalRefResolver(
+      OpenApiFetcher fetcher,
+      OpenApiProperties fetcherProperties,
+      RefResolverProperties properties) {
+    this.fetcher = fetcher;
+    this.fetcherProperties = fetcherProperties;
+    this.properties = properties;
+  }
+
+  /**
+   * Resolves the external references of a specification fetched from the given location.
+   *
+   * @param rawSpec the raw OpenAPI specification
+   * @param location the URL the specification was fetched from, used as base for relative refs
+   * @return the bundled specification as JSON, or {@code rawSpec} unchanged if it has no external
+   *     references
+   * @throws OpenApiFetchException if a referenced document cannot be fetched or a limit is exceeded
+   */
+  public String resolve(String rawSpec, String location) {
+    if (!properties.enabled() || location == null) {
+      return rawSpec;
+    }
+
+    Resolution resolution;
+    try {
+      URI rootUri = new URI(location);
+      if (!(readTree(rawSpec, location) instanceof ObjectNode root)) {
+        return rawSpec;
+      }
+      resolution = new Resolution(rootUri, root);
+    } catch (URISyntaxException | RuntimeException e) {
+      // Leave malformed input to the parser, which reports it properly
+      LOG.debug("Skipping external reference resolution for {}: {}", location, e.getMessage());
+      return rawSpec;
+    }
+
+    Set<URI> documents = collectExternalDocuments(resolution.root, resolution.rootUri);
+    if (documents.isEmpty()) {
+      return rawSpec;
+    }
+
+    long start = System.nanoTime();
+    try {
+      Flux.fromIterable(documents)
+          .flatMap(uri -> load(uri, 1, resolution), properties.concurrency())
+          .then()
+          .block(properties.timeout());
+
+      new Bundler(resolution).bundle();
+      LOG.debug(
+          "Resolved {} external documents ({} bytes) for {} in {} ms",
+          resolution.documents.size(),
+          resolution.totalSize.get(),
+          location,
+          (System.nanoTime() - start) / 1_000_000);
+      return JSON.writeValueAsString(resolution.root);
+    } catch (OpenApiFetchException e) {
+      throw e;
+    } catch (JsonProcessingException | RuntimeException e) {
+      throw new OpenApiFetchException("Failed to resolve external references of " + location, e);
+    }
+  }
+
+  /**
+   * Loads a referenced document and, concurrently, all documents it references in turn.
+   *
+   * @param uri the document URI, without fragment
+   * @param depth the nesting depth of the document
+   * @param resolution the resolution state
+   * @return a Mono completing once the document and its references are loaded
+   */
+  private Mono<Void> load(URI uri, int depth, Resolution resolution) {
+    if (depth > properties.maxDepth()) {
+      return Mono.error(
+          new OpenApiFetchException(
+              "External references nest deeper than " + properties.maxDepth() + ": " + uri));
+    }
+    if (!resolution.claim(uri)) {
+      return Mono.empty();
+    }
+    if (resolution.claimed.size() - 1 > properties.maxDocuments()) {
+      return Mono.error(
+          new OpenApiFetchException(
+              "Specification references more than "
+                  + properties.maxDocuments()
+                  + " external documents"));
+    }
+
+    return Mono.fromCallable(() -> fetchDocument(uri, resolution))
+        .subscribeOn(Schedulers.boundedElastic())
+        .flatMapMany(document -> Flux.fromIterable(collectExternalDocuments(document, uri)))
+        .flatMap(child -> load(child, depth + 1, resolution), properties.concurrency())
+        .then();
+  }
+
+  private JsonNode fetchDocument(URI uri, Resolution resolution) {
+    String content = fetcher.fetch(uri.toString(), fetcherProperties);
+    if (resolution.totalSize.addAndGet(utf8Length(content)) > properties.maxTotalBytes()) {
+      throw new OpenApiFetchException(
+          "External documents exceed the limit of " + properties.maxTotalBytes() + " bytes");
+    }
+
+    JsonNode document = readTree(content, uri.toString());
+    if (document == null) {
+      throw new OpenApiFetchException("Unreadable external document: " + uri);
+    }
+    resolution.documents.put(uri, document);
+    return document;
+  }
+
+  /**
+   * Returns the UTF-8 encoded size of a document without encoding it.
+   *
+   * @param content the document
+   * @return the size in bytes
+   */
+  static long utf8Length(String content) {
+    long bytes = 0;
+    for (int i = 0; i < content.length(); i++) {
+      char c = content.charAt(i);
+      if (c < 0x80) {
+        bytes += 1;
+      } else if (c < 0x800) {
+        bytes += 2;
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < content.length()
+          && Character.isLowSurrogate(content.charAt(i + 1))) {
+        bytes += 4;
+        i++;
+      } else {
+        bytes += 3;
+      }
+    }
+    return bytes;
+  }
+
+  private static JsonNode readTree(String content, String location) {
+    return DeserializationUtils.deserializeIntoTree(content, location);
+  }
+
+  /**
+   * Collects the URIs of all documents referenced from the given node.
+   *
+   * @param node the node to scan
+   * @param base the URI of the document containing the node
+   * @return the referenced document URIs without fragments, excluding {@code base} itself
+   */
+  private static Set<URI> collectExternalDocuments(JsonNode node, URI base) {
+    Set<URI> documents = new LinkedHashSet<>();
+    Deque<JsonNode> pending = new ArrayDeque<>();
+    pending.push(node);
+
+    while (!pending.isEmpty()) {
+      JsonNode current = pending.pop();
+      JsonNode ref = current.get(REF);
+      if (current.isObject() && ref != null && ref.isTextual()) {
+        String value = ref.asText();
+        if (!value.startsWith("#")) {
+          toDocumentUri(base, value)
+              .filter(uri -> !uri.equals(base))
+              .ifPresent(documents::add);
+        }
+      }
+      current.elements().forEachRemaining(pending::push);
+    }
+    return documents;
+  }
+
+  private static Optional<URI> toDocumentUri(URI base, String ref) {
+    try {
+      URI target = base.resolve(new URI(ref));
+      return Optional.of(withoutFragment(target));
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      LOG.warn("Ignoring malformed $ref '{}' in {}", ref, base);
+      return Optional.empty();
+    }
+  }
+
+  private static URI withoutFragment(URI uri) throws URISyntaxException {
+    return new URI(uri.getScheme(), uri.getSchemeSpecificPart(), null);
+  }
+
+  /** Mutable state of a single resolution. */
+  private static final class Resolution {
+
+    private final URI rootUri;
+    private final ObjectNode root;
+    private final Map<URI, JsonNode> documents = new ConcurrentHashMap<>();
+    private final Set<URI> claimed = ConcurrentHashMap.newKeySet();
+    private final AtomicLong totalSize = new AtomicLong();
+
+    private Resolution(URI rootUri, ObjectNode root) {
+      this.rootUri = rootUri;
+      this.root = root;
+      // Documents referencing the root back must not load it a second time
+      this.claimed.add(rootUri);
+    }
+
+    private boolean claim(URI uri) {
+      return claimed.add(uri);
+    }
+  }
+
+  /** Rewrites the root document so that it no longer contains external references. */
+  private final class Bundler {
+
+    private final Resolution resolution;
+    private final boolean swaggerV2;
+    private final Map<String, String> hoisted = new HashMap<>();
+    private final Map<String, String> aliases = new HashMap<>();
+    private final Set<String> retired = new HashSet<>();
+    private final Deque<String> inlineStack = new ArrayDeque<>();
+
+    private Bundler(Resolution resolution) {
+      this.resolution = resolution;
+      this.swaggerV2 = resolution.root.has("swagger");
+    }
+
+    private void bundle() {
+      process(resolution.root, resolution.rootUri);
+      if (!aliases.isEmpty()) {
+        renameAliases(resolution.root);
+      }
+    }
+
+    private JsonNode process(JsonNode node, URI documentUri) {
+      if (node instanceof ObjectNode object) {
+        JsonNode ref = object.get(REF);
+        if (ref != null && ref.isTextual()) {
+          return resolveRef(object, ref.asText(), documentUri);
+        }
+        // Snapshot the names: hoisting may add schemas to the object being iterated
+        List<String> names = new ArrayList<>();
+        object.fieldNames().forEachRemaining(names::add);
+        names.forEach(name -> object.set(name, process(object.get(name), documentUri)));
+      } else if (node instanceof ArrayNode array) {
+        for (int i = 0; i < array.size(); i++) {
+          array.set(i, process(array.get(i), documentUri));
+        }
+      }
+      return node;
+    }
+
+    private JsonNode resolveRef(ObjectNode refNode, String ref, URI documentUri) {
+      URI target;
+      URI targetDocument;
+      try {
+        target = documentUri.resolve(new URI(ref));
+        targetDocument = withoutFragment(target);
+      } catch (URISyntaxException | IllegalArgumentException e) {
+        return refNode;
+      }
+      String pointer = target.getFragment() == null ? "" : target.getFragment();
+
+      if (targetDocument.equals(resolution.rootUri)) {
+        // Fragments copied from other documents may point back into the root
+        if (!documentUri.equals(resolution.rootUri)) {
+          refNode.put(REF, "#" + pointer);
+        }
+        return refNode;
+      }
+
+      JsonNode document = resolution.documents.get(targetDocument);
+      if (document == null) {
+        LOG.warn("External document {} was not loaded, keeping $ref", targetDocument);
+        return refNode;
+      }
+
+      JsonNode targetNode = pointer.isEmpty() ? document : document.at(pointer);
+      if (targetNode.isMissingNode()) {
+        LOG.warn("Unresolvable $ref '{}' in {}", ref, documentUri);
+        return refNode;
+      }
+
+      String schemaName = schemaName(pointer, targetNode, targetDocument);
+      if (schemaName != null) {
+        String key = targetDocument + "#" + pointer;
+        return schemaRef(hoist(key, schemaName, targetNode, targetDocument));
+      }
+
+      String key = target.toString();
+      if (inlineStack.contains(key) || inlineStack.size() >= properties.maxDepth()) {
+        LOG.warn("Not inlining recursive or too deeply nested $ref '{}'", key);
+        return refNode;
+      }
+      inlineStack.push(key);
+      try {
+        return process(targetNode.deepCopy(), targetDocument);
+      } finally {
+        inlineStack.pop();
+      }
+    }
+
+    private String hoist(String key, String name, JsonNode schema, URI documentUri) {
+      String existing = hoisted.get(key);
+      if (existing != null) {
+        return existing;
+      }
+
+      ObjectNode container = schemaContainer();
+      String assigned = name;
+      for (int suffix = 2; container.has(assigned) || retired.contains(assigned); suffix++) {
+        assigned = name + "_" + suffix;
+      }
+      hoisted.put(key, assigned);
+      // Reserve the name first so recursive references resolve to it
+      container.set(assigned, schema.deepCopy());
+      JsonNode rewritten = process(container.get(assigned), documentUri);
+      container.set(assigned, rewritten);
+
+      // The same schema may be reached under another key, such as a copy in a second document
+      // or in the root: once its references are rewritten it compares equal to that schema
+      String duplicate = findDuplicate(container, name, assigned, rewritten);
+      if (duplicate == null) {
+        return assigned;
+      }
+      container.remove(assigned);
+      retired.add(assigned);
+      aliases.put(assigned, duplicate);
+      hoisted.put(key, duplicate);
+      return duplicate;
+    }
+
+    private String findDuplicate(
+        ObjectNode container, String name, String assigned, JsonNode rewritten) {
+      String candidate = name;
+      for (int suffix = 2; !candidate.equals(assigned); suffix++) {
+        if (rewritten.equals(container.get(candidate))) {
+          return candidate;
+        }
+        candidate = name + "_" + suffix;
+      }
+      return null;
+    }
+
+    /**
+     * Points references to schemas that turned out to be duplicates, made while those schemas
+     * were being rewritten, at the schema they duplicate.
+     */
+    private void renameAliases(JsonNode node) {
+      String prefix = schemaRefPrefix();
+      Deque<JsonNode> pending = new ArrayDeque<>();
+      pending.push(node);
+      while (!pending.isEmpty()) {
+        JsonNode current = pending.pop();
+        JsonNode ref = current.get(REF);
+        if (current instanceof ObjectNode object && ref != null && ref.isTextual()) {
+          String value = ref.asText();
+          String target =
+              value.startsWith(prefix) ? aliases.get(value.substring(prefix.length())) : null;
+          if (target != null) {
+            object.put(REF, prefix + target);
+          }
+        }
+        current.elements().forEachRemaining(pending::push);
+      }
+    }
+
+    private String schemaName(String pointer, JsonNode targetNode, URI targetDocument) {
+      Matcher matcher = SCHEMA_POINTER.matcher(pointer);
+      if (matcher.matches()) {
+        return matcher.group(1).replace("~1", "/").replace("~0", "~");
+      }
+      if (pointer.isEmpty() && looksLikeSchema(targetNode)) {
+        String path = targetDocument.getPath();
+        String file = path.substring(path.lastIndexOf('/') + 1);
+        int extension = file.indexOf('.');
+        return extension > 0 ? file.substring(0, extension) : file;
+      }
+      return null;
+    }
+
+    private boolean looksLikeSchema(JsonNode node) {
+      return node.isObject()
+          && !node.has("openapi")
+          && !node.has("swagger")
+          && SCHEMA_KEYWORDS.stream().anyMatch(node::has);
+    }
+
+    private ObjectNode schemaContainer() {
+      return swaggerV2
+          ? resolution.root.withObjectProperty("definitions")
+          : resolution.root.withObjectProperty("components").withObjectProperty("schemas");
+    }
+
+    private ObjectNode schemaRef(String name) {
+      return JSON.createObjectNode().put(REF, schemaRefPrefix() + name);
+    }
+
+    private String schemaRefPrefix() {
+      return swaggerV2 ? "#/definitions/" : "#/components/schemas/";
+    }
+  }
+}
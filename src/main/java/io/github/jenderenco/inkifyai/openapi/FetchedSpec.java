@@ -0,0 +1,22 @@
+package io.github.jenderenco.inkifyai.openapi;
+
+/**
+ * A fetched OpenAPI specification with the validators the server sent for it, used to ask for the
+ * specification again only if it changed.
+ *
+ * @param content the specification as a string
+ * @param etag the {@code ETag} response header, or {@code null} if absent
+ * @param lastModified the {@code Last-Modified} response header, or {@code null} if absent
+ */
+public record FetchedSpec(String content, String etag, String lastModified) {
+
+  /**
+   * Returns the SHA-256 hash of the content, which identifies the version of the specification
+   * even if the server sends no validators.
+   *
+   * @return the content hash as a lowercase hex string
+   */
+  public String contentHash() {
+    return StructuralFingerprint.hash(content);
+  }
+}
@@ -9,11 +9,15 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
 import reactor.util.retry.Retry;
 
 @Component
@@ -21,14 +25,22 @@ public class OpenApiFetcher {
 
   private static final Logger LOG = LoggerFactory.getLogger(OpenApiFetcher.class);
 
+  /** The largest response body buffered, and so the largest specification that can be fetched. */
+  public static final int MAX_IN_MEMORY_SIZE = 16 * 1024 * 1024;
+
   private final WebClient webClient;
 
-  public OpenApiFetcher(WebClient.Builder webClientBuilder) {
+  /**
+   * Constructs a new OpenApiFetcher.
+   *
+   * @param webClientBuilder the builder used to create the web client
+   * @param openApiHttpClient the pooled HTTP client used as transport
+   */
+  public OpenApiFetcher(WebClient.Builder webClientBuilder, HttpClient openApiHttpClient) {
     this.webClient =
         webClientBuilder
-            .codecs(
-                configurer ->
-                    configurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024)) // 16MB max size
+            .clientConnector(new ReactorClientHttpConnector(openApiHttpClient))
+            .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(MAX_IN_MEMORY_SIZE))
             .build();
   }
 
@@ -39,7 +51,11 @@ public class OpenApiFetcher {
    * @return the OpenAPI specification as a string
    * @throws OpenApiFetchException if the URL is invalid or the fetch fails
    */
-  @Cacheable(value = "openApiSpecs", key = "#url", condition = "#properties.cacheSize() > 0")
+  @Cacheable(
+      value = "openApiSpecs",
+      key = "#url",
+      condition = "#properties.cacheSize() > 0",
+      sync = true)
   public String fetch(String url, OpenApiProperties properties) {
     LOG.info("Fetching OpenAPI specification from: {}", url);
 
@@ -75,6 +91,73 @@ public class OpenApiFetcher {
     }
   }
 
+  /**
+   * Fetches an OpenAPI specification unless it is unchanged since the previous fetch. The request
+   * carries the validators of the previous fetch as {@code If-None-Match} and {@code
+   * If-Modified-Since} headers, so the server can answer {@code 304 Not Modified} without sending
+   * the specification. Unlike {@link #fetch}, the result is never served from the cache.
+   *
+   * @param url the URL to fetch the OpenAPI specification from
+   * @param previous the result of the previous fetch, or {@code null} if there was none
+   * @param properties the fetcher settings
+   * @return the specification, or empty if the server reported it as not modified
+   * @throws OpenApiFetchException if the URL is invalid or the fetch fails
+   */
+  public Optional<FetchedSpec> fetchIfChanged(
+      String url, FetchedSpec previous, OpenApiProperties properties) {
+    LOG.debug("Checking OpenAPI specification for changes: {}", url);
+
+    try {
+      if (properties.validateUrl()) {
+        validateUrl(url);
+      }
+
+      return webClient
+          .get()
+          .uri(url)
+          .headers(
+              headers -> {
+                if (previous != null && previous.etag() != null) {
+                  headers.set(HttpHeaders.IF_NONE_MATCH, previous.etag());
+                }
+                if (previous != null && previous.lastModified() != null) {
+                  headers.set(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified());
+                }
+              })
+          .exchangeToMono(
+              response -> {
+                if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                  return response.releaseBody().then(Mono.<FetchedSpec>empty());
+                }
+                if (response.statusCode().isError()) {
+                  return handleErrorResponse(response)
+                      .flatMap(Mono::<FetchedSpec>error)
+                      .switchIfEmpty(
+                          Mono.error(
+                              new OpenApiFetchException(
+                                  "Error fetching OpenAPI spec: "
+                                      + response.statusCode().value())));
+                }
+                HttpHeaders headers = response.headers().asHttpHeaders();
+                return response
+                    .bodyToMono(String.class)
+                    .map(
+                        content ->
+                            new FetchedSpec(
+                                content,
+                                headers.getFirst(HttpHeaders.ETAG),
+                                headers.getFirst(HttpHeaders.LAST_MODIFIED)));
+              })
+          .timeout(Duration.ofMillis(properties.readTimeout()))
+          .retryWhen(
+              Retry.backoff(properties.maxRetries(), Duration.ofMillis(properties.retryDelay()))
+                  .filter(throwable -> !(throwable instanceof OpenApiFetchException)))
+          .blockOptional();
+    } catch (Exception e) {
+      throw new OpenApiFetchException("Failed to fetch OpenAPI specification", e);
+    }
+  }
+
   private Mono<? extends Throwable> handleErrorResponse(ClientResponse response) {
     return response
         .bodyToMono(String.class)
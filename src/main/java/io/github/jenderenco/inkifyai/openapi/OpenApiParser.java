@@ -33,14 +33,16 @@ public class OpenApiParser {
   }
 
   /**
-   * Try to parse the specification as OpenAPI v3.
+   * Try to parse the specification as OpenAPI v3. The messages the parser reports are kept with
+   * the parsed specification, so they can be validated before generation.
    *
    * @param rawSpec the raw OpenAPI specification string
    * @return an Optional containing the ParsedOpenApiSpec if successful, or empty if not
    */
   private Optional<ParsedOpenApiSpec> parseV3(String rawSpec) {
     SwaggerParseResult result = new OpenAPIV3Parser().readContents(rawSpec);
-    return Optional.ofNullable(result.getOpenAPI()).map(OpenApiV3ParsedOpenApi::new);
+    return Optional.ofNullable(result.getOpenAPI())
+        .map(openApi -> new OpenApiV3ParsedOpenApi(openApi, result.getMessages()));
   }
 
   /**
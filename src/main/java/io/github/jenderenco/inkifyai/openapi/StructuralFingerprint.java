@@ -0,0 +1,71 @@
+package io.github.jenderenco.inkifyai.openapi;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Canonical serialization and hashing of specification elements. Two elements with the same
+ * structure produce the same canonical JSON and fingerprint, regardless of the order in which their
+ * properties were declared or of the specification version they came from.
+ */
+public final class StructuralFingerprint {
+
+  private static final ObjectMapper V3_MAPPER = canonical(io.swagger.v3.core.util.Json.mapper());
+  private static final ObjectMapper V2_MAPPER = canonical(io.swagger.util.Json.mapper());
+
+  private StructuralFingerprint() {}
+
+  /**
+   * Serializes a specification element to canonical JSON, with object properties and map entries
+   * sorted by name.
+   *
+   * @param element the element (a Swagger v2 or OpenAPI v3 model object)
+   * @return the canonical JSON representation
+   * @throws IllegalStateException if the element cannot be serialized
+   */
+  public static String canonicalJson(Object element) {
+    ObjectMapper mapper =
+        element.getClass().getName().startsWith("io.swagger.v3.") ? V3_MAPPER : V2_MAPPER;
+    try {
+      return mapper.writeValueAsString(element);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException(
+          "Unable to serialize " + element.getClass().getSimpleName(), ex);
+    }
+  }
+
+  /**
+   * Computes a SHA-256 fingerprint over the given parts.
+   *
+   * @param parts the parts to hash, in order
+   * @return the fingerprint as a lowercase hex string
+   */
+  public static String hash(String... parts) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (String part : parts) {
+        digest.update(part.getBytes(StandardCharsets.UTF_8));
+        // Separator, so that ("ab", "c") and ("a", "bc") differ
+        digest.update((byte) 0);
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 is not available", ex);
+    }
+  }
+
+  private static ObjectMapper canonical(ObjectMapper mapper) {
+    ObjectMapper copy = mapper.copy();
+    copy.setConfig(
+        copy.getSerializationConfig()
+            .with(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS));
+    return copy;
+  }
+}
@@ -0,0 +1,104 @@
+package io.github.jenderenco.inkifyai.openapi.config;
+
+import io.netty.channel.ChannelOption;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.AddressUtils;
+
+/**
+ * Configuration of the HTTP transport used to fetch OpenAPI specifications. Specs are fetched
+ * through a dedicated connection pool so that repeated fetches from the same registry reuse warm
+ * connections, and the configured connect and read timeouts are applied at the transport level.
+ *
+ * <p>The beans are deliberately not exposed as a {@code ClientHttpConnector}, so other {@code
+ * WebClient} users (such as the Ollama client) keep the default connector.
+ */
+@Configuration
+public class OpenApiHttpClientConfig {
+
+  private static final String POOL_NAME = "openapi-fetcher";
+
+  private static final Pattern HOST_AND_PORT =
+      Pattern.compile(OpenApiProperties.Pool.HOST_AND_PORT);
+
+  /**
+   * Creates the connection pool used for fetching specifications.
+   *
+   * @param properties the fetcher properties
+   * @return the connection provider
+   */
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider openApiConnectionProvider(OpenApiProperties properties) {
+    OpenApiProperties.Pool pool = properties.pool();
+    ConnectionProvider.Builder builder =
+        ConnectionProvider.builder(POOL_NAME)
+            .maxConnections(pool.maxConnections())
+            .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+            .maxIdleTime(pool.maxIdleTime())
+            .maxLifeTime(pool.maxLifeTime())
+            .evictInBackground(pool.evictionInterval())
+            .lifo()
+            .metrics(pool.metrics());
+
+    Optional.ofNullable(pool.hosts())
+        .orElseGet(Map::of)
+        .forEach(
+            (hostAndPort, maxConnections) ->
+                builder.forRemoteHost(
+                    toSocketAddress(hostAndPort), spec -> spec.maxConnections(maxConnections)));
+
+    return builder.build();
+  }
+
+  /**
+   * Creates the HTTP client used for fetching specifications.
+   *
+   * @param connectionProvider the pooled connection provider
+   * @param properties the fetcher properties
+   * @return the HTTP client
+   */
+  @Bean
+  public HttpClient openApiHttpClient(
+      ConnectionProvider connectionProvider, OpenApiProperties properties) {
+    HttpClient client =
+        HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, properties.connectTimeout())
+            .option(ChannelOption.SO_KEEPALIVE, true)
+            .responseTimeout(Duration.ofMillis(properties.readTimeout()))
+            .keepAlive(true)
+            .compress(true);
+
+    if (properties.pool().http2()) {
+      client = client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+    }
+    return client;
+  }
+
+  /**
+   * Parses a pool host override key into the address the pool is keyed by. IP literals become
+   * resolved addresses and host names unresolved ones, the same as the addresses Reactor Netty
+   * derives from request URIs, so the override matches the requests to that host.
+   *
+   * @param hostAndPort the {@code host:port} or {@code [ipv6]:port} key
+   * @return the socket address
+   * @throws IllegalArgumentException if the key is not a host and port
+   */
+  static InetSocketAddress toSocketAddress(String hostAndPort) {
+    Matcher matcher = HOST_AND_PORT.matcher(hostAndPort);
+    if (!matcher.matches()) {
+      throw new IllegalArgumentException(
+          "Invalid openapi.fetcher.pool.hosts key '" + hostAndPort + "', expected host:port");
+    }
+    String host = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+    return AddressUtils.createUnresolved(host, Integer.parseInt(matcher.group(3)));
+  }
+}
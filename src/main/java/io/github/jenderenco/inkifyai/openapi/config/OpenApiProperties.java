@@ -1,7 +1,14 @@
 package io.github.jenderenco.inkifyai.openapi.config;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
 
+@Validated
 @ConfigurationProperties(prefix = "openapi.fetcher")
 public record OpenApiProperties(
     int connectTimeout,
@@ -10,4 +17,43 @@ public record OpenApiProperties(
     long retryDelay,
     boolean validateUrl,
     int cacheSize,
-    long cacheTtl) {}
+    long cacheTtl,
+    @Valid Pool pool) {
+
+  /**
+   * Connection pool settings for the HTTP client used to fetch specifications.
+   *
+   * @param maxConnections the default maximum number of connections per remote host
+   * @param pendingAcquireTimeout how long a fetch waits for a pooled connection
+   * @param maxIdleTime how long an idle connection is kept for reuse
+   * @param maxLifeTime the maximum lifetime of a connection, regardless of activity
+   * @param evictionInterval how often idle and expired connections are evicted in the background
+   * @param http2 whether to negotiate HTTP/2 (falls back to HTTP/1.1)
+   * @param metrics whether to publish connection pool metrics
+   * @param hosts per-host overrides of {@code maxConnections}, keyed by {@code host:port}, with
+   *     IPv6 literals in brackets ({@code [::1]:8443})
+   */
+  public record Pool(
+      int maxConnections,
+      Duration pendingAcquireTimeout,
+      Duration maxIdleTime,
+      Duration maxLifeTime,
+      Duration evictionInterval,
+      boolean http2,
+      boolean metrics,
+      Map<
+              @Pattern(regexp = HOST_AND_PORT, message = "must be host:port or [ipv6]:port")
+              String,
+              @Positive Integer>
+          hosts) {
+
+    /**
+     * A host name, IPv4 literal or bracketed IPv6 literal, followed by a port from 1 to 65535.
+     * Group 1 holds an IPv6 literal without its brackets, group 2 any other host and group 3 the
+     * port.
+     */
+    public static final String HOST_AND_PORT =
+        "(?:\\[([0-9A-Fa-f:.]+(?:%[\\w.]+)?)]|([^\\s:\\[\\]/]+))"
+            + ":(6553[0-5]|655[0-2]\\d|65[0-4]\\d{2}|6[0-4]\\d{3}|[1-5]\\d{4}|[1-9]\\d{0,3})";
+  }
+}
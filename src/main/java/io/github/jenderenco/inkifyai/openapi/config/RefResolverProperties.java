@@ -0,0 +1,23 @@
+package io.github.jenderenco.inkifyai.openapi.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits for resolving external {@code $ref} documents of multi-file specifications.
+ *
+ * @param enabled whether external references are resolved at all
+ * @param maxDepth the maximum nesting of documents referencing other documents
+ * @param maxDocuments the maximum number of external documents per specification
+ * @param maxTotalBytes the maximum combined size of all external documents, in UTF-8 bytes
+ * @param concurrency the maximum number of documents fetched concurrently per referencing document
+ * @param timeout the overall time allowed for resolving one specification
+ */
+@ConfigurationProperties(prefix = "openapi.resolver")
+public record RefResolverProperties(
+    boolean enabled,
+    int maxDepth,
+    int maxDocuments,
+    long maxTotalBytes,
+    int concurrency,
+    Duration timeout) {}
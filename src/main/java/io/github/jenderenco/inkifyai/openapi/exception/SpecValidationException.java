@@ -0,0 +1,31 @@
+package io.github.jenderenco.inkifyai.openapi.exception;
+
+import java.util.List;
+
+/**
+ * Exception thrown when an OpenAPI specification is rejected by validation before generation.
+ * Extends {@link IllegalArgumentException}, like other errors caused by an invalid specification.
+ */
+public class SpecValidationException extends IllegalArgumentException {
+
+  private final List<String> reasons;
+
+  /**
+   * Constructs a new SpecValidationException for the given reasons.
+   *
+   * @param reasons the reasons the specification was rejected
+   */
+  public SpecValidationException(List<String> reasons) {
+    super("The specification failed validation: " + String.join("; ", reasons));
+    this.reasons = List.copyOf(reasons);
+  }
+
+  /**
+   * Returns the reasons the specification was rejected.
+   *
+   * @return the reasons
+   */
+  public List<String> reasons() {
+    return reasons;
+  }
+}
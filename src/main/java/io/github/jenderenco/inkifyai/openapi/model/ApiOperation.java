@@ -0,0 +1,22 @@
+package io.github.jenderenco.inkifyai.openapi.model;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A single operation of an API, independent of the specification version.
+ *
+ * @param method the HTTP method, in upper case
+ * @param path the path of the operation
+ * @param operationId the operation ID, if defined
+ * @param summary the operation summary, if defined
+ * @param tags the tags of the operation
+ * @param definition the underlying operation object (either Swagger v2 or OpenAPI v3 Operation)
+ */
+public record ApiOperation(
+    String method,
+    String path,
+    Optional<String> operationId,
+    Optional<String> summary,
+    List<String> tags,
+    Object definition) {}
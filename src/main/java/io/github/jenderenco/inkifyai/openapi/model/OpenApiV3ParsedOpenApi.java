@@ -2,15 +2,22 @@ package io.github.jenderenco.inkifyai.openapi.model;
 
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.media.Schema;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 /** Implementation of ParsedOpenApiSpec for OpenAPI v3 specifications. */
 public record OpenApiV3ParsedOpenApi(
-    String title, Optional<String> description, Map<String, ?> paths, Map<String, ?> schemas)
+    String title,
+    Optional<String> description,
+    Map<String, ?> paths,
+    Map<String, ?> schemas,
+    List<String> parserMessages)
     implements ParsedOpenApiSpec {
 
   /**
@@ -19,11 +26,46 @@ public record OpenApiV3ParsedOpenApi(
    * @param openAPI the OpenAPI object
    */
   public OpenApiV3ParsedOpenApi(OpenAPI openAPI) {
+    this(openAPI, List.of());
+  }
+
+  /**
+   * Create an OpenApiV3ParsedOpenApi from an OpenAPI object and the messages the parser reported
+   * for it.
+   *
+   * @param openAPI the OpenAPI object
+   * @param parserMessages the messages reported by the parser
+   */
+  public OpenApiV3ParsedOpenApi(OpenAPI openAPI, List<String> parserMessages) {
     this(
         extractTitle(openAPI),
         extractDescription(openAPI),
         extractPaths(openAPI),
-        extractSchemas(openAPI));
+        extractSchemas(openAPI),
+        parserMessages == null ? List.of() : List.copyOf(parserMessages));
+  }
+
+  @Override
+  public List<ApiOperation> operations() {
+    return paths().entrySet().stream()
+        .sorted(Map.Entry.comparingByKey())
+        .flatMap(
+            entry ->
+                ((PathItem) entry.getValue())
+                    .readOperationsMap().entrySet().stream()
+                        .sorted(Comparator.comparing(op -> op.getKey().ordinal()))
+                        .map(op -> toOperation(entry.getKey(), op.getKey().name(), op.getValue())))
+        .toList();
+  }
+
+  private static ApiOperation toOperation(String path, String method, Operation operation) {
+    return new ApiOperation(
+        method,
+        path,
+        Optional.ofNullable(operation.getOperationId()),
+        Optional.ofNullable(operation.getSummary()),
+        Optional.ofNullable(operation.getTags()).orElseGet(List::of),
+        operation);
   }
 
   private static String extractTitle(OpenAPI openAPI) {
@@ -1,5 +1,6 @@
 package io.github.jenderenco.inkifyai.openapi.model;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -35,4 +36,21 @@ public interface ParsedOpenApiSpec {
    * @return a map of schemas
    */
   Map<String, ?> schemas();
+
+  /**
+   * Get the operations defined in the API, ordered by path and then by HTTP method.
+   *
+   * @return a list of operations
+   */
+  List<ApiOperation> operations();
+
+  /**
+   * Get the messages the parser reported for the specification, such as missing required
+   * attributes or values of the wrong type.
+   *
+   * @return the parser messages, empty if there were none or the parser does not report them
+   */
+  default List<String> parserMessages() {
+    return List.of();
+  }
 }
@@ -0,0 +1,37 @@
+package io.github.jenderenco.inkifyai.openapi.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A part of a parsed specification, holding only selected operations and the schemas they
+ * reference.
+ *
+ * @param source the complete specification
+ * @param paths the paths of the selected operations, with only these operations
+ * @param schemas the schemas referenced by the selected operations, directly or transitively
+ * @param operations the selected operations
+ */
+public record SelectedOpenApiSpec(
+    ParsedOpenApiSpec source,
+    Map<String, ?> paths,
+    Map<String, ?> schemas,
+    List<ApiOperation> operations)
+    implements ParsedOpenApiSpec {
+
+  @Override
+  public String title() {
+    return source.title();
+  }
+
+  @Override
+  public Optional<String> description() {
+    return source.description();
+  }
+
+  @Override
+  public List<String> parserMessages() {
+    return source.parserMessages();
+  }
+}
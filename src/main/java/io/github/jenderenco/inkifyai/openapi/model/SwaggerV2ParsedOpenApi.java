@@ -1,7 +1,11 @@
 package io.github.jenderenco.inkifyai.openapi.model;
 
 import io.swagger.models.Info;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
 import io.swagger.models.Swagger;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -22,4 +26,27 @@ public record SwaggerV2ParsedOpenApi(
         Optional.ofNullable(swagger.getPaths()).orElseGet(Map::of),
         Optional.ofNullable(swagger.getDefinitions()).orElseGet(Map::of));
   }
+
+  @Override
+  public List<ApiOperation> operations() {
+    return paths().entrySet().stream()
+        .sorted(Map.Entry.comparingByKey())
+        .flatMap(
+            entry ->
+                ((Path) entry.getValue())
+                    .getOperationMap().entrySet().stream()
+                        .sorted(Comparator.comparing(op -> op.getKey().ordinal()))
+                        .map(op -> toOperation(entry.getKey(), op.getKey().name(), op.getValue())))
+        .toList();
+  }
+
+  private static ApiOperation toOperation(String path, String method, Operation operation) {
+    return new ApiOperation(
+        method,
+        path,
+        Optional.ofNullable(operation.getOperationId()),
+        Optional.ofNullable(operation.getSummary()),
+        Optional.ofNullable(operation.getTags()).orElseGet(List::of),
+        operation);
+  }
 }
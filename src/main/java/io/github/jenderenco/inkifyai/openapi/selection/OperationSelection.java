@@ -0,0 +1,57 @@
+package io.github.jenderenco.inkifyai.openapi.selection;
+
+import io.github.jenderenco.inkifyai.openapi.model.ApiOperation;
+import java.util.List;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Selects the operations of a specification to document. An operation is selected if it has one
+ * of the tags, matches one of the Ant-style path patterns, or has one of the operation IDs. An
+ * empty selection selects all operations.
+ *
+ * @param tags the tags of the selected operations
+ * @param paths Ant-style patterns of the paths of the selected operations, such as {@code
+ *     /pets/**}
+ * @param operationIds the IDs of the selected operations
+ */
+public record OperationSelection(List<String> tags, List<String> paths, List<String> operationIds) {
+
+  /** The selection of all operations. */
+  public static final OperationSelection ALL = new OperationSelection(null, null, null);
+
+  private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+  public OperationSelection {
+    tags = nonBlank(tags);
+    paths = nonBlank(paths);
+    operationIds = nonBlank(operationIds);
+  }
+
+  /**
+   * Returns whether all operations are selected.
+   *
+   * @return {@code true} if no tags, paths or operation IDs are given
+   */
+  public boolean isEmpty() {
+    return tags.isEmpty() && paths.isEmpty() && operationIds.isEmpty();
+  }
+
+  /**
+   * Returns whether an operation is selected.
+   *
+   * @param operation the operation
+   * @return {@code true} if the operation is selected
+   */
+  public boolean matches(ApiOperation operation) {
+    return isEmpty()
+        || operation.tags().stream().anyMatch(tags::contains)
+        || paths.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, operation.path()))
+        || operation.operationId().filter(operationIds::contains).isPresent();
+  }
+
+  private static List<String> nonBlank(List<String> values) {
+    return values == null
+        ? List.of()
+        : values.stream().map(String::strip).filter(value -> !value.isEmpty()).toList();
+  }
+}
@@ -0,0 +1,113 @@
+package io.github.jenderenco.inkifyai.openapi.selection;
+
+import io.github.jenderenco.inkifyai.openapi.StructuralFingerprint;
+import io.github.jenderenco.inkifyai.openapi.model.ApiOperation;
+import io.github.jenderenco.inkifyai.openapi.model.ParsedOpenApiSpec;
+import io.github.jenderenco.inkifyai.openapi.model.SelectedOpenApiSpec;
+import io.swagger.models.Path;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Restricts a specification to selected operations, so that only these are documented. The
+ * schemas kept are those referenced by the selected operations, directly or through other schemas.
+ * References to other shared components, such as responses or parameters, are not followed.
+ */
+public final class SpecSelector {
+
+  private static final Pattern SCHEMA_REF =
+      Pattern.compile("\"\\$ref\"\\s*:\\s*\"#/(?:components/schemas|definitions)/([^\"]+)\"");
+
+  private SpecSelector() {}
+
+  /**
+   * Restricts a specification to the selected operations.
+   *
+   * @param spec the parsed specification
+   * @param selection the operations to keep
+   * @return the specification itself if all operations are selected, otherwise the part holding
+   *     the selected operations and the schemas they reference
+   * @throws IllegalArgumentException if the selection matches no operation
+   */
+  public static ParsedOpenApiSpec select(ParsedOpenApiSpec spec, OperationSelection selection) {
+    if (selection.isEmpty()) {
+      return spec;
+    }
+
+    List<ApiOperation> operations = spec.operations().stream().filter(selection::matches).toList();
+    if (operations.isEmpty()) {
+      throw new IllegalArgumentException(
+          "No operation matches the selected tags, paths or operation IDs");
+    }
+
+    Map<String, Object> paths = new LinkedHashMap<>();
+    for (ApiOperation operation : operations) {
+      Object path = spec.paths().get(operation.path());
+      paths.compute(operation.path(), (key, copy) -> add(copy, path, operation));
+    }
+
+    Set<String> referenced = new LinkedHashSet<>();
+    Deque<Object> pending = new ArrayDeque<>(paths.values());
+    while (!pending.isEmpty()) {
+      Matcher ref = SCHEMA_REF.matcher(StructuralFingerprint.canonicalJson(pending.pop()));
+      while (ref.find()) {
+        String name = ref.group(1);
+        Object schema = spec.schemas().get(name);
+        if (schema != null && referenced.add(name)) {
+          pending.push(schema);
+        }
+      }
+    }
+    Map<String, Object> schemas = new LinkedHashMap<>();
+    spec.schemas()
+        .forEach(
+            (name, schema) -> {
+              if (referenced.contains(name)) {
+                schemas.put(name, schema);
+              }
+            });
+
+    return new SelectedOpenApiSpec(spec, paths, schemas, operations);
+  }
+
+  /** Adds an operation to the copy of its path, creating the copy for the first operation. */
+  private static Object add(Object copy, Object path, ApiOperation operation) {
+    if (path instanceof PathItem item) {
+      PathItem v3Copy = copy == null ? copyOf(item) : (PathItem) copy;
+      v3Copy.operation(
+          PathItem.HttpMethod.valueOf(operation.method()), (Operation) operation.definition());
+      return v3Copy;
+    }
+    Path v2Copy = copy == null ? copyOf((Path) path) : (Path) copy;
+    v2Copy.set(
+        operation.method().toLowerCase(Locale.ROOT),
+        (io.swagger.models.Operation) operation.definition());
+    return v2Copy;
+  }
+
+  private static PathItem copyOf(PathItem item) {
+    return new PathItem()
+        .summary(item.getSummary())
+        .description(item.getDescription())
+        .servers(item.getServers())
+        .parameters(item.getParameters())
+        .extensions(item.getExtensions());
+  }
+
+  private static Path copyOf(Path path) {
+    Path copy = new Path();
+    copy.setParameters(path.getParameters());
+    copy.setVendorExtensions(path.getVendorExtensions());
+    return copy;
+  }
+}
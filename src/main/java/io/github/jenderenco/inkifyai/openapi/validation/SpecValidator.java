@@ -0,0 +1,131 @@
+package io.github.jenderenco.inkifyai.openapi.validation;
+
+import io.github.jenderenco.inkifyai.openapi.exception.SpecValidationException;
+import io.github.jenderenco.inkifyai.openapi.model.ParsedOpenApiSpec;
+import io.github.jenderenco.inkifyai.openapi.validation.config.SpecValidationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks a parsed specification against configurable rules before documentation is generated for
+ * it, so that specifications which would only produce garbage are rejected without spending LLM
+ * time on them. Rules cover the messages reported by the parser, specifications without paths, and
+ * specifications of absurd size. The size is checked on the specification as fetched, before its
+ * references are resolved and it is parsed, since both cost time and memory in proportion to it.
+ */
+@Component
+public class SpecValidator {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SpecValidator.class);
+
+  private final SpecValidationProperties properties;
+  private final List<Pattern> warningPatterns;
+  private final MeterRegistry meterRegistry;
+
+  public SpecValidator(SpecValidationProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.warningPatterns = properties.warningPatterns().stream().map(Pattern::compile).toList();
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Checks the size of a specification as fetched, before it is resolved and parsed. A rejection
+   * is logged and counted like one by {@link #validate}.
+   *
+   * @param rawSpec the specification as fetched
+   * @throws SpecValidationException if the specification is larger than the limit
+   */
+  public void checkSize(String rawSpec) {
+    long maxSize = properties.maxSpecSize().toBytes();
+    if (!properties.enabled() || maxSize <= 0 || rawSpec.length() <= maxSize) {
+      return;
+    }
+    String error =
+        String.format(
+            "The specification has %d characters, more than the limit of %d",
+            rawSpec.length(), maxSize);
+    LOG.info("Rejected specification before parsing: {}", error);
+    count("rejected");
+    throw new SpecValidationException(List.of(error));
+  }
+
+  /**
+   * Validates a parsed specification; its size is checked beforehand by {@link #checkSize}. The
+   * outcome is logged and counted in the {@code inkify.validation.results} counter.
+   *
+   * @param spec the parsed specification
+   * @return the validation report; {@link ValidationReport#VALID} if validation is disabled
+   */
+  public ValidationReport validate(ParsedOpenApiSpec spec) {
+    if (!properties.enabled()) {
+      return ValidationReport.VALID;
+    }
+
+    List<String> errors = new ArrayList<>();
+    List<String> warnings = new ArrayList<>();
+
+    for (String message : spec.parserMessages()) {
+      if (!properties.rejectParserErrors() || isWarning(message)) {
+        warnings.add(message);
+      } else {
+        errors.add(message);
+      }
+    }
+
+    if (spec.paths().isEmpty()) {
+      String message = "The specification defines no paths";
+      if (properties.rejectEmptyPaths()) {
+        errors.add(message);
+      } else {
+        warnings.add(message);
+      }
+    }
+
+    int operations = spec.operations().size();
+    if (properties.maxOperations() > 0 && operations > properties.maxOperations()) {
+      errors.add(
+          String.format(
+              "The specification defines %d operations, more than the limit of %d",
+              operations, properties.maxOperations()));
+    }
+    int schemas = spec.schemas().size();
+    if (properties.maxSchemas() > 0 && schemas > properties.maxSchemas()) {
+      errors.add(
+          String.format(
+              "The specification defines %d schemas, more than the limit of %d",
+              schemas, properties.maxSchemas()));
+    }
+
+    ValidationReport report = new ValidationReport(errors, warnings);
+    String outcome;
+    if (!report.valid()) {
+      outcome = "rejected";
+      LOG.info("Rejected specification '{}': {}", spec.title(), errors);
+    } else if (!warnings.isEmpty()) {
+      outcome = "warned";
+      LOG.info("Specification '{}' has {} warnings: {}", spec.title(), warnings.size(), warnings);
+    } else {
+      outcome = "valid";
+    }
+    count(outcome);
+    return report;
+  }
+
+  private void count(String outcome) {
+    Counter.builder("inkify.validation.results")
+        .description("Specifications validated before generation")
+        .tag("outcome", outcome)
+        .register(meterRegistry)
+        .increment();
+  }
+
+  private boolean isWarning(String message) {
+    return warningPatterns.stream().anyMatch(pattern -> pattern.matcher(message).find());
+  }
+}
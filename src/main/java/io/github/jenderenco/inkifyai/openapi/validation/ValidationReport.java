@@ -0,0 +1,43 @@
+package io.github.jenderenco.inkifyai.openapi.validation;
+
+import io.github.jenderenco.inkifyai.openapi.exception.SpecValidationException;
+import java.util.List;
+
+/**
+ * The outcome of validating a specification.
+ *
+ * @param errors the reasons the specification is rejected, empty if it is accepted
+ * @param warnings problems that do not prevent generation but may degrade the documentation
+ */
+public record ValidationReport(List<String> errors, List<String> warnings) {
+
+  /** The report of a specification without problems. */
+  public static final ValidationReport VALID = new ValidationReport(List.of(), List.of());
+
+  public ValidationReport {
+    errors = List.copyOf(errors);
+    warnings = List.copyOf(warnings);
+  }
+
+  /**
+   * Returns whether the specification is accepted.
+   *
+   * @return {@code true} if there are no errors
+   */
+  public boolean valid() {
+    return errors.isEmpty();
+  }
+
+  /**
+   * Throws if the specification is rejected.
+   *
+   * @return this report, if the specification is accepted
+   * @throws SpecValidationException if there are errors
+   */
+  public ValidationReport orThrow() {
+    if (!valid()) {
+      throw new SpecValidationException(errors);
+    }
+    return this;
+  }
+}
@@ -0,0 +1,39 @@
+package io.github.jenderenco.inkifyai.openapi.validation.config;
+
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for validating specifications before any LLM time is spent on them. Limits of 0 mean
+ * no limit.
+ *
+ * @param enabled whether specifications are validated
+ * @param rejectParserErrors whether parser messages not matching {@code warningPatterns} reject
+ *     the specification; if not, they are reported as warnings
+ * @param warningPatterns regular expressions for parser messages that are only warnings, such as
+ *     unexpected attributes
+ * @param rejectEmptyPaths whether a specification without paths is rejected; if not, it is
+ *     reported as warning
+ * @param maxSpecSize the largest specification accepted, in characters, checked before it is
+ *     resolved and parsed; larger specifications than the fetcher buffers, {@link
+ *     io.github.jenderenco.inkifyai.openapi.OpenApiFetcher#MAX_IN_MEMORY_SIZE}, fail to be fetched
+ *     anyway
+ * @param maxOperations the most operations a specification may define
+ * @param maxSchemas the most schemas a specification may define
+ */
+@ConfigurationProperties(prefix = "openapi.validation")
+public record SpecValidationProperties(
+    boolean enabled,
+    boolean rejectParserErrors,
+    List<String> warningPatterns,
+    boolean rejectEmptyPaths,
+    DataSize maxSpecSize,
+    int maxOperations,
+    int maxSchemas) {
+
+  public SpecValidationProperties {
+    warningPatterns = warningPatterns == null ? List.of() : List.copyOf(warningPatterns);
+    maxSpecSize = maxSpecSize == null ? DataSize.ofBytes(0) : maxSpecSize;
+  }
+}
@@ -1,61 +1,420 @@
 package io.github.jenderenco.inkifyai.service;
 
+import io.github.jenderenco.inkifyai.diagnostics.jfr.GenerationEvents;
 import io.github.jenderenco.inkifyai.llm.client.LlmClient;
 import io.github.jenderenco.inkifyai.llm.client.LlmClientRegistry;
+import io.github.jenderenco.inkifyai.llm.client.routing.SpecStatistics;
+import io.github.jenderenco.inkifyai.llm.prompt.LlmPrompt;
 import io.github.jenderenco.inkifyai.llm.prompt.PromptService;
+import io.github.jenderenco.inkifyai.openapi.ExternalRefResolver;
 import io.github.jenderenco.inkifyai.openapi.OpenApiFetcher;
 import io.github.jenderenco.inkifyai.openapi.OpenApiParser;
+import io.github.jenderenco.inkifyai.openapi.StructuralFingerprint;
 import io.github.jenderenco.inkifyai.openapi.config.OpenApiProperties;
 import io.github.jenderenco.inkifyai.openapi.exception.OpenApiFetchException;
+import io.github.jenderenco.inkifyai.openapi.exception.SpecValidationException;
 import io.github.jenderenco.inkifyai.openapi.model.ParsedOpenApiSpec;
+import io.github.jenderenco.inkifyai.openapi.selection.OperationSelection;
+import io.github.jenderenco.inkifyai.openapi.selection.SpecSelector;
+import io.github.jenderenco.inkifyai.openapi.validation.SpecValidator;
+import io.github.jenderenco.inkifyai.openapi.validation.ValidationReport;
+import io.github.jenderenco.inkifyai.service.markdown.MarkdownNormalizer;
+import io.github.jenderenco.inkifyai.service.memory.MemoryBudget;
+import io.github.jenderenco.inkifyai.service.memory.MemoryBudget.Reservation;
+import io.github.jenderenco.inkifyai.service.memory.MemoryBudgetExceededException;
+import io.github.jenderenco.inkifyai.service.memory.MemoryEstimate;
+import io.github.jenderenco.inkifyai.service.resume.ResumableGeneration;
+import io.github.jenderenco.inkifyai.service.scheduling.GenerationCost;
+import io.github.jenderenco.inkifyai.service.scheduling.GenerationScheduler;
+import io.github.jenderenco.inkifyai.service.scheduling.GenerationStats;
+import io.github.jenderenco.inkifyai.service.section.SectionChunk;
+import io.github.jenderenco.inkifyai.service.section.SectionedDocumentationGenerator;
+import java.util.UUID;
+import java.util.function.Function;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
 
 /** Service for generating documentation from OpenAPI specifications. */
 @Service
 public class DocumentationService {
 
   private final OpenApiFetcher fetcher;
+  private final ExternalRefResolver refResolver;
   private final OpenApiParser openApiParser;
   private final PromptService promptService;
   private final LlmClientRegistry llmClientRegistry;
   private final OpenApiProperties openApiProperties;
+  private final SectionedDocumentationGenerator sectionedGenerator;
+  private final MarkdownNormalizer markdownNormalizer;
+  private final GenerationScheduler scheduler;
+  private final SpecValidator specValidator;
+  private final GenerationEvents events;
+  private final MemoryBudget memoryBudget;
+  private final ResumableGeneration resumableGeneration;
 
   public DocumentationService(
       OpenApiFetcher fetcher,
+      ExternalRefResolver refResolver,
       OpenApiParser openApiParser,
       PromptService promptService,
       LlmClientRegistry llmClientRegistry,
-      OpenApiProperties openApiProperties) {
+      OpenApiProperties openApiProperties,
+      SectionedDocumentationGenerator sectionedGenerator,
+      MarkdownNormalizer markdownNormalizer,
+      GenerationScheduler scheduler,
+      SpecValidator specValidator,
+      GenerationEvents events,
+      MemoryBudget memoryBudget,
+      ResumableGeneration resumableGeneration) {
     this.fetcher = fetcher;
+    this.refResolver = refResolver;
     this.openApiParser = openApiParser;
     this.promptService = promptService;
     this.llmClientRegistry = llmClientRegistry;
     this.openApiProperties = openApiProperties;
+    this.sectionedGenerator = sectionedGenerator;
+    this.markdownNormalizer = markdownNormalizer;
+    this.scheduler = scheduler;
+    this.specValidator = specValidator;
+    this.events = events;
+    this.memoryBudget = memoryBudget;
+    this.resumableGeneration = resumableGeneration;
   }
 
   /**
    * Generate documentation from an OpenAPI specification URL using the specified AI provider.
+   * Generation is queued behind smaller requests if all generation slots are busy, and the model
+   * is chosen by the size of the specification if model routing is enabled. The specification is
+   * validated while the prompt is built, and rejected before any LLM call if validation fails. Its
+   * content hash and validation warnings are recorded in the {@link GenerationStats} of the
+   * subscriber context, if present, and each stage is recorded as flight recorder event carrying
+   * the id of these statistics. Once fetched, the request is scheduled by the size of the
+   * specification, and only once it is started waits for the estimated memory of the specification
+   * from the {@link MemoryBudget}, which also accounts the generated output. If the LLM stream
+   * fails part way through, generation is resumed after the last complete section.
    *
    * @param openApiUrl the URL of the OpenAPI specification
    * @param aiProvider the AI provider to use for generating documentation
    * @return the generated documentation
    * @throws OpenApiFetchException if the OpenAPI specification cannot be fetched
+   * @throws SpecValidationException if the OpenAPI specification is rejected by validation
+   * @throws MemoryBudgetExceededException if there is not enough memory for the specification
    * @throws IllegalArgumentException if the OpenAPI specification is invalid or the AI provider is
    *     not supported
    */
   public Flux<String> generateFromUrl(String openApiUrl, String aiProvider) {
-    return Flux.defer(
-        () -> {
-          String rawSpec = fetcher.fetch(openApiUrl, openApiProperties);
-          ParsedOpenApiSpec parsed = openApiParser.parse(rawSpec);
-          String prompt = promptService.buildPrompt(parsed);
-          LlmClient client = llmClientRegistry.getClient(aiProvider);
-
-          return client
-              .complete(prompt)
-              .switchIfEmpty(
-                  Flux.error(new IllegalArgumentException("Failed to generate documentation")));
+    return generateFromUrl(openApiUrl, aiProvider, OperationSelection.ALL);
+  }
+
+  /**
+   * Generate documentation for selected operations of an OpenAPI specification, and the schemas
+   * they reference. The prompt and the generation shrink with the selection; otherwise generation
+   * works like {@link #generateFromUrl(String, String)}.
+   *
+   * @param openApiUrl the URL of the OpenAPI specification
+   * @param aiProvider the AI provider to use for generating documentation
+   * @param selection the operations to document
+   * @return the generated documentation
+   * @throws OpenApiFetchException if the OpenAPI specification cannot be fetched
+   * @throws SpecValidationException if the OpenAPI specification is rejected by validation
+   * @throws MemoryBudgetExceededException if there is not enough memory for the specification
+   * @throws IllegalArgumentException if the OpenAPI specification is invalid, the selection
+   *     matches no operation, or the AI provider is not supported
+   */
+  public Flux<String> generateFromUrl(
+      String openApiUrl, String aiProvider, OperationSelection selection) {
+    return Flux.deferContextual(
+        context -> {
+          String requestId = requestId(context);
+          String rawSpec = fetch(requestId, openApiUrl);
+          specValidator.checkSize(rawSpec);
+          return schedule(
+              rawSpec,
+              withMemory(
+                  context,
+                  rawSpec,
+                  reservation ->
+                      accountOutput(
+                          reservation,
+                          generate(
+                              context,
+                              requestId,
+                              openApiUrl,
+                              rawSpec,
+                              aiProvider,
+                              selection,
+                              reservation))));
+        });
+  }
+
+  /**
+   * Generate documentation from an already fetched OpenAPI specification, bypassing the fetcher
+   * cache. Generation is validated, scheduled, bounded by the memory budget, and the content hash
+   * recorded, like {@link #generateFromUrl}.
+   *
+   * @param openApiUrl the URL the specification was fetched from, to resolve relative references
+   * @param rawSpec the OpenAPI specification as a string
+   * @param aiProvider the AI provider to use for generating documentation
+   * @return the generated documentation
+   * @throws SpecValidationException if the OpenAPI specification is rejected by validation
+   * @throws MemoryBudgetExceededException if there is not enough memory for the specification
+   * @throws IllegalArgumentException if the OpenAPI specification is invalid or the AI provider is
+   *     not supported
+   */
+  public Flux<String> generateFromSpec(String openApiUrl, String rawSpec, String aiProvider) {
+    return Flux.deferContextual(
+        context -> {
+          specValidator.checkSize(rawSpec);
+          return schedule(
+              rawSpec,
+              withMemory(
+                  context,
+                  rawSpec,
+                  reservation ->
+                      accountOutput(
+                          reservation,
+                          generate(
+                              context,
+                              requestId(context),
+                              openApiUrl,
+                              rawSpec,
+                              aiProvider,
+                              OperationSelection.ALL,
+                              reservation))));
+        });
+  }
+
+  private Flux<String> generate(
+      ContextView context,
+      String requestId,
+      String openApiUrl,
+      String rawSpec,
+      String aiProvider,
+      OperationSelection selection,
+      Reservation reservation) {
+    recordSpecHash(context, rawSpec);
+    String resolvedSpec = resolve(requestId, openApiUrl, rawSpec, reservation);
+    ParsedOpenApiSpec parsed = parse(requestId, rawSpec, resolvedSpec, selection);
+    Mono<ValidationReport> validation = validate(context, parsed);
+
+    if (sectionedGenerator.isEnabled()) {
+      return validation.flatMapMany(
+          report -> {
+            LlmClient client =
+                llmClientRegistry.getClient(aiProvider, SpecStatistics.of(parsed, 0));
+            return events.stream(
+                requestId,
+                aiProvider,
+                0,
+                sectionedGenerator.generate(parsed, client),
+                String::length);
+          });
+    }
+
+    // The prompt is built while the specification is validated; a rejection cancels it
+    Mono<LlmPrompt> promptBuilding =
+        Mono.fromCallable(
+                () -> events.buildPrompt(requestId, () -> promptService.buildPrompt(parsed)))
+            .subscribeOn(Schedulers.parallel());
+    return Mono.zip(validation, promptBuilding)
+        .flatMapMany(
+            validated -> {
+              LlmPrompt prompt = validated.getT2();
+              LlmClient client =
+                  llmClientRegistry.getClient(
+                      aiProvider,
+                      SpecStatistics.of(parsed, GenerationCost.promptTokens(prompt.length())));
+              return markdownNormalizer.normalize(
+                  events.stream(
+                      requestId,
+                      aiProvider,
+                      prompt.length(),
+                      resumableGeneration.complete(
+                          client,
+                          prompt,
+                          written -> promptService.buildContinuationPrompt(prompt, written)),
+                      String::length));
+            });
+  }
+
+  /**
+   * Generate documentation from an OpenAPI specification URL section by section, regardless of
+   * whether section-level generation is enabled for {@link #generateFromUrl}. Each chunk carries
+   * the section it belongs to, so callers can split the documentation into pages. Callers stream
+   * the chunks, so unlike that of {@link #generateFromUrl}, the output is not accounted against
+   * the {@link MemoryBudget}.
+   *
+   * @param openApiUrl the URL of the OpenAPI specification
+   * @param aiProvider the AI provider to use for generating documentation
+   * @return the generated documentation chunks with their sections
+   * @throws OpenApiFetchException if the OpenAPI specification cannot be fetched
+   * @throws MemoryBudgetExceededException if there is not enough memory for the specification
+   * @throws IllegalArgumentException if the OpenAPI specification is invalid or the AI provider is
+   *     not supported
+   */
+  public Flux<SectionChunk> generateSectionsFromUrl(String openApiUrl, String aiProvider) {
+    return generateSectionsFromUrl(openApiUrl, aiProvider, OperationSelection.ALL);
+  }
+
+  /**
+   * Generate documentation for selected operations of an OpenAPI specification, and the schemas
+   * they reference, section by section, like {@link #generateSectionsFromUrl(String, String)}.
+   *
+   * @param openApiUrl the URL of the OpenAPI specification
+   * @param aiProvider the AI provider to use for generating documentation
+   * @param selection the operations to document
+   * @return the generated documentation chunks with their sections
+   * @throws OpenApiFetchException if the OpenAPI specification cannot be fetched
+   * @throws MemoryBudgetExceededException if there is not enough memory for the specification
+   * @throws IllegalArgumentException if the OpenAPI specification is invalid, the selection
+   *     matches no operation, or the AI provider is not supported
+   */
+  public Flux<SectionChunk> generateSectionsFromUrl(
+      String openApiUrl, String aiProvider, OperationSelection selection) {
+    return Flux.deferContextual(
+        context -> {
+          String requestId = requestId(context);
+          String rawSpec = fetch(requestId, openApiUrl);
+          specValidator.checkSize(rawSpec);
+          return schedule(
+              rawSpec,
+              withMemory(
+                  context,
+                  rawSpec,
+                  reservation ->
+                      generateSections(
+                          context,
+                          requestId,
+                          openApiUrl,
+                          rawSpec,
+                          aiProvider,
+                          selection,
+                          reservation)));
         });
   }
+
+  private Flux<SectionChunk> generateSections(
+      ContextView context,
+      String requestId,
+      String openApiUrl,
+      String rawSpec,
+      String aiProvider,
+      OperationSelection selection,
+      Reservation reservation) {
+    String resolvedSpec = resolve(requestId, openApiUrl, rawSpec, reservation);
+    ParsedOpenApiSpec parsed = parse(requestId, rawSpec, resolvedSpec, selection);
+    return validate(context, parsed)
+        .flatMapMany(
+            report -> {
+              LlmClient client =
+                  llmClientRegistry.getClient(aiProvider, SpecStatistics.of(parsed, 0));
+              return events.stream(
+                  requestId,
+                  aiProvider,
+                  0,
+                  sectionedGenerator.generateSections(parsed, client),
+                  chunk -> chunk.text().length());
+            });
+  }
+
+  /**
+   * Runs a generation holding the estimated memory of its specification. The memory held is
+   * recorded in the {@link GenerationStats} of the subscriber context, if present, once the
+   * generation has finished.
+   */
+  private <T> Flux<T> withMemory(
+      ContextView context, String rawSpec, Function<Reservation, Flux<T>> generation) {
+    return Flux.usingWhen(
+        memoryBudget.reserve(MemoryEstimate.ofSpec(rawSpec.length())),
+        reservation -> Flux.defer(() -> generation.apply(reservation)),
+        reservation ->
+            Mono.fromRunnable(
+                () -> {
+                  context
+                      .<GenerationStats>getOrEmpty(GenerationStats.class)
+                      .ifPresent(stats -> stats.recordMemory(reservation.bytes()));
+                  reservation.release();
+                }));
+  }
+
+  /**
+   * Accounts the output of a generation as it is generated, for callers that buffer the whole
+   * document. Streamed output, such as the sections of a GitBook export, is not held and not
+   * accounted.
+   */
+  private static Flux<String> accountOutput(Reservation reservation, Flux<String> generation) {
+    return generation.doOnNext(
+        chunk -> reservation.account(MemoryEstimate.ofOutput(chunk.length())));
+  }
+
+  private String fetch(String requestId, String openApiUrl) {
+    return events.fetch(requestId, openApiUrl, () -> fetcher.fetch(openApiUrl, openApiProperties));
+  }
+
+  /**
+   * Resolves the external references of the specification and extends the memory reservation by
+   * the external documents, which the reservation made from the fetched specification misses.
+   */
+  private String resolve(
+      String requestId, String openApiUrl, String rawSpec, Reservation reservation) {
+    String resolvedSpec =
+        events.resolve(requestId, rawSpec, () -> refResolver.resolve(rawSpec, openApiUrl));
+    reservation.extend(MemoryEstimate.ofResolution(rawSpec.length(), resolvedSpec.length()));
+    return resolvedSpec;
+  }
+
+  private ParsedOpenApiSpec parse(
+      String requestId, String rawSpec, String resolvedSpec, OperationSelection selection) {
+    ParsedOpenApiSpec parsed =
+        events.parse(requestId, rawSpec, resolvedSpec, () -> openApiParser.parse(resolvedSpec));
+    return SpecSelector.select(parsed, selection);
+  }
+
+  /**
+   * Validates the specification, failing with a {@link SpecValidationException} if it is rejected.
+   * Warnings are recorded in the {@link GenerationStats} of the subscriber context, if present.
+   */
+  private Mono<ValidationReport> validate(ContextView context, ParsedOpenApiSpec parsed) {
+    return Mono.fromCallable(() -> specValidator.validate(parsed).orThrow())
+        .subscribeOn(Schedulers.parallel())
+        .doOnNext(
+            report ->
+                context
+                    .<GenerationStats>getOrEmpty(GenerationStats.class)
+                    .ifPresent(stats -> stats.recordValidationWarnings(report.warnings())));
+  }
+
+  /**
+   * Schedules a generation by the estimated cost of its specification. Requests are scheduled
+   * before they reserve memory and parse the specification, so queued requests hold no memory.
+   */
+  private <T> Flux<T> schedule(String rawSpec, Flux<T> generation) {
+    return scheduler
+        .schedule(GenerationCost.estimate(rawSpec.length()), generation)
+        .switchIfEmpty(
+            Flux.error(new IllegalArgumentException("Failed to generate documentation")));
+  }
+
+  /**
+   * Returns the id of the request the flight recorder events are recorded for: that of the {@link
+   * GenerationStats} of the subscriber context, or a new one.
+   */
+  private String requestId(ContextView context) {
+    if (!events.isEnabled()) {
+      return null;
+    }
+    return context
+        .<GenerationStats>getOrEmpty(GenerationStats.class)
+        .map(GenerationStats::requestId)
+        .orElseGet(() -> UUID.randomUUID().toString());
+  }
+
+  private static void recordSpecHash(ContextView context, String rawSpec) {
+    context
+        .<GenerationStats>getOrEmpty(GenerationStats.class)
+        .ifPresent(stats -> stats.recordSpecHash(StructuralFingerprint.hash(rawSpec)));
+  }
 }
@@ -0,0 +1,38 @@
+package io.github.jenderenco.inkifyai.service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "documentation")
+public record DocumentationProperties(
+    Sections sections, Markdown markdown, Scheduler scheduler) {
+
+  /**
+   * Settings for section-level generation, where each schema and operation is documented (and
+   * cached) separately.
+   *
+   * @param enabled whether documentation is generated section by section
+   * @param concurrency the maximum number of sections generated concurrently
+   */
+  public record Sections(boolean enabled, int concurrency) {}
+
+  /**
+   * Settings for normalizing the generated markdown while it is streamed.
+   *
+   * @param enabled whether the generated markdown is normalized
+   * @param maxLineLength the maximum number of characters of a line held back for inspection
+   */
+  public record Markdown(boolean enabled, int maxLineLength) {}
+
+  /**
+   * Settings for scheduling generation requests shortest job first. A queued request gains {@code
+   * agingPerSecond} cost units of priority for every second it waits, so large requests are not
+   * starved by a steady stream of small ones. Costs grow with the size of the specification, by
+   * about 450k tokens for a 1MB specification, so aging should let such a request overtake small
+   * ones within minutes.
+   *
+   * @param enabled whether generation requests are scheduled; if not, all run immediately
+   * @param concurrency the maximum number of generation requests running at once
+   * @param agingPerSecond the cost units, in estimated tokens, a queued request gains per second
+   */
+  public record Scheduler(boolean enabled, int concurrency, double agingPerSecond) {}
+}
@@ -0,0 +1,113 @@
+package io.github.jenderenco.inkifyai.service.gitbook;
+
+import io.github.jenderenco.inkifyai.service.section.DocumentationSection;
+import io.github.jenderenco.inkifyai.service.section.SectionChunk;
+import io.github.jenderenco.inkifyai.service.section.SectionKind;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes generated documentation as a GitBook space packed into a ZIP archive: the overview goes
+ * to {@code README.md}, operations to one page per tag or resource, schemas to {@code models.md},
+ * and {@code SUMMARY.md} links all pages. If a tag or resource is itself called "Models", the
+ * schemas go to a page called "Schemas" instead. Chunks are written to the archive as they
+ * arrive, so neither the documentation nor the archive is held in memory.
+ *
+ * <p>The chunks of a page must arrive together, which is the case for the section order of {@link
+ * io.github.jenderenco.inkifyai.service.section.SectionPlanner}.
+ */
+@Component
+public class GitBookWriter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GitBookWriter.class);
+
+  private static final String README = "README.md";
+  private static final String SUMMARY = "SUMMARY.md";
+  private static final String SCHEMAS_TITLE = "Schemas";
+
+  /**
+   * Writes the documentation chunks as a zipped GitBook space.
+   *
+   * @param chunks the documentation chunks with their sections, in page order
+   * @param out the stream the archive is written to; it is finished but not closed
+   * @throws IOException if the archive cannot be written
+   */
+  public void write(Iterable<SectionChunk> chunks, OutputStream out) throws IOException {
+    ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+    List<Page> pages = new ArrayList<>();
+    Set<String> fileNames = new HashSet<>(Set.of(README.toLowerCase(Locale.ROOT), "summary.md"));
+    String title = "API Documentation";
+    String currentGroup = null;
+    SectionKind currentKind = null;
+
+    for (SectionChunk chunk : chunks) {
+      DocumentationSection section = chunk.section();
+      if (!section.group().equals(currentGroup) || section.kind() != currentKind) {
+        currentGroup = section.group();
+        currentKind = section.kind();
+        Page page = page(section, pages, fileNames);
+        if (section.kind() == SectionKind.OVERVIEW) {
+          title = section.group();
+        }
+        pages.add(page);
+        zip.putNextEntry(new ZipEntry(page.fileName()));
+        if (section.kind() != SectionKind.OVERVIEW) {
+          zip.write(("# " + page.title() + "\n\n").getBytes(StandardCharsets.UTF_8));
+        }
+        LOG.debug("Writing GitBook page {}", page.fileName());
+      }
+      zip.write(chunk.text().getBytes(StandardCharsets.UTF_8));
+      zip.flush();
+    }
+
+    zip.putNextEntry(new ZipEntry(SUMMARY));
+    zip.write(summary(title, pages).getBytes(StandardCharsets.UTF_8));
+    zip.finish();
+    LOG.info("Wrote GitBook archive with {} pages", pages.size());
+  }
+
+  private static Page page(DocumentationSection section, List<Page> pages, Set<String> fileNames) {
+    if (section.kind() == SectionKind.OVERVIEW) {
+      return new Page("Introduction", README);
+    }
+    String title = section.group();
+    if (section.kind() == SectionKind.SCHEMA
+        && pages.stream().anyMatch(page -> page.title().equals(section.group()))) {
+      // A tag or resource took the title of the schema page
+      title = SCHEMAS_TITLE;
+    }
+    String base = slug(title);
+    String fileName = base + ".md";
+    for (int i = 2; !fileNames.add(fileName.toLowerCase(Locale.ROOT)); i++) {
+      fileName = base + "-" + i + ".md";
+    }
+    return new Page(title, fileName);
+  }
+
+  private static String summary(String title, List<Page> pages) {
+    StringBuilder summary = new StringBuilder("# ").append(title).append("\n\n");
+    for (Page page : pages) {
+      summary.append("* [").append(page.title()).append("](").append(page.fileName()).append(")\n");
+    }
+    return summary.toString();
+  }
+
+  private static String slug(String name) {
+    String slug = name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-");
+    slug = slug.replaceAll("^-+|-+$", "");
+    return slug.isEmpty() ? "page" : slug;
+  }
+
+  private record Page(String title, String fileName) {}
+}
@@ -0,0 +1,200 @@
+package io.github.jenderenco.inkifyai.service.markdown;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes one markdown stream line by line. Only the current line is buffered, and only until
+ * it is known to be ordinary text; ordinary lines are then passed through as they arrive. A line
+ * is never buffered beyond {@code maxLineLength} characters, so memory use does not depend on the
+ * length of the document.
+ *
+ * <p>Instances hold the state of a single stream and are not thread-safe.
+ */
+final class MarkdownLineNormalizer {
+
+  private static final Pattern PREAMBLE =
+      Pattern.compile(
+          "^\\s*(sure|certainly|of course|absolutely|okay|ok|great|here is|here's|here are"
+              + "|below is|below are|the following is)\\b.*",
+          Pattern.CASE_INSENSITIVE);
+  private static final int MAX_PREAMBLE_LENGTH = 200;
+  private static final Pattern HEADING =
+      Pattern.compile("^ {0,3}(#{1,6})(?!#)\\s*(.*?)(\\s+#+)?\\s*$");
+  private static final Pattern FENCE = Pattern.compile("^ {0,3}(`{3,}|~{3,}).*");
+
+  private final int maxLineLength;
+  private final StringBuilder line = new StringBuilder();
+
+  /** Whether the current line has been emitted as it arrives. */
+  private boolean passThrough;
+
+  /** Whether any content has been emitted, which ends the preamble. */
+  private boolean started;
+
+  private boolean afterHeading;
+  private int pendingBlankLines;
+
+  /** The marker of the open code fence, or null outside code blocks. */
+  private String fence;
+
+  /**
+   * Whether a carriage return was held back, since it is dropped if the next character ends the
+   * line. Lines therefore always end in a line feed, whether they are passed through or not.
+   */
+  private boolean pendingCarriageReturn;
+
+  MarkdownLineNormalizer(int maxLineLength) {
+    this.maxLineLength = maxLineLength;
+  }
+
+  /**
+   * Accepts the next chunk of the stream.
+   *
+   * @param chunk the chunk
+   * @return the normalized markdown that can be emitted so far, possibly empty
+   */
+  String accept(String chunk) {
+    StringBuilder out = new StringBuilder(chunk.length() + 16);
+    for (int i = 0; i < chunk.length(); i++) {
+      char c = chunk.charAt(i);
+      if (pendingCarriageReturn) {
+        pendingCarriageReturn = false;
+        if (c != '\n') {
+          accept(out, '\r');
+        }
+      }
+      if (c == '\r') {
+        pendingCarriageReturn = true;
+      } else {
+        accept(out, c);
+      }
+    }
+    return out.toString();
+  }
+
+  private void accept(StringBuilder out, char c) {
+    if (c == '\n') {
+      endLine(out);
+    } else if (passThrough) {
+      out.append(c);
+    } else {
+      line.append(c);
+      if (isOrdinary() || line.length() >= maxLineLength) {
+        beginLine(out, false);
+        out.append(line);
+        line.setLength(0);
+        passThrough = true;
+      }
+    }
+  }
+
+  /**
+   * Ends the stream, closing a code block left open.
+   *
+   * @return the remaining normalized markdown, possibly empty
+   */
+  String finish() {
+    StringBuilder out = new StringBuilder();
+    pendingCarriageReturn = false;
+    if (passThrough || !line.isEmpty()) {
+      endLine(out);
+    }
+    if (fence != null) {
+      out.append(fence).append('\n');
+      fence = null;
+    }
+    return out.toString();
+  }
+
+  /** Returns whether the buffered start of the line shows it needs no normalization. */
+  private boolean isOrdinary() {
+    int first = firstNonSpace();
+    if (first < 0) {
+      return false;
+    }
+    char c = line.charAt(first);
+    if (fence != null) {
+      return c != fence.charAt(0);
+    }
+    return started && c != '#' && c != '`' && c != '~';
+  }
+
+  private void endLine(StringBuilder out) {
+    if (passThrough) {
+      out.append('\n');
+      passThrough = false;
+      return;
+    }
+
+    String text = line.toString();
+    line.setLength(0);
+
+    if (fence != null) {
+      if (isClosingFence(text)) {
+        fence = null;
+      }
+      out.append(text).append('\n');
+    } else if (text.isBlank()) {
+      if (started) {
+        pendingBlankLines++;
+      }
+    } else if (!started && isPreamble(text)) {
+      // Drop chatter such as "Here is the documentation:" before the first content
+    } else {
+      Matcher fenceMatcher = FENCE.matcher(text);
+      Matcher headingMatcher = HEADING.matcher(text);
+      if (fenceMatcher.matches()) {
+        beginLine(out, false);
+        fence = fenceMatcher.group(1);
+        out.append(text);
+      } else if (headingMatcher.matches() && !headingMatcher.group(2).isEmpty()) {
+        beginLine(out, true);
+        out.append(headingMatcher.group(1)).append(' ').append(headingMatcher.group(2));
+      } else {
+        beginLine(out, false);
+        out.append(text);
+      }
+      out.append('\n');
+    }
+  }
+
+  /**
+   * Emits the line separation before a content line: runs of blank lines collapse into one, and
+   * headings are surrounded by blank lines.
+   */
+  private void beginLine(StringBuilder out, boolean heading) {
+    if (started && fence == null && (pendingBlankLines > 0 || heading || afterHeading)) {
+      out.append('\n');
+    }
+    pendingBlankLines = 0;
+    started = true;
+    afterHeading = heading;
+  }
+
+  private static boolean isPreamble(String text) {
+    return text.length() <= MAX_PREAMBLE_LENGTH && PREAMBLE.matcher(text).matches();
+  }
+
+  private boolean isClosingFence(String text) {
+    String trimmed = text.strip();
+    if (trimmed.length() < fence.length()) {
+      return false;
+    }
+    for (int i = 0; i < trimmed.length(); i++) {
+      if (trimmed.charAt(i) != fence.charAt(0)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int firstNonSpace() {
+    for (int i = 0; i < line.length(); i++) {
+      if (!Character.isWhitespace(line.charAt(i))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,44 @@
+package io.github.jenderenco.inkifyai.service.markdown;
+
+import io.github.jenderenco.inkifyai.service.config.DocumentationProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cleans up generated markdown while it is streamed. Chatty preambles before the first content
+ * are dropped, headings get a space after the hashes and blank lines around them, runs of blank
+ * lines are collapsed, and a code block left open at the end is closed. Ordinary text passes
+ * through as it arrives, so streaming to the client is not held back.
+ */
+@Component
+public class MarkdownNormalizer {
+
+  private final DocumentationProperties properties;
+
+  public MarkdownNormalizer(DocumentationProperties properties) {
+    this.properties = properties;
+  }
+
+  /**
+   * Normalizes a stream of markdown chunks.
+   *
+   * @param chunks the raw markdown chunks
+   * @return the normalized markdown chunks, or the given stream if normalization is disabled
+   */
+  public Flux<String> normalize(Flux<String> chunks) {
+    DocumentationProperties.Markdown markdown = properties.markdown();
+    if (!markdown.enabled()) {
+      return chunks;
+    }
+
+    return Flux.defer(
+        () -> {
+          MarkdownLineNormalizer normalizer = new MarkdownLineNormalizer(markdown.maxLineLength());
+          return chunks
+              .map(normalizer::accept)
+              .concatWith(Mono.fromSupplier(normalizer::finish))
+              .filter(chunk -> !chunk.isEmpty());
+        });
+  }
+}
@@ -0,0 +1,297 @@
+package io.github.jenderenco.inkifyai.service.memory;
+
+import io.github.jenderenco.inkifyai.service.memory.config.MemoryBudgetProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Bounds the memory held by all in-flight generation requests. Each request reserves the estimated
+ * memory of its specification before it is parsed, extends the reservation by its external
+ * documents once they are resolved, and accounts its buffered output as it is generated, so a
+ * burst of large specifications waits for memory instead of driving the heap into long garbage
+ * collections or out of memory.
+ *
+ * <p>Requests that do not fit wait in arrival order, so a large request is not starved by smaller
+ * ones, and are rejected if they wait longer than {@code maxWait} or are larger than the whole
+ * budget. Waiting requests are resumed on the bounded elastic scheduler, since memory is released
+ * on the event loop threads that finish generations, and admitted requests go on to resolve and
+ * parse their specification. Extensions and output are accounted without waiting, since a running
+ * request cannot be paused; they delay the admission of further requests instead. Used memory is
+ * published as {@code inkify.memory.budget.used} and {@code inkify.memory.budget.utilization}
+ * gauges.
+ */
+@Component
+public class MemoryBudget {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MemoryBudget.class);
+
+  private final MemoryBudgetProperties properties;
+  private final long limit;
+  private final MeterRegistry meterRegistry;
+  private final Object lock = new Object();
+  private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+  private long used;
+
+  public MemoryBudget(MemoryBudgetProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.limit = properties.limitBytes(Runtime.getRuntime().maxMemory());
+    this.meterRegistry = meterRegistry;
+    if (properties.enabled()) {
+      Gauge.builder("inkify.memory.budget.used", this, MemoryBudget::used)
+          .description("Estimated memory held by in-flight generation requests")
+          .baseUnit("bytes")
+          .register(meterRegistry);
+      Gauge.builder("inkify.memory.budget.utilization", this, MemoryBudget::utilization)
+          .description("Fraction of the memory budget held by in-flight generation requests")
+          .register(meterRegistry);
+      Gauge.builder("inkify.memory.budget.waiting", this, MemoryBudget::waiting)
+          .description("Number of generation requests waiting for memory")
+          .register(meterRegistry);
+      LOG.info("Limiting in-flight generations to {} MB", limit / (1024 * 1024));
+    }
+  }
+
+  /**
+   * Reserves memory for a generation request, waiting until enough is free.
+   *
+   * @param bytes the estimated memory of the request, see {@link MemoryEstimate}
+   * @return the reservation, to be released once the request has finished; fails with a {@link
+   *     MemoryBudgetExceededException} if the request is larger than the budget or did not get
+   *     memory within the configured wait time
+   */
+  public Mono<Reservation> reserve(long bytes) {
+    if (!properties.enabled()) {
+      return Mono.just(Reservation.NONE);
+    }
+    return Mono.defer(
+        () -> {
+          if (bytes > limit) {
+            count("rejected");
+            return Mono.error(tooLarge(bytes));
+          }
+          Waiter waiter;
+          synchronized (lock) {
+            if (waiters.isEmpty() && used + bytes <= limit) {
+              used += bytes;
+              count("admitted");
+              return Mono.just(new Reservation(this, bytes));
+            }
+            if (properties.maxWait().isZero()) {
+              count("rejected");
+              return Mono.error(busy());
+            }
+            waiter = new Waiter(bytes, Sinks.one());
+            waiters.add(waiter);
+          }
+          count("queued");
+          return waiter
+              .admission()
+              .asMono()
+              .publishOn(Schedulers.boundedElastic())
+              .timeout(properties.maxWait())
+              .onErrorMap(TimeoutException.class, e -> busy())
+              .doOnNext(reservation -> waiter.delivered = true)
+              .doOnError(e -> abandon(waiter))
+              .doOnCancel(() -> abandon(waiter));
+        });
+  }
+
+  private void account(long bytes) {
+    synchronized (lock) {
+      used += bytes;
+    }
+  }
+
+  private void release(long bytes) {
+    List<Waiter> admitted = new ArrayList<>();
+    synchronized (lock) {
+      used -= bytes;
+      admitWaiters(admitted);
+    }
+    admitted.forEach(waiter -> waiter.admission().tryEmitValue(waiter.reservation));
+  }
+
+  /**
+   * Gives up waiting, releasing the memory if the waiter was admitted in the meantime but its
+   * reservation not delivered.
+   */
+  private void abandon(Waiter waiter) {
+    List<Waiter> admitted = new ArrayList<>();
+    synchronized (lock) {
+      if (waiters.remove(waiter)) {
+        admitWaiters(admitted);
+      }
+    }
+    admitted.forEach(next -> next.admission().tryEmitValue(next.reservation));
+    if (waiter.reservation != null && !waiter.delivered) {
+      waiter.reservation.release();
+    }
+  }
+
+  private void admitWaiters(List<Waiter> admitted) {
+    while (!waiters.isEmpty() && used + waiters.peek().bytes() <= limit) {
+      Waiter waiter = waiters.poll();
+      used += waiter.bytes();
+      waiter.reservation = new Reservation(this, waiter.bytes());
+      count("admitted");
+      admitted.add(waiter);
+    }
+  }
+
+  private MemoryBudgetExceededException tooLarge(long bytes) {
+    return new MemoryBudgetExceededException(
+        String.format(
+            "The specification needs an estimated %d MB, more than the budget of %d MB",
+            bytes / (1024 * 1024), limit / (1024 * 1024)));
+  }
+
+  private MemoryBudgetExceededException busy() {
+    return new MemoryBudgetExceededException(
+        "The memory budget is exhausted by other generations; please try again later");
+  }
+
+  private void count(String outcome) {
+    Counter.builder("inkify.memory.budget.requests")
+        .description("Generation requests admitted, queued or rejected by the memory budget")
+        .tag("outcome", outcome)
+        .register(meterRegistry)
+        .increment();
+  }
+
+  private long used() {
+    synchronized (lock) {
+      return used;
+    }
+  }
+
+  private double utilization() {
+    return used() / (double) limit;
+  }
+
+  private int waiting() {
+    synchronized (lock) {
+      return waiters.size();
+    }
+  }
+
+  /** A request waiting for memory. */
+  private static final class Waiter {
+
+    private final long bytes;
+    private final Sinks.One<Reservation> admission;
+
+    /** The reservation once admitted; guarded by the budget lock. */
+    private Reservation reservation;
+
+    private volatile boolean delivered;
+
+    private Waiter(long bytes, Sinks.One<Reservation> admission) {
+      this.bytes = bytes;
+      this.admission = admission;
+    }
+
+    private long bytes() {
+      return bytes;
+    }
+
+    private Sinks.One<Reservation> admission() {
+      return admission;
+    }
+  }
+
+  /** Memory held by a generation request. */
+  public static final class Reservation {
+
+    /** The reservation of requests when the budget is disabled. */
+    static final Reservation NONE = new Reservation(null, 0);
+
+    private final MemoryBudget budget;
+    private long bytes;
+    private boolean released;
+
+    private Reservation(MemoryBudget budget, long bytes) {
+      this.budget = budget;
+      this.bytes = bytes;
+    }
+
+    /**
+     * Extends the reservation by memory the request turns out to need once it is running, such as
+     * that of the external documents of its specification. Like output, it is accounted without
+     * waiting.
+     *
+     * @param bytes the additional bytes
+     * @throws MemoryBudgetExceededException if the request would hold more than the whole budget
+     */
+    public void extend(long bytes) {
+      if (budget == null || bytes <= 0) {
+        return;
+      }
+      synchronized (this) {
+        if (released) {
+          return;
+        }
+        if (this.bytes + bytes > budget.limit) {
+          budget.count("rejected");
+          throw budget.tooLarge(this.bytes + bytes);
+        }
+        this.bytes += bytes;
+      }
+      budget.account(bytes);
+    }
+
+    /**
+     * Accounts further memory held by the request, such as its buffered output.
+     *
+     * @param bytes the additional bytes
+     */
+    public void account(long bytes) {
+      if (budget == null) {
+        return;
+      }
+      synchronized (this) {
+        if (released) {
+          return;
+        }
+        this.bytes += bytes;
+      }
+      budget.account(bytes);
+    }
+
+    /**
+     * Returns the memory held by the request.
+     *
+     * @return the reserved and accounted bytes
+     */
+    public synchronized long bytes() {
+      return bytes;
+    }
+
+    /** Releases the memory held by the request. Releasing it again has no effect. */
+    public void release() {
+      if (budget == null) {
+        return;
+      }
+      long held;
+      synchronized (this) {
+        if (released) {
+          return;
+        }
+        released = true;
+        held = bytes;
+      }
+      budget.release(held);
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package io.github.jenderenco.inkifyai.service.memory;
+
+/**
+ * Exception thrown when a generation request is rejected because the memory budget of in-flight
+ * generations is exhausted, or too small for the request.
+ */
+public class MemoryBudgetExceededException extends RuntimeException {
+
+  /**
+   * Constructs a new MemoryBudgetExceededException with the specified detail message.
+   *
+   * @param message the detail message
+   */
+  public MemoryBudgetExceededException(String message) {
+    super(message);
+  }
+}
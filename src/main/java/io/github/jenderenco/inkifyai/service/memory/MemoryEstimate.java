@@ -0,0 +1,52 @@
+package io.github.jenderenco.inkifyai.service.memory;
+
+/**
+ * Estimates the heap used by a generation request. A specification is held as fetched and with
+ * its external references resolved, and as parsed object graph, which takes several times the size
+ * of its source. Generated output is buffered by callers joining it into a single document, unless
+ * they stream it.
+ */
+public final class MemoryEstimate {
+
+  // Strings of non-Latin-1 text take two bytes per character
+  private static final int BYTES_PER_CHAR = 2;
+  private static final int PARSED_BYTES_PER_CHAR = 10;
+  // Chunks are copied once more when they are joined
+  private static final int OUTPUT_COPIES = 2;
+
+  private MemoryEstimate() {}
+
+  /**
+   * Estimates the memory held for a specification while documentation is generated for it.
+   *
+   * @param specChars the length of the specification as fetched
+   * @return the estimated bytes of the fetched and resolved specification and its parsed model
+   */
+  public static long ofSpec(int specChars) {
+    return (long) specChars * (2 * BYTES_PER_CHAR + PARSED_BYTES_PER_CHAR);
+  }
+
+  /**
+   * Estimates the memory held for a specification beyond {@link #ofSpec} once its external
+   * references are resolved, which assumes the resolved specification is as large as the fetched
+   * one.
+   *
+   * @param specChars the length of the specification as fetched
+   * @param resolvedChars the length of the specification with its external references resolved
+   * @return the estimated additional bytes of the resolved specification and its parsed model
+   */
+  public static long ofResolution(int specChars, int resolvedChars) {
+    long externalChars = Math.max(0L, (long) resolvedChars - specChars);
+    return externalChars * (BYTES_PER_CHAR + PARSED_BYTES_PER_CHAR);
+  }
+
+  /**
+   * Estimates the memory held for buffered output.
+   *
+   * @param outputChars the length of the output
+   * @return the estimated bytes of the output
+   */
+  public static long ofOutput(int outputChars) {
+    return (long) outputChars * BYTES_PER_CHAR * OUTPUT_COPIES;
+  }
+}
@@ -0,0 +1,34 @@
+package io.github.jenderenco.inkifyai.service.memory.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for the memory budget shared by all in-flight generation requests.
+ *
+ * @param enabled whether generation requests are admitted against the budget
+ * @param limit the budget, or 0 to use {@code heapFraction} of the maximum heap size
+ * @param heapFraction the fraction of the maximum heap size used as budget if no limit is set
+ * @param maxWait how long a request waits for memory before it is rejected, 0 to reject it
+ *     immediately
+ */
+@ConfigurationProperties(prefix = "documentation.memory")
+public record MemoryBudgetProperties(
+    boolean enabled, DataSize limit, double heapFraction, Duration maxWait) {
+
+  public MemoryBudgetProperties {
+    limit = limit == null ? DataSize.ofBytes(0) : limit;
+    maxWait = maxWait == null ? Duration.ZERO : maxWait;
+  }
+
+  /**
+   * Returns the budget in bytes.
+   *
+   * @param maxHeap the maximum heap size in bytes
+   * @return the configured limit, or the configured fraction of the heap
+   */
+  public long limitBytes(long maxHeap) {
+    return limit.toBytes() > 0 ? limit.toBytes() : (long) (maxHeap * heapFraction);
+  }
+}
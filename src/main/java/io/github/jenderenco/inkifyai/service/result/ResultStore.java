@@ -0,0 +1,292 @@
+package io.github.jenderenco.inkifyai.service.result;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.jenderenco.inkifyai.openapi.StructuralFingerprint;
+import io.github.jenderenco.inkifyai.service.result.config.ResultStoreProperties;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps generated documents on local disk, keyed by the content hash of their specification and a
+ * version, so that they can be viewed again without another LLM run.
+ *
+ * <p>Each document is written as plain markdown and, precompressed, as gzip next to it. An index
+ * file lists all stored documents and is loaded on startup. Files are written to a temporary file
+ * and moved into place atomically. I/O errors are logged and the document is not stored, so an
+ * unavailable disk does not fail generation requests.
+ *
+ * <p>Only the most recent {@code max-versions} of each specification are kept, and documents are
+ * removed once they are older than {@code max-age}. Expired documents are pruned whenever a
+ * document is stored and on startup. A specification only starts over at version 1 once all its
+ * documents have expired by age, and documents are served as cacheable until they expire, so a
+ * version number is never reused while a copy of the previous document may still be cached.
+ */
+@Component
+public class ResultStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ResultStore.class);
+
+  private static final String INDEX_FILE = "index.json";
+  private static final ObjectMapper JSON =
+      JsonMapper.builder()
+          .addModule(new JavaTimeModule())
+          .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+          .build();
+
+  private final ResultStoreProperties properties;
+
+  /** Stored documents by specification hash, in version order; guarded by {@code this}. */
+  private final Map<String, List<StoredResult>> index = new HashMap<>();
+
+  public ResultStore(ResultStoreProperties properties) {
+    this.properties = properties;
+    if (properties.enabled()) {
+      loadIndex();
+    }
+  }
+
+  /**
+   * Stores a generated document as the next version for its specification.
+   *
+   * @param specUrl the URL the specification was fetched from
+   * @param specHash the content hash of the specification
+   * @param aiProvider the AI provider the document was generated with
+   * @param markdown the generated document
+   * @return the stored document, or empty if the store is disabled, the specification hash is
+   *     unknown, or the document could not be written
+   */
+  public synchronized Optional<StoredResult> store(
+      String specUrl, String specHash, String aiProvider, String markdown) {
+    if (!properties.enabled() || specHash == null) {
+      return Optional.empty();
+    }
+
+    List<StoredResult> versions = index.computeIfAbsent(specHash, hash -> new ArrayList<>());
+    byte[] content = markdown.getBytes(StandardCharsets.UTF_8);
+    try {
+      byte[] compressed = gzip(content);
+      StoredResult result =
+          new StoredResult(
+              specHash,
+              versions.isEmpty() ? 1 : versions.getLast().version() + 1,
+              specUrl,
+              aiProvider,
+              Instant.now(),
+              content.length,
+              compressed.length,
+              StructuralFingerprint.hash(markdown));
+      writeAtomically(path(result, false), content);
+      writeAtomically(path(result, true), compressed);
+      versions.add(result);
+      List<StoredResult> expired = expired(result.createdAt());
+      try {
+        writeIndex(expired);
+      } catch (IOException e) {
+        versions.removeLast();
+        throw e;
+      }
+      prune(expired);
+      LOG.debug(
+          "Stored document {} ({} bytes, {} gzipped)",
+          result.path(),
+          content.length,
+          compressed.length);
+      return Optional.of(result);
+    } catch (IOException e) {
+      LOG.warn("Failed to store document for {}: {}", specUrl, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Finds a stored document.
+   *
+   * @param specHash the content hash of the specification
+   * @param version the version of the document
+   * @return the document, or empty if there is none
+   */
+  public synchronized Optional<StoredResult> find(String specHash, int version) {
+    return index.getOrDefault(specHash, List.of()).stream()
+        .filter(result -> result.version() == version)
+        .findFirst();
+  }
+
+  /**
+   * Returns when a stored document expires by age. It may be pruned earlier once newer versions of
+   * its specification push it out of the kept versions.
+   *
+   * @param result the stored document
+   * @return the time the document expires, or empty if documents are kept forever
+   */
+  public Optional<Instant> expiresAt(StoredResult result) {
+    return Optional.ofNullable(properties.maxAge()).map(result.createdAt()::plus);
+  }
+
+  /**
+   * Finds the most recently stored document generated from a URL, whatever the content of the
+   * specification was at that time. This is the last known good documentation to fall back to when
+   * no new document can be generated.
+   *
+   * @param specUrl the URL the specification was fetched from
+   * @return the most recent document, or empty if there is none
+   */
+  public synchronized Optional<StoredResult> findLatest(String specUrl) {
+    return index.values().stream()
+        .flatMap(List::stream)
+        .filter(result -> result.specUrl().equals(specUrl))
+        .max(Comparator.comparing(StoredResult::createdAt));
+  }
+
+  /**
+   * Reads a stored document.
+   *
+   * @param result the stored document
+   * @return the markdown of the document, or empty if it could not be read
+   */
+  public Optional<String> read(StoredResult result) {
+    try {
+      return Optional.of(Files.readString(path(result, false)));
+    } catch (IOException e) {
+      LOG.warn("Failed to read stored document {}: {}", result.path(), e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Returns the file holding a stored document.
+   *
+   * @param result the stored document
+   * @param gzip whether to return the gzip-compressed file
+   * @return the path of the file
+   */
+  public Path path(StoredResult result, boolean gzip) {
+    return properties
+        .directory()
+        .resolve(result.specHash())
+        .resolve(result.version() + (gzip ? ".md.gz" : ".md"));
+  }
+
+  /**
+   * Returns the stored documents that are beyond the number of kept versions of their
+   * specification, or older than the maximum age.
+   */
+  private List<StoredResult> expired(Instant now) {
+    Instant oldest = properties.maxAge() == null ? null : now.minus(properties.maxAge());
+    List<StoredResult> expired = new ArrayList<>();
+    for (List<StoredResult> versions : index.values()) {
+      int excess = properties.maxVersions() > 0 ? versions.size() - properties.maxVersions() : 0;
+      for (int i = 0; i < versions.size(); i++) {
+        StoredResult result = versions.get(i);
+        if (i < excess || (oldest != null && result.createdAt().isBefore(oldest))) {
+          expired.add(result);
+        }
+      }
+    }
+    return expired;
+  }
+
+  /** Writes the index of all stored documents except the given expired ones. */
+  private void writeIndex(List<StoredResult> expired) throws IOException {
+    List<StoredResult> kept =
+        index.values().stream()
+            .flatMap(List::stream)
+            .filter(result -> !expired.contains(result))
+            .sorted(Comparator.comparing(StoredResult::createdAt))
+            .toList();
+    writeAtomically(properties.directory().resolve(INDEX_FILE), JSON.writeValueAsBytes(kept));
+  }
+
+  /** Removes expired documents from the index, which must already be written, and from disk. */
+  private void prune(List<StoredResult> expired) {
+    for (StoredResult result : expired) {
+      List<StoredResult> versions = index.get(result.specHash());
+      versions.remove(result);
+      if (versions.isEmpty()) {
+        index.remove(result.specHash());
+      }
+      try {
+        Files.deleteIfExists(path(result, false));
+        Files.deleteIfExists(path(result, true));
+      } catch (IOException e) {
+        LOG.warn("Failed to delete expired document {}: {}", result.path(), e.getMessage());
+      }
+    }
+    if (!expired.isEmpty()) {
+      LOG.debug("Pruned {} expired documents", expired.size());
+    }
+  }
+
+  private void loadIndex() {
+    Path file = properties.directory().resolve(INDEX_FILE);
+    if (!Files.exists(file)) {
+      return;
+    }
+    try {
+      List<StoredResult> results =
+          JSON.readValue(file.toFile(), new TypeReference<List<StoredResult>>() {});
+      results.stream()
+          .sorted(Comparator.comparingInt(StoredResult::version))
+          .forEach(
+              result ->
+                  index.computeIfAbsent(result.specHash(), hash -> new ArrayList<>()).add(result));
+      LOG.info("Loaded index of {} stored documents from {}", results.size(), file);
+    } catch (IOException e) {
+      LOG.warn("Failed to read document index {}, starting empty: {}", file, e.getMessage());
+      return;
+    }
+    List<StoredResult> expired = expired(Instant.now());
+    if (expired.isEmpty()) {
+      return;
+    }
+    try {
+      writeIndex(expired);
+      prune(expired);
+    } catch (IOException e) {
+      LOG.warn("Failed to prune expired documents from {}: {}", file, e.getMessage());
+    }
+  }
+
+  private static byte[] gzip(byte[] content) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+      gzip.write(content);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static void writeAtomically(Path target, byte[] content) throws IOException {
+    Files.createDirectories(target.getParent());
+    Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+    try {
+      Files.write(temp, content);
+      try {
+        Files.move(
+            temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package io.github.jenderenco.inkifyai.service.result;
+
+import java.time.Instant;
+
+/**
+ * A stored generated document. Every generation for the same specification content gets the next
+ * version, so a stored document never changes once written.
+ *
+ * @param specHash the content hash of the specification the document was generated from
+ * @param version the version of the document for this specification, starting at 1
+ * @param specUrl the URL the specification was fetched from
+ * @param aiProvider the AI provider the document was generated with
+ * @param createdAt the time the document was stored
+ * @param size the size of the document in bytes
+ * @param gzipSize the size of the gzip-compressed document in bytes
+ * @param contentHash the SHA-256 hash of the document, used as strong entity tag
+ */
+public record StoredResult(
+    String specHash,
+    int version,
+    String specUrl,
+    String aiProvider,
+    Instant createdAt,
+    long size,
+    long gzipSize,
+    String contentHash) {
+
+  /**
+   * Returns the path under which the document is served.
+   *
+   * @return the path, relative to the application root
+   */
+  public String path() {
+    return "/results/" + specHash + "/" + version;
+  }
+}
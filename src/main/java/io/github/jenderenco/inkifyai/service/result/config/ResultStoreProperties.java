@@ -0,0 +1,17 @@
+package io.github.jenderenco.inkifyai.service.result.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the store of generated documents.
+ *
+ * @param enabled whether generated documents are stored
+ * @param directory the local directory holding the documents and their index
+ * @param maxVersions the number of most recent versions kept per specification, or 0 to keep all
+ * @param maxAge how long a document is kept after it was stored, or null to keep it forever
+ */
+@ConfigurationProperties(prefix = "documentation.results")
+public record ResultStoreProperties(
+    boolean enabled, Path directory, int maxVersions, Duration maxAge) {}
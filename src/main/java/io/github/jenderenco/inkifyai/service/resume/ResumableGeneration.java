@@ -0,0 +1,161 @@
+package io.github.jenderenco.inkifyai.service.resume;
+
+import io.github.jenderenco.inkifyai.llm.client.LlmClient;
+import io.github.jenderenco.inkifyai.llm.exception.LlmUnavailableException;
+import io.github.jenderenco.inkifyai.llm.prompt.LlmPrompt;
+import io.github.jenderenco.inkifyai.service.resume.config.ResumeProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Resumes generation after an LLM stream failed part way through, so that a single failure near
+ * the end of a long document does not cost the whole document again.
+ *
+ * <p>A whole document is passed on section by section, once the next heading shows that a section
+ * is complete. If the stream fails, the interrupted section is discarded and the LLM is prompted
+ * to continue after the last complete section, so the subscriber receives every section exactly
+ * once. Documents generated section by section are resumed per section, and each section is passed
+ * on once complete. Every attempt is a new call to the client, which picks the next replica that
+ * is available.
+ *
+ * <p>Holding back text costs streaming: the subscriber receives nothing of a section until it is
+ * complete, and a section without headings is held back whole. Resuming is therefore disabled by
+ * default, and with it disabled the streams of the client are passed on as generated.
+ *
+ * <p>Only failures another attempt may fix are retried: I/O errors, timeouts, and server errors of
+ * the LLM backend. Client errors such as an unknown model or a rejected request, an unsupported
+ * provider, and a backend whose circuit breaker is open fail right away.
+ */
+@Component
+public class ResumableGeneration {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ResumableGeneration.class);
+
+  private final ResumeProperties properties;
+  private final Counter documentResumes;
+  private final Counter sectionResumes;
+
+  public ResumableGeneration(ResumeProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.documentResumes = resumeCounter(meterRegistry, "document");
+    this.sectionResumes = resumeCounter(meterRegistry, "section");
+  }
+
+  /**
+   * Generates a whole document, resuming after the last complete section if the stream fails.
+   *
+   * @param client the LLM client
+   * @param prompt the prompt for the document
+   * @param continuation builds the prompt to continue the document after the sections with the
+   *     given headings
+   * @return the generated document, or the stream of the client if resuming is disabled
+   */
+  public Flux<String> complete(
+      LlmClient client, LlmPrompt prompt, Function<List<String>, LlmPrompt> continuation) {
+    if (!properties.enabled()) {
+      return client.complete(prompt);
+    }
+
+    return Flux.defer(
+        () -> {
+          SectionCheckpoint checkpoint = new SectionCheckpoint();
+          return Flux.defer(
+                  () -> {
+                    checkpoint.discardPending();
+                    return client.complete(
+                        checkpoint.hasWritten()
+                            ? continuation.apply(checkpoint.writtenHeadings())
+                            : prompt);
+                  })
+              .map(checkpoint::accept)
+              .retryWhen(retry("document", documentResumes))
+              .concatWith(Mono.fromSupplier(checkpoint::finish))
+              .filter(text -> !text.isEmpty());
+        });
+  }
+
+  /**
+   * Generates a single section, generating it again if the stream fails. The section is emitted
+   * once complete, so a failed attempt leaves no partial text behind. This trades streaming within
+   * a section for the guarantee: the subscriber receives nothing of a section until the LLM has
+   * finished it.
+   *
+   * @param name the name of the section, for logs
+   * @param generation starts an attempt at generating the section
+   * @return the text of the section, or the stream of the generation if resuming is disabled
+   */
+  public Flux<String> completeSection(String name, Supplier<Flux<String>> generation) {
+    if (!properties.enabled()) {
+      return Flux.defer(generation);
+    }
+
+    return Flux.defer(generation)
+        .collect(Collectors.joining())
+        .retryWhen(retry("section " + name, sectionResumes))
+        .flux();
+  }
+
+  private Retry retry(String unit, Counter resumes) {
+    return Retry.backoff(properties.maxAttempts() - 1L, properties.backoff())
+        .filter(ResumableGeneration::isTransient)
+        .doBeforeRetry(
+            signal -> {
+              resumes.increment();
+              LOG.warn(
+                  "Resuming {} after attempt {} failed: {}",
+                  unit,
+                  signal.totalRetries() + 1,
+                  signal.failure().toString());
+            })
+        .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+  }
+
+  /**
+   * Returns whether another attempt may succeed: the failure, or one of its causes, is an I/O
+   * error, a timeout, or a server error of the LLM backend.
+   */
+  private static boolean isTransient(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof LlmUnavailableException) {
+        return false;
+      }
+      if (cause instanceof WebClientResponseException ex) {
+        return ex.getStatusCode().is5xxServerError();
+      }
+      if (cause instanceof RestClientResponseException ex) {
+        return ex.getStatusCode().is5xxServerError();
+      }
+      if (cause instanceof IOException
+          || cause instanceof TimeoutException
+          || cause instanceof io.netty.handler.timeout.TimeoutException
+          || cause instanceof WebClientRequestException
+          || cause instanceof TransientAiException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Counter resumeCounter(MeterRegistry meterRegistry, String unit) {
+    return Counter.builder("inkify.generation.resumes")
+        .description("Generations resumed after an LLM stream failed")
+        .tag("unit", unit)
+        .register(meterRegistry);
+  }
+}
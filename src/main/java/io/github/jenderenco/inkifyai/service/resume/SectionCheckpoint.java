@@ -0,0 +1,122 @@
+package io.github.jenderenco.inkifyai.service.resume;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Holds back generated markdown until the section it belongs to is complete. A section ends where
+ * the next ATX heading, one to six {@code #} followed by a space, starts outside a code block, so
+ * everything before the last such heading can be passed on, and everything after it is pending.
+ * Lines such as {@code #hashtag} or {@code #!/bin/sh} are not headings. If the stream fails, the
+ * pending part of the interrupted section is discarded, and the headings of the sections passed on
+ * tell the LLM where to continue.
+ *
+ * <p>Not thread-safe; an instance tracks the chunks of a single, sequential stream.
+ */
+final class SectionCheckpoint {
+
+  private static final Pattern HEADING = Pattern.compile("#{1,6}(?:\\s|$)");
+
+  private final StringBuilder pending = new StringBuilder();
+  private final List<Heading> pendingHeadings = new ArrayList<>();
+  private final List<String> writtenHeadings = new ArrayList<>();
+  private int scanned;
+  private boolean inFence;
+  private boolean skipPreamble;
+
+  /**
+   * Adds a chunk of generated markdown.
+   *
+   * @param chunk the chunk
+   * @return the text of the sections completed by this chunk, possibly empty
+   */
+  String accept(String chunk) {
+    pending.append(chunk);
+    int boundary = 0;
+    int lineEnd;
+    while ((lineEnd = pending.indexOf("\n", scanned)) >= 0) {
+      String line = pending.substring(scanned, lineEnd);
+      String stripped = line.strip();
+      if (stripped.startsWith("```") || stripped.startsWith("~~~")) {
+        inFence = !inFence;
+      } else if (!inFence && HEADING.matcher(line).lookingAt()) {
+        if (skipPreamble) {
+          // Drop whatever a resumed stream writes ahead of its first section
+          pending.delete(0, scanned);
+          lineEnd -= scanned;
+          scanned = 0;
+          skipPreamble = false;
+        }
+        // Text ahead of the first heading belongs to the first section
+        if (!writtenHeadings.isEmpty() || !pendingHeadings.isEmpty()) {
+          boundary = scanned;
+        }
+        pendingHeadings.add(new Heading(scanned, stripped));
+      }
+      scanned = lineEnd + 1;
+    }
+    return release(boundary);
+  }
+
+  /**
+   * Returns the rest of the markdown once the stream has completed.
+   *
+   * @return the text of the last section
+   */
+  String finish() {
+    return release(pending.length());
+  }
+
+  /**
+   * Discards the interrupted section, so that the stream can be resumed after the last complete
+   * one. Text the resumed stream writes ahead of its first heading is dropped as well.
+   */
+  void discardPending() {
+    pending.setLength(0);
+    pendingHeadings.clear();
+    scanned = 0;
+    inFence = false;
+    skipPreamble = hasWritten();
+  }
+
+  /**
+   * Returns whether any section has been passed on.
+   *
+   * @return true if at least one section is complete
+   */
+  boolean hasWritten() {
+    return !writtenHeadings.isEmpty();
+  }
+
+  /**
+   * Returns the headings of the sections passed on, in document order.
+   *
+   * @return the headings, including their leading {@code #} characters
+   */
+  List<String> writtenHeadings() {
+    return List.copyOf(writtenHeadings);
+  }
+
+  private String release(int boundary) {
+    if (boundary == 0) {
+      return "";
+    }
+    String text = pending.substring(0, boundary);
+    pending.delete(0, boundary);
+    scanned = Math.max(0, scanned - boundary);
+    List<Heading> remaining = new ArrayList<>();
+    for (Heading heading : pendingHeadings) {
+      if (heading.offset() < boundary) {
+        writtenHeadings.add(heading.text());
+      } else {
+        remaining.add(new Heading(heading.offset() - boundary, heading.text()));
+      }
+    }
+    pendingHeadings.clear();
+    pendingHeadings.addAll(remaining);
+    return text;
+  }
+
+  private record Heading(int offset, String text) {}
+}
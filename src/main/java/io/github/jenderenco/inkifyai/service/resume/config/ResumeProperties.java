@@ -0,0 +1,20 @@
+package io.github.jenderenco.inkifyai.service.resume.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for resuming generation after an LLM stream failed part way through.
+ *
+ * @param enabled whether generation is checkpointed at section boundaries and resumed on failure
+ * @param maxAttempts the most attempts for a document or section, including the first one
+ * @param backoff the delay before the first resumption, doubled for every further one
+ */
+@ConfigurationProperties(prefix = "documentation.resume")
+public record ResumeProperties(boolean enabled, int maxAttempts, Duration backoff) {
+
+  public ResumeProperties {
+    maxAttempts = Math.max(1, maxAttempts);
+    backoff = backoff == null ? Duration.ofSeconds(1) : backoff;
+  }
+}
@@ -0,0 +1,36 @@
+package io.github.jenderenco.inkifyai.service.scheduling;
+
+/**
+ * Estimates the cost of generating documentation, in tokens. Requests are scheduled before their
+ * specification is parsed, so the cost is estimated from the size of the specification: the prompt
+ * is built from it, and the generated documentation grows with its operations and schemas.
+ */
+public final class GenerationCost {
+
+  private static final int CHARS_PER_TOKEN = 4;
+  private static final int OVERVIEW_TOKENS = 300;
+  // About 150 generated tokens for an operation or schema of 750 characters
+  private static final int SPEC_CHARS_PER_GENERATED_TOKEN = 5;
+
+  private GenerationCost() {}
+
+  /**
+   * Estimates the number of tokens processed to document a specification.
+   *
+   * @param specChars the length of the specification as fetched
+   * @return the estimated number of prompt and generated tokens
+   */
+  public static long estimate(int specChars) {
+    return promptTokens(specChars) + OVERVIEW_TOKENS + specChars / SPEC_CHARS_PER_GENERATED_TOKEN;
+  }
+
+  /**
+   * Estimates the number of tokens of a prompt.
+   *
+   * @param promptChars the length of the prompt
+   * @return the estimated number of prompt tokens
+   */
+  public static long promptTokens(int promptChars) {
+    return promptChars / CHARS_PER_TOKEN;
+  }
+}
@@ -0,0 +1,179 @@
+package io.github.jenderenco.inkifyai.service.scheduling;
+
+import io.github.jenderenco.inkifyai.service.config.DocumentationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Limits the number of concurrent generation requests and runs queued requests shortest job
+ * first, so small specifications are not stuck behind large ones.
+ *
+ * <p>Queued requests age: their priority is their estimated cost minus {@code agingPerSecond} for
+ * every second they have waited. Since all queued requests age at the same rate, the order only
+ * depends on cost plus aging times enqueue time, which is fixed when a request is queued, so a
+ * plain priority queue keeps the order.
+ *
+ * <p>Started generations run on the bounded elastic scheduler: a queued request is admitted on the
+ * thread that finished the previous one, typically an event loop thread, and generations parse and
+ * resolve their specification before they stream.
+ */
+@Component
+public class GenerationScheduler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GenerationScheduler.class);
+
+  private final DocumentationProperties.Scheduler properties;
+  private final long epoch = System.nanoTime();
+  private final Object lock = new Object();
+  private final PriorityQueue<Ticket> queue =
+      new PriorityQueue<>(
+          Comparator.comparingDouble(Ticket::priority).thenComparingLong(Ticket::sequence));
+  private final Timer queueWaitTimer;
+  private long sequence;
+  private int running;
+
+  public GenerationScheduler(DocumentationProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties.scheduler();
+    this.queueWaitTimer =
+        Timer.builder("inkify.generation.queue.wait")
+            .description("Time generation requests wait for a generation slot")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+    Gauge.builder("inkify.generation.queue.size", this, GenerationScheduler::queued)
+        .description("Number of generation requests waiting for a generation slot")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Runs the given generation once a slot is free. The wait time is recorded in the {@link
+   * GenerationStats} of the subscriber context, if present.
+   *
+   * @param estimatedCost the estimated cost of the generation, see {@link GenerationCost}
+   * @param generation the lazy generation stream
+   * @param <T> the type of chunks
+   * @return the generation stream, started once scheduled
+   */
+  public <T> Flux<T> schedule(long estimatedCost, Flux<T> generation) {
+    if (!properties.enabled()) {
+      return generation;
+    }
+
+    return Flux.deferContextual(
+        context -> {
+          Ticket ticket = enqueue(estimatedCost);
+          return ticket
+              .admission()
+              .asMono()
+              .publishOn(Schedulers.boundedElastic())
+              .thenMany(
+                  Flux.defer(
+                      () -> {
+                        Duration wait = Duration.ofNanos(System.nanoTime() - ticket.enqueuedAt());
+                        queueWaitTimer.record(wait);
+                        context
+                            .<GenerationStats>getOrEmpty(GenerationStats.class)
+                            .ifPresent(stats -> stats.recordScheduling(estimatedCost, wait));
+                        LOG.debug(
+                            "Starting generation with estimated cost {} after {} ms in queue",
+                            estimatedCost,
+                            wait.toMillis());
+                        return generation;
+                      }))
+              .doFinally(signal -> finish(ticket));
+        });
+  }
+
+  private Ticket enqueue(long estimatedCost) {
+    long now = System.nanoTime();
+    double priority = estimatedCost + properties.agingPerSecond() * (now - epoch) / 1e9;
+    Ticket ticket;
+    boolean admitted;
+    synchronized (lock) {
+      ticket = new Ticket(priority, sequence++, now, Sinks.empty());
+      admitted = running < properties.concurrency() && queue.isEmpty();
+      if (admitted) {
+        running++;
+        ticket.admitted = true;
+      } else {
+        queue.add(ticket);
+      }
+    }
+    if (admitted) {
+      ticket.admission().tryEmitEmpty();
+    }
+    return ticket;
+  }
+
+  private void finish(Ticket ticket) {
+    Ticket next = null;
+    synchronized (lock) {
+      if (!ticket.admitted) {
+        // Cancelled while queued
+        queue.remove(ticket);
+        return;
+      }
+      running--;
+      if (running < properties.concurrency()) {
+        next = queue.poll();
+        if (next != null) {
+          running++;
+          next.admitted = true;
+        }
+      }
+    }
+    if (next != null) {
+      next.admission().tryEmitEmpty();
+    }
+  }
+
+  private int queued() {
+    synchronized (lock) {
+      return queue.size();
+    }
+  }
+
+  /** A generation request waiting for, or holding, a generation slot. */
+  private static final class Ticket {
+
+    private final double priority;
+    private final long sequence;
+    private final long enqueuedAt;
+    private final Sinks.Empty<Void> admission;
+
+    /** Whether the request holds a slot; guarded by the scheduler lock. */
+    private boolean admitted;
+
+    private Ticket(double priority, long sequence, long enqueuedAt, Sinks.Empty<Void> admission) {
+      this.priority = priority;
+      this.sequence = sequence;
+      this.enqueuedAt = enqueuedAt;
+      this.admission = admission;
+    }
+
+    private double priority() {
+      return priority;
+    }
+
+    private long sequence() {
+      return sequence;
+    }
+
+    private long enqueuedAt() {
+      return enqueuedAt;
+    }
+
+    private Sinks.Empty<Void> admission() {
+      return admission;
+    }
+  }
+}
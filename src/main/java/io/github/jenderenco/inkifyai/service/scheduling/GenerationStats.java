@@ -0,0 +1,106 @@
+package io.github.jenderenco.inkifyai.service.scheduling;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Statistics of a single generation request. Callers interested in them put an instance into the
+ * Reactor context of the generation stream, keyed by this class, and read it once the stream has
+ * terminated.
+ */
+public class GenerationStats {
+
+  private final String requestId = UUID.randomUUID().toString();
+  private volatile long estimatedCost;
+  private volatile Duration queueWait = Duration.ZERO;
+  private volatile String specHash;
+  private volatile List<String> validationWarnings = List.of();
+  private volatile long memoryBytes;
+
+  /**
+   * Returns the id of the request, which the flight recorder events of its stages carry.
+   *
+   * @return the request id
+   */
+  public String requestId() {
+    return requestId;
+  }
+
+  /**
+   * Returns the estimated cost of the request.
+   *
+   * @return the estimated number of tokens
+   */
+  public long estimatedCost() {
+    return estimatedCost;
+  }
+
+  /**
+   * Returns how long the request waited for a generation slot.
+   *
+   * @return the queue wait time, zero if the request was not queued
+   */
+  public Duration queueWait() {
+    return queueWait;
+  }
+
+  /**
+   * Returns the content hash of the specification the documentation was generated from.
+   *
+   * @return the SHA-256 hash of the specification, or {@code null} if it was not loaded
+   */
+  public String specHash() {
+    return specHash;
+  }
+
+  /**
+   * Records the content hash of the specification the documentation is generated from.
+   *
+   * @param specHash the SHA-256 hash of the specification
+   */
+  public void recordSpecHash(String specHash) {
+    this.specHash = specHash;
+  }
+
+  /**
+   * Returns the warnings validation reported for the specification.
+   *
+   * @return the validation warnings, empty if there were none
+   */
+  public List<String> validationWarnings() {
+    return validationWarnings;
+  }
+
+  /**
+   * Records the warnings validation reported for the specification.
+   *
+   * @param validationWarnings the validation warnings
+   */
+  public void recordValidationWarnings(List<String> validationWarnings) {
+    this.validationWarnings = List.copyOf(validationWarnings);
+  }
+
+  /**
+   * Returns the memory the request held against the memory budget.
+   *
+   * @return the estimated bytes of the specification and the output, 0 if not accounted
+   */
+  public long memoryBytes() {
+    return memoryBytes;
+  }
+
+  /**
+   * Records the memory the request held against the memory budget.
+   *
+   * @param memoryBytes the estimated bytes of the specification and the output
+   */
+  public void recordMemory(long memoryBytes) {
+    this.memoryBytes = memoryBytes;
+  }
+
+  void recordScheduling(long estimatedCost, Duration queueWait) {
+    this.estimatedCost = estimatedCost;
+    this.queueWait = queueWait;
+  }
+}
@@ -0,0 +1,17 @@
+package io.github.jenderenco.inkifyai.service.section;
+
+import io.github.jenderenco.inkifyai.llm.prompt.LlmPrompt;
+
+/**
+ * A section of the documentation that is generated by a single LLM call.
+ *
+ * @param key the cache key, derived from the structure of the documented element, the model and
+ *     the template version
+ * @param kind the kind of section
+ * @param name the name of the documented element
+ * @param group the group the section belongs to: the API title for the overview, the first tag
+ *     or path segment for operations, and "Models" for schemas
+ * @param prompt the prompt generating the section
+ */
+public record DocumentationSection(
+    String key, SectionKind kind, String name, String group, LlmPrompt prompt) {}
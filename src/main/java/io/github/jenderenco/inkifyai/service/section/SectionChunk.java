@@ -0,0 +1,9 @@
+package io.github.jenderenco.inkifyai.service.section;
+
+/**
+ * A chunk of generated documentation, together with the section it belongs to.
+ *
+ * @param section the section being generated
+ * @param text the generated text
+ */
+public record SectionChunk(DocumentationSection section, String text) {}
@@ -0,0 +1,14 @@
+package io.github.jenderenco.inkifyai.service.section;
+
+/** The kinds of sections a generated documentation is made of. */
+public enum SectionKind {
+
+  /** The introduction to the API as a whole. */
+  OVERVIEW,
+
+  /** The documentation of a single operation. */
+  OPERATION,
+
+  /** The documentation of a single schema. */
+  SCHEMA
+}
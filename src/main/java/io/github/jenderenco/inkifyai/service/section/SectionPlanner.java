@@ -0,0 +1,118 @@
+package io.github.jenderenco.inkifyai.service.section;
+
+import io.github.jenderenco.inkifyai.llm.client.LlmClient;
+import io.github.jenderenco.inkifyai.llm.prompt.LlmPrompt;
+import io.github.jenderenco.inkifyai.llm.prompt.PromptService;
+import io.github.jenderenco.inkifyai.openapi.StructuralFingerprint;
+import io.github.jenderenco.inkifyai.openapi.model.ApiOperation;
+import io.github.jenderenco.inkifyai.openapi.model.ParsedOpenApiSpec;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+
+/**
+ * Splits the documentation of a specification into sections: an overview, then one section per
+ * operation, grouped by tag or resource, and one per schema. Each section is keyed by a structural
+ * hash of the element it documents, so identical elements of different specifications share the
+ * same key.
+ */
+@Component
+public class SectionPlanner {
+
+  /** The group of all schema sections. */
+  public static final String MODELS_GROUP = "Models";
+
+  private static final String DEFAULT_GROUP = "Endpoints";
+
+  private final PromptService promptService;
+
+  public SectionPlanner(PromptService promptService) {
+    this.promptService = promptService;
+  }
+
+  /**
+   * Plans the sections for the given specification.
+   *
+   * @param api the parsed OpenAPI specification
+   * @param client the LLM client that will generate the sections
+   * @return the sections, in documentation order
+   */
+  public List<DocumentationSection> plan(ParsedOpenApiSpec api, LlmClient client) {
+    String model = client.providerName() + "/" + client.modelName();
+    String templateVersion = promptService.sectionTemplateVersion();
+    List<DocumentationSection> sections = new ArrayList<>();
+
+    LlmPrompt overviewPrompt = promptService.buildOverviewSectionPrompt(api);
+    sections.add(
+        new DocumentationSection(
+            StructuralFingerprint.hash(
+                SectionKind.OVERVIEW.name(), overviewPrompt.user(), model, templateVersion),
+            SectionKind.OVERVIEW,
+            api.title(),
+            api.title(),
+            overviewPrompt));
+
+    Map<String, List<ApiOperation>> operationsByGroup = new LinkedHashMap<>();
+    for (ApiOperation operation : api.operations()) {
+      operationsByGroup.computeIfAbsent(group(operation), g -> new ArrayList<>()).add(operation);
+    }
+    operationsByGroup.forEach(
+        (group, operations) -> {
+          for (ApiOperation operation : operations) {
+            String name = operation.method() + " " + operation.path();
+            sections.add(
+                section(
+                    SectionKind.OPERATION,
+                    "Endpoint",
+                    name,
+                    group,
+                    StructuralFingerprint.canonicalJson(operation.definition()),
+                    model,
+                    templateVersion));
+          }
+        });
+
+    api.schemas()
+        .forEach(
+            (name, schema) ->
+                sections.add(
+                    section(
+                        SectionKind.SCHEMA,
+                        "Schema",
+                        name,
+                        MODELS_GROUP,
+                        StructuralFingerprint.canonicalJson(schema),
+                        model,
+                        templateVersion)));
+
+    return sections;
+  }
+
+  private DocumentationSection section(
+      SectionKind kind,
+      String label,
+      String name,
+      String group,
+      String definition,
+      String model,
+      String templateVersion) {
+    String key = StructuralFingerprint.hash(kind.name(), name, definition, model, templateVersion);
+    return new DocumentationSection(
+        key, kind, name, group, promptService.buildSectionPrompt(label, name, definition));
+  }
+
+  /** Returns the first tag of the operation, or the first segment of its path if untagged. */
+  private static String group(ApiOperation operation) {
+    if (!operation.tags().isEmpty()) {
+      return operation.tags().getFirst();
+    }
+    for (String segment : operation.path().split("/")) {
+      if (!segment.isBlank() && !segment.startsWith("{")) {
+        return segment;
+      }
+    }
+    return DEFAULT_GROUP;
+  }
+}
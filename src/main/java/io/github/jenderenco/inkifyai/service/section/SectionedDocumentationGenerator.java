@@ -0,0 +1,158 @@
+package io.github.jenderenco.inkifyai.service.section;
+
+import io.github.jenderenco.inkifyai.cache.CacheLease;
+import io.github.jenderenco.inkifyai.cache.LeasableCache;
+import io.github.jenderenco.inkifyai.llm.client.LlmClient;
+import io.github.jenderenco.inkifyai.openapi.model.ParsedOpenApiSpec;
+import io.github.jenderenco.inkifyai.service.config.DocumentationProperties;
+import io.github.jenderenco.inkifyai.service.markdown.MarkdownNormalizer;
+import io.github.jenderenco.inkifyai.service.resume.ResumableGeneration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Generates documentation section by section. Sections already generated for a structurally
+ * identical element, in this or any other specification, are spliced in from the cache; the LLM is
+ * only prompted for the remaining sections. Each section is normalized separately before it is
+ * cached, so a code block left open in one section cannot swallow the next one. With resumable
+ * generation, a section whose stream fails is generated again, and emitted once complete.
+ *
+ * <p>With a {@link LeasableCache}, a section missing in several concurrent requests, possibly on
+ * different nodes, is generated once while the others wait for it.
+ */
+@Component
+public class SectionedDocumentationGenerator {
+
+  /** The name of the cache holding generated sections. */
+  public static final String CACHE_NAME = "documentationSections";
+
+  private static final Logger LOG = LoggerFactory.getLogger(SectionedDocumentationGenerator.class);
+
+  private static final String SECTION_SEPARATOR = "\n\n";
+
+  private final SectionPlanner sectionPlanner;
+  private final CacheManager cacheManager;
+  private final MarkdownNormalizer markdownNormalizer;
+  private final DocumentationProperties properties;
+  private final ResumableGeneration resumableGeneration;
+
+  public SectionedDocumentationGenerator(
+      SectionPlanner sectionPlanner,
+      CacheManager cacheManager,
+      MarkdownNormalizer markdownNormalizer,
+      DocumentationProperties properties,
+      ResumableGeneration resumableGeneration) {
+    this.sectionPlanner = sectionPlanner;
+    this.cacheManager = cacheManager;
+    this.markdownNormalizer = markdownNormalizer;
+    this.properties = properties;
+    this.resumableGeneration = resumableGeneration;
+  }
+
+  /**
+   * Returns whether documentation should be generated section by section.
+   *
+   * @return true if section-level generation is enabled
+   */
+  public boolean isEnabled() {
+    return properties.sections().enabled();
+  }
+
+  /**
+   * Generates the documentation for the given specification, section by section. Sections are
+   * generated concurrently but emitted in documentation order.
+   *
+   * @param api the parsed OpenAPI specification
+   * @param client the LLM client generating missing sections
+   * @return a Flux of documentation chunks
+   */
+  public Flux<String> generate(ParsedOpenApiSpec api, LlmClient client) {
+    return generateSections(api, client).map(SectionChunk::text);
+  }
+
+  /**
+   * Generates the documentation for the given specification, section by section, keeping track of
+   * the section each chunk belongs to. All chunks of a section are emitted together, in
+   * documentation order.
+   *
+   * @param api the parsed OpenAPI specification
+   * @param client the LLM client generating missing sections
+   * @return a Flux of documentation chunks with their sections
+   */
+  public Flux<SectionChunk> generateSections(ParsedOpenApiSpec api, LlmClient client) {
+    List<DocumentationSection> sections = sectionPlanner.plan(api, client);
+    Cache cache =
+        Objects.requireNonNull(
+            cacheManager.getCache(CACHE_NAME), "Cache '" + CACHE_NAME + "' is not configured");
+
+    long cached = sections.stream().filter(section -> cache.get(section.key()) != null).count();
+    LOG.info("Reusing {} of {} documentation sections from cache", cached, sections.size());
+
+    return Flux.fromIterable(sections)
+        .flatMapSequential(
+            section -> generateSection(section, client, cache),
+            properties.sections().concurrency());
+  }
+
+  private Flux<SectionChunk> generateSection(
+      DocumentationSection section, LlmClient client, Cache cache) {
+    return generateText(section, client, cache).map(text -> new SectionChunk(section, text));
+  }
+
+  private Flux<String> generateText(DocumentationSection section, LlmClient client, Cache cache) {
+    String cached = cache.get(section.key(), String.class);
+    if (cached != null) {
+      return Flux.just(cached, SECTION_SEPARATOR);
+    }
+
+    return Flux.defer(
+        () -> {
+          if (!(cache instanceof LeasableCache leasableCache)) {
+            return generateAndCache(section, client, cache, null);
+          }
+          Optional<CacheLease> lease = leasableCache.tryLease(section.key());
+          if (lease.isPresent()) {
+            // The previous holder may have stored the section just before releasing its lease
+            String stored = cache.get(section.key(), String.class);
+            if (stored != null) {
+              lease.get().close();
+              return Flux.just(stored, SECTION_SEPARATOR);
+            }
+            return generateAndCache(section, client, cache, lease.get());
+          }
+
+          // Another request or node is generating this section; wait for it instead
+          LOG.debug("Waiting for section {} generated elsewhere", section.name());
+          return Mono.fromCallable(() -> leasableCache.await(section.key(), String.class))
+              .subscribeOn(Schedulers.boundedElastic())
+              .flatMapMany(text -> Flux.just(text, SECTION_SEPARATOR))
+              .switchIfEmpty(Flux.defer(() -> generateAndCache(section, client, cache, null)));
+        });
+  }
+
+  private Flux<String> generateAndCache(
+      DocumentationSection section, LlmClient client, Cache cache, CacheLease lease) {
+    StringBuilder text = new StringBuilder();
+    return resumableGeneration
+        .completeSection(
+            section.name(), () -> markdownNormalizer.normalize(client.complete(section.prompt())))
+        .doOnNext(text::append)
+        .doOnComplete(() -> cache.put(section.key(), text.toString()))
+        .doFinally(
+            signal -> {
+              if (lease != null) {
+                lease.close();
+              }
+            })
+        .concatWithValues(SECTION_SEPARATOR);
+  }
+}
@@ -0,0 +1,261 @@
+package io.github.jenderenco.inkifyai.service.watch;
+
+import io.github.jenderenco.inkifyai.openapi.FetchedSpec;
+import io.github.jenderenco.inkifyai.openapi.OpenApiFetcher;
+import io.github.jenderenco.inkifyai.openapi.config.OpenApiProperties;
+import io.github.jenderenco.inkifyai.service.DocumentationService;
+import io.github.jenderenco.inkifyai.service.result.ResultStore;
+import io.github.jenderenco.inkifyai.service.watch.config.SpecWatchProperties;
+import io.github.jenderenco.inkifyai.service.watch.config.SpecWatchProperties.WatchedSpec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Polls registered specifications on a jittered schedule and generates their documentation in the
+ * background whenever their content changes, so that requests for a watched specification can be
+ * answered without waiting for the LLM.
+ *
+ * <p>Polls are conditional requests, so unchanged specifications usually cost a {@code 304}
+ * response. Changed specifications are generated one at a time, and only within the off-peak
+ * window if one is configured; changes detected outside of it are generated at the first poll
+ * within it. Generated documents are stored, and the next changed specification started, on the
+ * bounded elastic scheduler rather than on the thread that completed the LLM stream.
+ */
+@Component
+public class SpecWatcher {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SpecWatcher.class);
+
+  private final OpenApiFetcher fetcher;
+  private final OpenApiProperties openApiProperties;
+  private final DocumentationService documentationService;
+  private final ResultStore resultStore;
+  private final SpecWatchProperties properties;
+  private final Map<WatchedSpec, WatchState> states = new LinkedHashMap<>();
+  private final AtomicBoolean generating = new AtomicBoolean();
+  private final Disposable.Composite polls = Disposables.composite();
+  private final MeterRegistry meterRegistry;
+  private final Counter hits;
+
+  public SpecWatcher(
+      OpenApiFetcher fetcher,
+      OpenApiProperties openApiProperties,
+      DocumentationService documentationService,
+      ResultStore resultStore,
+      SpecWatchProperties properties,
+      MeterRegistry meterRegistry) {
+    this.fetcher = fetcher;
+    this.openApiProperties = openApiProperties;
+    this.documentationService = documentationService;
+    this.resultStore = resultStore;
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+    this.hits =
+        Counter.builder("inkify.watch.hits")
+            .description("Requests answered with documentation generated in the background")
+            .register(meterRegistry);
+    for (WatchedSpec spec : properties.specs()) {
+      states.put(spec, new WatchState());
+    }
+  }
+
+  /** Starts polling the watched specifications once the application is ready. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!properties.enabled()) {
+      return;
+    }
+    LOG.info("Watching {} OpenAPI specifications for changes", states.size());
+    for (WatchedSpec spec : states.keySet()) {
+      polls.add(
+          Mono.defer(() -> Mono.delay(nextPollDelay()))
+              .then(Mono.fromRunnable(() -> poll(spec)).subscribeOn(Schedulers.boundedElastic()))
+              .repeat()
+              .subscribe());
+    }
+  }
+
+  /** Stops polling. */
+  @PreDestroy
+  public void stop() {
+    polls.dispose();
+  }
+
+  /**
+   * Returns the documentation generated for the latest known version of a watched specification.
+   *
+   * @param url the URL of the OpenAPI specification
+   * @param aiProvider the AI provider the documentation should be generated with
+   * @return the documentation, or empty if the specification is not watched, or its latest
+   *     version has not been generated yet
+   */
+  public Optional<StoredDocumentation> findCurrent(String url, String aiProvider) {
+    WatchState state = states.get(new WatchedSpec(url, aiProvider));
+    if (state == null) {
+      return Optional.empty();
+    }
+    Optional<StoredDocumentation> current = state.current();
+    current.ifPresent(documentation -> hits.increment());
+    return current;
+  }
+
+  /**
+   * Checks a watched specification for changes and generates pending documentation, if within the
+   * off-peak window.
+   *
+   * @param spec the specification to check
+   */
+  void poll(WatchedSpec spec) {
+    WatchState state = states.get(spec);
+    String outcome;
+    try {
+      Optional<FetchedSpec> fetched =
+          fetcher.fetchIfChanged(spec.url(), state.latest, openApiProperties);
+      outcome =
+          fetched
+              .map(latest -> state.update(latest) ? "changed" : "unchanged")
+              .orElse("not_modified");
+      if (outcome.equals("changed")) {
+        LOG.info("OpenAPI specification {} changed, queued for generation", spec.url());
+      }
+    } catch (RuntimeException e) {
+      outcome = "failed";
+      LOG.warn("Checking OpenAPI specification {} failed: {}", spec.url(), e.getMessage());
+    }
+    Counter.builder("inkify.watch.polls")
+        .description("Checks of watched specifications for changes")
+        .tag("outcome", outcome)
+        .register(meterRegistry)
+        .increment();
+    state.retryFailed();
+    generatePending();
+  }
+
+  /** Starts generating the next changed specification, unless one is already being generated. */
+  void generatePending() {
+    if (properties.offPeak() != null && !properties.offPeak().contains(LocalTime.now())) {
+      return;
+    }
+    if (!generating.compareAndSet(false, true)) {
+      return;
+    }
+    Optional<Map.Entry<WatchedSpec, WatchState>> next =
+        states.entrySet().stream().filter(entry -> entry.getValue().claim()).findFirst();
+    if (next.isEmpty()) {
+      generating.set(false);
+      return;
+    }
+
+    WatchedSpec spec = next.get().getKey();
+    WatchState state = next.get().getValue();
+    FetchedSpec latest = state.latest;
+    String specHash = latest.contentHash();
+    long start = System.nanoTime();
+    documentationService
+        .generateFromSpec(spec.url(), latest.content(), spec.aiProvider())
+        .collect(Collectors.joining())
+        .publishOn(Schedulers.boundedElastic())
+        .subscribe(
+            markdown -> {
+              state.stored = new StoredDocumentation(markdown, specHash, Instant.now());
+              resultStore.store(spec.url(), specHash, spec.aiProvider(), markdown);
+              countGeneration("success");
+              LOG.info(
+                  "Generated documentation for watched specification {} in {} ms",
+                  spec.url(),
+                  Duration.ofNanos(System.nanoTime() - start).toMillis());
+              generating.set(false);
+              Schedulers.boundedElastic().schedule(this::generatePending);
+            },
+            e -> {
+              // Retried at the next poll of the specification, unless it changed meanwhile
+              state.failed = specHash.equals(state.latestHash);
+              countGeneration("failure");
+              LOG.warn(
+                  "Generating documentation for watched specification {} failed: {}",
+                  spec.url(),
+                  e.getMessage());
+              generating.set(false);
+            });
+  }
+
+  private Duration nextPollDelay() {
+    double factor = 1 + properties.jitter() * ThreadLocalRandom.current().nextDouble(-1, 1);
+    return Duration.ofMillis(Math.round(properties.pollInterval().toMillis() * factor));
+  }
+
+  private void countGeneration(String outcome) {
+    Counter.builder("inkify.watch.generations")
+        .description("Background generations of watched specifications")
+        .tag("outcome", outcome)
+        .register(meterRegistry)
+        .increment();
+  }
+
+  /** The latest known version of a watched specification and its generated documentation. */
+  private static final class WatchState {
+
+    private volatile FetchedSpec latest;
+    private volatile String latestHash;
+    private volatile StoredDocumentation stored;
+    private volatile boolean pending;
+    private volatile boolean failed;
+
+    /** Records a fetched version and returns whether its content changed. */
+    private synchronized boolean update(FetchedSpec fetched) {
+      String hash = fetched.contentHash();
+      latest = fetched;
+      if (hash.equals(latestHash)) {
+        return false;
+      }
+      latestHash = hash;
+      pending = true;
+      failed = false;
+      return true;
+    }
+
+    /**
+     * Queues the version whose generation failed again. Only polls do, so a failure is not retried
+     * by the generation started after the previous one.
+     */
+    private synchronized void retryFailed() {
+      if (failed) {
+        failed = false;
+        pending = true;
+      }
+    }
+
+    /** Takes the pending generation, if any. */
+    private synchronized boolean claim() {
+      boolean claimed = pending;
+      pending = false;
+      return claimed;
+    }
+
+    private Optional<StoredDocumentation> current() {
+      StoredDocumentation documentation = stored;
+      return documentation != null && documentation.specHash().equals(latestHash)
+          ? Optional.of(documentation)
+          : Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package io.github.jenderenco.inkifyai.service.watch;
+
+import java.time.Instant;
+
+/**
+ * Documentation generated in the background for a watched specification.
+ *
+ * @param markdown the generated documentation
+ * @param specHash the content hash of the specification version it was generated from
+ * @param generatedAt the time generation finished
+ */
+public record StoredDocumentation(String markdown, String specHash, Instant generatedAt) {}
@@ -0,0 +1,65 @@
+package io.github.jenderenco.inkifyai.service.watch.config;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for watching registered specifications and generating their documentation in the
+ * background whenever they change.
+ *
+ * @param enabled whether registered specifications are watched
+ * @param pollInterval the average time between two checks of a specification
+ * @param jitter the fraction by which each poll interval is randomly shortened or lengthened, so
+ *     that specifications on the same server are not checked at the same time
+ * @param offPeak the daily time window in which changed specifications are generated, or {@code
+ *     null} to generate them immediately
+ * @param specs the watched specifications
+ */
+@ConfigurationProperties(prefix = "documentation.watch")
+public record SpecWatchProperties(
+    boolean enabled,
+    Duration pollInterval,
+    double jitter,
+    OffPeak offPeak,
+    List<WatchedSpec> specs) {
+
+  public SpecWatchProperties {
+    specs = specs == null ? List.of() : List.copyOf(specs);
+  }
+
+  /**
+   * A watched specification.
+   *
+   * @param url the URL of the OpenAPI specification
+   * @param aiProvider the AI provider the documentation is generated with
+   */
+  public record WatchedSpec(String url, String aiProvider) {}
+
+  /**
+   * A daily time window in local time. The window may span midnight; if start and end are equal,
+   * it covers the whole day.
+   *
+   * @param start the time the window opens
+   * @param end the time the window closes
+   */
+  public record OffPeak(LocalTime start, LocalTime end) {
+
+    /**
+     * Returns whether the given time lies within the window.
+     *
+     * @param time the time to check
+     * @return {@code true} if the time is at or after the start and before the end
+     */
+    public boolean contains(LocalTime time) {
+      if (start.equals(end)) {
+        return true;
+      }
+      if (start.isBefore(end)) {
+        return !time.isBefore(start) && time.isBefore(end);
+      }
+      return !time.isBefore(start) || time.isBefore(end);
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package io.github.jenderenco.inkifyai.startup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports how long the application took to become ready for traffic, measured from the start of
+ * the JVM, together with the startup optimizations in effect. The line is logged at INFO level and
+ * parsed by {@code scripts/startup-benchmark.sh}; the value is also published as the {@code
+ * inkify.startup.time.to.ready} gauge.
+ *
+ * <p>With lazy initialization, the beans that were deferred are created on a background thread once
+ * the application is ready, so the first request does not pay for them.
+ */
+@Component
+public class StartupTimeReporter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(StartupTimeReporter.class);
+
+  private static final String LAZY_INITIALIZATION = "spring.main.lazy-initialization";
+
+  private final MeterRegistry meterRegistry;
+
+  public StartupTimeReporter(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Reports the time to ready and starts initializing deferred beans.
+   *
+   * @param event the event signalling that the application is ready
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void onReady(ApplicationReadyEvent event) {
+    RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+    long timeToReady = runtime.getUptime();
+    boolean lazy =
+        event
+            .getApplicationContext()
+            .getEnvironment()
+            .getProperty(LAZY_INITIALIZATION, Boolean.class, false);
+    boolean cds =
+        runtime.getInputArguments().stream()
+            .anyMatch(argument -> argument.startsWith("-XX:SharedArchiveFile"));
+
+    Gauge.builder("inkify.startup.time.to.ready", () -> timeToReady)
+        .description("Time from JVM start until the application was ready for traffic")
+        .baseUnit("milliseconds")
+        .register(meterRegistry);
+    LOG.info(
+        "Ready for traffic {} ms after JVM start (context {} ms, lazy={}, aot={}, cds={})",
+        timeToReady,
+        event.getTimeTaken() == null ? -1 : event.getTimeTaken().toMillis(),
+        lazy,
+        AotDetector.useGeneratedArtifacts(),
+        cds);
+
+    if (lazy) {
+      ConfigurableListableBeanFactory beanFactory =
+          event.getApplicationContext().getBeanFactory();
+      Thread.ofVirtual()
+          .name("deferred-bean-initialization")
+          .start(() -> initializeDeferredBeans(beanFactory));
+    }
+  }
+
+  private static void initializeDeferredBeans(ConfigurableListableBeanFactory beanFactory) {
+    long start = System.nanoTime();
+    int initialized = 0;
+    for (String name : beanFactory.getBeanDefinitionNames()) {
+      BeanDefinition definition = beanFactory.getBeanDefinition(name);
+      if (!definition.isSingleton()
+          || definition.isAbstract()
+          || beanFactory.containsSingleton(name)) {
+        continue;
+      }
+      try {
+        beanFactory.getBean(name);
+        initialized++;
+      } catch (RuntimeException ex) {
+        LOG.debug("Deferred bean {} could not be initialized in the background", name, ex);
+      }
+    }
+    LOG.info(
+        "Initialized {} deferred beans in the background in {} ms",
+        initialized,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+}
@@ -0,0 +1,97 @@
+package io.github.jenderenco.inkifyai.web.controller;
+
+import io.github.jenderenco.inkifyai.llm.client.usage.LlmUsageAccumulator;
+import io.github.jenderenco.inkifyai.openapi.selection.OperationSelection;
+import io.github.jenderenco.inkifyai.service.DocumentationService;
+import io.github.jenderenco.inkifyai.service.gitbook.GitBookWriter;
+import io.github.jenderenco.inkifyai.service.section.SectionChunk;
+import java.util.List;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.util.context.Context;
+
+/**
+ * Controller for downloading the documentation as a zipped GitBook space. The archive is streamed
+ * while the sections are generated, so large APIs can be exported without holding the
+ * documentation in memory.
+ */
+@RestController
+public class GitBookController {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GitBookController.class);
+
+  private static final MediaType APPLICATION_ZIP = MediaType.parseMediaType("application/zip");
+
+  private final DocumentationService documentationService;
+  private final GitBookWriter gitBookWriter;
+
+  /**
+   * Constructs a new GitBookController.
+   *
+   * @param documentationService the service for generating documentation
+   * @param gitBookWriter the writer of GitBook archives
+   */
+  public GitBookController(
+      DocumentationService documentationService, GitBookWriter gitBookWriter) {
+    this.documentationService = documentationService;
+    this.gitBookWriter = gitBookWriter;
+  }
+
+  /**
+   * Generates documentation and streams it as a zipped GitBook space. Errors during generation
+   * abort the download, since the response status has already been sent. If the download fails,
+   * for example because the client disconnected, generation is cancelled.
+   *
+   * @param url the URL of the OpenAPI specification
+   * @param aiProvider the AI provider to use for generating documentation
+   * @param tags the tags of the operations to document, all operations if none are given
+   * @param paths Ant-style patterns of the paths of the operations to document
+   * @param operationIds the IDs of the operations to document
+   * @return the streamed ZIP archive
+   */
+  @PostMapping("/generate-docs/gitbook")
+  public ResponseEntity<StreamingResponseBody> generateGitBook(
+      @RequestParam("url") String url,
+      @RequestParam(value = "aiProvider", defaultValue = "ollama") String aiProvider,
+      @RequestParam(value = "tags", required = false) List<String> tags,
+      @RequestParam(value = "paths", required = false) List<String> paths,
+      @RequestParam(value = "operationIds", required = false) List<String> operationIds) {
+    OperationSelection selection = new OperationSelection(tags, paths, operationIds);
+    StreamingResponseBody body =
+        out -> {
+          LlmUsageAccumulator usage = new LlmUsageAccumulator();
+          // Closing the stream cancels generation, which releases its scheduler slot and memory
+          try (Stream<SectionChunk> chunks =
+              documentationService
+                  .generateSectionsFromUrl(url, aiProvider, selection)
+                  .contextWrite(Context.of(LlmUsageAccumulator.class, usage))
+                  .toStream()) {
+            gitBookWriter.write(chunks::iterator, out);
+            LOG.info(
+                "Generated GitBook archive for {} with {} LLM calls: {}",
+                url,
+                usage.calls(),
+                usage.total());
+          } catch (RuntimeException e) {
+            LOG.error("Failed to generate GitBook archive for {}", url, e);
+            throw e;
+          }
+        };
+
+    return ResponseEntity.ok()
+        .contentType(APPLICATION_ZIP)
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename("gitbook.zip").build().toString())
+        .body(body);
+  }
+}
@@ -1,19 +1,40 @@
 package io.github.jenderenco.inkifyai.web.controller;
 
 import io.github.jenderenco.inkifyai.llm.client.LlmClientRegistry;
+import io.github.jenderenco.inkifyai.llm.client.usage.LlmUsage;
+import io.github.jenderenco.inkifyai.llm.client.usage.LlmUsageAccumulator;
+import io.github.jenderenco.inkifyai.llm.exception.LlmUnavailableException;
 import io.github.jenderenco.inkifyai.openapi.exception.OpenApiFetchException;
+import io.github.jenderenco.inkifyai.openapi.exception.SpecValidationException;
+import io.github.jenderenco.inkifyai.openapi.selection.OperationSelection;
 import io.github.jenderenco.inkifyai.service.DocumentationService;
+import io.github.jenderenco.inkifyai.service.memory.MemoryBudgetExceededException;
+import io.github.jenderenco.inkifyai.service.result.ResultStore;
+import io.github.jenderenco.inkifyai.service.result.StoredResult;
+import io.github.jenderenco.inkifyai.service.scheduling.GenerationStats;
+import io.github.jenderenco.inkifyai.service.watch.SpecWatcher;
+import io.github.jenderenco.inkifyai.service.watch.StoredDocumentation;
 import io.github.jenderenco.inkifyai.web.controller.config.ApiProperties;
+import jakarta.servlet.http.HttpServletResponse;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.ExtendedModelMap;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.context.request.async.DeferredResult;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
 
 /**
  * Controller for handling web requests to the application. Provides endpoints for the home page and
@@ -24,23 +45,35 @@ public class HomeController {
 
   private static final Logger logger = LoggerFactory.getLogger(HomeController.class);
 
+  static final String SERVER_TIMING_HEADER = "Server-Timing";
+  static final String PROMPT_TOKENS_HEADER = "X-LLM-Prompt-Tokens";
+  static final String COMPLETION_TOKENS_HEADER = "X-LLM-Completion-Tokens";
+
   private final DocumentationService documentationService;
   private final LlmClientRegistry llmClientRegistry;
   private final ApiProperties apiProperties;
+  private final SpecWatcher specWatcher;
+  private final ResultStore resultStore;
 
   /**
    * Constructs a new HomeController with the given services.
    *
    * @param documentationService the service for generating documentation
    * @param llmClientRegistry the registry of LLM clients
+   * @param specWatcher the watcher holding documentation generated in the background
+   * @param resultStore the store keeping generated documents
    */
   public HomeController(
       DocumentationService documentationService,
       LlmClientRegistry llmClientRegistry,
-      ApiProperties apiProperties) {
+      ApiProperties apiProperties,
+      SpecWatcher specWatcher,
+      ResultStore resultStore) {
     this.documentationService = documentationService;
     this.llmClientRegistry = llmClientRegistry;
     this.apiProperties = apiProperties;
+    this.specWatcher = specWatcher;
+    this.resultStore = resultStore;
   }
 
   /**
@@ -56,43 +89,190 @@ public class HomeController {
   }
 
   /**
-   * Handles requests to generate documentation.
+   * Handles requests to generate documentation. The token counts and timings reported by the LLM
+   * are added to the model, logged, and sent as {@code X-LLM-*-Tokens} and {@code Server-Timing}
+   * headers. Watched specifications whose latest version was already generated in the background
+   * are answered immediately. Generated documents are stored, and linked from the result page.
+   * While the circuit of the LLM backend is open, or if generation times out, the last stored
+   * document is served as stale. Generation that outlasts the endpoint timeout is cancelled.
+   *
+   * <p>Given tags, path patterns or operation IDs, only the matching operations and the schemas
+   * they reference are documented. Such partial documentation is neither served from the
+   * background generation nor stored, since both hold the documentation of whole specifications.
    *
    * @param url the URL of the OpenAPI specification
    * @param aiProvider the AI provider to use for generating documentation
+   * @param tags the tags of the operations to document, all operations if none are given
+   * @param paths Ant-style patterns of the paths of the operations to document
+   * @param operationIds the IDs of the operations to document
    * @param model the Spring MVC model
+   * @param response the HTTP response, for the usage headers
    * @return a Mono containing the name of the view to render
    */
   @PostMapping("/generate-docs")
   public DeferredResult<String> generateDocs(
       @RequestParam("url") String url,
       @RequestParam(value = "aiProvider", defaultValue = "ollama") String aiProvider,
-      Model model) {
+      @RequestParam(value = "tags", required = false) List<String> tags,
+      @RequestParam(value = "paths", required = false) List<String> paths,
+      @RequestParam(value = "operationIds", required = false) List<String> operationIds,
+      Model model,
+      HttpServletResponse response) {
     DeferredResult<String> result =
         new DeferredResult<>(apiProperties.generateDocs().timeout().toMillis());
-    documentationService
-        .generateFromUrl(url, aiProvider)
-        .collect(Collectors.joining())
-        .map(
-            markdown -> {
-              model.addAttribute("markdown", markdown);
-              model.addAttribute("aiProvider", aiProvider);
-              return "result";
-            })
-        .onErrorResume(e -> handleError(e, model))
-        .subscribe(result::setResult, result::setErrorResult);
+    OperationSelection selection = new OperationSelection(tags, paths, operationIds);
+    Optional<StoredDocumentation> stored =
+        selection.isEmpty() ? specWatcher.findCurrent(url, aiProvider) : Optional.empty();
+    if (stored.isPresent()) {
+      logger.info("Serving documentation for {} generated in the background", url);
+      model.addAttribute("markdown", stored.get().markdown());
+      model.addAttribute("aiProvider", aiProvider);
+      model.addAttribute("queueWaitMillis", 0L);
+      model.addAttribute("usage", LlmUsage.NONE);
+      model.addAttribute("generatedAt", stored.get().generatedAt());
+      result.setResult("result");
+      return result;
+    }
+
+    GenerationStats stats = new GenerationStats();
+    LlmUsageAccumulator usage = new LlmUsageAccumulator();
+    AtomicBoolean settled = new AtomicBoolean();
+    Model generated = new ExtendedModelMap();
+    Disposable generation =
+        documentationService
+            .generateFromUrl(url, aiProvider, selection)
+            .collect(Collectors.joining())
+            .flatMap(
+                markdown ->
+                    store(url, aiProvider, selection, stats, markdown)
+                        .doOnNext(
+                            document -> generated.addAttribute("resultUrl", document.path()))
+                        .thenReturn(markdown))
+            .map(
+                markdown -> {
+                  LlmUsage total = usage.total();
+                  generated.addAttribute("markdown", markdown);
+                  generated.addAttribute("aiProvider", aiProvider);
+                  generated.addAttribute("queueWaitMillis", stats.queueWait().toMillis());
+                  generated.addAttribute("usage", total);
+                  generated.addAttribute("validationWarnings", stats.validationWarnings());
+                  logger.info(
+                      "Generated documentation for {} in request {} with {} LLM calls: {} prompt"
+                          + " and {} completion tokens, queue {} ms, load {} ms, prefill {} ms,"
+                          + " decode {} ms, memory {} KB",
+                      url,
+                      stats.requestId(),
+                      usage.calls(),
+                      total.promptTokens(),
+                      total.completionTokens(),
+                      stats.queueWait().toMillis(),
+                      total.load().toMillis(),
+                      total.prefill().toMillis(),
+                      total.decode().toMillis(),
+                      stats.memoryBytes() / 1024);
+                  return new Outcome(
+                      "result", generated, () -> addUsageHeaders(response, stats, total));
+                })
+            .onErrorResume(
+                e ->
+                    handleError(e, url, selection, generated)
+                        .map(view -> new Outcome(view, generated, () -> {})))
+            .contextWrite(
+                Context.of(GenerationStats.class, stats, LlmUsageAccumulator.class, usage))
+            .subscribe(
+                outcome -> settle(result, settled, model, outcome),
+                e -> {
+                  if (settled.compareAndSet(false, true)) {
+                    result.setErrorResult(e);
+                  }
+                });
+    result.onTimeout(
+        () -> {
+          generation.dispose();
+          TimeoutException timeout =
+              new TimeoutException(
+                  "Generation took longer than " + apiProperties.generateDocs().timeout());
+          Model timedOut = new ExtendedModelMap();
+          // The request fails with a 503 unless its result is set before this callback returns,
+          // so the container thread timing it out waits for the stale documentation to be read
+          String view = handleError(timeout, url, selection, timedOut).block();
+          settle(result, settled, model, new Outcome(view, timedOut, () -> {}));
+        });
 
     return result;
   }
 
+  /**
+   * Completes the request with the first outcome to settle it, either generation or its timeout.
+   * Each outcome fills a model of its own, and only that of the winner is copied into the model of
+   * the request, so a late outcome cannot overwrite the rendered one.
+   *
+   * @param result the result of the request
+   * @param settled whether an outcome already completed the request
+   * @param model the Spring MVC model of the request
+   * @param outcome the outcome completing the request
+   */
+  private static void settle(
+      DeferredResult<String> result, AtomicBoolean settled, Model model, Outcome outcome) {
+    if (settled.compareAndSet(false, true)) {
+      model.addAllAttributes(outcome.model().asMap());
+      outcome.headers().run();
+      result.setResult(outcome.view());
+    }
+  }
+
+  /**
+   * Stores generated documentation of a whole specification, off the thread emitting the
+   * generation, since storing writes files and the index.
+   *
+   * @param url the URL of the OpenAPI specification
+   * @param aiProvider the AI provider the documentation was generated with
+   * @param selection the operations documented; partial documentation is not stored
+   * @param stats the statistics of the generation, holding the specification hash
+   * @param markdown the generated documentation
+   * @return a Mono emitting the stored document, or empty if nothing was stored
+   */
+  private Mono<StoredResult> store(
+      String url,
+      String aiProvider,
+      OperationSelection selection,
+      GenerationStats stats,
+      String markdown) {
+    if (!selection.isEmpty()) {
+      return Mono.empty();
+    }
+    return Mono.fromCallable(
+            () -> resultStore.store(url, stats.specHash(), aiProvider, markdown).orElse(null))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  private static void addUsageHeaders(
+      HttpServletResponse response, GenerationStats stats, LlmUsage usage) {
+    response.setHeader(PROMPT_TOKENS_HEADER, Long.toString(usage.promptTokens()));
+    response.setHeader(COMPLETION_TOKENS_HEADER, Long.toString(usage.completionTokens()));
+    response.setHeader(
+        SERVER_TIMING_HEADER,
+        "queue;dur="
+            + stats.queueWait().toMillis()
+            + ", load;dur="
+            + usage.load().toMillis()
+            + ", prefill;dur="
+            + usage.prefill().toMillis()
+            + ", decode;dur="
+            + usage.decode().toMillis());
+  }
+
   /**
    * Handles errors that occur during documentation generation.
    *
    * @param e the throwable that caused the error
+   * @param url the URL of the OpenAPI specification
+   * @param selection the operations to document
    * @param model the Spring MVC model
    * @return a Mono containing the name of the error view to render
    */
-  private Mono<String> handleError(Throwable e, Model model) {
+  private Mono<String> handleError(
+      Throwable e, String url, OperationSelection selection, Model model) {
     return switch (e) {
       case OpenApiFetchException ex ->
           renderError(
@@ -102,6 +282,47 @@ public class HomeController {
                   + "Please check that the URL is correct and accessible, then try again.",
               ex);
 
+      case SpecValidationException ex ->
+          renderError(
+              model,
+              "Invalid API specification",
+              "The specification was rejected before generating documentation: "
+                  + String.join("; ", ex.reasons()),
+              ex);
+
+      case LlmUnavailableException ex ->
+          serveStale(ex, url, selection, model)
+              .switchIfEmpty(
+                  Mono.defer(
+                      () ->
+                          renderError(
+                              model,
+                              "AI provider unavailable",
+                              "We couldn't reach the AI provider to generate your documentation. "
+                                  + ex.getMessage()
+                                  + ".",
+                              ex)));
+
+      case Throwable ex when isTimeout(ex) ->
+          serveStale(ex, url, selection, model)
+              .switchIfEmpty(
+                  Mono.defer(
+                      () ->
+                          renderError(
+                              model,
+                              "Generation timed out",
+                              "Generating your documentation took too long. Please try again"
+                                  + " later.",
+                              ex)));
+
+      case MemoryBudgetExceededException ex ->
+          renderError(
+              model,
+              "Server busy",
+              "We couldn't start generating documentation for this specification: "
+                  + ex.getMessage(),
+              ex);
+
       case IllegalArgumentException ex ->
           renderError(
               model,
@@ -118,6 +339,61 @@ public class HomeController {
     };
   }
 
+  /**
+   * Serves stale documentation when no new documentation can be generated. If falling back to
+   * stale documentation is enabled, the most recently stored documentation of the specification
+   * is served, marked as stale. It is looked up and read off the thread that failed the
+   * generation, since that reads the index and a file.
+   *
+   * @param e the exception that prevented generating new documentation
+   * @param url the URL of the OpenAPI specification
+   * @param selection the operations to document; partial documentation has no stored fallback
+   * @param model the Spring MVC model
+   * @return a Mono containing the name of the view to render, or empty if there is no stored
+   *     documentation to serve
+   */
+  private Mono<String> serveStale(
+      Throwable e, String url, OperationSelection selection, Model model) {
+    if (!selection.isEmpty() || !apiProperties.generateDocs().staleFallback()) {
+      return Mono.empty();
+    }
+    return Mono.fromCallable(
+            () -> {
+              Optional<StoredResult> stored = resultStore.findLatest(url);
+              Optional<String> markdown = stored.flatMap(resultStore::read);
+              if (markdown.isEmpty()) {
+                return null;
+              }
+
+              logger.warn("Serving stale documentation for {}: {}", url, e.getMessage());
+              model.addAttribute("markdown", markdown.get());
+              model.addAttribute("aiProvider", stored.get().aiProvider());
+              model.addAttribute("queueWaitMillis", 0L);
+              model.addAttribute("usage", LlmUsage.NONE);
+              model.addAttribute("resultUrl", stored.get().path());
+              model.addAttribute("staleSince", stored.get().createdAt());
+              return "result";
+            })
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * Returns whether generation failed because it, or a call to the LLM backend, timed out.
+   *
+   * @param e the throwable that caused the error
+   * @return true if a timeout is the cause
+   */
+  private static boolean isTimeout(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof TimeoutException
+          || cause instanceof SocketTimeoutException
+          || cause instanceof io.netty.handler.timeout.TimeoutException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Renders an error page with the given title and message.
    *
@@ -133,4 +409,10 @@ public class HomeController {
     model.addAttribute("errorMessage", message);
     return Mono.just("error");
   }
+
+  /**
+   * The view a request is completed with, the model filled for it, and the headers to add to the
+   * response if it completes the request.
+   */
+  private record Outcome(String view, Model model, Runnable headers) {}
 }
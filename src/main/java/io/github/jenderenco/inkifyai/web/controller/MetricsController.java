@@ -0,0 +1,65 @@
+package io.github.jenderenco.inkifyai.web.controller;
+
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Exposes the meters of the application's meter registry, so that the metrics recorded by the
+ * generation pipeline can be scraped or inspected without further infrastructure.
+ */
+@RestController
+public class MetricsController {
+
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Constructs a new MetricsController.
+   *
+   * @param meterRegistry the registry whose meters are exposed
+   */
+  public MetricsController(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Returns the current values of all meters, or of those whose name starts with a prefix.
+   *
+   * @param prefix the optional prefix of the meter names to return, such as "inkify.llm"
+   * @return the meters ordered by name, each with its tags and measurements
+   */
+  @GetMapping("/metrics")
+  public List<Map<String, Object>> metrics(@RequestParam(required = false) String prefix) {
+    return meterRegistry.getMeters().stream()
+        .filter(meter -> prefix == null || meter.getId().getName().startsWith(prefix))
+        .sorted(Comparator.comparing((Meter meter) -> meter.getId().getName()))
+        .map(MetricsController::describe)
+        .toList();
+  }
+
+  private static Map<String, Object> describe(Meter meter) {
+    Map<String, String> tags = new LinkedHashMap<>();
+    for (Tag tag : meter.getId().getTags()) {
+      tags.put(tag.getKey(), tag.getValue());
+    }
+    Map<String, Double> measurements = new LinkedHashMap<>();
+    for (Measurement measurement : meter.measure()) {
+      measurements.put(
+          measurement.getStatistic().getTagValueRepresentation(), measurement.getValue());
+    }
+    Map<String, Object> description = new LinkedHashMap<>();
+    description.put("name", meter.getId().getName());
+    description.put("type", meter.getId().getType().name().toLowerCase());
+    description.put("tags", tags);
+    description.put("measurements", measurements);
+    return description;
+  }
+}
@@ -0,0 +1,63 @@
+package io.github.jenderenco.inkifyai.web.controller;
+
+import io.github.jenderenco.inkifyai.llm.client.ollama.OllamaLlmClient;
+import io.github.jenderenco.inkifyai.llm.client.ollama.OllamaModelState;
+import java.util.Map;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Readiness probe for load balancers and orchestrators. The application is only ready once it
+ * accepts traffic and the LLM model has been loaded, so that no request pays the model load time.
+ * If warm-up is disabled or has given up, the application is ready without the model, since only
+ * a request can then load it.
+ */
+@RestController
+public class ReadinessController {
+
+  private final ApplicationAvailability availability;
+  private final OllamaModelState modelState;
+  private final String modelName;
+
+  /**
+   * Constructs a new ReadinessController.
+   *
+   * @param availability the application availability
+   * @param modelState the state of the Ollama model
+   * @param ollamaClient the Ollama client, for the model name
+   */
+  public ReadinessController(
+      ApplicationAvailability availability,
+      OllamaModelState modelState,
+      OllamaLlmClient ollamaClient) {
+    this.availability = availability;
+    this.modelState = modelState;
+    this.modelName = ollamaClient.modelName();
+  }
+
+  /**
+   * Reports whether the application is ready to serve generation requests.
+   *
+   * @return 200 with status "UP" when ready, 503 with status "OUT_OF_SERVICE" otherwise
+   */
+  @GetMapping("/readiness")
+  public ResponseEntity<Map<String, Object>> readiness() {
+    boolean accepting = availability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC;
+    boolean loaded = modelState.isLoaded();
+    boolean loading = modelState.isAwaitingWarmup();
+    boolean ready = accepting && !loading;
+
+    Map<String, Object> body =
+        Map.of(
+            "status", ready ? "UP" : "OUT_OF_SERVICE",
+            "model", modelName,
+            "modelLoaded", loaded,
+            "message", loaded ? "model loaded" : loading ? "model loading" : "model not preloaded");
+    return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+        .body(body);
+  }
+}
@@ -0,0 +1,111 @@
+package io.github.jenderenco.inkifyai.web.controller;
+
+import io.github.jenderenco.inkifyai.service.result.ResultStore;
+import io.github.jenderenco.inkifyai.service.result.StoredResult;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serves stored documents. A stored document never changes, so responses carry a strong entity
+ * tag and may be cached until the document expires from the store, for at most a year;
+ * conditional requests are answered with {@code 304 Not Modified} and range requests with the
+ * requested parts of the file.
+ */
+@RestController
+public class ResultController {
+
+  static final MediaType MARKDOWN = new MediaType("text", "markdown", StandardCharsets.UTF_8);
+
+  private static final Duration MAX_CACHE_AGE = Duration.ofDays(365);
+
+  private final ResultStore resultStore;
+
+  /**
+   * Constructs a new ResultController.
+   *
+   * @param resultStore the store of generated documents
+   */
+  public ResultController(ResultStore resultStore) {
+    this.resultStore = resultStore;
+  }
+
+  /**
+   * Serves a stored document, precompressed with gzip if the client accepts it.
+   *
+   * @param specHash the content hash of the specification
+   * @param version the version of the document
+   * @param acceptEncoding the {@code Accept-Encoding} request header
+   * @return the document, or 404 if there is none or its file is missing
+   */
+  @GetMapping("/results/{specHash}/{version}")
+  public ResponseEntity<Resource> result(
+      @PathVariable String specHash,
+      @PathVariable int version,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+          String acceptEncoding) {
+    Optional<StoredResult> stored = resultStore.find(specHash, version);
+    if (stored.isEmpty()) {
+      return ResponseEntity.notFound().build();
+    }
+
+    StoredResult result = stored.get();
+    boolean gzip = acceptsGzip(acceptEncoding);
+    FileSystemResource file = new FileSystemResource(resultStore.path(result, gzip));
+    if (!file.exists()) {
+      return ResponseEntity.notFound().build();
+    }
+
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(MARKDOWN)
+            .cacheControl(CacheControl.maxAge(cacheAge(result)).cachePublic().immutable())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .lastModified(result.createdAt());
+    if (gzip) {
+      // Each representation needs its own strong entity tag
+      response.eTag("\"" + result.contentHash() + "-gzip\"");
+      response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    } else {
+      response.eTag("\"" + result.contentHash() + "\"");
+    }
+    return response.body(file);
+  }
+
+  /**
+   * Returns how long a document may be cached: until it expires from the store, so that a cached
+   * copy is never served once its version number may be reused.
+   */
+  private Duration cacheAge(StoredResult result) {
+    return resultStore
+        .expiresAt(result)
+        .map(expiry -> Duration.between(Instant.now(), expiry))
+        .map(remaining -> remaining.isNegative() ? Duration.ZERO : remaining)
+        .filter(remaining -> remaining.compareTo(MAX_CACHE_AGE) < 0)
+        .orElse(MAX_CACHE_AGE);
+  }
+
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    return Arrays.stream(acceptEncoding.split(","))
+        .map(String::trim)
+        .anyMatch(
+            coding ->
+                (coding.equals("gzip") || coding.startsWith("gzip;"))
+                    && !coding.replace(" ", "").matches("gzip;q=0(\\.0*)?"));
+  }
+}
@@ -5,5 +5,13 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "api")
 public record ApiProperties(GenerateDocs generateDocs) {
-  public record GenerateDocs(Duration timeout) {}
+
+  /**
+   * Settings of the documentation generation endpoint.
+   *
+   * @param timeout the time after which a request is answered with a timeout
+   * @param staleFallback whether a request that finds the LLM backend unavailable is answered with
+   *     the most recently stored documentation of the specification, marked as stale
+   */
+  public record GenerateDocs(Duration timeout, boolean staleFallback) {}
 }
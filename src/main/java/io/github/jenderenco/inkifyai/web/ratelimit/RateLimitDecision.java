@@ -0,0 +1,22 @@
+package io.github.jenderenco.inkifyai.web.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * The outcome of a rate limit check.
+ *
+ * @param allowed whether the request may proceed
+ * @param limit the burst capacity of the client
+ * @param remaining the number of requests the client may still send right away
+ * @param retryAfter the time until the next request is allowed, zero if allowed
+ */
+public record RateLimitDecision(boolean allowed, int limit, long remaining, Duration retryAfter) {
+
+  static RateLimitDecision allowed(int limit, long remaining) {
+    return new RateLimitDecision(true, limit, remaining, Duration.ZERO);
+  }
+
+  static RateLimitDecision limited(int limit, long waitNanos) {
+    return new RateLimitDecision(false, limit, 0, Duration.ofNanos(waitNanos));
+  }
+}
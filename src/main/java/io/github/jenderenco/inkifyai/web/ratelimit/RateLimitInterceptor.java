@@ -0,0 +1,91 @@
+package io.github.jenderenco.inkifyai.web.ratelimit;
+
+import io.github.jenderenco.inkifyai.web.ratelimit.config.RateLimitProperties;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies the configured rate limits to incoming requests. Clients are identified by the API key
+ * header if it holds one of the configured keys, and by their IP address otherwise, so that
+ * unknown keys cannot be used to obtain further allowances. Limited requests are answered with
+ * {@code 429 Too Many Requests} and a {@code Retry-After} header; all limited endpoints report the
+ * limit and the remaining allowance in {@code X-RateLimit-*} headers.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+  static final String LIMIT_HEADER = "X-RateLimit-Limit";
+  static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+  static final String RETRY_AFTER_HEADER = "Retry-After";
+
+  private final RateLimiter rateLimiter;
+  private final RateLimitProperties properties;
+  private final Set<String> apiKeys;
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+  public RateLimitInterceptor(RateLimiter rateLimiter, RateLimitProperties properties) {
+    this.rateLimiter = rateLimiter;
+    this.properties = properties;
+    this.apiKeys = Set.copyOf(properties.apiKeys());
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler)
+      throws IOException {
+    if (!properties.enabled() || request.getDispatcherType() != DispatcherType.REQUEST) {
+      // Async and error dispatches belong to a request that has already been counted
+      return true;
+    }
+
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    RateLimitProperties.Endpoint endpoint = findEndpoint(path);
+    if (endpoint == null) {
+      return true;
+    }
+
+    RateLimitDecision decision = rateLimiter.tryAcquire(endpoint, client(request));
+    response.setHeader(LIMIT_HEADER, String.valueOf(decision.limit()));
+    response.setHeader(REMAINING_HEADER, String.valueOf(decision.remaining()));
+    if (decision.allowed()) {
+      return true;
+    }
+
+    long retryAfterSeconds = Math.max(1, (decision.retryAfter().toMillis() + 999) / 1000);
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    response.setHeader(RETRY_AFTER_HEADER, String.valueOf(retryAfterSeconds));
+    response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+    response
+        .getWriter()
+        .write("Too many requests, please retry in " + retryAfterSeconds + " seconds.");
+    return false;
+  }
+
+  private RateLimitProperties.Endpoint findEndpoint(String path) {
+    for (RateLimitProperties.Endpoint endpoint : properties.endpoints()) {
+      if (pathMatcher.match(endpoint.path(), path)) {
+        return endpoint;
+      }
+    }
+    return null;
+  }
+
+  private String client(HttpServletRequest request) {
+    String apiKeyHeader = properties.apiKeyHeader();
+    if (apiKeyHeader != null && !apiKeyHeader.isBlank()) {
+      String apiKey = request.getHeader(apiKeyHeader);
+      if (apiKey != null && apiKeys.contains(apiKey)) {
+        return "key:" + apiKey;
+      }
+    }
+    return "ip:" + request.getRemoteAddr();
+  }
+}
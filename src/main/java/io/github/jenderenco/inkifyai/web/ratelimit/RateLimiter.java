@@ -0,0 +1,75 @@
+package io.github.jenderenco.inkifyai.web.ratelimit;
+
+import io.github.jenderenco.inkifyai.web.ratelimit.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps one token bucket per endpoint and client. Buckets live in a concurrent map and are updated
+ * lock-free, so checking a limit adds no contention to the request path. Buckets that have been
+ * idle long enough to refill completely are evicted periodically.
+ */
+@Component
+public class RateLimiter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RateLimiter.class);
+
+  private final RateLimitProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+  private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+  public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+    Gauge.builder("inkify.ratelimit.buckets", buckets, Map::size)
+        .description("Number of client rate limit buckets in memory")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Takes one request from the allowance of the client at the given endpoint.
+   *
+   * @param endpoint the limit of the endpoint
+   * @param client the identity of the client
+   * @return the decision
+   */
+  public RateLimitDecision tryAcquire(RateLimitProperties.Endpoint endpoint, String client) {
+    long now = System.nanoTime();
+    TokenBucket bucket =
+        buckets.computeIfAbsent(
+            endpoint.path() + '|' + client,
+            key -> new TokenBucket(endpoint.capacity(), endpoint.period().toNanos(), now));
+    RateLimitDecision decision = bucket.tryConsume(now);
+    counter(endpoint.path(), decision.allowed() ? "allowed" : "limited").increment();
+    return decision;
+  }
+
+  /** Evicts buckets of clients that have been idle for longer than the idle timeout. */
+  @Scheduled(fixedDelayString = "${api.rate-limit.idle-timeout}")
+  public void evictIdleBuckets() {
+    long now = System.nanoTime();
+    long idleNanos = properties.idleTimeout().toNanos();
+    int before = buckets.size();
+    buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+    LOG.debug("Evicted {} idle rate limit buckets", before - buckets.size());
+  }
+
+  private Counter counter(String path, String outcome) {
+    return counters.computeIfAbsent(
+        path + '|' + outcome,
+        key ->
+            Counter.builder("inkify.ratelimit.requests")
+                .description("Requests checked against a rate limit")
+                .tag("endpoint", path)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+  }
+}
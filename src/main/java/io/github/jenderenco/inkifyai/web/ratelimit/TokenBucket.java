@@ -0,0 +1,61 @@
+package io.github.jenderenco.inkifyai.web.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free token bucket. The state is an immutable snapshot replaced by compare-and-set, and
+ * tokens are refilled lazily from the time elapsed since the last update.
+ */
+final class TokenBucket {
+
+  private final int capacity;
+  private final double tokensPerNano;
+  private final AtomicReference<State> state;
+
+  TokenBucket(int capacity, long periodNanos, long now) {
+    this.capacity = capacity;
+    this.tokensPerNano = (double) capacity / periodNanos;
+    this.state = new AtomicReference<>(new State(capacity, now));
+  }
+
+  /**
+   * Takes one token from the bucket, if available.
+   *
+   * @param now the current time in nanoseconds
+   * @return the decision, with the remaining tokens or the time until the next token
+   */
+  RateLimitDecision tryConsume(long now) {
+    while (true) {
+      State current = state.get();
+      double tokens = refilled(current, now);
+      if (tokens < 1) {
+        long waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+        return RateLimitDecision.limited(capacity, waitNanos);
+      }
+      State next = new State(tokens - 1, Math.max(now, current.updatedAt()));
+      if (state.compareAndSet(current, next)) {
+        return RateLimitDecision.allowed(capacity, (long) (tokens - 1));
+      }
+    }
+  }
+
+  /**
+   * Returns whether the bucket has been unused for the given time and is full again, so that
+   * dropping it is indistinguishable from keeping it.
+   *
+   * @param now the current time in nanoseconds
+   * @param idleNanos the idle time after which a bucket may be evicted
+   * @return true if the bucket may be evicted
+   */
+  boolean isIdle(long now, long idleNanos) {
+    State current = state.get();
+    return now - current.updatedAt() >= idleNanos && refilled(current, now) >= capacity;
+  }
+
+  private double refilled(State current, long now) {
+    long elapsed = Math.max(0, now - current.updatedAt());
+    return Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+  }
+
+  private record State(double tokens, long updatedAt) {}
+}
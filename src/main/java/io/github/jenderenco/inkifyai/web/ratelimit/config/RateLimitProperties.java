@@ -0,0 +1,39 @@
+package io.github.jenderenco.inkifyai.web.ratelimit.config;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for per-client rate limiting.
+ *
+ * @param enabled whether requests are rate limited
+ * @param apiKeyHeader the header identifying a client; clients without a known key are identified
+ *     by IP
+ * @param apiKeys the known API keys; other values of the API key header are ignored, so that
+ *     clients cannot get a fresh allowance by sending a new key
+ * @param idleTimeout how long an unused client bucket is kept before it is evicted
+ * @param endpoints the limits per endpoint
+ */
+@ConfigurationProperties(prefix = "api.rate-limit")
+public record RateLimitProperties(
+    boolean enabled,
+    String apiKeyHeader,
+    List<String> apiKeys,
+    Duration idleTimeout,
+    List<Endpoint> endpoints) {
+
+  public RateLimitProperties {
+    apiKeys = apiKeys == null ? List.of() : List.copyOf(apiKeys);
+  }
+
+  /**
+   * The limit of an endpoint: each client may send {@code capacity} requests in a burst, and the
+   * allowance refills at {@code capacity} requests per {@code period}.
+   *
+   * @param path the Ant-style path pattern of the endpoint, for example "/generate-docs/**"
+   * @param capacity the number of requests a client may send in a burst
+   * @param period the time in which the full capacity is refilled
+   */
+  public record Endpoint(String path, int capacity, Duration period) {}
+}
@@ -0,0 +1,22 @@
+package io.github.jenderenco.inkifyai.web.ratelimit.config;
+
+import io.github.jenderenco.inkifyai.web.ratelimit.RateLimitInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/** Registers the rate limit interceptor. */
+@Configuration
+public class RateLimitWebConfig implements WebMvcConfigurer {
+
+  private final RateLimitInterceptor rateLimitInterceptor;
+
+  public RateLimitWebConfig(RateLimitInterceptor rateLimitInterceptor) {
+    this.rateLimitInterceptor = rateLimitInterceptor;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(rateLimitInterceptor);
+  }
+}
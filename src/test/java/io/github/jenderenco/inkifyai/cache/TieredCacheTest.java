@@ -0,0 +1,111 @@
+package io.github.jenderenco.inkifyai.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.jenderenco.inkifyai.cache.shared.FileSystemSharedCacheStore;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TieredCacheTest {
+
+  @TempDir private Path directory;
+
+  @Test
+  void sharesValuesBetweenNodes() {
+    // Arrange
+    TieredCache first = cache(10);
+    TieredCache second = cache(10);
+
+    // Act
+    first.put("key", "value");
+
+    // Assert
+    assertThat(second.get("key", String.class)).isEqualTo("value");
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedLocalEntries() {
+    // Arrange
+    TieredCache cache =
+        new TieredCache(
+            "local", 2, Duration.ofMinutes(1), null, Duration.ofSeconds(1), Duration.ofMillis(10));
+    cache.put("a", "1");
+    cache.put("b", "2");
+    cache.get("a");
+
+    // Act
+    cache.put("c", "3");
+
+    // Assert
+    assertThat(cache.get("a")).isNotNull();
+    assertThat(cache.get("b")).isNull();
+    assertThat(cache.get("c")).isNotNull();
+  }
+
+  @Test
+  void computesMissingValueOnceAcrossNodes() throws Exception {
+    // Arrange
+    TieredCache first = cache(10);
+    TieredCache second = cache(10);
+    AtomicInteger computations = new AtomicInteger();
+    Optional<CacheLease> lease = first.tryLease("key");
+
+    // Act
+    CompletableFuture<String> waiting =
+        CompletableFuture.supplyAsync(
+            () ->
+                second.get(
+                    "key",
+                    () -> {
+                      computations.incrementAndGet();
+                      return "computed by second";
+                    }));
+    first.put("key", "computed by first");
+    lease.orElseThrow().close();
+
+    // Assert
+    assertThat(waiting.get()).isEqualTo("computed by first");
+    assertThat(computations).hasValue(0);
+  }
+
+  @Test
+  void neverDeserializesSharedObjects() throws Exception {
+    // Arrange
+    ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+    serialized.write('J');
+    try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+      out.writeObject(new ArrayList<>(List.of("planted")));
+    }
+    new FileSystemSharedCacheStore(directory)
+        .put("sections", "planted", serialized.toByteArray(), Duration.ofMinutes(1));
+    TieredCache first = cache(10);
+    TieredCache second = cache(10);
+
+    // Act
+    first.put("number", 42);
+
+    // Assert
+    assertThat(second.get("planted")).isNull();
+    assertThat(second.get("number")).isNull();
+    assertThat(first.get("number", Integer.class)).isEqualTo(42);
+  }
+
+  private TieredCache cache(int maxEntries) {
+    return new TieredCache(
+        "sections",
+        maxEntries,
+        Duration.ofMinutes(1),
+        new FileSystemSharedCacheStore(directory),
+        Duration.ofSeconds(5),
+        Duration.ofMillis(10));
+  }
+}
@@ -0,0 +1,122 @@
+package io.github.jenderenco.inkifyai.cache.shared;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.jenderenco.inkifyai.cache.CacheLease;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileSystemSharedCacheStoreTest {
+
+  @TempDir private Path directory;
+
+  @Test
+  void readsValuesWrittenByAnotherNode() {
+    // Arrange
+    FileSystemSharedCacheStore writer = new FileSystemSharedCacheStore(directory);
+    FileSystemSharedCacheStore reader = new FileSystemSharedCacheStore(directory);
+
+    // Act
+    writer.put("specs", "https://example.com/api", bytes("spec"), Duration.ofMinutes(1));
+
+    // Assert
+    assertThat(reader.get("specs", "https://example.com/api")).hasValueSatisfying(
+        value -> assertThat(new String(value, StandardCharsets.UTF_8)).isEqualTo("spec"));
+    assertThat(reader.get("specs", "https://example.com/other")).isEmpty();
+  }
+
+  @Test
+  void dropsExpiredValues() {
+    // Arrange
+    FileSystemSharedCacheStore store = new FileSystemSharedCacheStore(directory);
+    store.put("specs", "key", bytes("spec"), Duration.ofMillis(-1));
+
+    // Act & Assert
+    assertThat(store.get("specs", "key")).isEmpty();
+  }
+
+  @Test
+  void leaseIsExclusiveUntilReleased() {
+    // Arrange
+    FileSystemSharedCacheStore first = new FileSystemSharedCacheStore(directory);
+    FileSystemSharedCacheStore second = new FileSystemSharedCacheStore(directory);
+
+    // Act
+    Optional<CacheLease> lease = first.tryLease("sections", "key", Duration.ofMinutes(1));
+
+    // Assert
+    assertThat(lease).isPresent();
+    assertThat(second.isLeased("sections", "key")).isTrue();
+    assertThat(second.tryLease("sections", "key", Duration.ofMinutes(1))).isEmpty();
+
+    lease.get().close();
+
+    assertThat(second.isLeased("sections", "key")).isFalse();
+    assertThat(second.tryLease("sections", "key", Duration.ofMinutes(1))).isPresent();
+  }
+
+  @Test
+  void breaksExpiredLease() {
+    // Arrange
+    FileSystemSharedCacheStore crashed = new FileSystemSharedCacheStore(directory);
+    FileSystemSharedCacheStore other = new FileSystemSharedCacheStore(directory);
+    crashed.tryLease("sections", "key", Duration.ofMillis(-1));
+
+    // Act & Assert
+    assertThat(other.tryLease("sections", "key", Duration.ofMinutes(1))).isPresent();
+  }
+
+  @Test
+  void keepsLeaseTakenOverAfterExpiryWhenReleased() throws IOException {
+    // Arrange
+    FileSystemSharedCacheStore slow = new FileSystemSharedCacheStore(directory);
+    FileSystemSharedCacheStore other = new FileSystemSharedCacheStore(directory);
+    Optional<CacheLease> expired = slow.tryLease("sections", "key", Duration.ofMillis(-1));
+    Optional<CacheLease> current = other.tryLease("sections", "key", Duration.ofMinutes(1));
+
+    // Act
+    expired.orElseThrow().close();
+
+    // Assert
+    assertThat(current).isPresent();
+    assertThat(other.isLeased("sections", "key")).isTrue();
+    try (Stream<Path> files = Files.list(directory.resolve("sections"))) {
+      assertThat(files.map(file -> file.getFileName().toString()))
+          .singleElement()
+          .satisfies(name -> assertThat(name).endsWith(".lease"));
+    }
+  }
+
+  @Test
+  void treatsUnreadableLeaseAsHeldUntilItIsOld() throws IOException {
+    // Arrange
+    FileSystemSharedCacheStore first = new FileSystemSharedCacheStore(directory);
+    FileSystemSharedCacheStore second = new FileSystemSharedCacheStore(directory);
+    first.tryLease("sections", "key", Duration.ofMinutes(1));
+    Path lease;
+    try (Stream<Path> files = Files.list(directory.resolve("sections"))) {
+      lease = files.filter(file -> file.toString().endsWith(".lease")).findFirst().orElseThrow();
+    }
+    Files.write(lease, new byte[0]);
+
+    // Act & Assert
+    assertThat(second.isLeased("sections", "key")).isTrue();
+    assertThat(second.tryLease("sections", "key", Duration.ofMinutes(1))).isEmpty();
+
+    Files.setLastModifiedTime(lease, FileTime.fromMillis(System.currentTimeMillis() - 120_000));
+
+    assertThat(second.tryLease("sections", "key", Duration.ofMinutes(1))).isPresent();
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,106 @@
+package io.github.jenderenco.inkifyai.diagnostics.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.jenderenco.inkifyai.diagnostics.jfr.config.JfrProperties;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class GenerationEventsTest {
+
+  @TempDir private Path directory;
+
+  @Test
+  void recordsStagesWithBundledSettings() throws IOException {
+    // Arrange
+    GenerationEvents events = new GenerationEvents(new JfrProperties(true, null));
+
+    // Act
+    List<RecordedEvent> recorded;
+    try (Recording recording = new Recording(ContinuousRecording.settings())) {
+      recording.start();
+      assertThat(events.fetch("r1", "http://example.com/api.json", () -> "{}")).isEqualTo("{}");
+      assertThat(events.resolve("r1", "{}", () -> "{ }")).isEqualTo("{ }");
+      StepVerifier.create(
+              events.stream("r1", "ollama", 42, Flux.just("ab", "cde"), String::length))
+          .expectNext("ab", "cde")
+          .verifyComplete();
+      recording.stop();
+      Path file = directory.resolve("test.jfr");
+      recording.dump(file);
+      recorded = RecordingFile.readAllEvents(file);
+    }
+
+    // Assert
+    RecordedEvent fetch = single(recorded, "inkify.SpecFetch");
+    assertThat(fetch.getString("requestId")).isEqualTo("r1");
+    assertThat(fetch.getString("url")).isEqualTo("http://example.com/api.json");
+    assertThat(fetch.getLong("specSize")).isEqualTo(2);
+    assertThat(fetch.getBoolean("succeeded")).isTrue();
+    assertThat(single(recorded, "inkify.RefResolve").getLong("resolvedSize")).isEqualTo(3);
+    RecordedEvent stream = single(recorded, "inkify.LlmStream");
+    assertThat(stream.getString("provider")).isEqualTo("ollama");
+    assertThat(stream.getInt("promptLength")).isEqualTo(42);
+    assertThat(stream.getLong("chunks")).isEqualTo(2);
+    assertThat(stream.getLong("characters")).isEqualTo(5);
+    assertThat(stream.getString("termination")).isEqualTo("onComplete");
+  }
+
+  @Test
+  void recordsFailedStage() throws IOException {
+    // Arrange
+    GenerationEvents events = new GenerationEvents(new JfrProperties(true, null));
+
+    // Act
+    List<RecordedEvent> recorded;
+    try (Recording recording = new Recording(ContinuousRecording.settings())) {
+      recording.start();
+      assertThatThrownBy(
+              () ->
+                  events.fetch(
+                      "r2",
+                      "http://example.com/api.json",
+                      () -> {
+                        throw new IllegalStateException("unreachable");
+                      }))
+          .isInstanceOf(IllegalStateException.class);
+      recording.stop();
+      Path file = directory.resolve("test.jfr");
+      recording.dump(file);
+      recorded = RecordingFile.readAllEvents(file);
+    }
+
+    // Assert
+    RecordedEvent fetch = single(recorded, "inkify.SpecFetch");
+    assertThat(fetch.getString("requestId")).isEqualTo("r2");
+    assertThat(fetch.getBoolean("succeeded")).isFalse();
+  }
+
+  @Test
+  void runsStagesUninstrumentedWhenDisabled() {
+    // Arrange
+    GenerationEvents events = new GenerationEvents(new JfrProperties(false, null));
+    Flux<String> stream = Flux.just("a");
+
+    // Act & Assert
+    assertThat(events.isEnabled()).isFalse();
+    assertThat(events.fetch(null, "http://example.com/api.json", () -> "{}")).isEqualTo("{}");
+    assertThat(events.stream(null, "ollama", 0, stream, String::length)).isSameAs(stream);
+  }
+
+  private static RecordedEvent single(List<RecordedEvent> events, String name) {
+    List<RecordedEvent> matching =
+        events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+    assertThat(matching).hasSize(1);
+    return matching.get(0);
+  }
+}
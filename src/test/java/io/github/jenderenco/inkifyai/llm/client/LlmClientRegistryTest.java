@@ -0,0 +1,74 @@
+package io.github.jenderenco.inkifyai.llm.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import io.github.jenderenco.inkifyai.llm.client.routing.SpecStatistics;
+import io.github.jenderenco.inkifyai.llm.client.routing.config.ModelRoutingProperties;
+import io.github.jenderenco.inkifyai.llm.client.routing.config.ModelRoutingProperties.Profile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class LlmClientRegistryTest {
+
+  private static final ModelOptions SMALL = new ModelOptions("llama3.2:1b", null, 1500, null);
+  private static final ModelOptions LARGE = new ModelOptions("llama3.1:8b", null, null, 16384);
+
+  private static final List<Profile> PROFILES =
+      List.of(
+          new Profile("small", "ollama", 10, 20, 2000, SMALL),
+          new Profile("large", "ollama", 0, 0, 0, LARGE));
+
+  @Mock private LlmClient client;
+  @Mock private LlmClient smallClient;
+  @Mock private LlmClient largeClient;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void routesSmallSpecsToSmallProfile() {
+    // Arrange
+    when(client.supports("ollama")).thenReturn(true);
+    when(client.withOptions(SMALL)).thenReturn(smallClient);
+
+    // Act & Assert
+    assertThat(registry(true).getClient("ollama", new SpecStatistics(5, 8, 1200)))
+        .isSameAs(smallClient);
+    assertThat(
+            meterRegistry
+                .counter("inkify.llm.routing.requests", "provider", "ollama", "profile", "small")
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void routesSpecsExceedingAnyLimitToNextProfile() {
+    // Arrange
+    when(client.supports("ollama")).thenReturn(true);
+    when(client.withOptions(LARGE)).thenReturn(largeClient);
+
+    // Act & Assert
+    assertThat(registry(true).getClient("ollama", new SpecStatistics(5, 8, 5000)))
+        .isSameAs(largeClient);
+  }
+
+  @Test
+  void returnsDefaultClientWhenRoutingIsDisabled() {
+    // Arrange
+    when(client.supports("ollama")).thenReturn(true);
+
+    // Act & Assert
+    assertThat(registry(false).getClient("ollama", new SpecStatistics(5, 8, 1200)))
+        .isSameAs(client);
+  }
+
+  private LlmClientRegistry registry(boolean enabled) {
+    return new LlmClientRegistry(
+        List.of(client), new ModelRoutingProperties(enabled, PROFILES), meterRegistry);
+  }
+}
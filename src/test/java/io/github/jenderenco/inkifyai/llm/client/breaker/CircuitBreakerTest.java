@@ -0,0 +1,132 @@
+package io.github.jenderenco.inkifyai.llm.client.breaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.jenderenco.inkifyai.llm.client.breaker.CircuitBreaker.State;
+import io.github.jenderenco.inkifyai.llm.client.breaker.config.CircuitBreakerProperties;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+  private static final long OPEN = Duration.ofSeconds(30).toNanos();
+
+  private final List<State> transitions = new ArrayList<>();
+
+  @Test
+  void opensWhenFailureRateReachesThreshold() {
+    // Arrange
+    CircuitBreaker breaker = breaker();
+
+    // Act
+    for (int i = 0; i < 4; i++) {
+      breaker.tryAcquire(0);
+      breaker.onResult(i % 2 == 0, false, 0);
+    }
+
+    // Assert
+    assertThat(breaker.state()).isEqualTo(State.OPEN);
+    assertThat(breaker.tryAcquire(1)).isFalse();
+    assertThat(breaker.isAvailable(1)).isFalse();
+    assertThat(breaker.retryAfter(Duration.ofSeconds(10).toNanos()))
+        .isEqualTo(Duration.ofSeconds(20));
+  }
+
+  @Test
+  void staysClosedBelowMinimumCallsOrThreshold() {
+    // Arrange
+    CircuitBreaker fewCalls = breaker();
+    CircuitBreaker fewFailures = breaker();
+
+    // Act
+    for (int i = 0; i < 3; i++) {
+      fewCalls.onResult(true, false, 0);
+    }
+    for (int i = 0; i < 7; i++) {
+      fewFailures.onResult(i >= 4, false, 0);
+    }
+
+    // Assert
+    assertThat(fewCalls.state()).isEqualTo(State.CLOSED);
+    assertThat(fewFailures.state()).isEqualTo(State.CLOSED);
+    assertThat(transitions).isEmpty();
+  }
+
+  @Test
+  void opensWhenSlowCallRateReachesThreshold() {
+    // Arrange
+    CircuitBreaker breaker = breaker();
+
+    // Act
+    for (int i = 0; i < 4; i++) {
+      breaker.onResult(false, true, 0);
+    }
+
+    // Assert
+    assertThat(breaker.state()).isEqualTo(State.OPEN);
+  }
+
+  @Test
+  void closesAfterSuccessfulProbes() {
+    // Arrange
+    CircuitBreaker breaker = openBreaker();
+
+    // Act & Assert
+    assertThat(breaker.isAvailable(OPEN)).isTrue();
+    assertThat(breaker.tryAcquire(OPEN)).isTrue();
+    assertThat(breaker.tryAcquire(OPEN)).isTrue();
+    assertThat(breaker.tryAcquire(OPEN)).isFalse();
+    breaker.onResult(false, false, OPEN);
+    assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+    breaker.onResult(false, false, OPEN);
+    assertThat(breaker.state()).isEqualTo(State.CLOSED);
+    assertThat(transitions).containsExactly(State.OPEN, State.HALF_OPEN, State.CLOSED);
+  }
+
+  @Test
+  void reopensWhenProbeFails() {
+    // Arrange
+    CircuitBreaker breaker = openBreaker();
+    breaker.tryAcquire(OPEN);
+
+    // Act
+    breaker.onResult(true, false, OPEN);
+
+    // Assert
+    assertThat(breaker.state()).isEqualTo(State.OPEN);
+    assertThat(breaker.tryAcquire(OPEN + 1)).isFalse();
+    assertThat(breaker.tryAcquire(2 * OPEN)).isTrue();
+  }
+
+  @Test
+  void returnsPermitOfCancelledProbe() {
+    // Arrange
+    CircuitBreaker breaker = openBreaker();
+    breaker.tryAcquire(OPEN);
+    breaker.tryAcquire(OPEN);
+
+    // Act
+    breaker.release();
+
+    // Assert
+    assertThat(breaker.tryAcquire(OPEN)).isTrue();
+    assertThat(breaker.tryAcquire(OPEN)).isFalse();
+  }
+
+  private CircuitBreaker openBreaker() {
+    CircuitBreaker breaker = breaker();
+    for (int i = 0; i < 4; i++) {
+      breaker.onResult(true, false, 0);
+    }
+    return breaker;
+  }
+
+  private CircuitBreaker breaker() {
+    return new CircuitBreaker(
+        new CircuitBreakerProperties(
+            true, 0.5, Duration.ofSeconds(10), 0.8, 10, 4, Duration.ofNanos(OPEN), 2),
+        (from, to) -> transitions.add(to));
+  }
+}
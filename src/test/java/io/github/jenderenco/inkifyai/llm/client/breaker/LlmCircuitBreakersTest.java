@@ -0,0 +1,86 @@
+package io.github.jenderenco.inkifyai.llm.client.breaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.jenderenco.inkifyai.llm.client.breaker.config.CircuitBreakerProperties;
+import io.github.jenderenco.inkifyai.llm.exception.LlmUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class LlmCircuitBreakersTest {
+
+  private static final String BACKEND = "ollama/primary";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void rejectsCallsWithoutSubscribingOnceCircuitIsOpen() {
+    // Arrange
+    LlmCircuitBreakers breakers = breakers(true);
+    AtomicInteger subscriptions = new AtomicInteger();
+    Flux<String> failing =
+        Flux.<String>error(new IllegalStateException("down"))
+            .doOnSubscribe(s -> subscriptions.incrementAndGet());
+    for (int i = 0; i < 2; i++) {
+      StepVerifier.create(breakers.protect(BACKEND, failing))
+          .verifyError(IllegalStateException.class);
+    }
+
+    // Act & Assert
+    assertThat(breakers.isAvailable(BACKEND)).isFalse();
+    StepVerifier.create(breakers.protect(BACKEND, failing))
+        .verifyError(LlmUnavailableException.class);
+    assertThat(subscriptions).hasValue(2);
+    assertThat(breakers.isAvailable("ollama/replica")).isTrue();
+    assertThat(
+            meterRegistry
+                .get("inkify.llm.circuit.calls")
+                .tag("outcome", "rejected")
+                .counter()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void ignoresCallsCancelledBeforeTheirFirstChunk() {
+    // Arrange
+    LlmCircuitBreakers breakers = breakers(true);
+
+    // Act
+    for (int i = 0; i < 2; i++) {
+      StepVerifier.create(breakers.protect(BACKEND, Flux.never())).thenCancel().verify();
+    }
+
+    // Assert
+    assertThat(breakers.isAvailable(BACKEND)).isTrue();
+    assertThat(meterRegistry.find("inkify.llm.circuit.calls").counters()).isEmpty();
+  }
+
+  @Test
+  void passesCallsThroughWhenDisabled() {
+    // Arrange
+    LlmCircuitBreakers breakers = breakers(false);
+    Flux<String> failing = Flux.error(new IllegalStateException("down"));
+    for (int i = 0; i < 2; i++) {
+      StepVerifier.create(breakers.protect(BACKEND, failing))
+          .verifyError(IllegalStateException.class);
+    }
+
+    // Act & Assert
+    assertThat(breakers.isAvailable(BACKEND)).isTrue();
+    StepVerifier.create(breakers.protect(BACKEND, Flux.just("chunk")))
+        .expectNext("chunk")
+        .verifyComplete();
+  }
+
+  private LlmCircuitBreakers breakers(boolean enabled) {
+    return new LlmCircuitBreakers(
+        new CircuitBreakerProperties(
+            enabled, 0.5, Duration.ofSeconds(10), 0, 10, 2, Duration.ofMinutes(1), 1),
+        meterRegistry);
+  }
+}
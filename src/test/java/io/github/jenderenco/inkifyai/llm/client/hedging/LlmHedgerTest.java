@@ -0,0 +1,76 @@
+package io.github.jenderenco.inkifyai.llm.client.hedging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.jenderenco.inkifyai.llm.client.hedging.config.HedgingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class LlmHedgerTest {
+
+  private static final Duration DELAY = Duration.ofSeconds(1);
+
+  @Test
+  void primaryWinsWhenFasterThanHedgeDelay() {
+    // Arrange
+    LlmHedger hedger = hedger(true, 5);
+    AtomicBoolean hedgeSubscribed = new AtomicBoolean();
+    Flux<String> secondary = Flux.just("hedge").doOnSubscribe(s -> hedgeSubscribed.set(true));
+
+    // Act & Assert
+    StepVerifier.withVirtualTime(() -> hedger.hedge(Flux.just("primary"), secondary))
+        .expectNext("primary")
+        .verifyComplete();
+    assertThat(hedgeSubscribed).isFalse();
+  }
+
+  @Test
+  void hedgeWinsWhenPrimaryIsSlow() {
+    // Arrange
+    LlmHedger hedger = hedger(true, 5);
+    AtomicBoolean primaryCancelled = new AtomicBoolean();
+    Flux<String> primary =
+        Flux.just("primary")
+            .delaySubscription(Duration.ofSeconds(10))
+            .doOnCancel(() -> primaryCancelled.set(true));
+
+    // Act & Assert
+    StepVerifier.withVirtualTime(() -> hedger.hedge(primary, Flux.just("hedge")))
+        .thenAwait(DELAY)
+        .expectNext("hedge")
+        .verifyComplete();
+    assertThat(primaryCancelled).isTrue();
+  }
+
+  @Test
+  void noHedgeWithoutBudget() {
+    // Arrange
+    LlmHedger hedger = hedger(true, 0);
+    Flux<String> primary = Flux.just("primary").delaySubscription(Duration.ofSeconds(10));
+
+    // Act & Assert
+    StepVerifier.withVirtualTime(() -> hedger.hedge(primary, Flux.just("hedge")))
+        .thenAwait(Duration.ofSeconds(10))
+        .expectNext("primary")
+        .verifyComplete();
+  }
+
+  @Test
+  void disabledHedgerReturnsPrimary() {
+    // Arrange
+    Flux<String> primary = Flux.just("primary");
+
+    // Act & Assert
+    assertThat(hedger(false, 5).hedge(primary, Flux.just("hedge"))).isSameAs(primary);
+  }
+
+  private static LlmHedger hedger(boolean enabled, int budgetBurst) {
+    HedgingProperties properties =
+        new HedgingProperties(enabled, 0.95, DELAY, DELAY, 0.05, budgetBurst, 16, 4);
+    return new LlmHedger(properties, new SimpleMeterRegistry());
+  }
+}
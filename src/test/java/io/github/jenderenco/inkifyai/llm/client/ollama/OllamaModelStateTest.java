@@ -0,0 +1,99 @@
+package io.github.jenderenco.inkifyai.llm.client.ollama;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.jenderenco.inkifyai.llm.client.ollama.config.OllamaClientProperties;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class OllamaModelStateTest {
+
+  private static final String MODEL = "llama3.2";
+
+  @Test
+  void modelIsColdUntilLoaded() {
+    OllamaModelState state = state(Duration.ofMinutes(10));
+
+    assertThat(state.isLoaded()).isFalse();
+    assertThat(state.isWarm(MODEL)).isFalse();
+
+    state.markLoaded(MODEL);
+
+    assertThat(state.isLoaded()).isTrue();
+    assertThat(state.isWarm(MODEL)).isTrue();
+  }
+
+  @Test
+  void modelIsColdAfterKeepAliveExpires() throws InterruptedException {
+    OllamaModelState state = state(Duration.ofMillis(1));
+    state.markLoaded(MODEL);
+
+    Thread.sleep(5);
+
+    assertThat(state.isLoaded()).isTrue();
+    assertThat(state.isWarm(MODEL)).isFalse();
+  }
+
+  @Test
+  void tracksModelsSeparately() {
+    OllamaModelState state = state(Duration.ofMinutes(10));
+
+    state.markLoaded(MODEL);
+    state.recordRequest("llama3.2:1b");
+
+    assertThat(state.isWarm(MODEL)).isTrue();
+    assertThat(state.isWarm("llama3.2:1b")).isFalse();
+    assertThat(state.hasRecentTraffic(MODEL, Duration.ofMinutes(1))).isFalse();
+    assertThat(state.hasRecentTraffic("llama3.2:1b", Duration.ofMinutes(1))).isTrue();
+  }
+
+  @Test
+  void stopsAwaitingWarmupOnceLoadedOrGivenUp() {
+    OllamaModelState loaded = state(Duration.ofMinutes(10));
+    OllamaModelState givenUp = state(Duration.ofMinutes(10));
+
+    assertThat(loaded.isAwaitingWarmup()).isTrue();
+
+    loaded.markLoaded(MODEL);
+    givenUp.stopAwaitingWarmup();
+
+    assertThat(loaded.isAwaitingWarmup()).isFalse();
+    assertThat(givenUp.isAwaitingWarmup()).isFalse();
+    assertThat(givenUp.isLoaded()).isFalse();
+  }
+
+  @Test
+  void doesNotAwaitDisabledWarmup() {
+    OllamaModelState state =
+        new OllamaModelState(
+            new OllamaClientProperties(
+                new OllamaClientProperties.Warmup(false, Duration.ofMinutes(1), 1),
+                new OllamaClientProperties.KeepAlive(
+                    Duration.ofMinutes(10), Duration.ofMinutes(4), Duration.ofMinutes(30)),
+                List.of()));
+
+    assertThat(state.isAwaitingWarmup()).isFalse();
+  }
+
+  @Test
+  void trafficIsOnlyRecentWithinWindow() {
+    OllamaModelState state = state(Duration.ofMinutes(10));
+
+    assertThat(state.hasRecentTraffic(MODEL, Duration.ofMinutes(1))).isFalse();
+
+    state.recordRequest(MODEL);
+
+    assertThat(state.hasRecentTraffic(MODEL, Duration.ofMinutes(1))).isTrue();
+    assertThat(state.hasRecentTraffic(MODEL, Duration.ZERO)).isFalse();
+  }
+
+  private static OllamaModelState state(Duration keepAlive) {
+    return new OllamaModelState(
+        new OllamaClientProperties(
+            new OllamaClientProperties.Warmup(true, Duration.ofMinutes(1), 1),
+            new OllamaClientProperties.KeepAlive(
+                keepAlive, Duration.ofMinutes(4), Duration.ofMinutes(30)),
+            List.of()));
+  }
+}
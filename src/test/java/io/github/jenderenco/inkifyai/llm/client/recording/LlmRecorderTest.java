@@ -0,0 +1,96 @@
+package io.github.jenderenco.inkifyai.llm.client.recording;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import io.github.jenderenco.inkifyai.llm.client.recording.config.LlmRecordingProperties;
+import io.github.jenderenco.inkifyai.llm.client.usage.LlmUsage;
+import io.github.jenderenco.inkifyai.llm.prompt.LlmPrompt;
+import java.time.Duration;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class LlmRecorderTest {
+
+  private static final LlmPrompt PROMPT = new LlmPrompt("Document this API", "{}");
+  private static final LlmUsage USAGE =
+      new LlmUsage(
+          120,
+          2,
+          Duration.ZERO,
+          Duration.ofMillis(30),
+          Duration.ofMillis(10),
+          Duration.ofMillis(40));
+
+  @Mock private LlmRecordingStore store;
+
+  @Test
+  void recordsCompletedResponseWithFinalUsage() {
+    // Arrange
+    Flux<String> responses = Flux.just("Hello", "", " world", "");
+
+    // Act
+    StepVerifier.create(record(recorder(true), responses))
+        .expectNext("Hello", "", " world", "")
+        .verifyComplete();
+
+    // Assert
+    ArgumentCaptor<LlmRecording> recording = ArgumentCaptor.forClass(LlmRecording.class);
+    verify(store, timeout(1000)).save(recording.capture());
+    assertThat(recording.getValue().promptHash()).isEqualTo(LlmRecordingStore.promptHash(PROMPT));
+    assertThat(recording.getValue().model()).isEqualTo("llama3.2");
+    assertThat(recording.getValue().chunks())
+        .extracting(LlmRecording.Chunk::text)
+        .containsExactly("Hello", " world");
+    assertThat(recording.getValue().usage()).isEqualTo(USAGE);
+  }
+
+  @Test
+  void doesNotRecordFailedResponse() {
+    // Arrange
+    Flux<String> responses =
+        Flux.concat(Flux.just("Hello"), Flux.error(new IllegalStateException()));
+
+    // Act
+    StepVerifier.create(record(recorder(true), responses))
+        .expectNext("Hello")
+        .verifyError(IllegalStateException.class);
+
+    // Assert
+    verify(store, after(200).never()).save(any());
+  }
+
+  @Test
+  void returnsResponsesAsIsWhenRecordingIsDisabled() {
+    // Arrange
+    Flux<String> responses = Flux.just("Hello");
+
+    // Act & Assert
+    assertThat(record(recorder(false), responses)).isSameAs(responses);
+  }
+
+  private static Flux<String> record(LlmRecorder recorder, Flux<String> responses) {
+    // The final, empty response carries the usage, as with Ollama
+    return recorder.record(
+        PROMPT,
+        "ollama",
+        "llama3.2",
+        responses,
+        Function.identity(),
+        response -> response.isEmpty() ? USAGE : LlmUsage.NONE);
+  }
+
+  private LlmRecorder recorder(boolean record) {
+    return new LlmRecorder(new LlmRecordingProperties(record, false, null, 1), store);
+  }
+}
@@ -0,0 +1,131 @@
+package io.github.jenderenco.inkifyai.llm.client.recording;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.jenderenco.inkifyai.llm.client.recording.config.LlmRecordingProperties;
+import io.github.jenderenco.inkifyai.llm.client.stream.LlmStreamShaper;
+import io.github.jenderenco.inkifyai.llm.client.stream.config.LlmStreamProperties;
+import io.github.jenderenco.inkifyai.llm.client.usage.LlmUsage;
+import io.github.jenderenco.inkifyai.llm.client.usage.LlmUsageAccumulator;
+import io.github.jenderenco.inkifyai.llm.client.usage.LlmUsageRecorder;
+import io.github.jenderenco.inkifyai.llm.exception.InternalLlmException;
+import io.github.jenderenco.inkifyai.llm.prompt.LlmPrompt;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+class ReplayLlmClientTest {
+
+  private static final LlmPrompt PROMPT = new LlmPrompt("Document this API", "{}");
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @TempDir private Path directory;
+
+  @Test
+  void replaysRecordedResponse() {
+    // Arrange
+    ReplayLlmClient replay = replay(0);
+    record(
+        List.of(
+            new LlmRecording.Chunk(5_000_000, "Hello"), new LlmRecording.Chunk(1_000, " world")));
+
+    // Act & Assert
+    StepVerifier.create(replay.complete(PROMPT))
+        .expectNext("Hello", " world")
+        .expectComplete()
+        .verify(Duration.ofSeconds(1));
+  }
+
+  @Test
+  void replaysAtScaledSpeed() {
+    // Arrange
+    ReplayLlmClient replay = replay(2);
+    record(
+        List.of(
+            new LlmRecording.Chunk(200_000, "Hello"), new LlmRecording.Chunk(200_000, " world")));
+
+    // Act
+    Duration duration =
+        StepVerifier.create(replay.complete(PROMPT)).expectNext("Hello", " world").verifyComplete();
+
+    // Assert
+    assertThat(duration).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+  }
+
+  @Test
+  void reportsRecordedUsage() {
+    // Arrange
+    LlmUsage usage =
+        new LlmUsage(
+            120,
+            2,
+            Duration.ZERO,
+            Duration.ofMillis(30),
+            Duration.ofMillis(10),
+            Duration.ofMillis(40));
+    ReplayLlmClient replay = replay(0);
+    record(List.of(new LlmRecording.Chunk(0, "Hello")), usage);
+    LlmUsageAccumulator accumulator = new LlmUsageAccumulator();
+
+    // Act
+    StepVerifier.create(
+            replay
+                .complete(PROMPT)
+                .contextWrite(Context.of(LlmUsageAccumulator.class, accumulator)))
+        .expectNext("Hello")
+        .verifyComplete();
+
+    // Assert
+    assertThat(accumulator.total()).isEqualTo(usage);
+    assertThat(meterRegistry.get("inkify.llm.tokens").tag("type", "prompt").summary().totalAmount())
+        .isEqualTo(120);
+  }
+
+  @Test
+  void failsForPromptWithoutRecording() {
+    // Act & Assert
+    StepVerifier.create(replay(0).complete(PROMPT))
+        .expectErrorSatisfies(
+            e ->
+                assertThat(e)
+                    .isInstanceOf(InternalLlmException.class)
+                    .hasMessageStartingWith("No LLM recording of prompt"))
+        .verify();
+  }
+
+  private ReplayLlmClient replay(double speed) {
+    LlmRecordingProperties properties = new LlmRecordingProperties(false, true, directory, speed);
+    LlmStreamProperties streamProperties =
+        new LlmStreamProperties(
+            new LlmStreamProperties.Coalesce(false, 1, Duration.ZERO),
+            new LlmStreamProperties.Stats(0));
+    return new ReplayLlmClient(
+        new LlmRecordingStore(properties),
+        properties,
+        new LlmStreamShaper(streamProperties, meterRegistry),
+        new LlmUsageRecorder(meterRegistry));
+  }
+
+  private void record(List<LlmRecording.Chunk> chunks) {
+    record(chunks, LlmUsage.NONE);
+  }
+
+  private void record(List<LlmRecording.Chunk> chunks, LlmUsage usage) {
+    new LlmRecordingStore(new LlmRecordingProperties(true, false, directory, 1))
+        .save(
+            new LlmRecording(
+                LlmRecordingStore.promptHash(PROMPT),
+                "ollama",
+                "llama3.2",
+                Instant.now(),
+                chunks,
+                usage));
+  }
+}
@@ -0,0 +1,59 @@
+package io.github.jenderenco.inkifyai.llm.client.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.jenderenco.inkifyai.llm.client.stream.config.LlmStreamProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class LlmStreamShaperTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void mergesChunksUpToMaxChunks() {
+    // Arrange
+    LlmStreamShaper shaper = shaper(true);
+
+    // Act & Assert
+    StepVerifier.create(shaper.shape("ollama", Flux.just("a", "b", "c", "d", "e")))
+        .expectNext("ab", "cd", "e")
+        .verifyComplete();
+  }
+
+  @Test
+  void emitsChunksUnchangedWhenDisabled() {
+    // Arrange
+    LlmStreamShaper shaper = shaper(false);
+
+    // Act & Assert
+    StepVerifier.create(shaper.shape("ollama", Flux.just("a", "b", "c")))
+        .expectNext("a", "b", "c")
+        .verifyComplete();
+  }
+
+  @Test
+  void recordsStreamStatistics() {
+    // Arrange
+    LlmStreamShaper shaper = shaper(true);
+
+    // Act
+    shaper.shape("ollama", Flux.just("ab", "cde")).blockLast();
+
+    // Assert
+    assertThat(meterRegistry.get("inkify.llm.stream.chunks").summary().totalAmount()).isEqualTo(2);
+    assertThat(meterRegistry.get("inkify.llm.stream.chars").summary().totalAmount()).isEqualTo(5);
+    assertThat(meterRegistry.get("inkify.llm.stream.duration").timer().count()).isEqualTo(1);
+  }
+
+  private LlmStreamShaper shaper(boolean coalesce) {
+    return new LlmStreamShaper(
+        new LlmStreamProperties(
+            new LlmStreamProperties.Coalesce(coalesce, 2, Duration.ofSeconds(1)),
+            new LlmStreamProperties.Stats(0)),
+        meterRegistry);
+  }
+}
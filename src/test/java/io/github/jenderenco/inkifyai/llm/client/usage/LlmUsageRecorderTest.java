@@ -0,0 +1,56 @@
+package io.github.jenderenco.inkifyai.llm.client.usage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import reactor.util.context.Context;
+
+class LlmUsageRecorderTest {
+
+  private static final LlmUsage USAGE =
+      new LlmUsage(
+          1000,
+          200,
+          Duration.ofMillis(500),
+          Duration.ofMillis(100),
+          Duration.ofMillis(2000),
+          Duration.ofMillis(2600));
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final LlmUsageRecorder recorder = new LlmUsageRecorder(meterRegistry);
+
+  @Test
+  void recordsTokensAndPhases() {
+    // Act
+    recorder.record("ollama", "llama3.2", USAGE, Context.empty());
+
+    // Assert
+    assertThat(meterRegistry.get("inkify.llm.tokens").tag("type", "prompt").summary().totalAmount())
+        .isEqualTo(1000);
+    assertThat(
+            meterRegistry
+                .get("inkify.llm.phase")
+                .tag("phase", "prefill")
+                .timer()
+                .totalTime(TimeUnit.MILLISECONDS))
+        .isEqualTo(100);
+  }
+
+  @Test
+  void sumsUsageOfAllCallsInContext() {
+    // Arrange
+    LlmUsageAccumulator accumulator = new LlmUsageAccumulator();
+    Context context = Context.of(LlmUsageAccumulator.class, accumulator);
+
+    // Act
+    recorder.record("ollama", "llama3.2", USAGE, context);
+    recorder.record("ollama", "llama3.2", USAGE, context);
+
+    // Assert
+    assertThat(accumulator.calls()).isEqualTo(2);
+    assertThat(accumulator.total()).isEqualTo(USAGE.plus(USAGE));
+  }
+}
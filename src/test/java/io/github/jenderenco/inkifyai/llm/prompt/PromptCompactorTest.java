@@ -0,0 +1,113 @@
+package io.github.jenderenco.inkifyai.llm.prompt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.jenderenco.inkifyai.llm.prompt.config.PromptCompactionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PromptCompactorTest {
+
+  private static final String BOILERPLATE = "Generated by the API toolkit.";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final PromptCompactor compactor =
+      new PromptCompactor(new PromptCompactionProperties(true, 40, 2), meterRegistry);
+
+  @Test
+  void stripsMarkupAndWhitespaceFromDescriptions() {
+    // Act & Assert
+    assertThat(compactor.compactText("<p>Returns   the\n<b>user</b> &amp; roles.</p>"))
+        .isEqualTo("Returns the user & roles.");
+  }
+
+  @Test
+  void keepsGenericTypesInDescriptions() {
+    // Act & Assert
+    assertThat(compactor.compactText("<p>A List<String> or Map<String, Pet>.</p>"))
+        .isEqualTo("A List<String> or Map<String, Pet>.");
+  }
+
+  @Test
+  void talliesBytesWhileCompacting() {
+    // Arrange
+    CompactionTally tally = new CompactionTally();
+
+    // Act
+    compactor.compactText("<b>Café</b>  menu", tally);
+    compactor.compactText(null, tally);
+
+    // Assert
+    assertThat(tally.toCompaction()).isEqualTo(new PromptCompaction(18, 10));
+  }
+
+  @Test
+  void truncatesLongDescriptionsAtWordBoundary() {
+    // Act
+    String compacted =
+        compactor.compactText("Returns the list of all users that are visible to the caller.");
+
+    // Assert
+    assertThat(compacted).isEqualTo("Returns the list of all users that are…");
+  }
+
+  @Test
+  void groupsStructurallyIdenticalSchemas() {
+    // Arrange
+    Map<String, Schema<?>> schemas = new LinkedHashMap<>();
+    schemas.put("FooResponse", wrapper("Wraps a foo."));
+    schemas.put("BarResponse", wrapper("Wraps a bar."));
+    schemas.put("Error", new ObjectSchema().addProperty("code", new IntegerSchema()));
+
+    // Act
+    CompactedSchemas compacted = compactor.compactSchemas(schemas);
+
+    // Assert
+    assertThat(compacted.groups())
+        .containsExactly(
+            new SchemaGroup(List.of("FooResponse", "BarResponse"), "Wraps a foo."),
+            new SchemaGroup(List.of("Error"), ""));
+  }
+
+  @Test
+  void listsRepeatedBoilerplateOnce() {
+    // Arrange
+    Map<String, Schema<?>> schemas = new LinkedHashMap<>();
+    schemas.put("User", new ObjectSchema().description("A user. " + BOILERPLATE));
+    schemas.put("Role", new StringSchema().description("A role. " + BOILERPLATE));
+
+    // Act
+    CompactedSchemas compacted = compactor.compactSchemas(schemas);
+
+    // Assert
+    assertThat(compacted.groups())
+        .extracting(SchemaGroup::description)
+        .containsExactly("A user.", "A role.");
+    assertThat(compacted.sharedNotes()).containsExactly(BOILERPLATE);
+  }
+
+  @Test
+  void recordsBytesAndTokensSaved() {
+    // Act
+    compactor.record(new PromptCompaction(1000, 600));
+
+    // Assert
+    assertThat(meterRegistry.summary("inkify.prompt.compaction.saved.bytes").totalAmount())
+        .isEqualTo(400);
+    assertThat(meterRegistry.summary("inkify.prompt.compaction.saved.tokens").totalAmount())
+        .isEqualTo(100);
+  }
+
+  private static Schema<?> wrapper(String description) {
+    return new ObjectSchema()
+        .description(description)
+        .addProperty("data", new StringSchema().description("The payload of " + description));
+  }
+}
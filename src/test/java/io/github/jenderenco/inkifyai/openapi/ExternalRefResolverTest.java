@@ -0,0 +1,142 @@
+package io.github.jenderenco.inkifyai.openapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jenderenco.inkifyai.openapi.config.OpenApiProperties;
+import io.github.jenderenco.inkifyai.openapi.config.RefResolverProperties;
+import io.github.jenderenco.inkifyai.openapi.exception.OpenApiFetchException;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ExternalRefResolverTest {
+
+  private static final String ROOT_URL = "https://example.com/specs/api.json";
+  private static final String COMMON_URL = "https://example.com/specs/common.json";
+
+  private static final String ROOT_SPEC =
+      """
+      {"openapi": "3.0.0", "info": {"title": "T", "version": "1"},
+       "paths": {"/a": {"get": {"responses": {"default": {"description": "error",
+         "content": {"application/json": {"schema": {
+           "$ref": "common.json#/components/schemas/Error"}}}}}}}}}
+      """;
+
+  private static final String COMMON_SPEC =
+      """
+      {"components": {"schemas": {
+        "Error": {"type": "object",
+                  "properties": {"code": {"$ref": "#/components/schemas/Code"}}},
+        "Code": {"type": "integer"}}}}
+      """;
+
+  @Mock private OpenApiFetcher fetcher;
+  @Mock private OpenApiProperties fetcherProperties;
+
+  @Test
+  void hoistsReferencedSchemasIntoRoot() throws Exception {
+    // Arrange
+    when(fetcher.fetch(COMMON_URL, fetcherProperties)).thenReturn(COMMON_SPEC);
+    ExternalRefResolver resolver = resolver(8);
+
+    // Act
+    JsonNode bundled = new ObjectMapper().readTree(resolver.resolve(ROOT_SPEC, ROOT_URL));
+
+    // Assert
+    assertThat(
+            bundled
+                .at("/paths/~1a/get/responses/default/content/application~1json/schema/$ref")
+                .asText())
+        .isEqualTo("#/components/schemas/Error");
+    assertThat(bundled.at("/components/schemas/Error/properties/code/$ref").asText())
+        .isEqualTo("#/components/schemas/Code");
+    assertThat(bundled.at("/components/schemas/Code/type").asText()).isEqualTo("integer");
+  }
+
+  @Test
+  void returnsSpecUnchangedWithoutExternalRefs() {
+    // Arrange
+    String spec = "{\"openapi\": \"3.0.0\", \"paths\": {}}";
+
+    // Act & Assert
+    assertThat(resolver(8).resolve(spec, ROOT_URL)).isSameAs(spec);
+  }
+
+  @Test
+  void rejectsReferencesNestedTooDeeply() {
+    // Arrange
+    String nested = "{\"Error\": {\"$ref\": \"deeper.json\"}}";
+    when(fetcher.fetch(COMMON_URL, fetcherProperties)).thenReturn(nested);
+
+    // Act & Assert
+    assertThatThrownBy(() -> resolver(1).resolve(ROOT_SPEC, ROOT_URL))
+        .isInstanceOf(OpenApiFetchException.class)
+        .hasMessageContaining("nest deeper than 1");
+  }
+
+  @Test
+  void hoistsTheSameSchemaFromTwoDocumentsOnce() throws Exception {
+    // Arrange
+    String root =
+        """
+        {"openapi": "3.0.0", "info": {"title": "T", "version": "1"},
+         "paths": {"/a": {"get": {"responses": {
+           "200": {"description": "a", "content": {"application/json": {"schema": {
+             "$ref": "common.json#/components/schemas/Error"}}}},
+           "500": {"description": "b", "content": {"application/json": {"schema": {
+             "$ref": "other.json#/components/schemas/Error"}}}}}}}}}
+        """;
+    String error =
+        """
+        {"components": {"schemas": {
+          "Error": {"type": "object", "properties": {"code": {"$ref": "code.json"}}}}}}
+        """;
+    when(fetcher.fetch(COMMON_URL, fetcherProperties)).thenReturn(error);
+    when(fetcher.fetch("https://example.com/specs/other.json", fetcherProperties))
+        .thenReturn(error);
+    when(fetcher.fetch("https://example.com/specs/code.json", fetcherProperties))
+        .thenReturn("{\"type\": \"integer\"}");
+
+    // Act
+    JsonNode bundled = new ObjectMapper().readTree(resolver(8).resolve(root, ROOT_URL));
+
+    // Assert
+    JsonNode responses = bundled.at("/paths/~1a/get/responses");
+    assertThat(responses.at("/500/content/application~1json/schema/$ref").asText())
+        .isEqualTo("#/components/schemas/Error");
+    assertThat(bundled.at("/components/schemas").has("Error_2")).isFalse();
+    assertThat(bundled.at("/components/schemas/Error/properties/code/$ref").asText())
+        .isEqualTo("#/components/schemas/code");
+  }
+
+  @Test
+  void limitsExternalDocumentsByEncodedSize() {
+    // Arrange
+    String common =
+        "{\"components\": {\"schemas\": {\"Error\": {\"description\": \""
+            + "\u00e9".repeat(100)
+            + "\"}}}}";
+    when(fetcher.fetch(COMMON_URL, fetcherProperties)).thenReturn(common);
+    RefResolverProperties properties =
+        new RefResolverProperties(true, 8, 10, common.length() + 50, 4, Duration.ofSeconds(5));
+    ExternalRefResolver resolver = new ExternalRefResolver(fetcher, fetcherProperties, properties);
+
+    // Act & Assert
+    assertThatThrownBy(() -> resolver.resolve(ROOT_SPEC, ROOT_URL))
+        .isInstanceOf(OpenApiFetchException.class)
+        .hasMessageContaining("bytes");
+  }
+
+  private ExternalRefResolver resolver(int maxDepth) {
+    RefResolverProperties properties =
+        new RefResolverProperties(true, maxDepth, 10, 1_000_000, 4, Duration.ofSeconds(5));
+    return new ExternalRefResolver(fetcher, fetcherProperties, properties);
+  }
+}
@@ -6,6 +6,8 @@ import static org.mockito.Mockito.when;
 
 import io.github.jenderenco.inkifyai.openapi.config.OpenApiProperties;
 import io.github.jenderenco.inkifyai.openapi.exception.OpenApiFetchException;
+import java.time.Duration;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -13,13 +15,30 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
 
 @ExtendWith(MockitoExtension.class)
 class OpenApiFetcherTest {
 
   // Create properties with minimal retries for faster tests
   private static final OpenApiProperties PROPERTIES =
-      new OpenApiProperties(1000, 1000, 1, 10, true, 10, 1000);
+      new OpenApiProperties(
+          1000,
+          1000,
+          1,
+          10,
+          true,
+          10,
+          1000,
+          new OpenApiProperties.Pool(
+              10,
+              Duration.ofSeconds(1),
+              Duration.ofSeconds(1),
+              Duration.ofSeconds(10),
+              Duration.ofSeconds(1),
+              false,
+              false,
+              Map.of()));
 
   @Mock private WebClient.Builder webClientBuilder;
 
@@ -32,10 +51,11 @@ class OpenApiFetcherTest {
   @BeforeEach
   void setUp() {
     // Setup WebClient mock chain
+    when(webClientBuilder.clientConnector(any())).thenReturn(webClientBuilder);
     when(webClientBuilder.codecs(any())).thenReturn(webClientBuilder);
     when(webClientBuilder.build()).thenReturn(webClient);
 
-    fetcher = new OpenApiFetcher(webClientBuilder);
+    fetcher = new OpenApiFetcher(webClientBuilder, HttpClient.create());
   }
 
   @ParameterizedTest
@@ -0,0 +1,102 @@
+package io.github.jenderenco.inkifyai.openapi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.validation.BindValidationException;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.resources.ConnectionProvider;
+
+class OpenApiHttpClientConfigTest {
+
+  private final OpenApiHttpClientConfig config = new OpenApiHttpClientConfig();
+
+  @Test
+  void appliesPerHostOverridesToThePool() throws Exception {
+    // Arrange
+    OpenApiProperties properties =
+        properties(Map.of("registry.example.com:8443", 3, "[::1]:9000", 2, "10.0.0.1:80", 5));
+
+    // Act
+    ConnectionProvider provider = config.openApiConnectionProvider(properties);
+
+    // Assert
+    try {
+      assertThat(provider.maxConnectionsPerHost())
+          .containsEntry(InetSocketAddress.createUnresolved("registry.example.com", 8443), 3)
+          .containsEntry(new InetSocketAddress(InetAddress.getByName("::1"), 9000), 2)
+          .containsEntry(new InetSocketAddress(InetAddress.getByName("10.0.0.1"), 80), 5);
+    } finally {
+      provider.dispose();
+    }
+  }
+
+  @Test
+  void parsesBracketedIpv6Literals() throws Exception {
+    // Act
+    InetSocketAddress address = OpenApiHttpClientConfig.toSocketAddress("[2001:db8::1]:8443");
+
+    // Assert
+    assertThat(address.getAddress()).isEqualTo(InetAddress.getByName("2001:db8::1"));
+    assertThat(address.getPort()).isEqualTo(8443);
+  }
+
+  @Test
+  void rejectsHostOverridesWithoutAValidPort() {
+    assertThatThrownBy(() -> OpenApiHttpClientConfig.toSocketAddress("registry.example.com"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("openapi.fetcher.pool.hosts");
+    assertThatThrownBy(() -> OpenApiHttpClientConfig.toSocketAddress("registry:70000"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void failsStartupOnInvalidHostOverride() {
+    // Arrange
+    ApplicationContextRunner runner =
+        new ApplicationContextRunner()
+            .withUserConfiguration(PropertiesConfig.class)
+            .withPropertyValues("openapi.fetcher.pool.hosts.registry=4");
+
+    // Act & Assert
+    runner.run(
+        context -> {
+          assertThat(context).hasFailed();
+          assertThat(context.getStartupFailure())
+              .rootCause()
+              .isInstanceOf(BindValidationException.class)
+              .hasMessageContaining("pool.hosts");
+        });
+  }
+
+  private static OpenApiProperties properties(Map<String, Integer> hosts) {
+    return new OpenApiProperties(
+        1000,
+        1000,
+        1,
+        10,
+        true,
+        10,
+        1000,
+        new OpenApiProperties.Pool(
+            10,
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(10),
+            Duration.ofSeconds(1),
+            false,
+            false,
+            hosts));
+  }
+
+  @Configuration
+  @EnableConfigurationProperties(OpenApiProperties.class)
+  static class PropertiesConfig {}
+}
@@ -0,0 +1,117 @@
+package io.github.jenderenco.inkifyai.openapi.selection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.jenderenco.inkifyai.openapi.OpenApiParser;
+import io.github.jenderenco.inkifyai.openapi.model.ApiOperation;
+import io.github.jenderenco.inkifyai.openapi.model.ParsedOpenApiSpec;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SpecSelectorTest {
+
+  private static final String V3_SPEC =
+      """
+      {"openapi": "3.0.0", "info": {"title": "Pet Store", "version": "1"},
+       "paths": {
+         "/pets": {
+           "get": {"operationId": "listPets", "tags": ["pets"],
+             "responses": {"200": {"description": "ok", "content": {"application/json":
+               {"schema": {"$ref": "#/components/schemas/Pet"}}}}}},
+           "post": {"operationId": "createPet", "tags": ["admin"],
+             "responses": {"201": {"description": "created"}}}},
+         "/stores/{id}": {
+           "get": {"operationId": "getStore", "tags": ["stores"],
+             "responses": {"200": {"description": "ok", "content": {"application/json":
+               {"schema": {"$ref": "#/components/schemas/Store"}}}}}}}},
+       "components": {"schemas": {
+         "Pet": {"type": "object", "properties": {
+           "category": {"$ref": "#/components/schemas/Category"}}},
+         "Category": {"type": "object"},
+         "Store": {"type": "object"}}}}
+      """;
+
+  private static final String V2_SPEC =
+      """
+      {"swagger": "2.0", "info": {"title": "Pet Store", "version": "1"},
+       "paths": {
+         "/pets": {"get": {"operationId": "listPets", "tags": ["pets"],
+           "responses": {"200": {"description": "ok",
+             "schema": {"$ref": "#/definitions/Pet"}}}}},
+         "/stores": {"get": {"operationId": "listStores", "tags": ["stores"],
+           "responses": {"200": {"description": "ok",
+             "schema": {"$ref": "#/definitions/Store"}}}}}},
+       "definitions": {"Pet": {"type": "object"}, "Store": {"type": "object"}}}
+      """;
+
+  private final OpenApiParser parser = new OpenApiParser();
+
+  @Test
+  void keepsEverythingWithoutSelection() {
+    // Arrange
+    ParsedOpenApiSpec spec = parser.parse(V3_SPEC);
+
+    // Act & Assert
+    assertThat(SpecSelector.select(spec, OperationSelection.ALL)).isSameAs(spec);
+  }
+
+  @Test
+  void keepsOperationsWithSelectedTagsAndTheSchemasTheyReference() {
+    // Act
+    ParsedOpenApiSpec selected =
+        SpecSelector.select(
+            parser.parse(V3_SPEC), new OperationSelection(List.of("pets"), null, null));
+
+    // Assert
+    assertThat(selected.title()).isEqualTo("Pet Store");
+    assertThat(selected.operations()).extracting(this::operationId).containsExactly("listPets");
+    assertThat(selected.paths()).containsOnlyKeys("/pets");
+    assertThat(selected.schemas()).containsOnlyKeys("Pet", "Category");
+  }
+
+  @Test
+  void keepsOperationsMatchingPathPatternsOrOperationIds() {
+    // Act
+    ParsedOpenApiSpec selected =
+        SpecSelector.select(
+            parser.parse(V3_SPEC),
+            new OperationSelection(null, List.of("/stores/**"), List.of("createPet")));
+
+    // Assert
+    assertThat(selected.operations())
+        .extracting(this::operationId)
+        .containsExactlyInAnyOrder("createPet", "getStore");
+    assertThat(selected.paths()).containsOnlyKeys("/pets", "/stores/{id}");
+    assertThat(selected.schemas()).containsOnlyKeys("Store");
+  }
+
+  @Test
+  void selectsFromSwaggerV2Specifications() {
+    // Act
+    ParsedOpenApiSpec selected =
+        SpecSelector.select(
+            parser.parse(V2_SPEC), new OperationSelection(null, null, List.of("listStores")));
+
+    // Assert
+    assertThat(selected.operations()).extracting(this::operationId).containsExactly("listStores");
+    assertThat(selected.paths()).containsOnlyKeys("/stores");
+    assertThat(selected.schemas()).containsOnlyKeys("Store");
+  }
+
+  @Test
+  void rejectsSelectionMatchingNoOperation() {
+    // Arrange
+    ParsedOpenApiSpec spec = parser.parse(V3_SPEC);
+    OperationSelection selection = new OperationSelection(List.of("unknown"), null, null);
+
+    // Act & Assert
+    assertThatThrownBy(() -> SpecSelector.select(spec, selection))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("No operation matches");
+  }
+
+  private String operationId(ApiOperation operation) {
+    return operation.operationId().orElseThrow();
+  }
+}
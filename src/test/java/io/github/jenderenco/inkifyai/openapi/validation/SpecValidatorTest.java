@@ -0,0 +1,144 @@
+package io.github.jenderenco.inkifyai.openapi.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.jenderenco.inkifyai.openapi.OpenApiParser;
+import io.github.jenderenco.inkifyai.openapi.exception.SpecValidationException;
+import io.github.jenderenco.inkifyai.openapi.model.ParsedOpenApiSpec;
+import io.github.jenderenco.inkifyai.openapi.validation.config.SpecValidationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class SpecValidatorTest {
+
+  private static final String VALID_SPEC =
+      """
+      {"openapi": "3.0.0", "info": {"title": "T", "version": "1"},
+       "paths": {"/a": {"get": {"responses": {"200": {"description": "ok"}}}}}}
+      """;
+
+  private static final String BROKEN_SPEC =
+      """
+      {"openapi": "3.0.0", "info": {"title": "T", "version": "1"}, "x-unknown": 1, "bogus": 2,
+       "paths": {"/a": {"get": {"parameters": [{"name": "id"}]}}}}
+      """;
+
+  private static final String EMPTY_SPEC =
+      """
+      {"openapi": "3.0.0", "info": {"title": "T", "version": "1"}, "paths": {}}
+      """;
+
+  private final OpenApiParser parser = new OpenApiParser();
+
+  @Test
+  void acceptsValidSpecification() {
+    // Act
+    ValidationReport report = validator(true, 0, 0).validate(parse(VALID_SPEC));
+
+    // Assert
+    assertThat(report).isEqualTo(ValidationReport.VALID);
+  }
+
+  @Test
+  void rejectsParserErrorsAndReportsWarnings() {
+    // Act
+    ValidationReport report = validator(true, 0, 0).validate(parse(BROKEN_SPEC));
+
+    // Assert
+    assertThat(report.valid()).isFalse();
+    assertThat(report.errors())
+        .contains(
+            "attribute paths.'/a'(get).parameters.[id].in is missing",
+            "attribute paths.'/a'(get).responses is missing");
+    assertThat(report.warnings()).containsExactly("attribute bogus is unexpected");
+    assertThatThrownBy(report::orThrow)
+        .isInstanceOf(SpecValidationException.class)
+        .hasMessageContaining("responses is missing");
+  }
+
+  @Test
+  void downgradesParserErrorsToWarningsIfConfigured() {
+    // Act
+    ValidationReport report = validator(false, 0, 0).validate(parse(BROKEN_SPEC));
+
+    // Assert
+    assertThat(report.valid()).isTrue();
+    assertThat(report.warnings()).hasSize(3);
+  }
+
+  @Test
+  void rejectsSpecificationWithoutPaths() {
+    // Act
+    ValidationReport report = validator(true, 0, 0).validate(parse(EMPTY_SPEC));
+
+    // Assert
+    assertThat(report.errors()).containsExactly("The specification defines no paths");
+  }
+
+  @Test
+  void rejectsSpecificationsOfAbsurdSizeBeforeParsing() {
+    // Arrange
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    SpecValidator validator = validator(true, 10, 0, meterRegistry);
+
+    // Act & Assert
+    assertThatThrownBy(() -> validator.checkSize(VALID_SPEC))
+        .isInstanceOf(SpecValidationException.class)
+        .hasMessageContaining("more than the limit of 10");
+    assertThat(
+            meterRegistry
+                .get("inkify.validation.results")
+                .tag("outcome", "rejected")
+                .counter()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void acceptsSpecificationsWithinSizeLimit() {
+    // Act & Assert
+    validator(true, VALID_SPEC.length(), 0).checkSize(VALID_SPEC);
+    validator(true, 0, 0).checkSize(VALID_SPEC);
+  }
+
+  @Test
+  void acceptsEverythingWhenDisabled() {
+    // Arrange
+    SpecValidator validator =
+        new SpecValidator(
+            new SpecValidationProperties(false, true, List.of(), true, DataSize.ofBytes(1), 1, 1),
+            new SimpleMeterRegistry());
+
+    // Act & Assert
+    assertThat(validator.validate(parse(EMPTY_SPEC))).isEqualTo(ValidationReport.VALID);
+  }
+
+  private ParsedOpenApiSpec parse(String spec) {
+    return parser.parse(spec);
+  }
+
+  private static SpecValidator validator(
+      boolean rejectParserErrors, long maxSpecSize, int maxOperations) {
+    return validator(rejectParserErrors, maxSpecSize, maxOperations, new SimpleMeterRegistry());
+  }
+
+  private static SpecValidator validator(
+      boolean rejectParserErrors,
+      long maxSpecSize,
+      int maxOperations,
+      SimpleMeterRegistry meterRegistry) {
+    return new SpecValidator(
+        new SpecValidationProperties(
+            true,
+            rejectParserErrors,
+            List.of("is unexpected$"),
+            true,
+            DataSize.ofBytes(maxSpecSize),
+            maxOperations,
+            0),
+        meterRegistry);
+  }
+}
@@ -1,34 +1,98 @@
 package io.github.jenderenco.inkifyai.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import io.github.jenderenco.inkifyai.diagnostics.jfr.GenerationEvents;
+import io.github.jenderenco.inkifyai.diagnostics.jfr.config.JfrProperties;
 import io.github.jenderenco.inkifyai.llm.client.LlmClient;
 import io.github.jenderenco.inkifyai.llm.client.LlmClientRegistry;
+import io.github.jenderenco.inkifyai.llm.client.routing.SpecStatistics;
+import io.github.jenderenco.inkifyai.llm.prompt.LlmPrompt;
 import io.github.jenderenco.inkifyai.llm.prompt.PromptService;
+import io.github.jenderenco.inkifyai.openapi.ExternalRefResolver;
 import io.github.jenderenco.inkifyai.openapi.OpenApiFetcher;
 import io.github.jenderenco.inkifyai.openapi.OpenApiParser;
 import io.github.jenderenco.inkifyai.openapi.config.OpenApiProperties;
 import io.github.jenderenco.inkifyai.openapi.exception.OpenApiFetchException;
+import io.github.jenderenco.inkifyai.openapi.exception.SpecValidationException;
 import io.github.jenderenco.inkifyai.openapi.model.ParsedOpenApiSpec;
+import io.github.jenderenco.inkifyai.openapi.validation.SpecValidator;
+import io.github.jenderenco.inkifyai.openapi.validation.ValidationReport;
+import io.github.jenderenco.inkifyai.openapi.validation.config.SpecValidationProperties;
+import io.github.jenderenco.inkifyai.service.config.DocumentationProperties;
+import io.github.jenderenco.inkifyai.service.markdown.MarkdownNormalizer;
+import io.github.jenderenco.inkifyai.service.memory.MemoryBudget;
+import io.github.jenderenco.inkifyai.service.memory.MemoryEstimate;
+import io.github.jenderenco.inkifyai.service.memory.config.MemoryBudgetProperties;
+import io.github.jenderenco.inkifyai.service.resume.ResumableGeneration;
+import io.github.jenderenco.inkifyai.service.resume.config.ResumeProperties;
+import io.github.jenderenco.inkifyai.service.scheduling.GenerationScheduler;
+import io.github.jenderenco.inkifyai.service.section.DocumentationSection;
+import io.github.jenderenco.inkifyai.service.section.SectionChunk;
+import io.github.jenderenco.inkifyai.service.section.SectionKind;
+import io.github.jenderenco.inkifyai.service.section.SectionedDocumentationGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 @ExtendWith(MockitoExtension.class)
 class DocumentationServiceTest {
 
   @Mock private OpenApiFetcher fetcher;
+  @Mock private ExternalRefResolver refResolver;
   @Mock private OpenApiParser openApiParser;
   @Mock private PromptService promptService;
   @Mock private LlmClientRegistry llmClientRegistry;
   @Mock private LlmClient llmClient;
   @Mock private ParsedOpenApiSpec parsedOpenApiSpec;
   @Mock private OpenApiProperties openApiProperties;
+  @Mock private SectionedDocumentationGenerator sectionedGenerator;
+
+  private static final DocumentationProperties PROPERTIES =
+      new DocumentationProperties(
+          new DocumentationProperties.Sections(false, 1),
+          new DocumentationProperties.Markdown(false, 1024),
+          new DocumentationProperties.Scheduler(false, 1, 0));
+
+  @Spy private MarkdownNormalizer markdownNormalizer = new MarkdownNormalizer(PROPERTIES);
+
+  @Spy
+  private GenerationScheduler scheduler =
+      new GenerationScheduler(PROPERTIES, new SimpleMeterRegistry());
+
+  @Spy
+  private SpecValidator specValidator =
+      new SpecValidator(
+          new SpecValidationProperties(false, true, List.of(), true, DataSize.ofBytes(0), 0, 0),
+          new SimpleMeterRegistry());
+
+  @Spy private GenerationEvents events = new GenerationEvents(new JfrProperties(false, null));
+
+  @Spy
+  private MemoryBudget memoryBudget =
+      new MemoryBudget(
+          new MemoryBudgetProperties(false, null, 0.5, null), new SimpleMeterRegistry());
+
+  @Spy
+  private ResumableGeneration resumableGeneration =
+      new ResumableGeneration(new ResumeProperties(false, 1, null), new SimpleMeterRegistry());
 
   @InjectMocks private DocumentationService documentationService;
 
@@ -38,13 +102,15 @@ class DocumentationServiceTest {
     String url = "https://example.com/api-docs";
     String aiProvider = "ollama";
     String rawSpec = "{ \"openapi\": \"3.0.0\" }";
-    String prompt = "Generate documentation for this API";
+    LlmPrompt prompt = new LlmPrompt("You are a technical writer", "Generate documentation");
     String generatedDoc = "# API Documentation\n\nThis is the documentation.";
 
     when(fetcher.fetch(url, openApiProperties)).thenReturn(rawSpec);
+    when(refResolver.resolve(rawSpec, url)).thenReturn(rawSpec);
     when(openApiParser.parse(rawSpec)).thenReturn(parsedOpenApiSpec);
     when(promptService.buildPrompt(parsedOpenApiSpec)).thenReturn(prompt);
-    when(llmClientRegistry.getClient(aiProvider)).thenReturn(llmClient);
+    when(llmClientRegistry.getClient(eq(aiProvider), any(SpecStatistics.class)))
+        .thenReturn(llmClient);
     when(llmClient.complete(prompt)).thenReturn(Flux.just(generatedDoc));
 
     // Act & Assert
@@ -80,6 +146,7 @@ class DocumentationServiceTest {
     String rawSpec = "{ \"invalid\": \"spec\" }";
 
     when(fetcher.fetch(url, openApiProperties)).thenReturn(rawSpec);
+    when(refResolver.resolve(rawSpec, url)).thenReturn(rawSpec);
     when(openApiParser.parse(rawSpec))
         .thenThrow(new IllegalArgumentException("Invalid OpenAPI specification"));
 
@@ -93,6 +160,33 @@ class DocumentationServiceTest {
         .verify();
   }
 
+  @Test
+  void generateFromUrlRejectsInvalidSpecBeforeCallingLlm() {
+    // Arrange
+    String url = "https://example.com/api-docs";
+    String rawSpec = "{ \"openapi\": \"3.0.0\", \"paths\": {} }";
+
+    when(fetcher.fetch(url, openApiProperties)).thenReturn(rawSpec);
+    when(refResolver.resolve(rawSpec, url)).thenReturn(rawSpec);
+    when(openApiParser.parse(rawSpec)).thenReturn(parsedOpenApiSpec);
+    lenient()
+        .when(promptService.buildPrompt(parsedOpenApiSpec))
+        .thenReturn(new LlmPrompt("You are a technical writer", "Generate documentation"));
+    doReturn(new ValidationReport(List.of("The specification defines no paths"), List.of()))
+        .when(specValidator)
+        .validate(parsedOpenApiSpec);
+
+    // Act & Assert
+    StepVerifier.create(documentationService.generateFromUrl(url, "ollama"))
+        .expectErrorSatisfies(
+            error -> {
+              assertThat(error).isInstanceOf(SpecValidationException.class);
+              assertThat(error).hasMessageContaining("defines no paths");
+            })
+        .verify();
+    verifyNoInteractions(llmClientRegistry, llmClient);
+  }
+
   @Test
   void generateFromUrlWithUnsupportedAiProvider() {
     // Arrange
@@ -101,8 +195,11 @@ class DocumentationServiceTest {
     String rawSpec = "{ \"openapi\": \"3.0.0\" }";
 
     when(fetcher.fetch(url, openApiProperties)).thenReturn(rawSpec);
+    when(refResolver.resolve(rawSpec, url)).thenReturn(rawSpec);
     when(openApiParser.parse(rawSpec)).thenReturn(parsedOpenApiSpec);
-    when(llmClientRegistry.getClient(aiProvider))
+    when(promptService.buildPrompt(parsedOpenApiSpec))
+        .thenReturn(new LlmPrompt("You are a technical writer", "Generate documentation"));
+    when(llmClientRegistry.getClient(eq(aiProvider), any(SpecStatistics.class)))
         .thenThrow(new IllegalArgumentException("Unsupported AI provider"));
 
     // Act & Assert
@@ -121,12 +218,14 @@ class DocumentationServiceTest {
     String url = "https://example.com/api-docs";
     String aiProvider = "ollama";
     String rawSpec = "{ \"openapi\": \"3.0.0\" }";
-    String prompt = "Generate documentation for this API";
+    LlmPrompt prompt = new LlmPrompt("You are a technical writer", "Generate documentation");
 
     when(fetcher.fetch(url, openApiProperties)).thenReturn(rawSpec);
+    when(refResolver.resolve(rawSpec, url)).thenReturn(rawSpec);
     when(openApiParser.parse(rawSpec)).thenReturn(parsedOpenApiSpec);
     when(promptService.buildPrompt(parsedOpenApiSpec)).thenReturn(prompt);
-    when(llmClientRegistry.getClient(aiProvider)).thenReturn(llmClient);
+    when(llmClientRegistry.getClient(eq(aiProvider), any(SpecStatistics.class)))
+        .thenReturn(llmClient);
     when(llmClient.complete(prompt)).thenReturn(Flux.empty());
 
     // Act & Assert
@@ -138,4 +237,100 @@ class DocumentationServiceTest {
             })
         .verify();
   }
+
+  @Test
+  void generateSectionsFromUrlSuccess() {
+    // Arrange
+    String url = "https://example.com/api-docs";
+    String aiProvider = "ollama";
+    String rawSpec = "{ \"openapi\": \"3.0.0\" }";
+    SectionChunk chunk =
+        new SectionChunk(
+            new DocumentationSection(
+                "key", SectionKind.OVERVIEW, "API", "API", new LlmPrompt("system", "prompt")),
+            "# API");
+
+    when(fetcher.fetch(url, openApiProperties)).thenReturn(rawSpec);
+    when(refResolver.resolve(rawSpec, url)).thenReturn(rawSpec);
+    when(openApiParser.parse(rawSpec)).thenReturn(parsedOpenApiSpec);
+    when(llmClientRegistry.getClient(eq(aiProvider), any(SpecStatistics.class)))
+        .thenReturn(llmClient);
+    when(sectionedGenerator.generateSections(parsedOpenApiSpec, llmClient))
+        .thenReturn(Flux.just(chunk));
+
+    // Act & Assert
+    StepVerifier.create(documentationService.generateSectionsFromUrl(url, aiProvider))
+        .expectNext(chunk)
+        .verifyComplete();
+  }
+
+  @Test
+  void generateFromUrlExtendsReservationByResolvedDocumentsAndAccountsOutput() {
+    // Arrange
+    String url = "https://example.com/api-docs";
+    String aiProvider = "ollama";
+    String rawSpec = "{ \"openapi\": \"3.0.0\" }";
+    String resolvedSpec = "{ \"openapi\": \"3.0.0\", \"components\": {} }";
+    LlmPrompt prompt = new LlmPrompt("You are a technical writer", "Generate documentation");
+    String generatedDoc = "# API Documentation";
+    MemoryBudget.Reservation reservation = reserve(rawSpec);
+
+    when(fetcher.fetch(url, openApiProperties)).thenReturn(rawSpec);
+    when(refResolver.resolve(rawSpec, url)).thenReturn(resolvedSpec);
+    when(openApiParser.parse(resolvedSpec)).thenReturn(parsedOpenApiSpec);
+    when(promptService.buildPrompt(parsedOpenApiSpec)).thenReturn(prompt);
+    when(llmClientRegistry.getClient(eq(aiProvider), any(SpecStatistics.class)))
+        .thenReturn(llmClient);
+    when(llmClient.complete(prompt)).thenReturn(Flux.just(generatedDoc));
+
+    // Act & Assert
+    StepVerifier.create(documentationService.generateFromUrl(url, aiProvider))
+        .expectNext(generatedDoc)
+        .verifyComplete();
+    assertThat(reservation.bytes())
+        .isEqualTo(
+            MemoryEstimate.ofSpec(rawSpec.length())
+                + MemoryEstimate.ofResolution(rawSpec.length(), resolvedSpec.length())
+                + MemoryEstimate.ofOutput(generatedDoc.length()));
+  }
+
+  @Test
+  void generateSectionsFromUrlDoesNotAccountStreamedOutput() {
+    // Arrange
+    String url = "https://example.com/api-docs";
+    String aiProvider = "ollama";
+    String rawSpec = "{ \"openapi\": \"3.0.0\" }";
+    SectionChunk chunk =
+        new SectionChunk(
+            new DocumentationSection(
+                "key", SectionKind.OVERVIEW, "API", "API", new LlmPrompt("system", "prompt")),
+            "# API");
+    MemoryBudget.Reservation reservation = reserve(rawSpec);
+
+    when(fetcher.fetch(url, openApiProperties)).thenReturn(rawSpec);
+    when(refResolver.resolve(rawSpec, url)).thenReturn(rawSpec);
+    when(openApiParser.parse(rawSpec)).thenReturn(parsedOpenApiSpec);
+    when(llmClientRegistry.getClient(eq(aiProvider), any(SpecStatistics.class)))
+        .thenReturn(llmClient);
+    when(sectionedGenerator.generateSections(parsedOpenApiSpec, llmClient))
+        .thenReturn(Flux.just(chunk));
+
+    // Act & Assert
+    StepVerifier.create(documentationService.generateSectionsFromUrl(url, aiProvider))
+        .expectNext(chunk)
+        .verifyComplete();
+    assertThat(reservation.bytes()).isEqualTo(MemoryEstimate.ofSpec(rawSpec.length()));
+  }
+
+  /** Hands the service a reservation of an enabled budget, so its accounting can be inspected. */
+  private MemoryBudget.Reservation reserve(String rawSpec) {
+    MemoryBudget enabled =
+        new MemoryBudget(
+            new MemoryBudgetProperties(true, DataSize.ofMegabytes(1), 0.5, Duration.ZERO),
+            new SimpleMeterRegistry());
+    MemoryBudget.Reservation reservation =
+        enabled.reserve(MemoryEstimate.ofSpec(rawSpec.length())).block();
+    doReturn(Mono.just(reservation)).when(memoryBudget).reserve(anyLong());
+    return reservation;
+  }
 }
@@ -0,0 +1,110 @@
+package io.github.jenderenco.inkifyai.service.gitbook;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.jenderenco.inkifyai.llm.prompt.LlmPrompt;
+import io.github.jenderenco.inkifyai.service.section.DocumentationSection;
+import io.github.jenderenco.inkifyai.service.section.SectionChunk;
+import io.github.jenderenco.inkifyai.service.section.SectionKind;
+import io.github.jenderenco.inkifyai.service.section.SectionPlanner;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.junit.jupiter.api.Test;
+
+class GitBookWriterTest {
+
+  private static final LlmPrompt PROMPT = new LlmPrompt("system", "user");
+
+  private static final DocumentationSection OVERVIEW =
+      new DocumentationSection("o", SectionKind.OVERVIEW, "Petstore", "Petstore", PROMPT);
+  private static final DocumentationSection LIST_PETS =
+      new DocumentationSection("l", SectionKind.OPERATION, "GET /pets", "Pet Store", PROMPT);
+  private static final DocumentationSection ADD_PET =
+      new DocumentationSection("a", SectionKind.OPERATION, "POST /pets", "Pet Store", PROMPT);
+  private static final DocumentationSection PET =
+      new DocumentationSection("s", SectionKind.SCHEMA, "Pet", SectionPlanner.MODELS_GROUP, PROMPT);
+
+  private final GitBookWriter writer = new GitBookWriter();
+
+  @Test
+  void writesOnePagePerGroupAndSummary() throws IOException {
+    // Arrange
+    List<SectionChunk> chunks =
+        List.of(
+            new SectionChunk(OVERVIEW, "# Petstore\n"),
+            new SectionChunk(LIST_PETS, "## GET /pets\n"),
+            new SectionChunk(ADD_PET, "## POST /pets\n"),
+            new SectionChunk(PET, "## Pet\n"));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // Act
+    writer.write(chunks, out);
+
+    // Assert
+    Map<String, String> entries = unzip(out.toByteArray());
+    assertThat(entries)
+        .containsOnlyKeys("README.md", "pet-store.md", "models.md", "SUMMARY.md")
+        .containsEntry("README.md", "# Petstore\n")
+        .containsEntry("pet-store.md", "# Pet Store\n\n## GET /pets\n## POST /pets\n")
+        .containsEntry("models.md", "# Models\n\n## Pet\n");
+    assertThat(entries.get("SUMMARY.md"))
+        .isEqualTo(
+            "# Petstore\n\n"
+                + "* [Introduction](README.md)\n"
+                + "* [Pet Store](pet-store.md)\n"
+                + "* [Models](models.md)\n");
+  }
+
+  @Test
+  void avoidsFileNameCollisions() throws IOException {
+    // Arrange
+    DocumentationSection readme =
+        new DocumentationSection("r", SectionKind.OPERATION, "GET /readme", "Readme", PROMPT);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // Act
+    writer.write(List.of(new SectionChunk(OVERVIEW, "x"), new SectionChunk(readme, "y")), out);
+
+    // Assert
+    assertThat(unzip(out.toByteArray())).containsKeys("README.md", "readme-2.md");
+  }
+
+  @Test
+  void keepsSchemasApartFromModelsTag() throws IOException {
+    // Arrange
+    DocumentationSection listModels =
+        new DocumentationSection(
+            "m", SectionKind.OPERATION, "GET /models", SectionPlanner.MODELS_GROUP, PROMPT);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // Act
+    writer.write(
+        List.of(
+            new SectionChunk(listModels, "## GET /models\n"), new SectionChunk(PET, "## Pet\n")),
+        out);
+
+    // Assert
+    Map<String, String> entries = unzip(out.toByteArray());
+    assertThat(entries)
+        .containsEntry("models.md", "# Models\n\n## GET /models\n")
+        .containsEntry("schemas.md", "# Schemas\n\n## Pet\n");
+    assertThat(entries.get("SUMMARY.md")).contains("* [Schemas](schemas.md)");
+  }
+
+  private static Map<String, String> unzip(byte[] archive) throws IOException {
+    Map<String, String> entries = new LinkedHashMap<>();
+    try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+      for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+        entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+      }
+    }
+    return entries;
+  }
+}
@@ -0,0 +1,92 @@
+package io.github.jenderenco.inkifyai.service.markdown;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.jenderenco.inkifyai.service.config.DocumentationProperties;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class MarkdownNormalizerTest {
+
+  private final MarkdownNormalizer normalizer = normalizer(true);
+
+  @Test
+  void stripsPreambleAndNormalizesHeadings() {
+    // Arrange
+    Flux<String> chunks =
+        Flux.just(
+            "Sure! Here is the documentation", " for your API:\n\n", "##Pet", "store API ##\nThe");
+
+    // Act
+    String markdown = String.join("", normalizer.normalize(chunks).collectList().block());
+
+    // Assert
+    assertThat(markdown).isEqualTo("## Petstore API\n\nThe\n");
+  }
+
+  @Test
+  void collapsesBlankLinesOutsideCodeBlocks() {
+    // Arrange
+    Flux<String> chunks = Flux.just("First\n\n\n\nSecond\n```\na\n\n\nb\n```\n");
+
+    // Act
+    String markdown = String.join("", normalizer.normalize(chunks).collectList().block());
+
+    // Assert
+    assertThat(markdown).isEqualTo("First\n\nSecond\n```\na\n\n\nb\n```\n");
+  }
+
+  @Test
+  void closesUnbalancedCodeFence() {
+    // Arrange
+    Flux<String> chunks = Flux.just("# API\n", "~~~~json\n{\"id\": 1}\n", "~~~ not closing\n");
+
+    // Act
+    String markdown = String.join("", normalizer.normalize(chunks).collectList().block());
+
+    // Assert
+    assertThat(markdown).isEqualTo("# API\n\n~~~~json\n{\"id\": 1}\n~~~ not closing\n~~~~\n");
+  }
+
+  @Test
+  void convertsLineEndingsConsistently() {
+    // Arrange
+    Flux<String> chunks = Flux.just("# API\r\n", "The API\r", "\nmanages pets.\r\n", "`code`\r\n");
+
+    // Act
+    String markdown = String.join("", normalizer.normalize(chunks).collectList().block());
+
+    // Assert
+    assertThat(markdown).isEqualTo("# API\n\nThe API\nmanages pets.\n`code`\n");
+  }
+
+  @Test
+  void passesOrdinaryTextThroughAsItArrives() {
+    // Arrange
+    Flux<String> chunks = Flux.just("# API\n", "The API", " manages", " pets.");
+
+    // Act & Assert
+    StepVerifier.create(normalizer.normalize(chunks))
+        .expectNext("# API\n")
+        .expectNext("\nThe API", " manages", " pets.", "\n")
+        .verifyComplete();
+  }
+
+  @Test
+  void returnsStreamUnchangedWhenDisabled() {
+    // Arrange
+    Flux<String> chunks = Flux.just("Sure, here it is:\n");
+
+    // Act & Assert
+    assertThat(normalizer(false).normalize(chunks)).isSameAs(chunks);
+  }
+
+  private static MarkdownNormalizer normalizer(boolean enabled) {
+    return new MarkdownNormalizer(
+        new DocumentationProperties(
+            new DocumentationProperties.Sections(false, 1),
+            new DocumentationProperties.Markdown(enabled, 1024),
+            new DocumentationProperties.Scheduler(false, 1, 0)));
+  }
+}
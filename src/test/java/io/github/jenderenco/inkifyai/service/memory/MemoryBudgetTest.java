@@ -0,0 +1,146 @@
+package io.github.jenderenco.inkifyai.service.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.jenderenco.inkifyai.service.memory.config.MemoryBudgetProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+class MemoryBudgetTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void admitsRequestsWithinBudget() {
+    // Arrange
+    MemoryBudget budget = budget(Duration.ZERO);
+
+    // Act
+    MemoryBudget.Reservation first = budget.reserve(600).block();
+    MemoryBudget.Reservation second = budget.reserve(400).block();
+
+    // Assert
+    assertThat(first.bytes()).isEqualTo(600);
+    assertThat(second.bytes()).isEqualTo(400);
+    assertThat(meterRegistry.get("inkify.memory.budget.used").gauge().value()).isEqualTo(1000);
+    assertThat(meterRegistry.get("inkify.memory.budget.utilization").gauge().value())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  void admitsWaitingRequestOnceMemoryIsReleased() {
+    // Arrange
+    MemoryBudget budget = budget(Duration.ofSeconds(5));
+    MemoryBudget.Reservation first = budget.reserve(800).block();
+    Mono<MemoryBudget.Reservation> second = budget.reserve(400);
+
+    // Act & Assert
+    StepVerifier.create(second)
+        .then(() -> assertThat(waiting()).isEqualTo(1))
+        .then(first::release)
+        .assertNext(reservation -> assertThat(reservation.bytes()).isEqualTo(400))
+        .verifyComplete();
+    assertThat(meterRegistry.get("inkify.memory.budget.used").gauge().value()).isEqualTo(400);
+  }
+
+  @Test
+  void resumesAdmittedRequestOffTheNonBlockingThreadThatReleasedMemory() {
+    // Arrange
+    MemoryBudget budget = budget(Duration.ofSeconds(5));
+    MemoryBudget.Reservation first = budget.reserve(800).block();
+    Mono<Boolean> resumedOnNonBlockingThread =
+        budget.reserve(400).map(reservation -> Schedulers.isInNonBlockingThread());
+
+    // Act & Assert
+    StepVerifier.create(resumedOnNonBlockingThread)
+        .then(() -> Schedulers.parallel().schedule(first::release))
+        .expectNext(false)
+        .verifyComplete();
+  }
+
+  @Test
+  void extendsReservationWithinBudget() {
+    // Arrange
+    MemoryBudget budget = budget(Duration.ZERO);
+    MemoryBudget.Reservation reservation = budget.reserve(500).block();
+
+    // Act
+    reservation.extend(300);
+
+    // Assert
+    assertThat(reservation.bytes()).isEqualTo(800);
+    assertThat(meterRegistry.get("inkify.memory.budget.used").gauge().value()).isEqualTo(800);
+    assertThatThrownBy(() -> reservation.extend(201))
+        .isInstanceOf(MemoryBudgetExceededException.class)
+        .hasMessageContaining("more than the budget");
+    assertThat(reservation.bytes()).isEqualTo(800);
+  }
+
+  @Test
+  void accountsOutputUntilReleased() {
+    // Arrange
+    MemoryBudget budget = budget(Duration.ZERO);
+    MemoryBudget.Reservation reservation = budget.reserve(500).block();
+
+    // Act
+    reservation.account(300);
+
+    // Assert
+    assertThat(reservation.bytes()).isEqualTo(800);
+    StepVerifier.create(budget.reserve(300)).verifyError(MemoryBudgetExceededException.class);
+    reservation.release();
+    reservation.release();
+    assertThat(meterRegistry.get("inkify.memory.budget.used").gauge().value()).isZero();
+  }
+
+  @Test
+  void rejectsRequestLargerThanBudget() {
+    // Act & Assert
+    StepVerifier.create(budget(Duration.ofSeconds(5)).reserve(1001))
+        .expectErrorSatisfies(
+            e ->
+                assertThat(e)
+                    .isInstanceOf(MemoryBudgetExceededException.class)
+                    .hasMessageContaining("more than the budget"))
+        .verify();
+  }
+
+  @Test
+  void rejectsRequestWaitingTooLong() {
+    // Arrange
+    MemoryBudget budget = budget(Duration.ofMillis(50));
+    budget.reserve(1000).block();
+
+    // Act & Assert
+    StepVerifier.create(budget.reserve(100)).verifyError(MemoryBudgetExceededException.class);
+    assertThat(waiting()).isZero();
+  }
+
+  @Test
+  void admitsEverythingWhenDisabled() {
+    // Arrange
+    MemoryBudget budget =
+        new MemoryBudget(
+            new MemoryBudgetProperties(false, DataSize.ofBytes(1), 0, null), meterRegistry);
+
+    // Act & Assert
+    StepVerifier.create(budget.reserve(1_000_000))
+        .assertNext(reservation -> assertThat(reservation.bytes()).isZero())
+        .verifyComplete();
+  }
+
+  private MemoryBudget budget(Duration maxWait) {
+    return new MemoryBudget(
+        new MemoryBudgetProperties(true, DataSize.ofBytes(1000), 0, maxWait), meterRegistry);
+  }
+
+  private double waiting() {
+    return meterRegistry.get("inkify.memory.budget.waiting").gauge().value();
+  }
+}
@@ -0,0 +1,136 @@
+package io.github.jenderenco.inkifyai.service.result;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.jenderenco.inkifyai.service.result.config.ResultStoreProperties;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResultStoreTest {
+
+  private static final String URL = "https://example.com/api-docs";
+
+  @TempDir private Path directory;
+
+  @Test
+  void storesVersionsPerSpecification() throws IOException {
+    // Arrange
+    ResultStore store = new ResultStore(properties(true));
+
+    // Act
+    StoredResult first = store.store(URL, "abc", "ollama", "# First").orElseThrow();
+    StoredResult second = store.store(URL, "abc", "ollama", "# Second").orElseThrow();
+    StoredResult other = store.store(URL, "def", "ollama", "# Other").orElseThrow();
+
+    // Assert
+    assertThat(first.version()).isEqualTo(1);
+    assertThat(second.version()).isEqualTo(2);
+    assertThat(other.version()).isEqualTo(1);
+    assertThat(second.path()).isEqualTo("/results/abc/2");
+    assertThat(first.contentHash()).isNotEqualTo(second.contentHash());
+    assertThat(Files.readString(store.path(second, false))).isEqualTo("# Second");
+  }
+
+  @Test
+  void precompressesDocuments() throws IOException {
+    // Arrange
+    ResultStore store = new ResultStore(properties(true));
+    String markdown = "# Repeated section\n".repeat(100);
+
+    // Act
+    StoredResult result = store.store(URL, "abc", "ollama", markdown).orElseThrow();
+
+    // Assert
+    assertThat(result.gzipSize()).isLessThan(result.size());
+    try (InputStream gzip = new GZIPInputStream(Files.newInputStream(store.path(result, true)))) {
+      assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(markdown);
+    }
+  }
+
+  @Test
+  void reloadsIndexOnStartup() {
+    // Arrange
+    ResultStore store = new ResultStore(properties(true));
+    StoredResult stored = store.store(URL, "abc", "ollama", "# Docs").orElseThrow();
+
+    // Act
+    ResultStore restarted = new ResultStore(properties(true));
+
+    // Assert
+    assertThat(restarted.find("abc", 1)).contains(stored);
+    assertThat(restarted.find("abc", 2)).isEmpty();
+    assertThat(restarted.store(URL, "abc", "ollama", "# Again").orElseThrow().version())
+        .isEqualTo(2);
+  }
+
+  @Test
+  void findsLatestDocumentOfUrl() {
+    // Arrange
+    ResultStore store = new ResultStore(properties(true));
+    store.store(URL, "abc", "ollama", "# First");
+    StoredResult latest = store.store(URL, "def", "ollama", "# Changed").orElseThrow();
+    store.store("https://example.com/other", "ghi", "ollama", "# Other");
+
+    // Act & Assert
+    assertThat(store.findLatest(URL)).contains(latest);
+    assertThat(store.read(latest)).contains("# Changed");
+    assertThat(store.findLatest("https://example.com/unknown")).isEmpty();
+  }
+
+  @Test
+  void prunesOldestVersionsBeyondLimit() {
+    // Arrange
+    ResultStore store = new ResultStore(new ResultStoreProperties(true, directory, 2, null));
+    StoredResult first = store.store(URL, "abc", "ollama", "# First").orElseThrow();
+    store.store(URL, "abc", "ollama", "# Second");
+
+    // Act
+    StoredResult third = store.store(URL, "abc", "ollama", "# Third").orElseThrow();
+
+    // Assert
+    assertThat(third.version()).isEqualTo(3);
+    assertThat(store.find("abc", 1)).isEmpty();
+    assertThat(store.find("abc", 3)).contains(third);
+    assertThat(store.path(first, false)).doesNotExist();
+    assertThat(store.path(first, true)).doesNotExist();
+    assertThat(new ResultStore(properties(true)).find("abc", 1)).isEmpty();
+  }
+
+  @Test
+  void prunesExpiredDocumentsOnStartup() {
+    // Arrange
+    StoredResult stored =
+        new ResultStore(properties(true)).store(URL, "abc", "ollama", "# Docs").orElseThrow();
+
+    // Act
+    ResultStore restarted =
+        new ResultStore(new ResultStoreProperties(true, directory, 0, Duration.ZERO));
+
+    // Assert
+    assertThat(restarted.find("abc", 1)).isEmpty();
+    assertThat(restarted.findLatest(URL)).isEmpty();
+    assertThat(restarted.path(stored, false)).doesNotExist();
+  }
+
+  @Test
+  void storesNothingWhenDisabledOrSpecificationUnknown() {
+    // Arrange
+    ResultStore disabled = new ResultStore(properties(false));
+    ResultStore enabled = new ResultStore(properties(true));
+
+    // Act & Assert
+    assertThat(disabled.store(URL, "abc", "ollama", "# Docs")).isEmpty();
+    assertThat(enabled.store(URL, null, "ollama", "# Docs")).isEmpty();
+  }
+
+  private ResultStoreProperties properties(boolean enabled) {
+    return new ResultStoreProperties(enabled, directory, 0, null);
+  }
+}
@@ -0,0 +1,159 @@
+package io.github.jenderenco.inkifyai.service.resume;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.jenderenco.inkifyai.llm.client.LlmClient;
+import io.github.jenderenco.inkifyai.llm.exception.InternalLlmException;
+import io.github.jenderenco.inkifyai.llm.prompt.LlmPrompt;
+import io.github.jenderenco.inkifyai.service.resume.config.ResumeProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ResumableGenerationTest {
+
+  private static final LlmPrompt PROMPT = new LlmPrompt("system", "document");
+  private static final LlmPrompt CONTINUATION = new LlmPrompt("system", "continue");
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ResumableGeneration resumableGeneration =
+      new ResumableGeneration(new ResumeProperties(true, 3, Duration.ofMillis(1)), meterRegistry);
+  private final AtomicReference<List<String>> written = new AtomicReference<>();
+
+  @Mock private LlmClient client;
+
+  @Test
+  void resumesAfterLastCompleteSection() {
+    // Arrange
+    when(client.complete(PROMPT))
+        .thenReturn(
+            Flux.concat(
+                Flux.just("# API\nIntro\n", "## Pets\nList pets\n## Stores\nAll st"),
+                Flux.error(new IOException("stream reset"))));
+    when(client.complete(CONTINUATION))
+        .thenReturn(Flux.just("Continuing:\n## Stores\n", "All stores\n"));
+
+    // Act & Assert
+    StepVerifier.create(resumableGeneration.complete(client, PROMPT, this::continuation))
+        .expectNext("# API\nIntro\n## Pets\nList pets\n", "## Stores\nAll stores\n")
+        .verifyComplete();
+    assertThat(written.get()).containsExactly("# API", "## Pets");
+    assertThat(
+            meterRegistry
+                .get("inkify.generation.resumes")
+                .tag("unit", "document")
+                .counter()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void ignoresHeadingsInCodeBlocks() {
+    // Arrange
+    when(client.complete(PROMPT))
+        .thenReturn(Flux.just("# API\n```bash\n# install\n```\n", "## Next\nText"));
+
+    // Act & Assert
+    StepVerifier.create(resumableGeneration.complete(client, PROMPT, this::continuation))
+        .expectNext("# API\n```bash\n# install\n```\n", "## Next\nText")
+        .verifyComplete();
+  }
+
+  @Test
+  void doesNotTreatNonHeadingHashLinesAsBoundaries() {
+    // Arrange
+    when(client.complete(PROMPT))
+        .thenReturn(Flux.just("# API\n#hashtag\n#!/bin/sh\n", "## Next\nText"));
+
+    // Act & Assert
+    StepVerifier.create(resumableGeneration.complete(client, PROMPT, this::continuation))
+        .expectNext("# API\n#hashtag\n#!/bin/sh\n", "## Next\nText")
+        .verifyComplete();
+  }
+
+  @Test
+  void restartsIfNoSectionWasComplete() {
+    // Arrange
+    when(client.complete(PROMPT))
+        .thenReturn(Flux.concat(Flux.just("# API\nInt"), Flux.error(new IOException("reset"))))
+        .thenReturn(Flux.just("# API\nIntro\n"));
+
+    // Act & Assert
+    StepVerifier.create(resumableGeneration.complete(client, PROMPT, this::continuation))
+        .expectNext("# API\nIntro\n")
+        .verifyComplete();
+    assertThat(written.get()).isNull();
+  }
+
+  @Test
+  void doesNotResumeAfterPermanentFailure() {
+    // Arrange
+    when(client.complete(PROMPT))
+        .thenReturn(Flux.error(new IllegalArgumentException("Unsupported AI provider")));
+
+    // Act & Assert
+    StepVerifier.create(resumableGeneration.complete(client, PROMPT, this::continuation))
+        .verifyError(IllegalArgumentException.class);
+    verify(client, times(1)).complete(PROMPT);
+  }
+
+  @Test
+  void doesNotRetryClientErrors() {
+    // Arrange
+    when(client.complete(PROMPT))
+        .thenReturn(
+            Flux.error(
+                new InternalLlmException(
+                    "Ollama LLM stream failed",
+                    WebClientResponseException.create(404, "model not found", null, null, null))));
+
+    // Act & Assert
+    StepVerifier.create(resumableGeneration.completeSection("User", () -> client.complete(PROMPT)))
+        .verifyError(InternalLlmException.class);
+    verify(client, times(1)).complete(PROMPT);
+  }
+
+  @Test
+  void failsOnceAttemptsAreExhausted() {
+    // Arrange
+    when(client.complete(PROMPT))
+        .thenReturn(Flux.error(WebClientResponseException.create(503, "down", null, null, null)));
+
+    // Act & Assert
+    StepVerifier.create(resumableGeneration.completeSection("User", () -> client.complete(PROMPT)))
+        .verifyError(WebClientResponseException.class);
+    verify(client, times(3)).complete(PROMPT);
+  }
+
+  @Test
+  void streamsSectionsWhenDisabled() {
+    // Arrange
+    ResumableGeneration disabled =
+        new ResumableGeneration(
+            new ResumeProperties(false, 3, Duration.ofMillis(1)), meterRegistry);
+    when(client.complete(PROMPT)).thenReturn(Flux.just("## User\n", "A user\n"));
+
+    // Act & Assert
+    StepVerifier.create(disabled.completeSection("User", () -> client.complete(PROMPT)))
+        .expectNext("## User\n", "A user\n")
+        .verifyComplete();
+  }
+
+  private LlmPrompt continuation(List<String> headings) {
+    written.set(headings);
+    return CONTINUATION;
+  }
+}
@@ -0,0 +1,102 @@
+package io.github.jenderenco.inkifyai.service.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.jenderenco.inkifyai.service.config.DocumentationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+class GenerationSchedulerTest {
+
+  private final GenerationScheduler scheduler =
+      new GenerationScheduler(
+          new DocumentationProperties(
+              new DocumentationProperties.Sections(false, 1),
+              new DocumentationProperties.Markdown(false, 1024),
+              new DocumentationProperties.Scheduler(true, 1, 0)),
+          new SimpleMeterRegistry());
+
+  @Test
+  void runsImmediatelyWhenSlotIsFree() {
+    // Arrange
+    GenerationStats stats = new GenerationStats();
+
+    // Act & Assert
+    StepVerifier.create(
+            scheduler
+                .schedule(42, Flux.just("docs"))
+                .contextWrite(Context.of(GenerationStats.class, stats)))
+        .expectNext("docs")
+        .verifyComplete();
+    assertThat(stats.estimatedCost()).isEqualTo(42);
+  }
+
+  @Test
+  void runsShortestQueuedJobFirst() {
+    // Arrange
+    Sinks.Many<String> running = Sinks.many().unicast().onBackpressureBuffer();
+    List<String> started = new CopyOnWriteArrayList<>();
+    scheduler.schedule(1, running.asFlux()).subscribe();
+    Flux<String> queued =
+        Flux.merge(
+            scheduler.schedule(1_000, job("large", started)),
+            scheduler.schedule(10, job("small", started)));
+
+    // Act & Assert
+    StepVerifier.create(queued)
+        .then(() -> assertThat(started).isEmpty())
+        .then(running::tryEmitComplete)
+        .expectNextCount(2)
+        .verifyComplete();
+    assertThat(started).containsExactly("small", "large");
+  }
+
+  @Test
+  void skipsJobsCancelledWhileQueued() {
+    // Arrange
+    Sinks.Many<String> running = Sinks.many().unicast().onBackpressureBuffer();
+    List<String> started = new CopyOnWriteArrayList<>();
+    scheduler.schedule(1, running.asFlux()).subscribe();
+    Disposable cancelled = scheduler.schedule(10, job("cancelled", started)).subscribe();
+    Flux<String> large = scheduler.schedule(1_000, job("large", started));
+
+    // Act & Assert
+    StepVerifier.create(large)
+        .then(cancelled::dispose)
+        .then(running::tryEmitComplete)
+        .expectNext("large")
+        .verifyComplete();
+    assertThat(started).containsExactly("large");
+  }
+
+  @Test
+  void startsQueuedJobsOffTheNonBlockingThreadThatFreedTheSlot() {
+    // Arrange
+    Sinks.Many<String> running = Sinks.many().unicast().onBackpressureBuffer();
+    scheduler.schedule(1, running.asFlux()).subscribe();
+    Flux<Boolean> queued =
+        scheduler.schedule(10, Flux.defer(() -> Flux.just(Schedulers.isInNonBlockingThread())));
+
+    // Act & Assert
+    StepVerifier.create(queued)
+        .then(() -> Schedulers.parallel().schedule(running::tryEmitComplete))
+        .expectNext(false)
+        .verifyComplete();
+  }
+
+  private static Flux<String> job(String name, List<String> started) {
+    return Flux.defer(
+        () -> {
+          started.add(name);
+          return Flux.just(name);
+        });
+  }
+}
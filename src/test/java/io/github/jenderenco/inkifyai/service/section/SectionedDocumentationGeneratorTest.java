@@ -0,0 +1,116 @@
+package io.github.jenderenco.inkifyai.service.section;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.jenderenco.inkifyai.llm.client.LlmClient;
+import io.github.jenderenco.inkifyai.llm.prompt.LlmPrompt;
+import io.github.jenderenco.inkifyai.openapi.model.ParsedOpenApiSpec;
+import io.github.jenderenco.inkifyai.service.config.DocumentationProperties;
+import io.github.jenderenco.inkifyai.service.markdown.MarkdownNormalizer;
+import io.github.jenderenco.inkifyai.service.resume.ResumableGeneration;
+import io.github.jenderenco.inkifyai.service.resume.config.ResumeProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class SectionedDocumentationGeneratorTest {
+
+  private static final LlmPrompt ERROR_PROMPT = new LlmPrompt("system", "error prompt");
+  private static final LlmPrompt USER_PROMPT = new LlmPrompt("system", "user prompt");
+  private static final LlmPrompt ORDER_PROMPT = new LlmPrompt("system", "order prompt");
+
+  private static final DocumentationSection ERROR =
+      new DocumentationSection(
+          "error-key", SectionKind.SCHEMA, "Error", SectionPlanner.MODELS_GROUP, ERROR_PROMPT);
+  private static final DocumentationSection USER =
+      new DocumentationSection(
+          "user-key", SectionKind.SCHEMA, "User", SectionPlanner.MODELS_GROUP, USER_PROMPT);
+  private static final DocumentationSection ORDER =
+      new DocumentationSection(
+          "order-key", SectionKind.SCHEMA, "Order", SectionPlanner.MODELS_GROUP, ORDER_PROMPT);
+
+  @Mock private SectionPlanner sectionPlanner;
+  @Mock private LlmClient llmClient;
+  @Mock private ParsedOpenApiSpec userApi;
+  @Mock private ParsedOpenApiSpec orderApi;
+
+  private SectionedDocumentationGenerator generator;
+
+  @BeforeEach
+  void setUp() {
+    generator = generator(false);
+  }
+
+  @Test
+  void generatesSectionsInOrder() {
+    // Arrange
+    when(sectionPlanner.plan(userApi, llmClient)).thenReturn(List.of(ERROR, USER));
+    when(llmClient.complete(ERROR_PROMPT)).thenReturn(Flux.just("### Error", " docs"));
+    when(llmClient.complete(USER_PROMPT)).thenReturn(Flux.just("### User docs"));
+
+    // Act & Assert
+    StepVerifier.create(generator.generate(userApi, llmClient))
+        .expectNext("### Error", " docs", "\n\n", "### User docs", "\n\n")
+        .verifyComplete();
+  }
+
+  @Test
+  void reusesSectionsGeneratedForOtherSpecs() {
+    // Arrange
+    when(sectionPlanner.plan(userApi, llmClient)).thenReturn(List.of(ERROR, USER));
+    when(sectionPlanner.plan(orderApi, llmClient)).thenReturn(List.of(ERROR, ORDER));
+    when(llmClient.complete(ERROR_PROMPT)).thenReturn(Flux.just("### Error", " docs"));
+    when(llmClient.complete(USER_PROMPT)).thenReturn(Flux.just("### User docs"));
+    when(llmClient.complete(ORDER_PROMPT)).thenReturn(Flux.just("### Order docs"));
+
+    StepVerifier.create(generator.generate(userApi, llmClient)).expectNextCount(5).verifyComplete();
+
+    // Act & Assert
+    StepVerifier.create(generator.generate(orderApi, llmClient))
+        .expectNext("### Error docs", "\n\n", "### Order docs", "\n\n")
+        .verifyComplete();
+    verify(llmClient).complete(ERROR_PROMPT);
+  }
+
+  @Test
+  void generatesFailedSectionAgainWithoutPartialText() {
+    // Arrange
+    SectionedDocumentationGenerator resuming = generator(true);
+    when(sectionPlanner.plan(userApi, llmClient)).thenReturn(List.of(ERROR, USER));
+    when(llmClient.complete(ERROR_PROMPT)).thenReturn(Flux.just("### Error", " docs"));
+    when(llmClient.complete(USER_PROMPT))
+        .thenReturn(Flux.concat(Flux.just("### Us"), Flux.error(new IOException("reset"))))
+        .thenReturn(Flux.just("### User", " docs"));
+
+    // Act & Assert
+    StepVerifier.create(resuming.generate(userApi, llmClient))
+        .expectNext("### Error docs", "\n\n", "### User docs", "\n\n")
+        .verifyComplete();
+  }
+
+  private SectionedDocumentationGenerator generator(boolean resume) {
+    DocumentationProperties properties =
+        new DocumentationProperties(
+            new DocumentationProperties.Sections(true, 2),
+            new DocumentationProperties.Markdown(false, 1024),
+            new DocumentationProperties.Scheduler(false, 1, 0));
+    return new SectionedDocumentationGenerator(
+        sectionPlanner,
+        new ConcurrentMapCacheManager(),
+        new MarkdownNormalizer(properties),
+        properties,
+        new ResumableGeneration(
+            new ResumeProperties(resume, 3, Duration.ofMillis(1)), new SimpleMeterRegistry()));
+  }
+}
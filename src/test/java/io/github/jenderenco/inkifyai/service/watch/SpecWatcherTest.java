@@ -0,0 +1,204 @@
+package io.github.jenderenco.inkifyai.service.watch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.jenderenco.inkifyai.openapi.FetchedSpec;
+import io.github.jenderenco.inkifyai.openapi.OpenApiFetcher;
+import io.github.jenderenco.inkifyai.openapi.config.OpenApiProperties;
+import io.github.jenderenco.inkifyai.service.DocumentationService;
+import io.github.jenderenco.inkifyai.service.result.ResultStore;
+import io.github.jenderenco.inkifyai.service.watch.config.SpecWatchProperties;
+import io.github.jenderenco.inkifyai.service.watch.config.SpecWatchProperties.OffPeak;
+import io.github.jenderenco.inkifyai.service.watch.config.SpecWatchProperties.WatchedSpec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+@ExtendWith(MockitoExtension.class)
+class SpecWatcherTest {
+
+  private static final String URL = "https://example.com/api-docs";
+  private static final WatchedSpec SPEC = new WatchedSpec(URL, "ollama");
+
+  @Mock private OpenApiFetcher fetcher;
+  @Mock private OpenApiProperties openApiProperties;
+  @Mock private DocumentationService documentationService;
+  @Mock private ResultStore resultStore;
+
+  private SpecWatcher watcher;
+
+  @BeforeEach
+  void setUp() {
+    SpecWatchProperties properties =
+        new SpecWatchProperties(true, Duration.ofMinutes(5), 0.2, null, List.of(SPEC));
+    watcher =
+        new SpecWatcher(
+            fetcher,
+            openApiProperties,
+            documentationService,
+            resultStore,
+            properties,
+            new SimpleMeterRegistry());
+  }
+
+  @Test
+  void generatesDocumentationWhenSpecificationChanges() throws Exception {
+    // Arrange
+    FetchedSpec v1 = new FetchedSpec("{\"v\": 1}", "\"v1\"", null);
+    when(fetcher.fetchIfChanged(eq(URL), isNull(), any())).thenReturn(Optional.of(v1));
+    when(documentationService.generateFromSpec(URL, v1.content(), "ollama"))
+        .thenReturn(Flux.just("# Docs", " v1"));
+    CompletableFuture<List<Object>> arguments = awaitStore(List::of);
+
+    // Act
+    watcher.poll(SPEC);
+
+    // Assert
+    assertThat(arguments.get(5, TimeUnit.SECONDS))
+        .containsExactly(URL, v1.contentHash(), "ollama", "# Docs v1");
+    assertThat(watcher.findCurrent(URL, "ollama"))
+        .hasValueSatisfying(
+            stored -> {
+              assertThat(stored.markdown()).isEqualTo("# Docs v1");
+              assertThat(stored.specHash()).isEqualTo(v1.contentHash());
+            });
+  }
+
+  @Test
+  void storesOffTheNonBlockingThreadThatCompletedGeneration() throws Exception {
+    // Arrange
+    FetchedSpec v1 = new FetchedSpec("{\"v\": 1}", null, null);
+    when(fetcher.fetchIfChanged(eq(URL), isNull(), any())).thenReturn(Optional.of(v1));
+    when(documentationService.generateFromSpec(URL, v1.content(), "ollama"))
+        .thenReturn(Flux.just("# Docs").publishOn(Schedulers.parallel()));
+    CompletableFuture<Boolean> nonBlocking =
+        awaitStore(arguments -> Schedulers.isInNonBlockingThread());
+
+    // Act
+    watcher.poll(SPEC);
+
+    // Assert
+    assertThat(nonBlocking.get(5, TimeUnit.SECONDS)).isFalse();
+  }
+
+  @Test
+  void skipsGenerationWhenSpecificationIsUnchanged() throws Exception {
+    // Arrange
+    FetchedSpec v1 = new FetchedSpec("{\"v\": 1}", null, null);
+    when(fetcher.fetchIfChanged(eq(URL), any(), any()))
+        .thenReturn(Optional.of(v1))
+        .thenReturn(Optional.of(v1))
+        .thenReturn(Optional.empty());
+    when(documentationService.generateFromSpec(URL, v1.content(), "ollama"))
+        .thenReturn(Flux.just("# Docs"));
+    CompletableFuture<Object> stored = awaitStore(arguments -> arguments[3]);
+
+    // Act
+    watcher.poll(SPEC);
+    watcher.poll(SPEC);
+    watcher.poll(SPEC);
+
+    // Assert
+    assertThat(stored.get(5, TimeUnit.SECONDS)).isEqualTo("# Docs");
+    verify(documentationService, times(1)).generateFromSpec(URL, v1.content(), "ollama");
+    assertThat(watcher.findCurrent(URL, "ollama")).isPresent();
+  }
+
+  @Test
+  void doesNotServeDocumentationOfOutdatedVersion() {
+    // Arrange
+    FetchedSpec v1 = new FetchedSpec("{\"v\": 1}", null, null);
+    FetchedSpec v2 = new FetchedSpec("{\"v\": 2}", null, null);
+    when(fetcher.fetchIfChanged(eq(URL), any(), any()))
+        .thenReturn(Optional.of(v1))
+        .thenReturn(Optional.of(v2));
+    when(documentationService.generateFromSpec(URL, v1.content(), "ollama"))
+        .thenReturn(Flux.just("# Docs v1"));
+    when(documentationService.generateFromSpec(URL, v2.content(), "ollama"))
+        .thenReturn(Flux.error(new IllegalStateException("LLM unavailable")));
+
+    // Act
+    watcher.poll(SPEC);
+    watcher.poll(SPEC);
+
+    // Assert
+    verify(documentationService, timeout(5_000)).generateFromSpec(URL, v2.content(), "ollama");
+    assertThat(watcher.findCurrent(URL, "ollama")).isEmpty();
+  }
+
+  @Test
+  void defersGenerationOutsideOffPeakWindow() {
+    // Arrange
+    LocalTime now = LocalTime.now();
+    OffPeak closed = new OffPeak(now.plusHours(1), now.plusHours(2));
+    watcher =
+        new SpecWatcher(
+            fetcher,
+            openApiProperties,
+            documentationService,
+            resultStore,
+            new SpecWatchProperties(true, Duration.ofMinutes(5), 0.2, closed, List.of(SPEC)),
+            new SimpleMeterRegistry());
+    when(fetcher.fetchIfChanged(eq(URL), any(), any()))
+        .thenReturn(Optional.of(new FetchedSpec("{}", null, null)));
+
+    // Act
+    watcher.poll(SPEC);
+
+    // Assert
+    verify(documentationService, never()).generateFromSpec(any(), any(), any());
+  }
+
+  @Test
+  void offPeakWindowMaySpanMidnight() {
+    // Arrange
+    OffPeak window = new OffPeak(LocalTime.of(22, 0), LocalTime.of(6, 0));
+
+    // Act & Assert
+    assertThat(window.contains(LocalTime.of(23, 30))).isTrue();
+    assertThat(window.contains(LocalTime.of(2, 0))).isTrue();
+    assertThat(window.contains(LocalTime.of(6, 0))).isFalse();
+    assertThat(window.contains(LocalTime.of(12, 0))).isFalse();
+  }
+
+  @Test
+  void ignoresUnwatchedSpecifications() {
+    // Act & Assert
+    assertThat(watcher.findCurrent("https://example.com/other", "ollama")).isEmpty();
+  }
+
+  /**
+   * Completes the returned future once a document is stored. Mockito cannot wait for calls of the
+   * synchronized {@link ResultStore#store} method, since verifying them holds the lock.
+   */
+  private <T> CompletableFuture<T> awaitStore(Function<Object[], T> capture) {
+    CompletableFuture<T> stored = new CompletableFuture<>();
+    when(resultStore.store(any(), any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              stored.complete(capture.apply(invocation.getArguments()));
+              return Optional.empty();
+            });
+    return stored;
+  }
+}
@@ -1,29 +1,53 @@
 package io.github.jenderenco.inkifyai.web.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
 import io.github.jenderenco.inkifyai.llm.client.LlmClientRegistry;
+import io.github.jenderenco.inkifyai.llm.client.usage.LlmUsage;
+import io.github.jenderenco.inkifyai.llm.client.usage.LlmUsageRecorder;
+import io.github.jenderenco.inkifyai.llm.exception.InternalLlmException;
+import io.github.jenderenco.inkifyai.llm.exception.LlmUnavailableException;
 import io.github.jenderenco.inkifyai.openapi.exception.OpenApiFetchException;
+import io.github.jenderenco.inkifyai.openapi.selection.OperationSelection;
 import io.github.jenderenco.inkifyai.service.DocumentationService;
+import io.github.jenderenco.inkifyai.service.result.ResultStore;
+import io.github.jenderenco.inkifyai.service.result.StoredResult;
+import io.github.jenderenco.inkifyai.service.watch.SpecWatcher;
+import io.github.jenderenco.inkifyai.service.watch.StoredDocumentation;
 import io.github.jenderenco.inkifyai.web.controller.config.ApiProperties;
+import io.github.jenderenco.inkifyai.web.ratelimit.RateLimiter;
+import io.github.jenderenco.inkifyai.web.ratelimit.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.mock.web.MockAsyncContext;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 
 @WebMvcTest(HomeController.class)
 class HomeControllerTest {
@@ -36,6 +60,14 @@ class HomeControllerTest {
 
   @MockitoBean private ApiProperties apiProperties;
 
+  @MockitoBean private RateLimiter rateLimiter;
+
+  @MockitoBean private RateLimitProperties rateLimitProperties;
+
+  @MockitoBean private SpecWatcher specWatcher;
+
+  @MockitoBean private ResultStore resultStore;
+
   @Test
   void homeEndpoint() throws Exception {
     // Arrange
@@ -57,9 +89,11 @@ class HomeControllerTest {
     String aiProvider = "ollama";
     String markdown = "# Generated Documentation\n\nThis is a test.";
 
-    ApiProperties.GenerateDocs generateDocs = new ApiProperties.GenerateDocs(Duration.ofSeconds(1));
+    ApiProperties.GenerateDocs generateDocs =
+        new ApiProperties.GenerateDocs(Duration.ofSeconds(1), true);
     when(apiProperties.generateDocs()).thenReturn(generateDocs);
-    when(documentationService.generateFromUrl(url, aiProvider)).thenReturn(Flux.just(markdown));
+    when(documentationService.generateFromUrl(url, aiProvider, OperationSelection.ALL))
+        .thenReturn(Flux.just(markdown));
 
     MvcResult mvcResult =
         mockMvc
@@ -77,15 +111,150 @@ class HomeControllerTest {
         .andExpect(model().attribute("aiProvider", aiProvider));
   }
 
+  @Test
+  void generateDocsExposesLlmUsage() throws Exception {
+    // Arrange
+    String url = "https://example.com/api-docs";
+    LlmUsage usage =
+        new LlmUsage(
+            1200,
+            300,
+            Duration.ZERO,
+            Duration.ofMillis(150),
+            Duration.ofMillis(4000),
+            Duration.ofMillis(4200));
+    LlmUsageRecorder recorder = new LlmUsageRecorder(new SimpleMeterRegistry());
+
+    ApiProperties.GenerateDocs generateDocs =
+        new ApiProperties.GenerateDocs(Duration.ofSeconds(1), true);
+    when(apiProperties.generateDocs()).thenReturn(generateDocs);
+    when(documentationService.generateFromUrl(url, "ollama", OperationSelection.ALL))
+        .thenReturn(
+            Flux.deferContextual(
+                context -> {
+                  recorder.record("ollama", "llama3.2", usage, context);
+                  return Flux.just("# Docs");
+                }));
+
+    MvcResult mvcResult =
+        mockMvc
+            .perform(post("/generate-docs").param("url", url))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Act & Assert
+    mockMvc
+        .perform(asyncDispatch(mvcResult))
+        .andExpect(status().isOk())
+        .andExpect(model().attribute("usage", usage))
+        .andExpect(header().string(HomeController.PROMPT_TOKENS_HEADER, "1200"))
+        .andExpect(header().string(HomeController.COMPLETION_TOKENS_HEADER, "300"))
+        .andExpect(
+            header()
+                .string(
+                    HomeController.SERVER_TIMING_HEADER,
+                    "queue;dur=0, load;dur=0, prefill;dur=150, decode;dur=4000"));
+  }
+
+  @Test
+  void generateDocsLinksStoredDocument() throws Exception {
+    // Arrange
+    String url = "https://example.com/api-docs";
+    StoredResult stored =
+        new StoredResult("abc", 2, url, "ollama", Instant.now(), 6, 26, "def");
+
+    ApiProperties.GenerateDocs generateDocs =
+        new ApiProperties.GenerateDocs(Duration.ofSeconds(1), true);
+    when(apiProperties.generateDocs()).thenReturn(generateDocs);
+    when(documentationService.generateFromUrl(url, "ollama", OperationSelection.ALL))
+        .thenReturn(Flux.just("# Docs"));
+    when(resultStore.store(eq(url), any(), eq("ollama"), eq("# Docs")))
+        .thenReturn(Optional.of(stored));
+
+    MvcResult mvcResult =
+        mockMvc
+            .perform(post("/generate-docs").param("url", url))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Act & Assert
+    mockMvc
+        .perform(asyncDispatch(mvcResult))
+        .andExpect(status().isOk())
+        .andExpect(model().attribute("resultUrl", "/results/abc/2"));
+  }
+
+  @Test
+  void generateDocsServesDocumentationGeneratedInBackground() throws Exception {
+    // Arrange
+    String url = "https://example.com/api-docs";
+    Instant generatedAt = Instant.parse("2026-01-01T02:00:00Z");
+    StoredDocumentation stored = new StoredDocumentation("# Watched", "hash", generatedAt);
+
+    ApiProperties.GenerateDocs generateDocs =
+        new ApiProperties.GenerateDocs(Duration.ofSeconds(1), true);
+    when(apiProperties.generateDocs()).thenReturn(generateDocs);
+    when(specWatcher.findCurrent(url, "ollama")).thenReturn(Optional.of(stored));
+
+    MvcResult mvcResult =
+        mockMvc
+            .perform(post("/generate-docs").param("url", url))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Act & Assert
+    mockMvc
+        .perform(asyncDispatch(mvcResult))
+        .andExpect(status().isOk())
+        .andExpect(view().name("result"))
+        .andExpect(model().attribute("markdown", "# Watched"))
+        .andExpect(model().attribute("generatedAt", generatedAt));
+    verifyNoInteractions(documentationService);
+  }
+
+  @Test
+  void generateDocsForSelectedOperationsIsNeitherWatchedNorStored() throws Exception {
+    // Arrange
+    String url = "https://example.com/api-docs";
+    OperationSelection selection =
+        new OperationSelection(List.of("pets"), List.of("/stores/**"), List.of());
+
+    ApiProperties.GenerateDocs generateDocs =
+        new ApiProperties.GenerateDocs(Duration.ofSeconds(1), true);
+    when(apiProperties.generateDocs()).thenReturn(generateDocs);
+    when(documentationService.generateFromUrl(url, "ollama", selection))
+        .thenReturn(Flux.just("# Pets"));
+
+    MvcResult mvcResult =
+        mockMvc
+            .perform(
+                post("/generate-docs")
+                    .param("url", url)
+                    .param("tags", "pets")
+                    .param("paths", "/stores/**"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Act & Assert
+    mockMvc
+        .perform(asyncDispatch(mvcResult))
+        .andExpect(status().isOk())
+        .andExpect(view().name("result"))
+        .andExpect(model().attribute("markdown", "# Pets"));
+    verifyNoInteractions(specWatcher, resultStore);
+  }
+
   @Test
   void generateDocsWithDefaultAiProvider() throws Exception {
     // Arrange
     String url = "https://example.com/api-docs";
     String markdown = "# Default Provider Response";
 
-    ApiProperties.GenerateDocs generateDocs = new ApiProperties.GenerateDocs(Duration.ofSeconds(1));
+    ApiProperties.GenerateDocs generateDocs =
+        new ApiProperties.GenerateDocs(Duration.ofSeconds(1), true);
     when(apiProperties.generateDocs()).thenReturn(generateDocs);
-    when(documentationService.generateFromUrl(url, "ollama")).thenReturn(Flux.just(markdown));
+    when(documentationService.generateFromUrl(url, "ollama", OperationSelection.ALL))
+        .thenReturn(Flux.just(markdown));
 
     MvcResult mvcResult =
         mockMvc
@@ -109,9 +278,10 @@ class HomeControllerTest {
     String url = "https://example.com/invalid";
     OpenApiFetchException ex = new OpenApiFetchException("Failed to fetch spec");
 
-    ApiProperties.GenerateDocs generateDocs = new ApiProperties.GenerateDocs(Duration.ofSeconds(1));
+    ApiProperties.GenerateDocs generateDocs =
+        new ApiProperties.GenerateDocs(Duration.ofSeconds(1), true);
     when(apiProperties.generateDocs()).thenReturn(generateDocs);
-    when(documentationService.generateFromUrl(eq(url), any())).thenReturn(Flux.error(ex));
+    when(documentationService.generateFromUrl(eq(url), any(), any())).thenReturn(Flux.error(ex));
 
     MvcResult mvcResult =
         mockMvc
@@ -129,15 +299,185 @@ class HomeControllerTest {
         .andExpect(model().attributeExists("errorMessage"));
   }
 
+  @Test
+  void generateDocsServesStaleDocumentationWhileProviderIsUnavailable() throws Exception {
+    // Arrange
+    String url = "https://example.com/api-docs";
+    Instant createdAt = Instant.parse("2026-01-01T02:00:00Z");
+    StoredResult stored = new StoredResult("abc", 3, url, "ollama", createdAt, 6, 26, "def");
+
+    ApiProperties.GenerateDocs generateDocs =
+        new ApiProperties.GenerateDocs(Duration.ofSeconds(1), true);
+    when(apiProperties.generateDocs()).thenReturn(generateDocs);
+    when(documentationService.generateFromUrl(eq(url), any(), any()))
+        .thenReturn(
+            Flux.error(new LlmUnavailableException("ollama/primary", Duration.ofSeconds(20))));
+    when(resultStore.findLatest(url)).thenReturn(Optional.of(stored));
+    when(resultStore.read(stored)).thenReturn(Optional.of("# Old docs"));
+
+    MvcResult mvcResult =
+        mockMvc
+            .perform(post("/generate-docs").param("url", url))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Act & Assert
+    mockMvc
+        .perform(asyncDispatch(mvcResult))
+        .andExpect(status().isOk())
+        .andExpect(view().name("result"))
+        .andExpect(model().attribute("markdown", "# Old docs"))
+        .andExpect(model().attribute("staleSince", createdAt))
+        .andExpect(model().attribute("resultUrl", "/results/abc/3"));
+  }
+
+  @Test
+  void generateDocsServesStaleDocumentationAfterTimeout() throws Exception {
+    // Arrange
+    String url = "https://example.com/api-docs";
+    Instant createdAt = Instant.parse("2026-01-01T02:00:00Z");
+    StoredResult stored = new StoredResult("abc", 3, url, "ollama", createdAt, 6, 26, "def");
+
+    ApiProperties.GenerateDocs generateDocs =
+        new ApiProperties.GenerateDocs(Duration.ofSeconds(1), true);
+    when(apiProperties.generateDocs()).thenReturn(generateDocs);
+    when(documentationService.generateFromUrl(eq(url), any(), any()))
+        .thenReturn(
+            Flux.error(
+                new InternalLlmException("Ollama LLM stream failed", new TimeoutException())));
+    when(resultStore.findLatest(url)).thenReturn(Optional.of(stored));
+    when(resultStore.read(stored)).thenReturn(Optional.of("# Old docs"));
+
+    MvcResult mvcResult =
+        mockMvc
+            .perform(post("/generate-docs").param("url", url))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Act & Assert
+    mockMvc
+        .perform(asyncDispatch(mvcResult))
+        .andExpect(status().isOk())
+        .andExpect(view().name("result"))
+        .andExpect(model().attribute("markdown", "# Old docs"))
+        .andExpect(model().attribute("staleSince", createdAt));
+  }
+
+  @Test
+  void generateDocsReadsStaleDocumentationOffTheNonBlockingThreadThatFailedGeneration()
+      throws Exception {
+    // Arrange
+    String url = "https://example.com/api-docs";
+    StoredResult stored = new StoredResult("abc", 3, url, "ollama", Instant.now(), 6, 26, "def");
+    AtomicBoolean readOnNonBlockingThread = new AtomicBoolean(true);
+
+    ApiProperties.GenerateDocs generateDocs =
+        new ApiProperties.GenerateDocs(Duration.ofSeconds(1), true);
+    when(apiProperties.generateDocs()).thenReturn(generateDocs);
+    when(documentationService.generateFromUrl(eq(url), any(), any()))
+        .thenReturn(
+            Flux.<String>error(
+                    new LlmUnavailableException("ollama/primary", Duration.ofSeconds(20)))
+                .subscribeOn(Schedulers.parallel()));
+    when(resultStore.findLatest(url))
+        .thenAnswer(
+            invocation -> {
+              readOnNonBlockingThread.set(Schedulers.isInNonBlockingThread());
+              return Optional.of(stored);
+            });
+    when(resultStore.read(stored)).thenReturn(Optional.of("# Old docs"));
+
+    MvcResult mvcResult =
+        mockMvc
+            .perform(post("/generate-docs").param("url", url))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Act & Assert
+    mockMvc
+        .perform(asyncDispatch(mvcResult))
+        .andExpect(view().name("result"))
+        .andExpect(model().attribute("markdown", "# Old docs"));
+    assertThat(readOnNonBlockingThread).isFalse();
+  }
+
+  @Test
+  void generateDocsServesStaleDocumentationWhenRequestTimesOut() throws Exception {
+    // Arrange
+    String url = "https://example.com/api-docs";
+    Instant createdAt = Instant.parse("2026-01-01T02:00:00Z");
+    StoredResult stored = new StoredResult("abc", 3, url, "ollama", createdAt, 6, 26, "def");
+    Sinks.Many<String> generation = Sinks.many().unicast().onBackpressureBuffer();
+
+    ApiProperties.GenerateDocs generateDocs =
+        new ApiProperties.GenerateDocs(Duration.ofSeconds(1), true);
+    when(apiProperties.generateDocs()).thenReturn(generateDocs);
+    when(documentationService.generateFromUrl(eq(url), any(), any()))
+        .thenReturn(generation.asFlux());
+    when(resultStore.findLatest(url)).thenReturn(Optional.of(stored));
+    when(resultStore.read(stored)).thenReturn(Optional.of("# Old docs"));
+
+    MvcResult mvcResult =
+        mockMvc
+            .perform(post("/generate-docs").param("url", url))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Act
+    MockAsyncContext asyncContext = (MockAsyncContext) mvcResult.getRequest().getAsyncContext();
+    for (AsyncListener listener : asyncContext.getListeners()) {
+      listener.onTimeout(new AsyncEvent(asyncContext));
+    }
+    generation.tryEmitNext("# New docs");
+    generation.tryEmitComplete();
+
+    // Assert
+    mockMvc
+        .perform(asyncDispatch(mvcResult))
+        .andExpect(status().isOk())
+        .andExpect(view().name("result"))
+        .andExpect(model().attribute("markdown", "# Old docs"))
+        .andExpect(model().attribute("staleSince", createdAt));
+  }
+
+  @Test
+  void generateDocsFailsFastWhenProviderIsUnavailableWithoutStoredDocumentation()
+      throws Exception {
+    // Arrange
+    String url = "https://example.com/api-docs";
+
+    ApiProperties.GenerateDocs generateDocs =
+        new ApiProperties.GenerateDocs(Duration.ofSeconds(1), true);
+    when(apiProperties.generateDocs()).thenReturn(generateDocs);
+    when(documentationService.generateFromUrl(eq(url), any(), any()))
+        .thenReturn(
+            Flux.error(new LlmUnavailableException("ollama/primary", Duration.ofSeconds(20))));
+    when(resultStore.findLatest(url)).thenReturn(Optional.empty());
+
+    MvcResult mvcResult =
+        mockMvc
+            .perform(post("/generate-docs").param("url", url))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Act & Assert
+    mockMvc
+        .perform(asyncDispatch(mvcResult))
+        .andExpect(status().isOk())
+        .andExpect(view().name("error"))
+        .andExpect(model().attribute("errorTitle", "AI provider unavailable"));
+  }
+
   @Test
   void generateDocsWithIllegalArgumentException() throws Exception {
     // Arrange
     String url = "https://example.com/api-docs";
     IllegalArgumentException ex = new IllegalArgumentException("Invalid provider");
 
-    ApiProperties.GenerateDocs generateDocs = new ApiProperties.GenerateDocs(Duration.ofSeconds(1));
+    ApiProperties.GenerateDocs generateDocs =
+        new ApiProperties.GenerateDocs(Duration.ofSeconds(1), true);
     when(apiProperties.generateDocs()).thenReturn(generateDocs);
-    when(documentationService.generateFromUrl(eq(url), any())).thenReturn(Flux.error(ex));
+    when(documentationService.generateFromUrl(eq(url), any(), any())).thenReturn(Flux.error(ex));
 
     MvcResult mvcResult =
         mockMvc
@@ -160,9 +500,10 @@ class HomeControllerTest {
     // Arrange
     String url = "https://example.com/api-docs";
 
-    ApiProperties.GenerateDocs generateDocs = new ApiProperties.GenerateDocs(Duration.ofSeconds(1));
+    ApiProperties.GenerateDocs generateDocs =
+        new ApiProperties.GenerateDocs(Duration.ofSeconds(1), true);
     when(apiProperties.generateDocs()).thenReturn(generateDocs);
-    when(documentationService.generateFromUrl(eq(url), any()))
+    when(documentationService.generateFromUrl(eq(url), any(), any()))
         .thenReturn(Flux.error(new RuntimeException("Unexpected")));
 
     MvcResult mvcResult =
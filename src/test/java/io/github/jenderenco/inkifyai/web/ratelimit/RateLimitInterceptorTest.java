@@ -0,0 +1,98 @@
+package io.github.jenderenco.inkifyai.web.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.jenderenco.inkifyai.web.ratelimit.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RateLimitInterceptorTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final RateLimitProperties properties =
+      new RateLimitProperties(
+          true,
+          "X-API-Key",
+          List.of("a", "b"),
+          Duration.ofMinutes(10),
+          List.of(new RateLimitProperties.Endpoint("/generate-docs/**", 1, Duration.ofMinutes(1))));
+  private final RateLimitInterceptor interceptor =
+      new RateLimitInterceptor(new RateLimiter(properties, meterRegistry), properties);
+
+  @Test
+  void rejectsRequestsOverLimitWith429() throws Exception {
+    // Arrange
+    MockHttpServletResponse first = new MockHttpServletResponse();
+    MockHttpServletResponse second = new MockHttpServletResponse();
+
+    // Act
+    boolean firstAllowed = interceptor.preHandle(request("/generate-docs", null), first, null);
+    boolean secondAllowed = interceptor.preHandle(request("/generate-docs", null), second, null);
+
+    // Assert
+    assertThat(firstAllowed).isTrue();
+    assertThat(first.getHeader(RateLimitInterceptor.REMAINING_HEADER)).isEqualTo("0");
+    assertThat(secondAllowed).isFalse();
+    assertThat(second.getStatus()).isEqualTo(429);
+    assertThat(second.getHeader(RateLimitInterceptor.LIMIT_HEADER)).isEqualTo("1");
+    assertThat(second.getHeader(RateLimitInterceptor.RETRY_AFTER_HEADER)).isEqualTo("60");
+    assertThat(meterRegistry.get("inkify.ratelimit.requests").tag("outcome", "limited").counter())
+        .extracting(Counter::count)
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  void limitsClientsSeparately() throws Exception {
+    // Arrange
+    interceptor.preHandle(request("/generate-docs", "a"), new MockHttpServletResponse(), null);
+
+    // Act & Assert
+    assertThat(
+            interceptor.preHandle(
+                request("/generate-docs", "b"), new MockHttpServletResponse(), null))
+        .isTrue();
+    assertThat(
+            interceptor.preHandle(
+                request("/generate-docs", "a"), new MockHttpServletResponse(), null))
+        .isFalse();
+  }
+
+  @Test
+  void limitsUnknownApiKeysByIp() throws Exception {
+    // Arrange
+    interceptor.preHandle(
+        request("/generate-docs", "random-1"), new MockHttpServletResponse(), null);
+
+    // Act & Assert
+    assertThat(
+            interceptor.preHandle(
+                request("/generate-docs", "random-2"), new MockHttpServletResponse(), null))
+        .isFalse();
+    assertThat(
+            interceptor.preHandle(
+                request("/generate-docs", "a"), new MockHttpServletResponse(), null))
+        .isTrue();
+  }
+
+  @Test
+  void ignoresUnlimitedEndpoints() throws Exception {
+    // Act & Assert
+    for (int i = 0; i < 3; i++) {
+      assertThat(interceptor.preHandle(request("/", null), new MockHttpServletResponse(), null))
+          .isTrue();
+    }
+  }
+
+  private static MockHttpServletRequest request(String path, String apiKey) {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+    if (apiKey != null) {
+      request.addHeader("X-API-Key", apiKey);
+    }
+    return request;
+  }
+}
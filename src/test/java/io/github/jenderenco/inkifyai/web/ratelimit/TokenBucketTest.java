@@ -0,0 +1,48 @@
+package io.github.jenderenco.inkifyai.web.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+  private static final long PERIOD = Duration.ofSeconds(2).toNanos();
+
+  @Test
+  void allowsBurstUpToCapacity() {
+    // Arrange
+    TokenBucket bucket = new TokenBucket(2, PERIOD, 0);
+
+    // Act & Assert
+    assertThat(bucket.tryConsume(0).remaining()).isEqualTo(1);
+    assertThat(bucket.tryConsume(0).remaining()).isZero();
+    RateLimitDecision limited = bucket.tryConsume(0);
+    assertThat(limited.allowed()).isFalse();
+    assertThat(limited.retryAfter()).isEqualTo(Duration.ofSeconds(1));
+  }
+
+  @Test
+  void refillsOverTime() {
+    // Arrange
+    TokenBucket bucket = new TokenBucket(2, PERIOD, 0);
+    bucket.tryConsume(0);
+    bucket.tryConsume(0);
+
+    // Act & Assert
+    assertThat(bucket.tryConsume(Duration.ofSeconds(1).toNanos()).allowed()).isTrue();
+    assertThat(bucket.tryConsume(Duration.ofSeconds(1).toNanos()).allowed()).isFalse();
+  }
+
+  @Test
+  void isIdleOnlyOnceRefilled() {
+    // Arrange
+    TokenBucket bucket = new TokenBucket(2, PERIOD, 0);
+    bucket.tryConsume(0);
+    long idle = Duration.ofMillis(500).toNanos();
+
+    // Act & Assert
+    assertThat(bucket.isIdle(Duration.ofMillis(600).toNanos(), idle)).isFalse();
+    assertThat(bucket.isIdle(Duration.ofSeconds(1).toNanos(), idle)).isTrue();
+  }
+}